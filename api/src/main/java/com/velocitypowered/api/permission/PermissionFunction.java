@@ -35,4 +35,25 @@ public interface PermissionFunction {
    * @return the value the permission is set to
    */
   Tristate getPermissionValue(String permission);
+
+  /**
+   * Finds the highest number {@code n} between {@code 1} and {@code max} (inclusive) for which
+   * the permission {@code prefix + n} is set to {@link Tristate#TRUE}.
+   *
+   * <p>The default implementation checks every number from {@code max} down. Permission
+   * providers that can look up all of a subject's permissions starting with a prefix should
+   * override this to resolve the value in a single lookup.</p>
+   *
+   * @param prefix the permission prefix, including any trailing separator
+   * @param max the highest number to consider
+   * @return the highest granted number, or {@code 0} if none is granted
+   */
+  default int getHighestNumericPermission(String prefix, int max) {
+    for (int i = max; i > 0; i--) {
+      if (getPermissionValue(prefix + i) == Tristate.TRUE) {
+        return i;
+      }
+    }
+    return 0;
+  }
 }
@@ -483,9 +483,19 @@ public interface Player extends
    * global priority is checked. If the player doesn't have a global priority
    * either, 0 is returned.
    *
+   * <p>Priorities are cached for a short while after they are looked up. Permission plugins
+   * should call {@link #invalidateQueuePriorities()} when the permissions of the player change,
+   * so that the change applies right away.</p>
+   *
    * @param server The server to check priority for
    *
    * @return Custom queue priority of player, or 0.
    */
   int getQueuePriority(String server);
+
+  /**
+   * Discards the cached queue priorities of this player, so that they are looked up again the
+   * next time they are needed.
+   */
+  void invalidateQueuePriorities();
 }
\ No newline at end of file
@@ -104,6 +104,41 @@ public interface TabList {
    */
   void clearAll();
 
+  /**
+   * Starts a batch of changes to this tab list. Until the matching {@link #commitBatch()}, entries
+   * that are added, removed or updated are not sent to the player right away. The changes are
+   * instead merged per entry and sent together, with a single flush, when the batch is committed.
+   *
+   * <p>Batches may be nested, in which case only the outermost commit sends the changes. The
+   * batch belongs to the tab list rather than to the calling thread, so changes made by other
+   * threads while a batch is open are sent along with it.</p>
+   */
+  default void beginBatch() {
+  }
+
+  /**
+   * Commits the batch started by {@link #beginBatch()}, sending every buffered change to the
+   * player.
+   *
+   * @throws IllegalStateException if no batch was started
+   */
+  default void commitBatch() {
+  }
+
+  /**
+   * Runs the given changes in a batch. See {@link #beginBatch()} for details.
+   *
+   * @param changes the changes to make to the tab list
+   */
+  default void batch(Runnable changes) {
+    beginBatch();
+    try {
+      changes.run();
+    } finally {
+      commitBatch();
+    }
+  }
+
   /**
    * Builds a tab list entry.
    *
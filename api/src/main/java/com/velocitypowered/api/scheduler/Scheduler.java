@@ -7,6 +7,7 @@
 
 package com.velocitypowered.api.scheduler;
 
+import com.velocitypowered.api.proxy.Player;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
@@ -104,6 +105,22 @@ public interface Scheduler {
      */
     TaskBuilder clearRepeat();
 
+    /**
+     * Specifies that the task should run on the thread handling the connection of the specified
+     * player, instead of on the executor of the plugin. This suits short tasks that mostly send
+     * packets to the player, as they no longer need to be handed over to that thread. The task
+     * shares the thread with many other connections, so it must never block.
+     *
+     * <p>This is only a hint: schedulers that can't run tasks on the thread of a connection run
+     * the task on the executor of the plugin as usual.</p>
+     *
+     * @param player the player whose connection thread should run the task
+     * @return this builder, for chaining
+     */
+    default TaskBuilder onEventLoop(@NotNull Player player) {
+      return this;
+    }
+
     /**
      * Schedules this task for execution.
      *
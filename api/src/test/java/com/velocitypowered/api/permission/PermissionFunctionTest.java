@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * The Velocity API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the api top-level directory.
+ */
+
+package com.velocitypowered.api.permission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PermissionFunctionTest {
+
+  private static PermissionFunction of(final Map<String, Tristate> permissions) {
+    return permission -> permissions.getOrDefault(permission, Tristate.UNDEFINED);
+  }
+
+  @Test
+  void findsHighestGrantedNumber() {
+    PermissionFunction function = of(Map.of(
+        "queue.priority.3", Tristate.TRUE,
+        "queue.priority.7", Tristate.TRUE,
+        "queue.priority.9", Tristate.FALSE));
+    assertEquals(7, function.getHighestNumericPermission("queue.priority.", 100));
+  }
+
+  @Test
+  void ignoresNumbersAboveMax() {
+    PermissionFunction function = of(Map.of(
+        "queue.priority.5", Tristate.TRUE,
+        "queue.priority.150", Tristate.TRUE));
+    assertEquals(5, function.getHighestNumericPermission("queue.priority.", 100));
+    assertEquals(100, of(Map.of("queue.priority.100", Tristate.TRUE))
+        .getHighestNumericPermission("queue.priority.", 100));
+  }
+
+  @Test
+  void returnsZeroWithoutGrantedNumber() {
+    assertEquals(0, PermissionFunction.ALWAYS_UNDEFINED
+        .getHighestNumericPermission("queue.priority.", 100));
+    assertEquals(0, PermissionFunction.ALWAYS_TRUE.getHighestNumericPermission("prefix.", 0));
+  }
+}
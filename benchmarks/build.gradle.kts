@@ -0,0 +1,18 @@
+plugins {
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmh(project(":velocity-api"))
+    jmh(project(":velocity-native"))
+    jmh(project(":velocity-proxy"))
+    jmh(libs.netty.codec)
+    jmh(libs.netty.handler)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // Allocation rates are as interesting as throughput for the codec pipeline
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.natives.encryption.VelocityCipherFactory;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCipherDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCipherEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MinecraftCipherEncoder} and {@link MinecraftCipherDecoder} with the Java and
+ * native ciphers. One operation is one full pass over the selected {@link PacketMix}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CipherBenchmark {
+
+  @Param({"CHUNK_BURST", "CHAT", "MOVEMENT"})
+  public PacketMix mix;
+
+  @Param({"JAVA", "NATIVE"})
+  public NativeImplementation implementation;
+
+  private List<ByteBuf> packets;
+  private ByteBuf stream;
+  private EmbeddedChannel encryptChannel;
+  private EmbeddedChannel decryptChannel;
+
+  /**
+   * Creates the packet mix, a framed copy of it and the ciphers under test.
+   *
+   * @throws GeneralSecurityException if the ciphers can't be created
+   */
+  @Setup(Level.Trial)
+  public void setup() throws GeneralSecurityException {
+    packets = mix.create(ProtocolVersion.MAXIMUM_VERSION);
+    stream = EmbeddedChannels.encodeToStream(
+        new EmbeddedChannel(MinecraftVarintLengthEncoder.INSTANCE), packets);
+
+    byte[] secret = new byte[16];
+    new Random(0xCAFEBABEL).nextBytes(secret);
+    SecretKey key = new SecretKeySpec(secret, "AES");
+    VelocityCipherFactory factory = implementation.cipher();
+    encryptChannel = new EmbeddedChannel(new MinecraftCipherEncoder(factory.forEncryption(key)));
+    decryptChannel = new EmbeddedChannel(new MinecraftCipherDecoder(factory.forDecryption(key)));
+  }
+
+  /**
+   * Releases the pipelines and all buffers.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    encryptChannel.finishAndReleaseAll();
+    decryptChannel.finishAndReleaseAll();
+    stream.release();
+    EmbeddedChannels.releaseAll(packets);
+  }
+
+  /**
+   * Encrypts every packet of the mix.
+   *
+   * @param counter the byte counter
+   * @return the number of bytes encrypted
+   */
+  @Benchmark
+  public long encrypt(final ByteCounter counter) {
+    // The cipher works in place, so the contents of the packets are scrambled after the first
+    // pass. That doesn't matter for AES/CFB8, which costs the same for any input.
+    EmbeddedChannels.writeAll(encryptChannel, packets);
+    long bytes = EmbeddedChannels.drainOutbound(encryptChannel);
+    counter.bytes += bytes;
+    return bytes;
+  }
+
+  /**
+   * Decrypts the framed stream.
+   *
+   * @param counter the byte counter
+   * @return the number of messages read
+   */
+  @Benchmark
+  public int decrypt(final ByteCounter counter) {
+    decryptChannel.writeInbound(stream.retainedDuplicate());
+    counter.bytes += stream.readableBytes();
+    return EmbeddedChannels.drainInbound(decryptChannel);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCompressDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCompressorAndLengthEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MinecraftCompressorAndLengthEncoder} and {@link MinecraftCompressDecoder} with
+ * the Java and native compressors. One operation is one full pass over the selected
+ * {@link PacketMix}; the byte counter reports uncompressed bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+  private static final int THRESHOLD = 256;
+
+  @Param({"CHUNK_BURST", "CHAT", "MOVEMENT"})
+  public PacketMix mix;
+
+  @Param({"JAVA", "NATIVE"})
+  public NativeImplementation implementation;
+
+  @Param({"-1", "6"})
+  public int level;
+
+  private List<ByteBuf> packets;
+  private long uncompressedBytes;
+  private ByteBuf compressedStream;
+  private EmbeddedChannel encoderChannel;
+  private EmbeddedChannel decoderChannel;
+
+  /**
+   * Creates the packet mix, a compressed copy of it and the pipelines under test.
+   */
+  @Setup(Level.Trial)
+  public void setup() {
+    packets = mix.create(ProtocolVersion.MAXIMUM_VERSION);
+    uncompressedBytes = PacketMix.totalBytes(packets);
+
+    compressedStream = EmbeddedChannels.encodeToStream(new EmbeddedChannel(
+        new MinecraftCompressorAndLengthEncoder(THRESHOLD, createCompressor())), packets);
+
+    encoderChannel = new EmbeddedChannel(
+        new MinecraftCompressorAndLengthEncoder(THRESHOLD, createCompressor()));
+    decoderChannel = new EmbeddedChannel(new MinecraftVarintFrameDecoder(),
+        new MinecraftCompressDecoder(THRESHOLD, createCompressor()));
+  }
+
+  private VelocityCompressor createCompressor() {
+    return implementation.compressor().create(level);
+  }
+
+  /**
+   * Releases the pipelines and all buffers.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    encoderChannel.finishAndReleaseAll();
+    decoderChannel.finishAndReleaseAll();
+    compressedStream.release();
+    EmbeddedChannels.releaseAll(packets);
+  }
+
+  /**
+   * Compresses and frames every packet of the mix.
+   *
+   * @param counter the byte counter
+   * @return the number of bytes written
+   */
+  @Benchmark
+  public long compress(final ByteCounter counter) {
+    EmbeddedChannels.writeAll(encoderChannel, packets);
+    counter.bytes += uncompressedBytes;
+    return EmbeddedChannels.drainOutbound(encoderChannel);
+  }
+
+  /**
+   * Splits and decompresses the compressed stream.
+   *
+   * @param counter the byte counter
+   * @return the number of packets read
+   */
+  @Benchmark
+  public int decompress(final ByteCounter counter) {
+    decoderChannel.writeInbound(compressedStream.retainedDuplicate());
+    counter.bytes += uncompressedBytes;
+    return EmbeddedChannels.drainInbound(decoderChannel);
+  }
+}
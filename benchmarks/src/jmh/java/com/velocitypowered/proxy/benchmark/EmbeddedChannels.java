@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.velocitypowered.proxy.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import java.util.List;
+
+/**
+ * Helpers for pushing data through an {@link EmbeddedChannel} from a benchmark.
+ */
+final class EmbeddedChannels {
+
+  private EmbeddedChannels() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Writes all {@code messages} to the channel, flushing once at the end. Each message is written
+   * as a retained duplicate, so the originals can be reused.
+   *
+   * @param channel the channel to write to
+   * @param messages the messages to write
+   */
+  static void writeAll(final EmbeddedChannel channel, final List<ByteBuf> messages) {
+    for (ByteBuf message : messages) {
+      channel.write(message.retainedDuplicate());
+    }
+    channel.flush();
+  }
+
+  /**
+   * Releases every message that made it out of the pipeline in the outbound direction.
+   *
+   * @param channel the channel to drain
+   * @return the number of bytes written out, if the messages were buffers
+   */
+  static long drainOutbound(final EmbeddedChannel channel) {
+    long bytes = 0;
+    Object msg;
+    while ((msg = channel.readOutbound()) != null) {
+      if (msg instanceof ByteBuf buf) {
+        bytes += buf.readableBytes();
+      }
+      ReferenceCountUtil.release(msg);
+    }
+    return bytes;
+  }
+
+  /**
+   * Releases every message that made it out of the pipeline in the inbound direction.
+   *
+   * @param channel the channel to drain
+   * @return the number of messages read
+   */
+  static int drainInbound(final EmbeddedChannel channel) {
+    int count = 0;
+    Object msg;
+    while ((msg = channel.readInbound()) != null) {
+      count++;
+      ReferenceCountUtil.release(msg);
+    }
+    return count;
+  }
+
+  /**
+   * Runs {@code packets} through the outbound side of {@code channel} and collects everything it
+   * writes into a single direct buffer, as the remote end would receive it.
+   *
+   * @param channel the channel to encode with, which is closed afterwards
+   * @param packets the packets to encode
+   * @return the encoded stream
+   */
+  static ByteBuf encodeToStream(final EmbeddedChannel channel, final List<ByteBuf> packets) {
+    writeAll(channel, packets);
+    ByteBuf stream = Unpooled.directBuffer();
+    ByteBuf encoded;
+    while ((encoded = channel.readOutbound()) != null) {
+      stream.writeBytes(encoded);
+      encoded.release();
+    }
+    channel.finishAndReleaseAll();
+    return stream;
+  }
+
+  /**
+   * Releases all {@code buffers}.
+   *
+   * @param buffers the buffers to release
+   */
+  static void releaseAll(final List<ByteBuf> buffers) {
+    for (ByteBuf buffer : buffers) {
+      buffer.release();
+    }
+    buffers.clear();
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.plugin.PluginContainer;
+import com.velocitypowered.proxy.event.VelocityEventManager;
+import com.velocitypowered.proxy.plugin.executor.PluginExecutors;
+import com.velocitypowered.proxy.plugin.loader.VelocityPluginContainer;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures firing an event whose handlers all run synchronously, as plugin message, chat and tab
+ * complete events do on the event loop for every packet. Run with the GC profiler to see the
+ * bytes allocated per fire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+  private static final Object PLUGIN = new Object();
+
+  @Param({"0", "1", "10"})
+  public int handlers;
+
+  private final BenchmarkEvent event = new BenchmarkEvent();
+  private final Consumer<BenchmarkEvent> callback = fired -> fired.completed++;
+  private VelocityEventManager eventManager;
+
+  /**
+   * An event fired for the benchmark.
+   */
+  public static final class BenchmarkEvent {
+
+    int handled;
+    int completed;
+  }
+
+  /**
+   * A listener whose handler never runs asynchronously.
+   */
+  public static final class SyncListener {
+
+    /**
+     * Handles the event.
+     *
+     * @param event the event
+     */
+    @Subscribe(async = false)
+    public void onEvent(final BenchmarkEvent event) {
+      event.handled++;
+    }
+  }
+
+  /**
+   * Creates the event manager and registers the handlers.
+   */
+  @Setup(Level.Trial)
+  public void setup() {
+    PluginContainer container = new VelocityPluginContainer(() -> "benchmark",
+        new PluginExecutors());
+    eventManager = new VelocityEventManager(new SinglePluginManager(PLUGIN, container));
+    for (int i = 0; i < handlers; i++) {
+      eventManager.register(PLUGIN, new SyncListener());
+    }
+  }
+
+  /**
+   * Fires the event and returns its future.
+   *
+   * @return the future of the event
+   */
+  @Benchmark
+  public CompletableFuture<BenchmarkEvent> fire() {
+    return eventManager.fire(event);
+  }
+
+  /**
+   * Fires the event with a callback on the current thread.
+   *
+   * @return the event
+   */
+  @Benchmark
+  public BenchmarkEvent fireWithCallback() {
+    eventManager.fire(event, ImmediateEventExecutor.INSTANCE, callback);
+    return event;
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures framing and packet decoding of an uncompressed, unencrypted clientbound stream. One
+ * operation is one full pass over the selected {@link PacketMix}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameDecoderBenchmark {
+
+  @Param({"CHUNK_BURST", "CHAT", "MOVEMENT"})
+  public PacketMix mix;
+
+  private ByteBuf stream;
+  private EmbeddedChannel frameChannel;
+  private EmbeddedChannel packetChannel;
+
+  /**
+   * Encodes the packet mix into a framed stream and sets up the decoding pipelines.
+   */
+  @Setup(Level.Trial)
+  public void setup() {
+    ProtocolVersion version = ProtocolVersion.MAXIMUM_VERSION;
+    List<ByteBuf> packets = mix.create(version);
+    stream = EmbeddedChannels.encodeToStream(
+        new EmbeddedChannel(MinecraftVarintLengthEncoder.INSTANCE), packets);
+    EmbeddedChannels.releaseAll(packets);
+
+    frameChannel = new EmbeddedChannel(new MinecraftVarintFrameDecoder());
+
+    MinecraftDecoder decoder = new MinecraftDecoder(ProtocolUtils.Direction.CLIENTBOUND);
+    decoder.setState(StateRegistry.PLAY);
+    decoder.setProtocolVersion(version);
+    packetChannel = new EmbeddedChannel(new MinecraftVarintFrameDecoder(), decoder);
+  }
+
+  /**
+   * Releases the pipelines and the encoded stream.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    frameChannel.finishAndReleaseAll();
+    packetChannel.finishAndReleaseAll();
+    stream.release();
+  }
+
+  /**
+   * Splits the stream into frames.
+   *
+   * @param counter the byte counter
+   * @return the number of frames read
+   */
+  @Benchmark
+  public int frames(final ByteCounter counter) {
+    frameChannel.writeInbound(stream.retainedDuplicate());
+    counter.bytes += stream.readableBytes();
+    return EmbeddedChannels.drainInbound(frameChannel);
+  }
+
+  /**
+   * Splits the stream into frames and decodes the packets known to the proxy.
+   *
+   * @param counter the byte counter
+   * @return the number of messages read
+   */
+  @Benchmark
+  public int packets(final ByteCounter counter) {
+    packetChannel.writeInbound(stream.retainedDuplicate());
+    counter.bytes += stream.readableBytes();
+    return EmbeddedChannels.drainInbound(packetChannel);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
+import com.velocitypowered.proxy.protocol.packet.chat.ChatType;
+import com.velocitypowered.proxy.protocol.packet.chat.ComponentHolder;
+import com.velocitypowered.proxy.protocol.packet.chat.SystemChatPacket;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MinecraftEncoder} on chat packets, including the component serialization done
+ * for every packet sent to a player. One operation is one batch of messages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinecraftEncoderBenchmark {
+
+  private static final int MESSAGES = 64;
+
+  @Param({"MINECRAFT_1_20_2", "MINECRAFT_1_21"})
+  public ProtocolVersion version;
+
+  private final List<Component> messages = new ArrayList<>();
+  private EmbeddedChannel channel;
+
+  /**
+   * Builds the chat messages and the encoding pipeline.
+   */
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(0xCAFEBABEL);
+    for (int i = 0; i < MESSAGES; i++) {
+      messages.add(Component.text()
+          .append(Component.text("[Server] ", NamedTextColor.GOLD, TextDecoration.BOLD))
+          .append(Component.text("Restarting in " + random.nextInt(60) + " seconds. ",
+              NamedTextColor.YELLOW))
+          .append(Component.text("Please reconnect afterwards!"))
+          .build());
+    }
+
+    MinecraftEncoder encoder = new MinecraftEncoder(ProtocolUtils.Direction.CLIENTBOUND);
+    encoder.setState(StateRegistry.PLAY);
+    encoder.setProtocolVersion(version);
+    channel = new EmbeddedChannel(encoder);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    channel.finishAndReleaseAll();
+  }
+
+  /**
+   * Encodes a batch of system chat messages as freshly created packets.
+   *
+   * @param counter the byte counter
+   * @return the number of bytes encoded
+   */
+  @Benchmark
+  public long systemChat(final ByteCounter counter) {
+    for (Component message : messages) {
+      channel.write(new SystemChatPacket(new ComponentHolder(version, message), ChatType.SYSTEM));
+    }
+    channel.flush();
+    long bytes = EmbeddedChannels.drainOutbound(channel);
+    counter.bytes += bytes;
+    return bytes;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.natives.compression.JavaVelocityCompressor;
+import com.velocitypowered.natives.compression.VelocityCompressorFactory;
+import com.velocitypowered.natives.encryption.JavaVelocityCipher;
+import com.velocitypowered.natives.encryption.VelocityCipherFactory;
+import com.velocitypowered.natives.util.Natives;
+
+/**
+ * The compression and encryption implementations to benchmark.
+ */
+public enum NativeImplementation {
+  /**
+   * The pure Java implementations.
+   */
+  JAVA {
+    @Override
+    VelocityCompressorFactory compressor() {
+      return JavaVelocityCompressor.FACTORY;
+    }
+
+    @Override
+    VelocityCipherFactory cipher() {
+      return JavaVelocityCipher.FACTORY;
+    }
+  },
+  /**
+   * Whatever {@link Natives} selects for this platform (libdeflate and OpenSSL where available).
+   */
+  NATIVE {
+    @Override
+    VelocityCompressorFactory compressor() {
+      return Natives.compress.get();
+    }
+
+    @Override
+    VelocityCipherFactory cipher() {
+      return Natives.cipher.get();
+    }
+  };
+
+  abstract VelocityCompressorFactory compressor();
+
+  abstract VelocityCipherFactory cipher();
+}
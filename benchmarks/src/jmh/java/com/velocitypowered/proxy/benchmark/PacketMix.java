@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
+import com.velocitypowered.proxy.protocol.packet.KeepAlivePacket;
+import com.velocitypowered.proxy.protocol.packet.chat.ChatType;
+import com.velocitypowered.proxy.protocol.packet.chat.ComponentHolder;
+import com.velocitypowered.proxy.protocol.packet.chat.SystemChatPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * Clientbound traffic patterns used to drive the codec benchmarks. Each mix is generated from a
+ * fixed seed, so runs are comparable with each other.
+ */
+public enum PacketMix {
+  /**
+   * A player loading terrain: large, fairly compressible chunk packets with a few entity updates in
+   * between.
+   */
+  CHUNK_BURST {
+    @Override
+    void generate(final Random random, final ProtocolVersion version, final List<ByteBuf> out) {
+      for (int i = 0; i < 32; i++) {
+        out.add(chunk(random));
+        out.add(movement(random));
+        out.add(movement(random));
+      }
+    }
+  },
+  /**
+   * A busy chat: system messages with some styling, interleaved with keep-alives.
+   */
+  CHAT {
+    @Override
+    void generate(final Random random, final ProtocolVersion version, final List<ByteBuf> out) {
+      EmbeddedChannel channel = new EmbeddedChannel(
+          new MinecraftEncoder(ProtocolUtils.Direction.CLIENTBOUND));
+      MinecraftEncoder encoder = channel.pipeline().get(MinecraftEncoder.class);
+      encoder.setState(StateRegistry.PLAY);
+      encoder.setProtocolVersion(version);
+      for (int i = 0; i < 256; i++) {
+        Component message = Component.text()
+            .append(Component.text("[" + PLAYER_NAMES[random.nextInt(PLAYER_NAMES.length)] + "] ",
+                NamedTextColor.GRAY))
+            .append(Component.text(CHAT_LINES[random.nextInt(CHAT_LINES.length)]))
+            .build();
+        channel.writeOutbound(new SystemChatPacket(new ComponentHolder(version, message),
+            ChatType.SYSTEM));
+        if (i % 32 == 0) {
+          KeepAlivePacket keepAlive = new KeepAlivePacket();
+          keepAlive.setRandomId(random.nextLong());
+          channel.writeOutbound(keepAlive);
+        }
+      }
+
+      ByteBuf encoded;
+      while ((encoded = channel.readOutbound()) != null) {
+        out.add(copyToDirect(encoded));
+      }
+      channel.finishAndReleaseAll();
+    }
+  },
+  /**
+   * Many small entity movement and rotation updates, as seen around a crowded spawn.
+   */
+  MOVEMENT {
+    @Override
+    void generate(final Random random, final ProtocolVersion version, final List<ByteBuf> out) {
+      for (int i = 0; i < 1024; i++) {
+        out.add(movement(random));
+      }
+    }
+  };
+
+  // Packet IDs the proxy does not decode in the PLAY state, so they take the passthrough path.
+  private static final int CHUNK_PACKET_ID = 0x27;
+  private static final int MOVEMENT_PACKET_ID = 0x2E;
+
+  private static final String[] PLAYER_NAMES = {
+      "Notch", "jeb_", "Dinnerbone", "Grumm", "kashike", "Tux", "astei", "electronicboy"
+  };
+  private static final String[] CHAT_LINES = {
+      "gg", "anyone want to trade diamonds for emeralds?", "lag?", "brb",
+      "the queue for survival is really long today",
+      "does anyone know where the nether portal at spawn went? I can't find it anywhere",
+  };
+
+  abstract void generate(Random random, ProtocolVersion version, List<ByteBuf> out);
+
+  /**
+   * Creates the packets for this mix. Each buffer holds a single packet, starting with its ID, as
+   * it would be seen between {@code MinecraftEncoder} and the compression handler.
+   *
+   * @param version the protocol version to generate packets for
+   * @return the packets of this mix
+   */
+  public List<ByteBuf> create(final ProtocolVersion version) {
+    List<ByteBuf> packets = new ArrayList<>();
+    generate(new Random(0xCAFEBABEL + ordinal()), version, packets);
+    return packets;
+  }
+
+  /**
+   * Returns the total number of bytes in {@code packets}.
+   *
+   * @param packets the packets to measure
+   * @return the number of readable bytes in all packets
+   */
+  public static long totalBytes(final List<ByteBuf> packets) {
+    long total = 0;
+    for (ByteBuf packet : packets) {
+      total += packet.readableBytes();
+    }
+    return total;
+  }
+
+  private static ByteBuf chunk(final Random random) {
+    ByteBuf buf = Unpooled.directBuffer();
+    ProtocolUtils.writeVarInt(buf, CHUNK_PACKET_ID);
+    buf.writeInt(random.nextInt(64) - 32);
+    buf.writeInt(random.nextInt(64) - 32);
+    // Paletted sections are mostly long runs of a handful of block states with some noise, which
+    // gives us roughly the compression ratio of real terrain.
+    int sections = 24;
+    for (int section = 0; section < sections; section++) {
+      buf.writeShort(random.nextInt(4096));
+      int paletteSize = 1 + random.nextInt(8);
+      buf.writeByte(4);
+      ProtocolUtils.writeVarInt(buf, paletteSize);
+      for (int i = 0; i < paletteSize; i++) {
+        ProtocolUtils.writeVarInt(buf, random.nextInt(20000));
+      }
+      long run = random.nextLong();
+      for (int i = 0; i < 256; i++) {
+        if (random.nextInt(8) == 0) {
+          run = random.nextLong();
+        }
+        buf.writeLong(run);
+      }
+    }
+    // Light data is mostly uniform
+    for (int i = 0; i < 2048 * 4; i++) {
+      buf.writeByte(random.nextInt(16) == 0 ? random.nextInt(256) : 0xFF);
+    }
+    return buf;
+  }
+
+  private static ByteBuf movement(final Random random) {
+    ByteBuf buf = Unpooled.directBuffer(16);
+    ProtocolUtils.writeVarInt(buf, MOVEMENT_PACKET_ID);
+    ProtocolUtils.writeVarInt(buf, random.nextInt(100000));
+    buf.writeShort(random.nextInt(8192) - 4096);
+    buf.writeShort(random.nextInt(256) - 128);
+    buf.writeShort(random.nextInt(8192) - 4096);
+    buf.writeBoolean(random.nextBoolean());
+    return buf;
+  }
+
+  private static ByteBuf copyToDirect(final ByteBuf encoded) {
+    try {
+      ByteBuf copy = Unpooled.directBuffer(encoded.readableBytes());
+      copy.writeBytes(encoded);
+      return copy;
+    } finally {
+      encoded.release();
+    }
+  }
+}
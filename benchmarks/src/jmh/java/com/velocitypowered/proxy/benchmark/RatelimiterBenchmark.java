@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.proxy.util.ratelimit.Ratelimiter;
+import com.velocitypowered.proxy.util.ratelimit.RatelimiterType;
+import com.velocitypowered.proxy.util.ratelimit.Ratelimiters;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the login rate-limiters under a connection flood. Every Netty worker thread attempts
+ * logins from a pool of 100,000 distinct addresses, so the table sees at least 100k distinct
+ * addresses per second while most attempts come from addresses that are already limited.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class RatelimiterBenchmark {
+
+  private static final int DISTINCT_ADDRESSES = 100_000;
+
+  @Param({"CAFFEINE", "STRIPED"})
+  public RatelimiterType type;
+
+  @Param({"IPV4", "IPV6"})
+  public AddressFamily family;
+
+  private Ratelimiter ratelimiter;
+  private InetAddress[] addresses;
+
+  /**
+   * The address family used for the flood.
+   */
+  public enum AddressFamily {
+    IPV4(4),
+    IPV6(16);
+
+    private final int length;
+
+    AddressFamily(final int length) {
+      this.length = length;
+    }
+  }
+
+  /**
+   * The position of a thread in the address pool. Each thread starts at a different offset.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+
+    private int next;
+
+    /**
+     * Picks the starting offset.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+      next = new SplittableRandom().nextInt(DISTINCT_ADDRESSES);
+    }
+  }
+
+  /**
+   * Creates the rate-limiter under test and the pool of addresses.
+   *
+   * @throws UnknownHostException if an address can't be created
+   */
+  @Setup(Level.Trial)
+  public void setup() throws UnknownHostException {
+    ratelimiter = Ratelimiters.createWithMilliseconds(3000, type, 1);
+
+    // Spread the IPv6 addresses over distinct /64 prefixes, otherwise the striped limiter would
+    // fold them into a handful of entries.
+    SplittableRandom random = new SplittableRandom(0xCAFEBABEL);
+    addresses = new InetAddress[DISTINCT_ADDRESSES];
+    for (int i = 0; i < DISTINCT_ADDRESSES; i++) {
+      byte[] bytes = new byte[family.length];
+      for (int j = 0; j < bytes.length; j++) {
+        bytes[j] = (byte) random.nextInt(256);
+      }
+      addresses[i] = InetAddress.getByAddress(bytes);
+    }
+  }
+
+  /**
+   * Attempts a login from the next address in the pool.
+   *
+   * @param cursor the position of this thread in the pool
+   * @return whether the login was allowed
+   */
+  @Benchmark
+  public boolean attempt(final Cursor cursor) {
+    int index = cursor.next;
+    cursor.next = index + 1 == DISTINCT_ADDRESSES ? 0 : index + 1;
+    return ratelimiter.attempt(addresses[index]);
+  }
+}
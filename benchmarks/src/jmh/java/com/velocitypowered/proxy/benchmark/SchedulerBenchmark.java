@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import com.velocitypowered.proxy.plugin.executor.PluginExecutors;
+import com.velocitypowered.proxy.plugin.loader.VelocityPluginContainer;
+import com.velocitypowered.proxy.scheduler.VelocityScheduler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures scheduling and cancelling a timer while 100,000 other timers are pending, as happens
+ * when plugins keep a timer per player. The scheduled executor the proxy used to schedule tasks
+ * with is included for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class SchedulerBenchmark {
+
+  private static final Object PLUGIN = new Object();
+  private static final int LIVE_TIMERS = 100_000;
+  private static final Runnable NOTHING = () -> { };
+
+  @Param({"VELOCITY", "SCHEDULED_EXECUTOR"})
+  public Implementation implementation;
+
+  private VelocityScheduler scheduler;
+  private ScheduledThreadPoolExecutor executor;
+  private final List<Object> liveTimers = new ArrayList<>();
+
+  /**
+   * The scheduler under test.
+   */
+  public enum Implementation {
+    VELOCITY,
+    SCHEDULED_EXECUTOR
+  }
+
+  /**
+   * The delays used by a thread.
+   */
+  @State(Scope.Thread)
+  public static class Delays {
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    long next() {
+      // Between one minute and one hour, so that none of the timers fire during the benchmark
+      return 60_000 + random.nextInt(3_540_000);
+    }
+  }
+
+  /**
+   * Creates the scheduler and fills it with timers.
+   */
+  @Setup(Level.Trial)
+  public void setup() {
+    VelocityPluginContainer container = new VelocityPluginContainer(() -> "benchmark",
+        new PluginExecutors());
+    container.setInstance(PLUGIN);
+    scheduler = new VelocityScheduler(new SinglePluginManager(PLUGIN, container));
+    executor = new ScheduledThreadPoolExecutor(1);
+    executor.setRemoveOnCancelPolicy(true);
+
+    Delays delays = new Delays();
+    for (int i = 0; i < LIVE_TIMERS; i++) {
+      liveTimers.add(schedule(delays.next()));
+    }
+  }
+
+  /**
+   * Cancels the timers and stops the scheduler.
+   *
+   * @throws InterruptedException if interrupted while shutting down
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    for (Object timer : liveTimers) {
+      cancel(timer);
+    }
+    scheduler.shutdown();
+    executor.shutdownNow();
+  }
+
+  private Object schedule(final long delay) {
+    if (implementation == Implementation.VELOCITY) {
+      return scheduler.buildTask(PLUGIN, NOTHING).delay(delay, TimeUnit.MILLISECONDS).schedule();
+    }
+    return executor.schedule(NOTHING, delay, TimeUnit.MILLISECONDS);
+  }
+
+  private static void cancel(final Object timer) {
+    if (timer instanceof ScheduledTask task) {
+      task.cancel();
+    } else {
+      ((ScheduledFuture<?>) timer).cancel(false);
+    }
+  }
+
+  /**
+   * Schedules a timer and cancels it again.
+   *
+   * @param delays the delays of this thread
+   * @return the cancelled timer
+   */
+  @Benchmark
+  public Object scheduleAndCancel(final Delays delays) {
+    Object timer = schedule(delays.next());
+    cancel(timer);
+    return timer;
+  }
+}
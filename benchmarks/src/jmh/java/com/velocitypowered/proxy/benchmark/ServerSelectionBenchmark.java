@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import com.velocitypowered.proxy.server.selection.ServerCandidates;
+import com.velocitypowered.proxy.server.selection.ServerSelectionType;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the fallback server selection strategies against the loop they replaced, which copied
+ * the players of both servers and looked up the index of the selected server on every
+ * comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerSelectionBenchmark {
+
+  private static final int PLAYERS = 1024;
+
+  @Param({"200"})
+  public int backends;
+
+  @Param({"LEGACY", "FIRST_AVAILABLE", "LEAST_POPULATED", "WEIGHTED_LEAST_CONNECTIONS",
+      "POWER_OF_TWO_CHOICES", "CONSISTENT_HASH"})
+  public String strategy;
+
+  private List<String> order;
+  private Map<String, RegisteredServer> servers;
+  private Map<RegisteredServer, Collection<Object>> connected;
+  private int[] loads;
+  private int[] weights;
+  private UUID[] players;
+  private ServerSelectionType type;
+  private final ServerCandidates candidates = new ServerCandidates();
+  private int nextPlayer;
+
+  /**
+   * Creates the backends, with between 0 and 200 players each and player caps between 100 and
+   * 300.
+   */
+  @Setup(Level.Trial)
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(0xCAFEBABEL);
+    order = new ArrayList<>(backends);
+    servers = new HashMap<>();
+    connected = new HashMap<>();
+    loads = new int[backends];
+    weights = new int[backends];
+    for (int i = 0; i < backends; i++) {
+      String name = "server-" + i;
+      RegisteredServer server = new VelocityRegisteredServer(null,
+          new ServerInfo(name, InetSocketAddress.createUnresolved("127.0.0.1", 25565 + i)));
+      order.add(name);
+      servers.put(name, server);
+      loads[i] = random.nextInt(200);
+      weights[i] = 100 + random.nextInt(200);
+
+      List<Object> onServer = new ArrayList<>(loads[i]);
+      for (int j = 0; j < loads[i]; j++) {
+        onServer.add(new Object());
+      }
+      connected.put(server, onServer);
+    }
+
+    players = new UUID[PLAYERS];
+    for (int i = 0; i < PLAYERS; i++) {
+      players[i] = new UUID(random.nextLong(), random.nextLong());
+    }
+    type = strategy.equals("LEGACY") ? null : ServerSelectionType.valueOf(strategy);
+  }
+
+  /**
+   * Selects a server for the next player.
+   *
+   * @return the selected server
+   */
+  @Benchmark
+  public RegisteredServer select() {
+    UUID player = players[nextPlayer];
+    nextPlayer = (nextPlayer + 1) & (PLAYERS - 1);
+    if (type == null) {
+      return order.isEmpty() ? null : servers.get(order.get(legacy("LEAST_POPULATED")));
+    }
+
+    candidates.clear();
+    for (int i = 0; i < order.size(); i++) {
+      candidates.add(servers.get(order.get(i)), i, loads[i], weights[i], false);
+    }
+    return candidates.server(type.select(candidates, player));
+  }
+
+  private int legacy(final String filter) {
+    RegisteredServer selected = null;
+    int index = 0;
+    for (String name : order) {
+      RegisteredServer server = servers.get(name);
+      if (selected == null) {
+        index = order.indexOf(name);
+        selected = server;
+        if (filter.equalsIgnoreCase("FIRST_AVAILABLE")) {
+          return index;
+        }
+      } else if (filter.equalsIgnoreCase("MOST_POPULATED")) {
+        if (playersConnected(server).size() > playersConnected(selected).size()) {
+          index = order.indexOf(name);
+          selected = server;
+        }
+      } else if (filter.equalsIgnoreCase("LEAST_POPULATED")) {
+        if (playersConnected(server).size() < playersConnected(selected).size()) {
+          index = order.indexOf(name);
+          selected = server;
+        }
+      }
+    }
+    return index;
+  }
+
+  // Mirrors RegisteredServer#getPlayersConnected(), which copies the players into a new list.
+  private Collection<Object> playersConnected(final RegisteredServer server) {
+    return ImmutableList.copyOf(connected.get(server));
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.benchmark;
+
+import com.velocitypowered.api.plugin.PluginContainer;
+import com.velocitypowered.api.plugin.PluginManager;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A plugin manager that knows a single plugin, for benchmarks that need to register things on
+ * behalf of a plugin.
+ */
+final class SinglePluginManager implements PluginManager {
+
+  private final Object plugin;
+  private final PluginContainer container;
+
+  SinglePluginManager(final Object plugin, final PluginContainer container) {
+    this.plugin = plugin;
+    this.container = container;
+  }
+
+  @Override
+  public Optional<PluginContainer> fromInstance(final Object instance) {
+    return instance == plugin ? Optional.of(container) : Optional.empty();
+  }
+
+  @Override
+  public Optional<PluginContainer> getPlugin(final String id) {
+    return container.getDescription().getId().equals(id) ? Optional.of(container)
+        : Optional.empty();
+  }
+
+  @Override
+  public Collection<PluginContainer> getPlugins() {
+    return List.of(container);
+  }
+
+  @Override
+  public boolean isLoaded(final String id) {
+    return getPlugin(id).isPresent();
+  }
+
+  @Override
+  public void addToClasspath(final Object plugin, final Path path) {
+    throw new UnsupportedOperationException();
+  }
+}
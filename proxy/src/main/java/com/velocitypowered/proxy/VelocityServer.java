@@ -59,12 +59,14 @@ import com.velocitypowered.proxy.command.builtin.VelocityCommand;
 import com.velocitypowered.proxy.config.ProxyAddress;
 import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.connection.client.PacketBroadcaster;
 import com.velocitypowered.proxy.connection.player.resourcepack.VelocityResourcePackInfo;
 import com.velocitypowered.proxy.connection.util.ServerListPingHandler;
 import com.velocitypowered.proxy.console.VelocityConsole;
 import com.velocitypowered.proxy.crypto.EncryptionUtils;
 import com.velocitypowered.proxy.event.VelocityEventManager;
 import com.velocitypowered.proxy.network.ConnectionManager;
+import com.velocitypowered.proxy.network.SessionServerClient;
 import com.velocitypowered.proxy.plugin.VelocityPluginManager;
 import com.velocitypowered.proxy.plugin.loader.VelocityPluginContainer;
 import com.velocitypowered.proxy.plugin.loader.VelocityPluginDescription;
@@ -79,7 +81,10 @@ import com.velocitypowered.proxy.redis.RedisManagerImpl;
 import com.velocitypowered.proxy.redis.multiproxy.MultiProxyHandler;
 import com.velocitypowered.proxy.redis.multiproxy.RedisPlayerSetTransferringRequest;
 import com.velocitypowered.proxy.scheduler.VelocityScheduler;
+import com.velocitypowered.proxy.server.BackendPingService;
 import com.velocitypowered.proxy.server.ServerMap;
+import com.velocitypowered.proxy.server.selection.ServerSelector;
+import com.velocitypowered.proxy.transfer.ProxyTransferPlanner;
 import com.velocitypowered.proxy.util.AddressUtil;
 import com.velocitypowered.proxy.util.ClosestLocaleMatcher;
 import com.velocitypowered.proxy.util.ResourceUtils;
@@ -125,6 +130,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.identity.Identity;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.translation.GlobalTranslator;
@@ -194,6 +200,9 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
   private final VelocityScheduler scheduler;
   private final VelocityChannelRegistrar channelRegistrar = new VelocityChannelRegistrar();
   private final ServerListPingHandler serverListPingHandler;
+  private final BackendPingService backendPingService;
+  private final ServerSelector serverSelector;
+  private final ProxyTransferPlanner proxyTransferPlanner;
   private final long startTime;
   private final Key translationRegistryKey = Key.key("velocity", "translations");
   private RedisManagerImpl redisManager;
@@ -210,6 +219,9 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     servers = new ServerMap(this);
     startTime = System.currentTimeMillis();
     serverListPingHandler = new ServerListPingHandler(this);
+    backendPingService = new BackendPingService(this);
+    serverSelector = new ServerSelector(this);
+    proxyTransferPlanner = new ProxyTransferPlanner(this);
     this.options = options;
   }
 
@@ -262,7 +274,8 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     PluginDescription description = new VelocityPluginDescription(
         "velocity", version.getName(), version.getVersion(), "The Velocity proxy",
         VELOCITY_URL, ImmutableList.of(version.getVendor()), Collections.emptyList(), null);
-    VelocityPluginContainer container = new VelocityPluginContainer(description);
+    VelocityPluginContainer container = new VelocityPluginContainer(description,
+        pluginManager.getExecutors());
     container.setInstance(VelocityVirtualPlugin.INSTANCE);
     return container;
   }
@@ -344,7 +357,8 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
 
     registerTranslations(true);
 
-    ipAttemptLimiter = Ratelimiters.createWithMilliseconds(configuration.getLoginRatelimit());
+    ipAttemptLimiter = Ratelimiters.createWithMilliseconds(configuration.getLoginRatelimit(),
+        configuration.getLoginRatelimiter(), configuration.getLoginRatelimitBurst());
     loadPlugins();
 
     // Go ahead and fire the proxy initialization event. We block since plugins should have a chance
@@ -488,6 +502,8 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
       }
 
       commandManager.setAnnounceProxyCommands(configuration.isAnnounceProxyCommands());
+      pluginManager.getExecutors().configure(configuration.getPluginExecutor(),
+          configuration.getPluginExecutorThreads());
     } catch (Exception e) {
       logger.error("Unable to read/load/save your velocity.toml. The server will shut down.", e);
       LogManager.shutdown();
@@ -536,6 +552,10 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     return this.cm.createWorker(group);
   }
 
+  public EventLoopGroup getWorkerGroup() {
+    return this.cm.getWorkerGroup();
+  }
+
   public ChannelInitializer<Channel> getBackendChannelInitializer() {
     return this.cm.backendChannelInitializer.get();
   }
@@ -544,6 +564,18 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     return serverListPingHandler;
   }
 
+  public BackendPingService getBackendPingService() {
+    return backendPingService;
+  }
+
+  public ServerSelector getServerSelector() {
+    return serverSelector;
+  }
+
+  public ProxyTransferPlanner getProxyTransferPlanner() {
+    return proxyTransferPlanner;
+  }
+
   public boolean isShutdown() {
     return shutdown;
   }
@@ -642,10 +674,12 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     }
 
     commandManager.setAnnounceProxyCommands(newConfiguration.isAnnounceProxyCommands());
-    ipAttemptLimiter = Ratelimiters.createWithMilliseconds(newConfiguration.getLoginRatelimit());
+    ipAttemptLimiter = Ratelimiters.createWithMilliseconds(newConfiguration.getLoginRatelimit(),
+        newConfiguration.getLoginRatelimiter(), newConfiguration.getLoginRatelimitBurst());
     this.configuration = newConfiguration;
     eventManager.fireAndForget(new ProxyReloadEvent());
     queueManager.reloadConfig();
+    serverListPingHandler.invalidate();
 
     if (!this.getConfiguration().getServerLinks().isEmpty()) {
       for (Player player : this.getAllPlayers()) {
@@ -814,34 +848,44 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
           player.disconnect(reason);
         }
       } else {
-        ProxyAddress chosen = getProxyAddressToUse();
-        if (chosen == null) {
-          for (ConnectedPlayer player : players) {
+        List<ConnectedPlayer> transferable = new ArrayList<>();
+        for (ConnectedPlayer player : players) {
+          if (player.getProtocolVersion().noLessThan(ProtocolVersion.MINECRAFT_1_20_5)) {
+            transferable.add(player);
+          } else {
             player.disconnect(reason);
           }
-          return;
         }
 
-        for (ConnectedPlayer player : players) {
-          if (player.getProtocolVersion().noLessThan(ProtocolVersion.MINECRAFT_1_20_5)) {
+        // Plan the whole batch at once, so that players are spread over the other proxies
+        // rather than all being sent to whichever looked best for the first player.
+        List<ProxyAddress> targets = proxyTransferPlanner.plan(transferable.size());
+        boolean transferring = false;
+        for (int i = 0; i < transferable.size(); i++) {
+          if (targets.get(i) != null) {
+            ConnectedPlayer player = transferable.get(i);
             String connectedServer = player.getConnectedServer() != null ? player.getConnectedServer().getServerInfo().getName() : null;
             getRedisManager().send(new RedisPlayerSetTransferringRequest(player.getUniqueId(), true,
                     connectedServer));
+            transferring = true;
           }
         }
 
-        try {
-          logger.log(Level.INFO, "Transferring all players to new proxy...");
-          Thread.sleep(1000);
-        } catch (InterruptedException e) {
-          throw new RuntimeException(e);
+        if (transferring) {
+          try {
+            logger.log(Level.INFO, "Transferring all players to other proxies...");
+            Thread.sleep(1000);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
         }
 
-        for (ConnectedPlayer player : players) {
-          if (player.getProtocolVersion().noLessThan(ProtocolVersion.MINECRAFT_1_20_5)) {
-            player.transferToHost(new InetSocketAddress(chosen.ip(), chosen.port()));
+        for (int i = 0; i < transferable.size(); i++) {
+          ProxyAddress target = targets.get(i);
+          if (target != null) {
+            transferable.get(i).transferToHost(new InetSocketAddress(target.ip(), target.port()));
           } else {
-            player.disconnect(reason);
+            transferable.get(i).disconnect(reason);
           }
         }
       }
@@ -869,6 +913,14 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
 
         timedOut = !scheduler.shutdown() || timedOut;
 
+        if (queueManager != null) {
+          queueManager.shutdown();
+        }
+
+        if (redisManager != null) {
+          redisManager.shutdown();
+        }
+
         if (timedOut) {
           logger.error("Your plugins took over 10 seconds to shut down.");
         }
@@ -914,41 +966,6 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     shutdown(true);
   }
 
-  private ProxyAddress getProxyAddressToUse() {
-    final String filter = getConfiguration().getDynamicProxyFilter();
-    final List<ProxyAddress> addresses = new ArrayList<>(getConfiguration().getProxyAddresses().stream().toList());
-    addresses.removeIf(address -> Objects.requireNonNull(getMultiProxyHandler().getOwnProxyId()).equalsIgnoreCase(address.proxyId()));
-
-    switch (filter) {
-      case "MOST_EMPTY" -> addresses.sort((o1, o2) -> {
-        int connectedSize1 = getMultiProxyHandler().getAllPlayers().stream().filter(i ->
-            i.getProxyId().equalsIgnoreCase(o1.proxyId())).toList().size();
-
-        int connectedSize2 = getMultiProxyHandler().getAllPlayers().stream().filter(i ->
-            i.getProxyId().equalsIgnoreCase(o2.proxyId())).toList().size();
-
-        return Long.compare(connectedSize1, connectedSize2);
-      });
-      case "LEAST_EMPTY" -> addresses.sort((o1, o2) -> {
-        int connectedSize1 = getMultiProxyHandler().getAllPlayers().stream().filter(i ->
-            i.getProxyId().equalsIgnoreCase(o1.proxyId())).toList().size();
-
-        int connectedSize2 = getMultiProxyHandler().getAllPlayers().stream().filter(i ->
-            i.getProxyId().equalsIgnoreCase(o2.proxyId())).toList().size();
-
-        return Long.compare(connectedSize2, connectedSize1);
-      });
-      case "NONE" -> {
-        return null;
-      }
-      default -> {
-
-      }
-    }
-
-    return addresses.get(0);
-  }
-
   @Override
   public void closeListeners() {
     this.cm.closeEndpoints(false);
@@ -958,6 +975,10 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     return cm.createHttpClient();
   }
 
+  public SessionServerClient getSessionServerClient() {
+    return cm.getSessionServerClient();
+  }
+
   public Ratelimiter getIpAttemptLimiter() {
     return ipAttemptLimiter;
   }
@@ -1117,6 +1138,31 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     return configuration.getBind();
   }
 
+  @Override
+  public void sendMessage(final @NonNull Component message) {
+    Preconditions.checkNotNull(message, "message");
+    this.console.sendMessage(message);
+    PacketBroadcaster.broadcast(connectionsByUuid.values(),
+        player -> player.createMessagePacket(Identity.nil(), message));
+  }
+
+  @Override
+  public void sendMessage(final @NonNull Identity identity, final @NonNull Component message) {
+    Preconditions.checkNotNull(identity, "identity");
+    Preconditions.checkNotNull(message, "message");
+    this.console.sendMessage(identity, message);
+    PacketBroadcaster.broadcast(connectionsByUuid.values(),
+        player -> player.createMessagePacket(identity, message));
+  }
+
+  @Override
+  public void sendActionBar(final @NonNull Component message) {
+    Preconditions.checkNotNull(message, "message");
+    this.console.sendActionBar(message);
+    PacketBroadcaster.broadcast(connectionsByUuid.values(),
+        player -> player.createActionBarPacket(message));
+  }
+
   @Override
   public @NonNull Iterable<? extends Audience> audiences() {
     Collection<Audience> audiences = new ArrayList<>(this.getPlayerCount() + 1);
@@ -19,6 +19,7 @@ package com.velocitypowered.proxy.adventure;
 
 import com.google.common.collect.MapMaker;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.connection.client.PacketBroadcaster;
 import com.velocitypowered.proxy.protocol.packet.BossBarPacket;
 import com.velocitypowered.proxy.protocol.packet.chat.ComponentHolder;
 import java.util.Collections;
@@ -98,15 +99,11 @@ public final class VelocityBossBarImplementation implements BossBar.Listener,
       final @NotNull Component oldName,
       final @NotNull Component newName
   ) {
-    for (final ConnectedPlayer viewer : this.viewers) {
-      final Component translated = viewer.translateMessage(newName);
-      final BossBarPacket packet = BossBarPacket.createUpdateNamePacket(
-          this.id,
-          this.bar,
-          new ComponentHolder(viewer.getProtocolVersion(), translated)
-      );
-      viewer.getConnection().write(packet);
-    }
+    PacketBroadcaster.broadcast(this.viewers, viewer -> BossBarPacket.createUpdateNamePacket(
+        this.id,
+        this.bar,
+        new ComponentHolder(viewer.getProtocolVersion(), viewer.translateMessage(newName))
+    ));
   }
 
   @Override
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.command;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import com.mojang.brigadier.tree.RootCommandNode;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.PreEncodedPacket;
+import com.velocitypowered.proxy.protocol.packet.AvailableCommandsPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the command graphs sent to players after the proxy commands have been injected into
+ * them.
+ *
+ * <p>Entries are keyed by the backend server, the protocol version, the graph sent by the backend
+ * and the {@linkplain CommandGraphInjector#fingerprint(Object) fingerprint} of the proxy commands
+ * visible to the player. Players switching to the same server with the same permissions therefore
+ * share a single encoded packet instead of each deserializing, injecting and serializing the
+ * graph again.</p>
+ */
+public final class AvailableCommandsCache {
+
+  private static final long MAXIMUM_WEIGHT_BYTES = 32 * 1024 * 1024;
+
+  private final CommandGraphInjector<CommandSource> injector;
+  private final Cache<Key, Rewritten> cache = Caffeine.newBuilder()
+      .maximumWeight(MAXIMUM_WEIGHT_BYTES)
+      .weigher((Key key, Rewritten rewritten) ->
+          key.graph().bytes().length + rewritten.encoded().readableBytes())
+      .expireAfterAccess(10, TimeUnit.MINUTES)
+      .build();
+
+  AvailableCommandsCache(final CommandGraphInjector<CommandSource> injector) {
+    this.injector = Preconditions.checkNotNull(injector, "injector");
+  }
+
+  /**
+   * Injects the proxy commands visible to the given source into a command graph received from a
+   * backend server, and returns the packet to send to the player.
+   *
+   * @param server the name of the server the graph was received from
+   * @param commands the packet received from the server, which must not have been deserialized
+   * @param source the player to inject the commands for
+   * @param version the protocol version of the player
+   * @return the encoded packet, ready to be written to the player
+   */
+  public PreEncodedPacket rewrite(final String server, final AvailableCommandsPacket commands,
+      final CommandSource source, final ProtocolVersion version) {
+    byte[] graph = commands.getEncodedGraph();
+    Preconditions.checkArgument(graph != null, "command graph was already deserialized");
+
+    Key key = new Key(server, version, new Graph(graph), injector.fingerprint(source));
+    Rewritten rewritten = cache.get(key, k -> inject(commands, source, version));
+    // The shared buffer can't be released, so every player can be handed a plain duplicate.
+    return new PreEncodedPacket(rewritten.encoded().duplicate(), rewritten.packet(),
+        StateRegistry.PLAY, version);
+  }
+
+  private Rewritten inject(final AvailableCommandsPacket commands, final CommandSource source,
+      final ProtocolVersion version) {
+    RootCommandNode<CommandSource> rootNode = commands.getRootNode();
+    injector.inject(rootNode, source);
+    rootNode.removeChildByName("velocity:callback");
+
+    byte[] body;
+    ByteBuf buf = Unpooled.buffer();
+    try {
+      commands.encode(buf, ProtocolUtils.Direction.CLIENTBOUND, version);
+      body = ByteBufUtil.getBytes(buf);
+    } finally {
+      buf.release();
+    }
+
+    ByteBuf packetId = Unpooled.buffer(5);
+    ProtocolUtils.writeVarInt(packetId, StateRegistry.PLAY
+        .getProtocolRegistry(ProtocolUtils.Direction.CLIENTBOUND, version)
+        .getPacketId(commands));
+    ByteBuf encoded = Unpooled.unreleasableBuffer(
+        Unpooled.wrappedBuffer(packetId, Unpooled.wrappedBuffer(body)));
+    return new Rewritten(new AvailableCommandsPacket(body, version), encoded);
+  }
+
+  private record Key(String server, ProtocolVersion version, Graph graph,
+                     CommandGraphInjector.Fingerprint visible) {
+  }
+
+  private record Graph(byte[] bytes, long hash) {
+
+    Graph(final byte[] bytes) {
+      this(bytes, Hashing.murmur3_128().hashBytes(bytes).asLong());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Graph other && hash == other.hash && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(hash);
+    }
+  }
+
+  private record Rewritten(AvailableCommandsPacket packet, ByteBuf encoded) {
+  }
+}
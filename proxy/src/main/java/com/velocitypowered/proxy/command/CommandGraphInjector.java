@@ -27,8 +27,11 @@ import com.mojang.brigadier.tree.CommandNode;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import com.mojang.brigadier.tree.RootCommandNode;
 import com.velocitypowered.proxy.command.brigadier.VelocityArgumentCommandNode;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -46,6 +49,7 @@ public final class CommandGraphInjector<S> {
 
   private final @GuardedBy("lock") CommandDispatcher<S> dispatcher;
   private final Lock lock;
+  private volatile long generation;
 
   CommandGraphInjector(final CommandDispatcher<S> dispatcher, final Lock lock) {
     this.dispatcher = Preconditions.checkNotNull(dispatcher, "dispatcher");
@@ -105,6 +109,84 @@ public final class CommandGraphInjector<S> {
     }
   }
 
+  /**
+   * Computes a fingerprint of the nodes {@link #inject(RootCommandNode, Object)} would add for the
+   * given source. Injecting for two sources with equal fingerprints yields equal graphs, so the
+   * fingerprint can be used to share the result of an injection between sources.
+   *
+   * <p>The fingerprint records the outcome of every requirement check {@code inject} would
+   * perform, in the order it would perform them, and the generation of the dispatcher graph those
+   * checks were made against.</p>
+   *
+   * @param source the command source to fingerprint
+   * @return the fingerprint
+   */
+  public Fingerprint fingerprint(final S source) {
+    lock.lock();
+    try {
+      final BitSet usable = new BitSet();
+      final int[] checks = new int[1];
+      final Set<CommandNode<S>> done = Collections.newSetFromMap(new IdentityHashMap<>());
+      final RootCommandNode<S> origin = this.dispatcher.getRoot();
+      final CommandContextBuilder<S> rootContext =
+          new CommandContextBuilder<>(this.dispatcher, source, origin, 0);
+
+      for (final CommandNode<S> node : origin.getChildren()) {
+        if (!record(usable, checks, node.canUse(source))) {
+          continue;
+        }
+
+        final CommandContextBuilder<S> context = rootContext.copy()
+            .withNode(node, ALIAS_RANGE);
+        if (!record(usable, checks, node.canUse(context, ALIAS_READER))) {
+          continue;
+        }
+
+        if (VelocityCommands.getArgumentsNode((LiteralCommandNode<S>) node) == null) {
+          this.fingerprintChildren(node, source, usable, checks, done);
+        }
+      }
+      return new Fingerprint(this.generation, checks[0], usable);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void fingerprintNode(final CommandNode<S> node, final S source, final BitSet usable,
+      final int[] checks, final Set<CommandNode<S>> done) {
+    if (done.contains(node) || !record(usable, checks, node.canUse(source))) {
+      return;
+    }
+    done.add(node);
+    if (node.getRedirect() != null) {
+      this.fingerprintNode(node.getRedirect(), source, usable, checks, done);
+    }
+    this.fingerprintChildren(node, source, usable, checks, done);
+  }
+
+  private void fingerprintChildren(final CommandNode<S> parent, final S source,
+      final BitSet usable, final int[] checks, final Set<CommandNode<S>> done) {
+    for (final CommandNode<S> child : parent.getChildren()) {
+      this.fingerprintNode(child, source, usable, checks, done);
+    }
+  }
+
+  private static boolean record(final BitSet usable, final int[] checks, final boolean result) {
+    if (result) {
+      usable.set(checks[0]);
+    }
+    checks[0]++;
+    return result;
+  }
+
+  /**
+   * Notes that the dispatcher graph changed, which invalidates all previously computed
+   * fingerprints. Must be called while holding the write lock of the dispatcher.
+   */
+  void graphChanged() {
+    this.generation++;
+  }
+
   private @Nullable CommandNode<S> filterNode(final CommandNode<S> node, final S source, final Map<CommandNode<S>, CommandNode<S>> done) {
     if (done.containsKey(node)) {
       return done.get(node);
@@ -144,4 +226,14 @@ public final class CommandGraphInjector<S> {
     dest.removeChildByName(node.getName());
     dest.addChild(node);
   }
+
+  /**
+   * The outcome of the requirement checks made when injecting commands for a source.
+   *
+   * @param generation the generation of the dispatcher graph the checks were made against
+   * @param checks the number of requirement checks made
+   * @param usable the indices of the checks that passed
+   */
+  public record Fingerprint(long generation, int checks, BitSet usable) {
+  }
 }
@@ -76,6 +76,7 @@ public class VelocityCommandManager implements CommandManager {
   private final List<CommandRegistrar<?>> registrars;
   private final SuggestionsProvider<CommandSource> suggestionsProvider;
   private final CommandGraphInjector<CommandSource> injector;
+  private final AvailableCommandsCache availableCommandsCache;
   private final Map<String, CommandMeta> commandMetas;
   private final PluginManager pluginManager;
 
@@ -97,6 +98,7 @@ public class VelocityCommandManager implements CommandManager {
         new RawCommandRegistrar(root, this.lock.writeLock()));
     this.suggestionsProvider = new SuggestionsProvider<>(this.dispatcher, this.lock.readLock());
     this.injector = new CommandGraphInjector<>(this.dispatcher, this.lock.readLock());
+    this.availableCommandsCache = new AvailableCommandsCache(this.injector);
     this.commandMetas = new ConcurrentHashMap<>();
   }
 
@@ -158,7 +160,14 @@ public class VelocityCommandManager implements CommandManager {
   private <T extends Command> void internalRegister(final CommandRegistrar<T> registrar,
       final Command command, final CommandMeta meta) {
     final Class<T> superInterface = registrar.registrableSuperInterface();
-    registrar.register(meta, superInterface.cast(command));
+    // The registrar takes the write lock as well, which is reentrant.
+    lock.writeLock().lock();
+    try {
+      registrar.register(meta, superInterface.cast(command));
+      injector.graphChanged();
+    } finally {
+      lock.writeLock().unlock();
+    }
     for (String alias : meta.getAliases()) {
       commandMetas.put(alias, meta);
     }
@@ -184,6 +193,7 @@ public class VelocityCommandManager implements CommandManager {
       // the removed literal in the graph.
       dispatcher.getRoot().removeChildByName(alias.toLowerCase(Locale.ENGLISH));
       commandMetas.remove(alias);
+      injector.graphChanged();
     } finally {
       lock.writeLock().unlock();
     }
@@ -202,6 +212,7 @@ public class VelocityCommandManager implements CommandManager {
           dispatcher.getRoot().removeChildByName(lowercased);
         }
       }
+      injector.graphChanged();
     } finally {
       lock.writeLock().unlock();
     }
@@ -387,6 +398,10 @@ public class VelocityCommandManager implements CommandManager {
     return injector;
   }
 
+  public AvailableCommandsCache getAvailableCommandsCache() {
+    return availableCommandsCache;
+  }
+
   private Executor getAsyncExecutor(final ParseResults<CommandSource> parse) {
     Object registrant;
     if (parse.getContext().getCommand() instanceof VelocityBrigadierCommandWrapper vbcw) {
@@ -398,12 +398,10 @@ public class SendCommand {
           return -1;
         }
         int amountDone = 0;
-        List<MultiProxyHandler.RemotePlayerInfo> list = this.server.getMultiProxyHandler().getAllPlayers();
-        for (final MultiProxyHandler.RemotePlayerInfo p : list) {
-          if (p.getServerName().equalsIgnoreCase(connectedServer.get().getServerInfo().getName())) {
-            this.server.getRedisManager().send(new RedisSwitchServerRequest(p.getName(), connectedServer.get().getServerInfo().getName()));
-            amountDone++;
-          }
+        String connectedName = connectedServer.get().getServerInfo().getName();
+        for (final MultiProxyHandler.RemotePlayerInfo p : this.server.getMultiProxyHandler().getServerPlayers(connectedName)) {
+          this.server.getRedisManager().send(new RedisSwitchServerRequest(p.getName(), connectedName));
+          amountDone++;
         }
 
         context.getSource().sendMessage(Component.translatable(amountDone == 1
@@ -465,12 +463,9 @@ public class SendCommand {
     }
 
     int amountDone = 0;
-    List<MultiProxyHandler.RemotePlayerInfo> list = this.server.getMultiProxyHandler().getAllPlayers();
-    for (final MultiProxyHandler.RemotePlayerInfo p : list) {
-      if (p.getServerName().equalsIgnoreCase(name)) {
-        this.server.getRedisManager().send(new RedisSwitchServerRequest(p.getName(), targetServer.getServerInfo().getName()));
-        amountDone++;
-      }
+    for (final MultiProxyHandler.RemotePlayerInfo p : this.server.getMultiProxyHandler().getServerPlayers(name)) {
+      this.server.getRedisManager().send(new RedisSwitchServerRequest(p.getName(), targetServer.getServerInfo().getName()));
+      amountDone++;
     }
 
     if (amountDone == 0) {
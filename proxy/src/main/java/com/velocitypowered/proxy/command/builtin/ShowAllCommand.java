@@ -137,14 +137,9 @@ public class ShowAllCommand {
     }
 
     final RegisteredServer server = maybeServer.orElse(null);
-    int connectedPlayers = 0;
-    List<MultiProxyHandler.RemotePlayerInfo> list = this.server.getMultiProxyHandler().getAllPlayers();
-    for (MultiProxyHandler.RemotePlayerInfo info : list) {
-      if (info.getServerName().equalsIgnoreCase(server.getServerInfo().getName())) {
-        connectedPlayers += 1;
-      }
-    }
-
+    List<MultiProxyHandler.RemotePlayerInfo> list = List.copyOf(
+        this.server.getMultiProxyHandler().getServerPlayers(server.getServerInfo().getName()));
+    int connectedPlayers = list.size();
 
     final Component header = Component.translatable(connectedPlayers == 0 ? "velocity.command.showall.header-none"
                     : (connectedPlayers == 1 ? "velocity.command.showall.header-singular"
@@ -539,7 +539,7 @@ public final class VelocityCommand {
     }
   }
 
-  private record Dump(ProxyServer server) implements Command<CommandSource> {
+  private record Dump(VelocityServer server) implements Command<CommandSource> {
     private static final Logger logger = LogManager.getLogger(Dump.class);
 
 
@@ -569,6 +569,12 @@ public final class VelocityCommand {
       final JsonObject dump = new JsonObject();
       dump.add("versionInfo", InformationUtils.collectProxyInfo(server.getVersion()));
       dump.add("platform", InformationUtils.collectEnvironmentInfo());
+      dump.add("encoder", InformationUtils.collectEncoderStats());
+      dump.add("sessionServer",
+          InformationUtils.collectSessionServerStats(server.getSessionServerClient()));
+      if (server.getRedisManager().isEnabled()) {
+        dump.add("redis", InformationUtils.collectRedisStats(server.getRedisManager()));
+      }
       dump.add("config", proxyConfig);
       dump.add("plugins", InformationUtils.collectPluginInfo(server));
 
@@ -19,7 +19,15 @@ package com.velocitypowered.proxy.config;
 
 /**
  * Holds the available proxy information.
+ *
+ * @param proxyId the ID of the proxy
+ * @param ip the host players are transferred to
+ * @param port the port players are transferred to
+ * @param maxPlayers the maximum number of players of the proxy, or {@code 0} if it is not known
  */
-public record ProxyAddress(String proxyId, String ip, int port) {
+public record ProxyAddress(String proxyId, String ip, int port, int maxPlayers) {
 
+  public ProxyAddress(final String proxyId, final String ip, final int port) {
+    this(proxyId, ip, port, 0);
+  }
 }
@@ -33,7 +33,12 @@ import com.velocitypowered.proxy.config.migration.KeyAuthenticationMigration;
 import com.velocitypowered.proxy.config.migration.MiniMessageTranslationsMigration;
 import com.velocitypowered.proxy.config.migration.MotdMigration;
 import com.velocitypowered.proxy.config.migration.TransferIntegrationMigration;
+import com.velocitypowered.proxy.plugin.executor.PluginExecutorType;
+import com.velocitypowered.proxy.queue.QueueStorageType;
+import com.velocitypowered.proxy.server.selection.ServerSelectionType;
+import com.velocitypowered.proxy.transfer.ProxyTransferType;
 import com.velocitypowered.proxy.util.AddressUtil;
+import com.velocitypowered.proxy.util.ratelimit.RatelimiterType;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -125,7 +130,9 @@ public final class VelocityConfiguration implements ProxyConfig {
   @Expose
   private List<ProxyAddress> proxyAddresses = new ArrayList<>();
   @Expose
-  private String dynamicProxyFilter;
+  private ProxyTransferType dynamicProxyFilter = ProxyTransferType.MOST_EMPTY;
+  @Expose
+  private double dynamicProxyHeadroom = 0.1;
   @Expose
   private Map<String, Integer> playerCaps;
 
@@ -152,7 +159,8 @@ public final class VelocityConfiguration implements ProxyConfig {
       final boolean logOfflineConnections, final boolean disableForge, final boolean enforceChatSigning,
       final boolean translateHeaderFooter, final boolean logMinimumVersion, final String minimumVersion,
       final Redis redis, final Queue queue, final Map<String, List<String>> slashServers, List<ServerLink> serverLinks,
-                                List<ProxyAddress> proxyAddresses, String dynamicProxyFilter, Map<String, Integer> playerCaps) {
+                                List<ProxyAddress> proxyAddresses, ProxyTransferType dynamicProxyFilter,
+                                double dynamicProxyHeadroom, Map<String, Integer> playerCaps) {
     this.bind = bind;
     this.motd = motd;
     this.motdHover = motdHover;
@@ -186,6 +194,7 @@ public final class VelocityConfiguration implements ProxyConfig {
     this.serverLinks = serverLinks;
     this.proxyAddresses = proxyAddresses;
     this.dynamicProxyFilter = dynamicProxyFilter;
+    this.dynamicProxyHeadroom = dynamicProxyHeadroom;
     this.playerCaps = playerCaps;
   }
 
@@ -328,6 +337,61 @@ public final class VelocityConfiguration implements ProxyConfig {
       valid = false;
     }
 
+    if (advanced.loginRatelimitBurst < 1) {
+      logger.error("Invalid login ratelimit burst {}", advanced.loginRatelimitBurst);
+      valid = false;
+    }
+
+    if (advanced.backendPingCacheTtl < 0) {
+      logger.error("Invalid backend ping cache TTL {}ms", advanced.backendPingCacheTtl);
+      valid = false;
+    }
+
+    if (dynamicProxyHeadroom < 0 || dynamicProxyHeadroom > 1) {
+      logger.error("Invalid dynamic proxy headroom {}, it must be between 0 and 1", dynamicProxyHeadroom);
+      valid = false;
+    }
+
+    if (advanced.pluginExecutorThreads < 1) {
+      logger.error("Invalid plugin executor thread count {}", advanced.pluginExecutorThreads);
+      valid = false;
+    }
+
+    if (redis.enabled && redis.dispatcherThreads < 1) {
+      logger.error("Invalid Redis dispatcher thread count {}", redis.dispatcherThreads);
+      valid = false;
+    }
+
+    if (redis.enabled && redis.publishQueueCapacity < 1) {
+      logger.error("Invalid Redis publish queue capacity {}", redis.publishQueueCapacity);
+      valid = false;
+    }
+
+    if (redis.enabled && redis.publishMaxBatch < 1) {
+      logger.error("Invalid Redis publish batch size {}", redis.publishMaxBatch);
+      valid = false;
+    }
+
+    if (redis.enabled && redis.publishMaxLatency < 0) {
+      logger.error("Invalid Redis publish latency {}ms", redis.publishMaxLatency);
+      valid = false;
+    }
+
+    if (redis.enabled && redis.heartbeatInterval < 1) {
+      logger.error("Invalid Redis heartbeat interval {}ms", redis.heartbeatInterval);
+      valid = false;
+    }
+
+    if (redis.enabled && redis.heartbeatTimeout <= redis.heartbeatInterval) {
+      logger.error("The Redis heartbeat timeout ({}ms) must be longer than the heartbeat interval ({}ms)",
+          redis.heartbeatTimeout, redis.heartbeatInterval);
+      valid = false;
+    }
+
+    if (queue.enabled && queue.storage == QueueStorageType.REDIS && !redis.enabled) {
+      logger.warn("Queue storage is set to Redis, but Redis is disabled. Queues will be kept in memory.");
+    }
+
     loadFavicon();
 
     return valid;
@@ -437,6 +501,22 @@ public final class VelocityConfiguration implements ProxyConfig {
     return advanced.getLoginRatelimit();
   }
 
+  public RatelimiterType getLoginRatelimiter() {
+    return advanced.getLoginRatelimiter();
+  }
+
+  public int getLoginRatelimitBurst() {
+    return advanced.getLoginRatelimitBurst();
+  }
+
+  public PluginExecutorType getPluginExecutor() {
+    return advanced.getPluginExecutor();
+  }
+
+  public int getPluginExecutorThreads() {
+    return advanced.getPluginExecutorThreads();
+  }
+
   @Override
   public Optional<Favicon> getFavicon() {
     return Optional.ofNullable(favicon);
@@ -505,6 +585,10 @@ public final class VelocityConfiguration implements ProxyConfig {
     return advanced.getReadTimeout();
   }
 
+  public int getBackendPingCacheTtl() {
+    return advanced.getBackendPingCacheTtl();
+  }
+
   public boolean isProxyProtocol() {
     return advanced.isProxyProtocol();
   }
@@ -577,7 +661,7 @@ public final class VelocityConfiguration implements ProxyConfig {
     return advanced.getBackendBrandCustom();
   }
 
-  public String getDynamicFallbackFilter() {
+  public ServerSelectionType getDynamicFallbackFilter() {
     return servers.getDynamicFallbackFilter();
   }
 
@@ -605,10 +689,14 @@ public final class VelocityConfiguration implements ProxyConfig {
     return proxyAddresses;
   }
 
-  public String getDynamicProxyFilter() {
+  public ProxyTransferType getDynamicProxyFilter() {
     return this.dynamicProxyFilter;
   }
 
+  public double getDynamicProxyHeadroom() {
+    return this.dynamicProxyHeadroom;
+  }
+
   public Map<String, Integer> getPlayerCaps() {
     return this.playerCaps;
   }
@@ -787,19 +875,23 @@ public final class VelocityConfiguration implements ProxyConfig {
       }
 
       final List<ProxyAddress> addresses = new ArrayList<>();
-      String filter = "MOST_EMPTY";
+      ProxyTransferType filter = ProxyTransferType.MOST_EMPTY;
+      double headroom = 0.1;
 
       if (proxyAddressesConfig != null) {
-        filter = proxyAddressesConfig.getOrElse("dynamic-proxy-filter", "MOST_EMPTY");
+        filter = proxyAddressesConfig.getEnumOrElse("dynamic-proxy-filter", ProxyTransferType.MOST_EMPTY);
+        headroom = proxyAddressesConfig.<Number>getOrElse("dynamic-proxy-headroom", 0.1).doubleValue();
         for (CommentedConfig.Entry entry : proxyAddressesConfig.entrySet()) {
-          if (entry.getKey().equalsIgnoreCase("dynamic-proxy-filter")) {
+          if (entry.getKey().equalsIgnoreCase("dynamic-proxy-filter")
+              || entry.getKey().equalsIgnoreCase("dynamic-proxy-headroom")) {
             continue;
           }
 
           CommentedConfig link = entry.getValue();
           addresses.add(new ProxyAddress(link.get("proxy-id"),
                   link.get("ip"),
-                  link.get("port")));
+                  link.get("port"),
+                  link.getIntOrElse("max-players", 0)));
         }
       }
 
@@ -853,6 +945,7 @@ public final class VelocityConfiguration implements ProxyConfig {
               links,
               addresses,
               filter,
+              headroom,
               playerCaps
       );
     }
@@ -924,7 +1017,7 @@ public final class VelocityConfiguration implements ProxyConfig {
     private List<String> attemptConnectionOrder = ImmutableList.of("lobby");
     private Map<String, PlayerInfoForwarding> serverForwardingModes = ImmutableMap.of();
 
-    private String dynamicFallbackFilter;
+    private ServerSelectionType dynamicFallbackFilter = ServerSelectionType.FIRST_AVAILABLE;
     @Expose
     private List<String> serverAliases;
 
@@ -969,7 +1062,8 @@ public final class VelocityConfiguration implements ProxyConfig {
         this.attemptConnectionOrder = config.getOrElse("try", attemptConnectionOrder)
             .stream()
             .toList();
-        this.dynamicFallbackFilter = config.getOrElse("dynamic-fallbacks-filter", "FIRST_AVAILABLE");
+        this.dynamicFallbackFilter = config.getEnumOrElse("dynamic-fallbacks-filter",
+            ServerSelectionType.FIRST_AVAILABLE);
         this.serverAliases = config.getOrElse("server-aliases", List.of("joinqueue", "queue", "server"));
       }
     }
@@ -996,7 +1090,7 @@ public final class VelocityConfiguration implements ProxyConfig {
       return attemptConnectionOrder;
     }
 
-    public String getDynamicFallbackFilter() {
+    public ServerSelectionType getDynamicFallbackFilter() {
       return dynamicFallbackFilter;
     }
 
@@ -1032,6 +1126,7 @@ public final class VelocityConfiguration implements ProxyConfig {
           + "servers=" + servers
           + ", attemptConnectionOrder=" + attemptConnectionOrder
           + ", serverForwardingModes=" + serverForwardingModes
+          + ", dynamicFallbackFilter=" + dynamicFallbackFilter
           + '}';
     }
   }
@@ -1203,10 +1298,20 @@ public final class VelocityConfiguration implements ProxyConfig {
     @Expose
     private int loginRatelimit = 3000;
     @Expose
+    private RatelimiterType loginRatelimiter = RatelimiterType.CAFFEINE;
+    @Expose
+    private int loginRatelimitBurst = 1;
+    @Expose
+    private PluginExecutorType pluginExecutor = PluginExecutorType.CACHED;
+    @Expose
+    private int pluginExecutorThreads = 64;
+    @Expose
     private int connectionTimeout = 5000;
     @Expose
     private int readTimeout = 30000;
     @Expose
+    private int backendPingCacheTtl = 3000;
+    @Expose
     private boolean proxyProtocol = false;
     @Expose
     private boolean tcpFastOpen = false;
@@ -1243,8 +1348,15 @@ public final class VelocityConfiguration implements ProxyConfig {
         this.compressionThreshold = config.getIntOrElse("compression-threshold", 256);
         this.compressionLevel = config.getIntOrElse("compression-level", -1);
         this.loginRatelimit = config.getIntOrElse("login-ratelimit", 3000);
+        this.loginRatelimiter = config.getEnumOrElse("login-ratelimiter",
+            RatelimiterType.CAFFEINE);
+        this.loginRatelimitBurst = config.getIntOrElse("login-ratelimit-burst", 1);
+        this.pluginExecutor = config.getEnumOrElse("plugin-executor",
+            PluginExecutorType.CACHED);
+        this.pluginExecutorThreads = config.getIntOrElse("plugin-executor-threads", 64);
         this.connectionTimeout = config.getIntOrElse("connection-timeout", 5000);
         this.readTimeout = config.getIntOrElse("read-timeout", 30000);
+        this.backendPingCacheTtl = config.getIntOrElse("backend-ping-cache-ttl", 3000);
         if (config.contains("haproxy-protocol")) {
           this.proxyProtocol = config.getOrElse("haproxy-protocol", false);
         } else {
@@ -1279,6 +1391,22 @@ public final class VelocityConfiguration implements ProxyConfig {
       return loginRatelimit;
     }
 
+    public RatelimiterType getLoginRatelimiter() {
+      return loginRatelimiter;
+    }
+
+    public int getLoginRatelimitBurst() {
+      return loginRatelimitBurst;
+    }
+
+    public PluginExecutorType getPluginExecutor() {
+      return pluginExecutor;
+    }
+
+    public int getPluginExecutorThreads() {
+      return pluginExecutorThreads;
+    }
+
     public int getConnectionTimeout() {
       return connectionTimeout;
     }
@@ -1287,6 +1415,10 @@ public final class VelocityConfiguration implements ProxyConfig {
       return readTimeout;
     }
 
+    public int getBackendPingCacheTtl() {
+      return backendPingCacheTtl;
+    }
+
     public boolean isProxyProtocol() {
       return proxyProtocol;
     }
@@ -1354,8 +1486,13 @@ public final class VelocityConfiguration implements ProxyConfig {
           + "compressionThreshold=" + compressionThreshold
           + ", compressionLevel=" + compressionLevel
           + ", loginRatelimit=" + loginRatelimit
+          + ", loginRatelimiter=" + loginRatelimiter
+          + ", loginRatelimitBurst=" + loginRatelimitBurst
+          + ", pluginExecutor=" + pluginExecutor
+          + ", pluginExecutorThreads=" + pluginExecutorThreads
           + ", connectionTimeout=" + connectionTimeout
           + ", readTimeout=" + readTimeout
+          + ", backendPingCacheTtl=" + backendPingCacheTtl
           + ", proxyProtocol=" + proxyProtocol
           + ", tcpFastOpen=" + tcpFastOpen
           + ", bungeePluginMessageChannel=" + bungeePluginMessageChannel
@@ -1488,6 +1625,20 @@ public final class VelocityConfiguration implements ProxyConfig {
     private int maxConcurrentConnections;
     @Expose
     private @Nullable String proxyId;
+    @Expose
+    private boolean useBinaryProtocol;
+    @Expose
+    private int dispatcherThreads = 4;
+    @Expose
+    private int publishQueueCapacity = 8192;
+    @Expose
+    private int publishMaxBatch = 256;
+    @Expose
+    private int publishMaxLatency = 1;
+    @Expose
+    private int heartbeatInterval = 1000;
+    @Expose
+    private int heartbeatTimeout = 10000;
 
     private Redis(final CommentedConfig config) {
       if (config == null) {
@@ -1512,6 +1663,14 @@ public final class VelocityConfiguration implements ProxyConfig {
       if (this.proxyId == null || this.proxyId.isEmpty()) {
         this.proxyId = null;
       }
+
+      this.useBinaryProtocol = config.getOrElse("use-binary-protocol", false);
+      this.dispatcherThreads = config.getIntOrElse("dispatcher-threads", 4);
+      this.publishQueueCapacity = config.getIntOrElse("publish-queue-capacity", 8192);
+      this.publishMaxBatch = config.getIntOrElse("publish-max-batch", 256);
+      this.publishMaxLatency = config.getIntOrElse("publish-max-latency", 1);
+      this.heartbeatInterval = config.getIntOrElse("heartbeat-interval", 1000);
+      this.heartbeatTimeout = config.getIntOrElse("heartbeat-timeout", 10000);
     }
 
     public boolean isEnabled() {
@@ -1546,6 +1705,34 @@ public final class VelocityConfiguration implements ProxyConfig {
       return proxyId;
     }
 
+    public boolean isUseBinaryProtocol() {
+      return useBinaryProtocol;
+    }
+
+    public int getDispatcherThreads() {
+      return dispatcherThreads;
+    }
+
+    public int getPublishQueueCapacity() {
+      return publishQueueCapacity;
+    }
+
+    public int getPublishMaxBatch() {
+      return publishMaxBatch;
+    }
+
+    public int getPublishMaxLatency() {
+      return publishMaxLatency;
+    }
+
+    public int getHeartbeatInterval() {
+      return heartbeatInterval;
+    }
+
+    public int getHeartbeatTimeout() {
+      return heartbeatTimeout;
+    }
+
 
     @Override
     public String toString() {
@@ -1557,6 +1744,13 @@ public final class VelocityConfiguration implements ProxyConfig {
           // password excluded for security
           + ", useSsl" + useSsl
           + ", maxConcurrentConnections" + maxConcurrentConnections
+          + ", useBinaryProtocol=" + useBinaryProtocol
+          + ", dispatcherThreads=" + dispatcherThreads
+          + ", publishQueueCapacity=" + publishQueueCapacity
+          + ", publishMaxBatch=" + publishMaxBatch
+          + ", publishMaxLatency=" + publishMaxLatency
+          + ", heartbeatInterval=" + heartbeatInterval
+          + ", heartbeatTimeout=" + heartbeatTimeout
           + '}';
     }
   }
@@ -1596,6 +1790,8 @@ public final class VelocityConfiguration implements ProxyConfig {
     @Expose
     private List<String> queueAdminAliases;
     private List<String> masterProxyIds;
+    @Expose
+    private QueueStorageType storage = QueueStorageType.MEMORY;
     private List<String> bannedReason;
 
     private Queue(final CommentedConfig config) {
@@ -1619,6 +1815,7 @@ public final class VelocityConfiguration implements ProxyConfig {
       this.leaveQueueAliases = config.getOrElse("leave-queue-aliases", new ArrayList<>());
       this.queueAdminAliases = config.getOrElse("queue-admin-aliases", new ArrayList<>());
       this.masterProxyIds = config.getOrElse("master-proxy-ids", new ArrayList<>());
+      this.storage = config.getEnumOrElse("storage", QueueStorageType.MEMORY);
       this.bannedReason = config.getOrElse("banned-reason", new ArrayList<>());
     }
 
@@ -1692,6 +1889,10 @@ public final class VelocityConfiguration implements ProxyConfig {
       return masterProxyIds;
     }
 
+    public QueueStorageType getStorage() {
+      return storage;
+    }
+
     @Override
     public String toString() {
       return "Queue{"
@@ -1709,6 +1910,7 @@ public final class VelocityConfiguration implements ProxyConfig {
           + ", leaveQueueAliases=" + leaveQueueAliases
           + ", queueAdminAliases=" + queueAdminAliases
           + ", masterProxyIds=" + masterProxyIds
+          + ", storage=" + storage
           + '}';
     }
   }
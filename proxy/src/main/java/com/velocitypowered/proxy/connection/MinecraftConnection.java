@@ -41,6 +41,7 @@ import com.velocitypowered.proxy.network.Connections;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.VelocityConnectionEvent;
+import com.velocitypowered.proxy.protocol.netty.CompressedFrame;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCipherDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCipherEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCompressDecoder;
@@ -95,6 +96,7 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
   public final VelocityServer server;
   private ConnectionType connectionType = ConnectionTypes.UNDETERMINED;
   private boolean knownDisconnect = false;
+  private int compressionThreshold = -1;
 
   /**
    * Initializes a new {@link MinecraftConnection} instance.
@@ -165,6 +167,8 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
             proxyMessage.sourcePort());
       } else if (msg instanceof ByteBuf) {
         activeSessionHandler.handleUnknown((ByteBuf) msg);
+      } else if (msg instanceof CompressedFrame frame) {
+        activeSessionHandler.handleUnknown(frame);
       }
     } finally {
       ReferenceCountUtil.release(msg);
@@ -527,6 +531,7 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     ensureOpen();
     ensureInEventLoop();
 
+    this.compressionThreshold = threshold;
     if (threshold == -1) {
       final ChannelHandler removedDecoder = channel.pipeline().remove(COMPRESSION_DECODER);
       final ChannelHandler removedEncoder = channel.pipeline().remove(COMPRESSION_ENCODER);
@@ -560,6 +565,28 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     }
   }
 
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Sets whether compressed frames carrying packets the proxy does not decode should be handed to
+   * the session handler still compressed, as a {@link CompressedFrame}. This has no effect if
+   * compression is not enabled on the connection.
+   *
+   * @param passthrough whether to pass through compressed frames
+   */
+  public void setCompressionPassthrough(final boolean passthrough) {
+    ensureInEventLoop();
+
+    MinecraftCompressDecoder decoder = (MinecraftCompressDecoder) channel.pipeline()
+        .get(COMPRESSION_DECODER);
+    if (decoder != null) {
+      decoder.setPassthroughDecoder(passthrough
+          ? channel.pipeline().get(MinecraftDecoder.class) : null);
+    }
+  }
+
   /**
    * Enables encryption on the connection.
    *
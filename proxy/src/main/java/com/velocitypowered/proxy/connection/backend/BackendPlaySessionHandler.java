@@ -46,6 +46,7 @@ import com.velocitypowered.proxy.connection.player.resourcepack.handler.Resource
 import com.velocitypowered.proxy.connection.util.ConnectionMessages;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.CompressedFrame;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
 import com.velocitypowered.proxy.protocol.packet.AvailableCommandsPacket;
 import com.velocitypowered.proxy.protocol.packet.BossBarPacket;
@@ -72,6 +73,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.handler.codec.CorruptedFrameException;
 import io.netty.handler.timeout.ReadTimeoutException;
 import java.net.InetSocketAddress;
 import java.util.regex.Pattern;
@@ -90,6 +92,8 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
       Boolean.getBoolean("velocity.log-server-backpressure");
   private static final int MAXIMUM_PACKETS_TO_FLUSH =
       Integer.getInteger("velocity.max-packets-per-flush", 8192);
+  private static final boolean COMPRESSION_PASSTHROUGH =
+      !Boolean.getBoolean("velocity.disable-compression-passthrough");
 
   private final VelocityServer server;
   private final VelocityServerConnection serverConn;
@@ -126,6 +130,20 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
       ));
     }
 
+    // Packets we don't touch can be handed to the client still compressed, as long as the client
+    // would accept the exact same frames from us.
+    if (COMPRESSION_PASSTHROUGH && serverMc.getCompressionThreshold() >= 0
+        && serverMc.getCompressionThreshold() == playerConnection.getCompressionThreshold()) {
+      serverMc.setCompressionPassthrough(true);
+    }
+  }
+
+  @Override
+  public void deactivated() {
+    MinecraftConnection serverMc = serverConn.getConnection();
+    if (serverMc != null && !serverMc.isClosed()) {
+      serverMc.setCompressionPassthrough(false);
+    }
   }
 
   @Override
@@ -148,6 +166,7 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
   public boolean handle(final StartUpdatePacket packet) {
     MinecraftConnection smc = serverConn.ensureConnected();
     smc.setAutoReading(false);
+    smc.setCompressionPassthrough(false);
     // Even when not auto reading messages are still decoded. Decode them with the correct state
     smc.getChannel().pipeline().get(MinecraftDecoder.class).setState(StateRegistry.CONFIG);
     serverConn.getPlayer().switchToConfigState();
@@ -317,15 +336,12 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
 
     byte[] copy = ByteBufUtil.getBytes(packet.content());
     PluginMessageEvent event = new PluginMessageEvent(serverConn, serverConn.getPlayer(), id, copy);
-    server.getEventManager().fire(event).thenAcceptAsync(pme -> {
+    server.getEventManager().fire(event, playerConnection.eventLoop(), pme -> {
       if (pme.getResult().isAllowed() && !playerConnection.isClosed()) {
         PluginMessagePacket copied = new PluginMessagePacket(
                 packet.getChannel(), Unpooled.wrappedBuffer(copy));
         playerConnection.write(copied);
       }
-    }, playerConnection.eventLoop()).exceptionally((ex) -> {
-      logger.error("Exception while handling plugin message {}", packet, ex);
-      return null;
     });
     return true;
   }
@@ -356,6 +372,31 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
 
   @Override
   public boolean handle(final AvailableCommandsPacket commands) {
+    try {
+      forwardCommands(commands);
+    } catch (CorruptedFrameException e) {
+      // The graph is only deserialized here rather than in the decoder, so fail the connection
+      // exactly as the decoder would have.
+      serverConn.ensureConnected().getChannel().pipeline().fireExceptionCaught(e);
+    }
+    return true;
+  }
+
+  private void forwardCommands(final AvailableCommandsPacket commands) {
+    if (!server.getEventManager().hasSubscribers(PlayerAvailableCommandsEvent.class)) {
+      // No plugin can modify the graph, so it doesn't have to be deserialized for this player.
+      if (!server.getConfiguration().isAnnounceProxyCommands()) {
+        playerConnection.write(commands);
+        return;
+      }
+      if (commands.getEncodedGraph() != null) {
+        playerConnection.write(server.getCommandManager().getAvailableCommandsCache().rewrite(
+            serverConn.getServerInfo().getName(), commands, serverConn.getPlayer(),
+            playerConnection.getProtocolVersion()));
+        return;
+      }
+    }
+
     RootCommandNode<CommandSource> rootNode = commands.getRootNode();
     if (server.getConfiguration().isAnnounceProxyCommands()) {
       // Inject commands from the proxy.
@@ -371,7 +412,6 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
           logger.error("Exception while handling available commands for {}", playerConnection, ex);
           return null;
         });
-    return true;
   }
 
   @Override
@@ -466,6 +506,15 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
     }
   }
 
+  @Override
+  public void handleUnknown(final CompressedFrame frame) {
+    playerConnection.delayedWrite(frame.retain());
+    if (++packetsFlushed >= MAXIMUM_PACKETS_TO_FLUSH) {
+      playerConnection.flush();
+      packetsFlushed = 0;
+    }
+  }
+
   @Override
   public void readCompleted() {
     playerConnection.flush();
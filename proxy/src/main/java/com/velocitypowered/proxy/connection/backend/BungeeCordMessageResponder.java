@@ -140,13 +140,9 @@ public class BungeeCordMessageResponder {
           out.writeUTF("PlayerCount");
           out.writeUTF(rs.getServerInfo().getName());
 
-          int amount = 0;
+          int amount;
           if (proxy.getMultiProxyHandler().isEnabled()) {
-            for (MultiProxyHandler.RemotePlayerInfo info : proxy.getMultiProxyHandler().getAllPlayers()) {
-              if (info.getServerName() != null && info.getServerName().equalsIgnoreCase(rs.getServerInfo().getName())) {
-                amount++;
-              }
-            }
+            amount = proxy.getMultiProxyHandler().getServerPlayerCount(rs.getServerInfo().getName());
           } else {
             amount = rs.getPlayersConnected().size();
           }
@@ -215,7 +211,7 @@ public class BungeeCordMessageResponder {
 
     MultiProxyHandler.RemotePlayerInfo info = proxy.getMultiProxyHandler().getPlayerInfo(playerUuid);
 
-    if (!proxy.getQueueManager().isMasterProxy()) {
+    if (!proxy.getQueueManager().hasQueueState()) {
       return;
     }
 
@@ -247,7 +243,7 @@ public class BungeeCordMessageResponder {
 
     MultiProxyHandler.RemotePlayerInfo info = proxy.getMultiProxyHandler().getPlayerInfo(playerUuid);
 
-    if (!proxy.getQueueManager().isMasterProxy()) {
+    if (!proxy.getQueueManager().hasQueueState()) {
       return;
     }
 
@@ -279,7 +275,7 @@ public class BungeeCordMessageResponder {
 
     MultiProxyHandler.RemotePlayerInfo info = proxy.getMultiProxyHandler().getPlayerInfo(playerUuid);
 
-    if (!proxy.getQueueManager().isMasterProxy()) {
+    if (!proxy.getQueueManager().hasQueueState()) {
       return;
     }
 
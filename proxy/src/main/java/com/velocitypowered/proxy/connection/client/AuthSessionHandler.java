@@ -148,6 +148,9 @@ public class AuthSessionHandler implements MinecraftSessionHandler {
               } else {
                 player.setPermissionFunction(function);
               }
+              if (server.getConfiguration().getQueue().isEnabled()) {
+                player.resolveQueuePriorities();
+              }
               startLoginCompletion(player);
             }
           }, mcConnection.eventLoop());
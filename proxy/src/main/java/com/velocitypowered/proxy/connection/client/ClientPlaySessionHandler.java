@@ -361,7 +361,7 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
           } else {
             byte[] copy = ByteBufUtil.getBytes(packet.content());
             PluginMessageEvent event = new PluginMessageEvent(player, serverConn, id, copy);
-            server.getEventManager().fire(event).thenAcceptAsync(pme -> {
+            server.getEventManager().fire(event, backendConn.eventLoop(), pme -> {
               if (pme.getResult().isAllowed()) {
                 PluginMessagePacket message = new PluginMessagePacket(packet.getChannel(),
                     Unpooled.wrappedBuffer(copy));
@@ -373,9 +373,6 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
                   backendConn.write(message);
                 }
               }
-            }, backendConn.eventLoop()).exceptionally((ex) -> {
-              logger.error("Exception while handling plugin message packet for {}", player, ex);
-              return null;
             });
           }
         }
@@ -770,19 +767,13 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
     for (Offer offer : response.getOffers()) {
       offers.add(offer.getText());
     }
-    server.getEventManager().fire(new TabCompleteEvent(player, request.getCommand(), offers))
-        .thenAcceptAsync(e -> {
+    server.getEventManager().fire(new TabCompleteEvent(player, request.getCommand(), offers),
+        player.getConnection().eventLoop(), e -> {
           response.getOffers().clear();
           for (String s : e.getSuggestions()) {
             response.getOffers().add(new Offer(s));
           }
           player.getConnection().write(response);
-        }, player.getConnection().eventLoop()).exceptionally((ex) -> {
-          logger.error(
-              "Exception while finishing regular tab completion,"
-                  + " with request {} and response{}",
-              request, response, ex);
-          return null;
         });
   }
 
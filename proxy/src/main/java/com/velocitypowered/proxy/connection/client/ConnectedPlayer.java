@@ -68,6 +68,7 @@ import com.velocitypowered.proxy.connection.util.ConnectionMessages;
 import com.velocitypowered.proxy.connection.util.ConnectionRequestResults;
 import com.velocitypowered.proxy.connection.util.ConnectionRequestResults.Impl;
 import com.velocitypowered.proxy.connection.util.VelocityInboundConnection;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
 import com.velocitypowered.proxy.protocol.packet.BundleDelimiterPacket;
@@ -92,6 +93,8 @@ import com.velocitypowered.proxy.protocol.packet.config.StartUpdatePacket;
 import com.velocitypowered.proxy.protocol.packet.title.GenericTitlePacket;
 import com.velocitypowered.proxy.protocol.util.ByteBufDataOutput;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import com.velocitypowered.proxy.server.selection.ServerCandidates;
+import com.velocitypowered.proxy.server.selection.ServerSelector;
 import com.velocitypowered.proxy.tablist.InternalTabList;
 import com.velocitypowered.proxy.tablist.KeyedVelocityTabList;
 import com.velocitypowered.proxy.tablist.VelocityTabList;
@@ -162,6 +165,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
   private final @Nullable String rawVirtualHost;
   private GameProfile profile;
   private PermissionFunction permissionFunction;
+  private final QueuePriorityCache queuePriorities = new QueuePriorityCache(() -> this.permissionFunction);
   private int tryIndex = 0;
   private long ping = -1;
   private final boolean onlineMode;
@@ -380,6 +384,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
 
   void setPermissionFunction(final PermissionFunction permissionFunction) {
     this.permissionFunction = permissionFunction;
+    this.queuePriorities.invalidate();
   }
 
   @Override
@@ -399,17 +404,37 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
    * @return the translated message
    */
   public Component translateMessage(final Component message) {
-    Locale locale = ClosestLocaleMatcher.INSTANCE
+    return GlobalTranslator.render(message, getTranslationLocale());
+  }
+
+  /**
+   * Returns the locale that messages sent to this player are translated into. Players with the
+   * same translation locale see the same rendering of a translatable component.
+   *
+   * @return the translation locale
+   */
+  public Locale getTranslationLocale() {
+    return ClosestLocaleMatcher.INSTANCE
         .lookupClosest(getEffectiveLocale() == null ? Locale.getDefault() : getEffectiveLocale());
-    return GlobalTranslator.render(message, locale);
   }
 
   @Override
   public void sendMessage(@NonNull final Identity identity, @NonNull final Component message) {
+    connection.write(createMessagePacket(identity, message));
+  }
+
+  /**
+   * Creates the packet that shows a system message to this player.
+   *
+   * @param identity the identity of the sender
+   * @param message the message, which is translated for this player
+   * @return the packet to send
+   */
+  public MinecraftPacket createMessagePacket(final Identity identity, final Component message) {
     final Component translated = translateMessage(message);
 
-    connection.write(getChatBuilderFactory().builder()
-        .component(translated).forIdentity(identity).toClient());
+    return getChatBuilderFactory().builder()
+        .component(translated).forIdentity(identity).toClient();
   }
 
   @Override
@@ -429,6 +454,16 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
 
   @Override
   public void sendActionBar(final net.kyori.adventure.text.@NonNull Component message) {
+    connection.write(createActionBarPacket(message));
+  }
+
+  /**
+   * Creates the packet that shows an action bar message to this player.
+   *
+   * @param message the message, which is translated for this player
+   * @return the packet to send
+   */
+  public MinecraftPacket createActionBarPacket(final Component message) {
     Component translated = translateMessage(message);
 
     ProtocolVersion playerVersion = getProtocolVersion();
@@ -437,7 +472,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
       GenericTitlePacket pkt = GenericTitlePacket.constructTitlePacket(
           GenericTitlePacket.ActionType.SET_ACTION_BAR, playerVersion);
       pkt.setComponent(new ComponentHolder(playerVersion, translated));
-      connection.write(pkt);
+      return pkt;
     } else {
       // Due to issues with action bar packets, we'll need to convert the text message into a
       // legacy message and then inject the legacy text into a component... yuck!
@@ -447,7 +482,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
       LegacyChatPacket legacyChat = new LegacyChatPacket();
       legacyChat.setMessage(object.toString());
       legacyChat.setType(LegacyChatPacket.GAME_INFO_TYPE);
-      connection.write(legacyChat);
+      return legacyChat;
     }
   }
 
@@ -896,10 +931,10 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
       if (connOrder.isEmpty()) {
         return Optional.empty();
       } else {
-        Optional<RegisteredServer> selectedServer = Optional.empty();
-        int index = 0;
-
-        for (String serverName : connOrder) {
+        ServerSelector selector = server.getServerSelector();
+        ServerCandidates candidates = selector.candidates();
+        for (int i = 0; i < connOrder.size(); i++) {
+          String serverName = connOrder.get(i);
           if (attemptedServers.contains(serverName)) {
             continue;
           }
@@ -907,7 +942,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
           RegisteredServer registeredServer = server.getServer(serverName).orElse(null);
           if (registeredServer == null) {
             logger.error(Component.text("Unable to read your velocity.toml fallback servers. Users are unable to connect."));
-            return selectedServer;
+            break;
           }
 
           if ((connectedServer != null && hasSameName(connectedServer.getServer(), serverName))
@@ -916,33 +951,19 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
             continue;
           }
 
-          if (selectedServer.isEmpty()) {
-            index = connOrder.indexOf(serverName);
-            selectedServer = Optional.of(registeredServer);
-            if (server.getConfiguration().getDynamicFallbackFilter().equalsIgnoreCase("FIRST_AVAILABLE")) {
-              return selectedServer;
-            }
-          } else {
-            if (server.getConfiguration().getDynamicFallbackFilter().equalsIgnoreCase("MOST_POPULATED")) {
-              if (registeredServer.getPlayersConnected().size() > selectedServer.get().getPlayersConnected().size()) {
-                index = connOrder.indexOf(serverName);
-                selectedServer = Optional.of(registeredServer);
-              }
-            } else if (server.getConfiguration().getDynamicFallbackFilter().equalsIgnoreCase("LEAST_POPULATED")) {
-              if (registeredServer.getPlayersConnected().size() < selectedServer.get().getPlayersConnected().size()) {
-                index = connOrder.indexOf(serverName);
-                selectedServer = Optional.of(registeredServer);
-              }
-            }
-          }
+          selector.add(candidates, (VelocityRegisteredServer) registeredServer, i);
         }
 
-        selectedServer.ifPresent(registeredServer -> attemptedServers.add(registeredServer.getServerInfo().getName()));
-        tryIndex = index;
-
-        RegisteredServer s = selectedServer.orElse(null);
+        int selected = selector.select(candidates, getUniqueId());
+        if (selected < 0) {
+          tryIndex = 0;
+          return Optional.empty();
+        }
 
-        return selectedServer;
+        RegisteredServer selectedServer = candidates.server(selected);
+        attemptedServers.add(selectedServer.getServerInfo().getName());
+        tryIndex = candidates.position(selected);
+        return Optional.of(selectedServer);
       }
     }
 
@@ -1178,19 +1199,24 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
 
   @Override
   public int getQueuePriority(String serverName) {
-    for (int i = 100; i > 0; i--) {
-      if (hasPermission("velocity.queue.priority." + serverName + "." + i)) {
-        return i;
-      }
-    }
+    return this.queuePriorities.get(serverName);
+  }
 
-    for (int i = 100; i > 0; i--) {
-      if (hasPermission("velocity.queue.priority.all." + i)) {
-        return i;
-      }
-    }
+  @Override
+  public void invalidateQueuePriorities() {
+    this.queuePriorities.invalidate();
+  }
 
-    return 0;
+  /**
+   * Resolves the queue priorities of this player for every registered server up front, so that
+   * they are cached by the time the login completes. Called once the permissions of the player
+   * have been set up.
+   */
+  void resolveQueuePriorities() {
+    for (RegisteredServer registered : this.server.getAllServers()) {
+      getQueuePriority(registered.getServerInfo().getName());
+    }
+    getQueuePriority(QueuePriorityCache.ALL_SERVERS);
   }
 
   @Override
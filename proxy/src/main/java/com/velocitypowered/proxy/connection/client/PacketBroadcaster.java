@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.client;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.PreEncodedPacket;
+import io.netty.buffer.ByteBuf;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Sends the same packet to many players while serializing and encoding it as few times as
+ * possible.
+ *
+ * <p>Recipients are grouped by protocol version and translation locale. The packet is created
+ * and encoded once per group into a shared buffer, and each player of the group is sent a
+ * duplicate of that buffer as a {@link PreEncodedPacket}.</p>
+ */
+public final class PacketBroadcaster {
+
+  private static final Logger logger = LogManager.getLogger(PacketBroadcaster.class);
+
+  private PacketBroadcaster() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Sends a packet to every given player.
+   *
+   * @param players the players to send the packet to
+   * @param factory creates the packet for a group of players, given any player of the group. The
+   *                packet may only depend on the protocol version and translation locale of that
+   *                player. Returning {@code null} skips the group. If the packet can't be
+   *                encoded up front, this is called again for every other player of the group.
+   */
+  public static void broadcast(final Iterable<? extends ConnectedPlayer> players,
+      final Function<ConnectedPlayer, @Nullable MinecraftPacket> factory) {
+    Map<Group, List<ConnectedPlayer>> groups = new HashMap<>();
+    for (ConnectedPlayer player : players) {
+      groups.computeIfAbsent(new Group(player.getProtocolVersion(), player.getTranslationLocale()),
+          k -> new ArrayList<>()).add(player);
+    }
+
+    for (List<ConnectedPlayer> group : groups.values()) {
+      ConnectedPlayer first = group.get(0);
+      MinecraftPacket packet = factory.apply(first);
+      if (packet == null) {
+        continue;
+      }
+
+      ByteBuf encoded = group.size() == 1 ? null : encode(first, packet);
+      if (encoded == null) {
+        // Each connection encodes the packet on its own thread, so they must not share it:
+        // packets such as those holding a ComponentHolder cache their serialized form lazily.
+        first.getConnection().write(packet);
+        for (int i = 1; i < group.size(); i++) {
+          ConnectedPlayer player = group.get(i);
+          MinecraftPacket own = factory.apply(player);
+          if (own != null) {
+            player.getConnection().write(own);
+          }
+        }
+        continue;
+      }
+
+      try {
+        for (ConnectedPlayer player : group) {
+          player.getConnection().write(new PreEncodedPacket(encoded.retainedDuplicate(), packet,
+              StateRegistry.PLAY, first.getProtocolVersion()));
+        }
+      } finally {
+        encoded.release();
+      }
+    }
+  }
+
+  private static @Nullable ByteBuf encode(final ConnectedPlayer player,
+      final MinecraftPacket packet) {
+    ProtocolVersion version = player.getProtocolVersion();
+    ByteBuf buf = player.getConnection().getChannel().alloc().buffer();
+    try {
+      int packetId = StateRegistry.PLAY
+          .getProtocolRegistry(ProtocolUtils.Direction.CLIENTBOUND, version)
+          .getPacketId(packet);
+      ProtocolUtils.writeVarInt(buf, packetId);
+      packet.encode(buf, ProtocolUtils.Direction.CLIENTBOUND, version);
+      return buf;
+    } catch (RuntimeException e) {
+      // Let every connection encode the packet on its own, which reports the error as usual.
+      logger.debug("Unable to pre-encode {} for {}", packet, version, e);
+      buf.release();
+      return null;
+    }
+  }
+
+  private record Group(ProtocolVersion version, Locale locale) {
+  }
+}
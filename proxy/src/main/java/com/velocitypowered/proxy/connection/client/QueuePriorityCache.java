@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.client;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.annotations.VisibleForTesting;
+import com.velocitypowered.api.permission.PermissionFunction;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caches the queue priorities of a player, as resolved from their permission function.
+ *
+ * <p>Permission providers may change what a permission function returns at any time, so a
+ * resolved priority is only trusted for {@link #TTL_NANOS}. It can also be discarded earlier
+ * with {@link #invalidate()}.</p>
+ */
+final class QueuePriorityCache {
+
+  static final String PREFIX = "velocity.queue.priority.";
+  static final String ALL_SERVERS = "all";
+  static final int MAX_PRIORITY = 100;
+  static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private final Supplier<PermissionFunction> permissions;
+  private final Ticker ticker;
+  // Resolved priorities by server name, or ALL_SERVERS for the global priority.
+  private final Map<String, Resolved> resolved = new ConcurrentHashMap<>();
+
+  QueuePriorityCache(final Supplier<PermissionFunction> permissions) {
+    this(permissions, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  QueuePriorityCache(final Supplier<PermissionFunction> permissions, final Ticker ticker) {
+    this.permissions = permissions;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Returns the queue priority for a server, falling back to the global priority.
+   *
+   * @param serverName the name of the server
+   * @return the priority, or {@code 0} if the player has none
+   */
+  int get(final String serverName) {
+    int priority = resolve(serverName);
+    if (priority > 0) {
+      return priority;
+    }
+    return resolve(ALL_SERVERS);
+  }
+
+  private int resolve(final String name) {
+    long now = ticker.read();
+    Resolved cached = resolved.get(name);
+    if (cached != null && now - cached.resolvedNanos() < TTL_NANOS) {
+      return cached.priority();
+    }
+    int priority = permissions.get().getHighestNumericPermission(PREFIX + name + ".", MAX_PRIORITY);
+    resolved.put(name, new Resolved(priority, now));
+    return priority;
+  }
+
+  void invalidate() {
+    resolved.clear();
+  }
+
+  private record Resolved(int priority, long resolvedNanos) {
+  }
+}
@@ -101,11 +101,8 @@ public class StatusSessionHandler implements MinecraftSessionHandler {
         .thenAcceptAsync(
             (event) -> {
               if (event.getResult().isAllowed()) {
-                final StringBuilder json = new StringBuilder();
-                VelocityServer.getPingGsonInstance(connection.getProtocolVersion())
-                        .toJson(event.getPing(), json);
-
-                connection.write(new StatusResponsePacket(json));
+                connection.write(new StatusResponsePacket(server.getServerListPingHandler()
+                    .toJson(event.getPing(), connection.getProtocolVersion())));
               } else {
                 connection.close();
               }
@@ -17,6 +17,11 @@
 
 package com.velocitypowered.proxy.connection.util;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.gson.Gson;
 import com.spotify.futures.CompletableFutures;
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.api.proxy.server.PingOptions;
@@ -26,8 +31,8 @@ import com.velocitypowered.api.util.ModInfo;
 import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.config.PingPassthroughMode;
 import com.velocitypowered.proxy.config.VelocityConfiguration;
-import com.velocitypowered.proxy.server.VelocityRegisteredServer;
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -37,26 +42,55 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * Common utilities for handling server list ping results.
+ *
+ * <p>Server list pings are cached for a short while, keyed by everything that goes into them:
+ * the client version, the ping passthrough mode, the servers to pass the ping through to and the
+ * online player count. A change in the player count therefore shows up immediately, and a
+ * configuration reload discards every cached ping. Backend pings used for passthrough are cached
+ * separately and refreshed in the background, so a client never waits for a backend that has
+ * been pinged recently.</p>
  */
 public class ServerListPingHandler {
 
+  private static final Duration PING_CACHE_DURATION = Duration.ofSeconds(1);
+  private static final Duration BACKEND_PING_REFRESH = Duration.ofSeconds(5);
+  private static final Duration BACKEND_PING_EXPIRY = Duration.ofSeconds(30);
+  private static final int MAXIMUM_CACHED_PINGS = 1024;
+
   private final VelocityServer server;
+  private final AsyncCache<PingKey, ServerPing> initialPings = Caffeine.newBuilder()
+      .expireAfterWrite(PING_CACHE_DURATION)
+      .maximumSize(MAXIMUM_CACHED_PINGS)
+      .buildAsync();
+  private final AsyncLoadingCache<BackendPingKey, Optional<ServerPing>> backendPings =
+      Caffeine.newBuilder()
+          .refreshAfterWrite(BACKEND_PING_REFRESH)
+          .expireAfterAccess(BACKEND_PING_EXPIRY)
+          .maximumSize(MAXIMUM_CACHED_PINGS)
+          .buildAsync((key, executor) -> pingBackend(key));
+  // Weakly keyed, so pings are compared by identity and dropped together with the ping.
+  private final Cache<ServerPing, SerializedPing> serializedPings = Caffeine.newBuilder()
+      .weakKeys()
+      .maximumSize(MAXIMUM_CACHED_PINGS)
+      .build();
 
   public ServerListPingHandler(final VelocityServer server) {
     this.server = server;
   }
 
-  private boolean displayFallbackPing(final ProtocolVersion clientVersion) {
-    String minVersion = server.getConfiguration().getMinimumVersion();
-    ProtocolVersion minimumVersion = ProtocolVersion.getVersionByName(minVersion);
-    return clientVersion.lessThan(minimumVersion);
+  private int getOnlinePlayerCount() {
+    if (server.getMultiProxyHandler().isEnabled()) {
+      return server.getMultiProxyHandler().getTotalPlayerCount();
+    }
+    return server.getPlayerCount();
   }
 
-  private ServerPing constructLocalPing(ProtocolVersion version) {
-    boolean fallback = displayFallbackPing(version);
+  private ServerPing constructLocalPing(ProtocolVersion version, final int online) {
     VelocityConfiguration configuration = server.getConfiguration();
+    ProtocolVersion minimumVersion = ProtocolVersion.getVersionByName(
+        configuration.getMinimumVersion());
 
-    if (version == ProtocolVersion.UNKNOWN || fallback) {
+    if (version == ProtocolVersion.UNKNOWN || version.lessThan(minimumVersion)) {
       version = ProtocolVersion.MAXIMUM_VERSION;
     }
 
@@ -66,13 +100,6 @@ public class ServerListPingHandler {
 
     String serverPingVersion = configuration.getFallbackVersionPing();
 
-    final int online;
-    if (server.getMultiProxyHandler().isEnabled()) {
-      online = server.getMultiProxyHandler().getTotalPlayerCount();
-    } else {
-      online = server.getPlayerCount();
-    }
-
     List<ServerPing.SamplePlayer> samplePlayers = new ArrayList<>();
     for (String s : server.getConfiguration().getMotdHover()) {
       samplePlayers.add(new ServerPing.SamplePlayer(
@@ -81,7 +108,8 @@ public class ServerListPingHandler {
     }
 
     return new ServerPing(
-        new ServerPing.Version(version.getProtocol(), formatVersionString(serverPingVersion, version)),
+        new ServerPing.Version(version.getProtocol(),
+            formatVersionString(serverPingVersion, version, minimumVersion, online)),
         new ServerPing.Players(online, configuration.getShowMaxPlayers(), samplePlayers),
         configuration.getMotd(),
         configuration.getFavicon().orElse(null),
@@ -89,36 +117,40 @@ public class ServerListPingHandler {
     );
   }
 
-  private String formatVersionString(final String raw, final ProtocolVersion version) {
-    final String minVersionIntroducedIn =
-        ProtocolVersion.getVersionByName(this.server.getConfiguration().getMinimumVersion()).getVersionIntroducedIn();
+  private String formatVersionString(final String raw, final ProtocolVersion version,
+      final ProtocolVersion minimumVersion, final int online) {
     return raw
-        .replaceAll("\\{protocol-min}", minVersionIntroducedIn)
-        .replaceAll("\\{protocol-max}", ProtocolVersion.MAXIMUM_VERSION.getMostRecentSupportedVersion())
-        .replaceAll("\\{protocol}", version.getVersionIntroducedIn())
-        .replaceAll("\\{proxy-brand}", this.server.getVersion().getName())
-        .replaceAll("\\{proxy-brand-custom}", this.server.getConfiguration().getProxyBrandCustom())
-        .replaceAll("\\{proxy-version}", this.server.getVersion().getVersion())
-        .replaceAll("\\{proxy-vendor}", this.server.getVersion().getVendor())
-        .replaceAll("\\{player-count}", this.server.getMultiProxyHandler().isEnabled()
-            ? String.valueOf(this.server.getMultiProxyHandler().getTotalPlayerCount())
-            : String.valueOf(this.server.getPlayerCount()))
-        .replaceAll("\\{max-players}", String.valueOf(this.server.getConfiguration().getShowMaxPlayers()));
+        .replace("{protocol-min}", minimumVersion.getVersionIntroducedIn())
+        .replace("{protocol-max}", ProtocolVersion.MAXIMUM_VERSION.getMostRecentSupportedVersion())
+        .replace("{protocol}", version.getVersionIntroducedIn())
+        .replace("{proxy-brand}", this.server.getVersion().getName())
+        .replace("{proxy-brand-custom}", this.server.getConfiguration().getProxyBrandCustom())
+        .replace("{proxy-version}", this.server.getVersion().getVersion())
+        .replace("{proxy-vendor}", this.server.getVersion().getVendor())
+        .replace("{player-count}", String.valueOf(online))
+        .replace("{max-players}", String.valueOf(this.server.getConfiguration().getShowMaxPlayers()));
   }
 
-  private CompletableFuture<ServerPing> attemptPingPassthrough(final VelocityInboundConnection connection,
-                                                               final PingPassthroughMode mode, final List<String> servers,
-                                                               final ProtocolVersion responseProtocolVersion) {
-    ServerPing fallback = constructLocalPing(connection.getProtocolVersion());
+  private CompletableFuture<Optional<ServerPing>> pingBackend(final BackendPingKey key) {
+    Optional<RegisteredServer> rs = server.getServer(key.server());
+    if (rs.isEmpty()) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    return rs.get().ping(PingOptions.builder().version(key.version()).build())
+        .handle((ping, ex) -> ex == null ? Optional.of(ping) : Optional.empty());
+  }
+
+  private CompletableFuture<ServerPing> attemptPingPassthrough(final PingKey key) {
+    ServerPing fallback = constructLocalPing(key.version(), key.online());
+    ProtocolVersion responseProtocolVersion = key.version().isSupported()
+        ? key.version() : ProtocolVersion.MAXIMUM_VERSION;
     List<CompletableFuture<ServerPing>> pings = new ArrayList<>();
-    for (String s : servers) {
-      Optional<RegisteredServer> rs = server.getServer(s);
-      if (rs.isEmpty()) {
+    for (String s : key.servers()) {
+      if (server.getServer(s).isEmpty()) {
         continue;
       }
-      VelocityRegisteredServer vrs = (VelocityRegisteredServer) rs.get();
-      pings.add(vrs.ping(connection.getConnection().eventLoop(), PingOptions.builder()
-              .version(responseProtocolVersion).build()));
+      pings.add(backendPings.get(new BackendPingKey(s, responseProtocolVersion))
+          .thenApply(ping -> ping.orElse(fallback)));
     }
     if (pings.isEmpty()) {
       return CompletableFuture.completedFuture(fallback);
@@ -126,6 +158,7 @@ public class ServerListPingHandler {
 
     CompletableFuture<List<ServerPing>> pingResponses = CompletableFutures.successfulAsList(pings,
         (ex) -> fallback);
+    PingPassthroughMode mode = key.mode();
     switch (mode) {
       case ALL:
         return pingResponses.thenApply(responses -> {
@@ -188,19 +221,62 @@ public class ServerListPingHandler {
    */
   public CompletableFuture<ServerPing> getInitialPing(final VelocityInboundConnection connection) {
     VelocityConfiguration configuration = server.getConfiguration();
-    ProtocolVersion shownVersion = connection.getProtocolVersion().isSupported()
-        ? connection.getProtocolVersion() : ProtocolVersion.MAXIMUM_VERSION;
     PingPassthroughMode passthroughMode = configuration.getPingPassthrough();
 
-    if (passthroughMode == PingPassthroughMode.DISABLED) {
-      return CompletableFuture.completedFuture(constructLocalPing(shownVersion));
-    } else {
+    List<String> serversToTry = List.of();
+    if (passthroughMode != PingPassthroughMode.DISABLED) {
       String virtualHostStr = connection.getVirtualHost().map(InetSocketAddress::getHostString)
           .map(str -> str.toLowerCase(Locale.ROOT))
           .orElse("");
-      List<String> serversToTry = server.getConfiguration().getForcedHosts().getOrDefault(
-          virtualHostStr, server.getConfiguration().getAttemptConnectionOrder());
-      return attemptPingPassthrough(connection, passthroughMode, serversToTry, shownVersion);
+      serversToTry = configuration.getForcedHosts().getOrDefault(
+          virtualHostStr, configuration.getAttemptConnectionOrder());
+    }
+
+    PingKey key = new PingKey(connection.getProtocolVersion(), passthroughMode, serversToTry,
+        getOnlinePlayerCount());
+    return initialPings.get(key, (k, executor) -> {
+      if (k.mode() == PingPassthroughMode.DISABLED) {
+        ProtocolVersion shownVersion = k.version().isSupported()
+            ? k.version() : ProtocolVersion.MAXIMUM_VERSION;
+        return CompletableFuture.completedFuture(constructLocalPing(shownVersion, k.online()));
+      }
+      return attemptPingPassthrough(k);
+    });
+  }
+
+  /**
+   * Serializes a server list ping for a client of the given version. The JSON of a ping is
+   * remembered for as long as the ping itself is in use, so a cached ping is only serialized once.
+   *
+   * @param ping the ping to serialize
+   * @param version the protocol version of the client
+   * @return the ping as JSON
+   */
+  public String toJson(final ServerPing ping, final ProtocolVersion version) {
+    Gson gson = VelocityServer.getPingGsonInstance(version);
+    SerializedPing serialized = serializedPings.getIfPresent(ping);
+    if (serialized == null || serialized.gson() != gson) {
+      serialized = new SerializedPing(gson, gson.toJson(ping));
+      serializedPings.put(ping, serialized);
     }
+    return serialized.json();
+  }
+
+  /**
+   * Discards every cached ping, including the pings of backend servers.
+   */
+  public void invalidate() {
+    initialPings.synchronous().invalidateAll();
+    backendPings.synchronous().invalidateAll();
+  }
+
+  private record PingKey(ProtocolVersion version, PingPassthroughMode mode, List<String> servers,
+                         int online) {
+  }
+
+  private record BackendPingKey(String server, ProtocolVersion version) {
+  }
+
+  private record SerializedPing(Gson gson, String json) {
   }
 }
@@ -38,6 +38,7 @@ import com.velocitypowered.proxy.event.UntargetedEventHandler.EventTaskHandler;
 import com.velocitypowered.proxy.event.UntargetedEventHandler.VoidHandler;
 import com.velocitypowered.proxy.event.UntargetedEventHandler.WithContinuationHandler;
 import com.velocitypowered.proxy.util.collect.Enum2IntMap;
+import io.netty.util.concurrent.EventExecutor;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
@@ -50,7 +51,6 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -59,6 +59,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -98,8 +99,15 @@ public class VelocityEventManager implements EventManager {
 
   private final ListMultimap<Class<?>, HandlerRegistration> handlersByType =
       ArrayListMultimap.create();
-  private final LoadingCache<Class<?>, HandlersCache> handlersCache =
-      Caffeine.newBuilder().build(this::bakeHandlers);
+  private final ClassValue<BakedHandlers> bakedHandlers = new ClassValue<>() {
+    @Override
+    protected BakedHandlers computeValue(final Class<?> type) {
+      return new BakedHandlers();
+    }
+  };
+  // Bumped under the write lock whenever handlers are registered or unregistered, which
+  // invalidates every baked handler chain.
+  private volatile int handlersGeneration;
 
   private final LoadingCache<Method, UntargetedEventHandler> untargetedMethodHandlers =
       Caffeine.newBuilder().weakValues().build(this::buildUntargetedMethodHandler);
@@ -136,9 +144,11 @@ public class VelocityEventManager implements EventManager {
    * Represents the registration of a single {@link EventHandler}.
    *
    * @param instance The instance of the {@link EventHandler} or the listener instance that was registered.
+   * @param mayReturnTask whether the handler may return an {@link EventTask}, including a
+   *                      continuation, so that the chain may finish after it returns
    */
   record HandlerRegistration(PluginContainer plugin, short order, Class<?> eventType, Object instance,
-      EventHandler<Object> handler, AsyncType asyncType) {
+      EventHandler<Object> handler, AsyncType asyncType, boolean mayReturnTask) {
 
   }
 
@@ -158,11 +168,39 @@ public class VelocityEventManager implements EventManager {
     ALWAYS
   }
 
-  record HandlersCache(AsyncType asyncType, HandlerRegistration[] handlers) {
+  /**
+   * A baked handler chain.
+   *
+   * @param synchronous whether no handler can return an {@link EventTask}, in which case the
+   *                    whole chain has finished once it returns
+   */
+  record HandlersCache(int generation, AsyncType asyncType, boolean synchronous,
+      HandlerRegistration[] handlers) {
 
   }
 
-  private @Nullable HandlersCache bakeHandlers(final Class<?> eventType) {
+  /**
+   * Holds the handler chain baked for an event type, until handlers are registered or
+   * unregistered.
+   */
+  static final class BakedHandlers {
+
+    volatile @Nullable HandlersCache cache;
+  }
+
+  private HandlersCache getHandlers(final Class<?> eventType) {
+    final BakedHandlers baked = bakedHandlers.get(eventType);
+    // Read the generation before baking, so a registration racing with us forces a rebake.
+    final int generation = handlersGeneration;
+    HandlersCache cache = baked.cache;
+    if (cache == null || cache.generation != generation) {
+      cache = bakeHandlers(eventType, generation);
+      baked.cache = cache;
+    }
+    return cache;
+  }
+
+  private HandlersCache bakeHandlers(final Class<?> eventType, final int generation) {
     final List<HandlerRegistration> baked = new ArrayList<>();
     final Collection<Class<?>> types = eventTypeTracker.getFriendsOf(eventType);
 
@@ -176,19 +214,22 @@ public class VelocityEventManager implements EventManager {
     }
 
     if (baked.isEmpty()) {
-      return null;
+      return new HandlersCache(generation, AsyncType.NEVER, true, new HandlerRegistration[0]);
     }
 
     baked.sort(handlerComparator);
 
     AsyncType asyncType = AsyncType.NEVER;
+    boolean synchronous = true;
     for (HandlerRegistration registration : baked) {
       if (registration.asyncType.compareTo(asyncType) > 0) {
         asyncType = registration.asyncType;
       }
+      synchronous &= !registration.mayReturnTask;
     }
 
-    return new HandlersCache(asyncType, baked.toArray(new HandlerRegistration[0]));
+    return new HandlersCache(generation, asyncType, synchronous,
+        baked.toArray(new HandlerRegistration[0]));
   }
 
   /**
@@ -347,14 +388,10 @@ public class VelocityEventManager implements EventManager {
       for (final HandlerRegistration registration : registrations) {
         handlersByType.put(registration.eventType, registration);
       }
+      handlersGeneration++;
     } finally {
       lock.writeLock().unlock();
     }
-    // Invalidate all the affected event subtypes
-    handlersCache.invalidateAll(registrations.stream()
-        .flatMap(registration -> eventTypeTracker.getFriendsOf(registration.eventType).stream())
-        .distinct()
-        .collect(Collectors.toList()));
   }
 
   @Override
@@ -393,7 +430,7 @@ public class VelocityEventManager implements EventManager {
 
     final HandlerRegistration registration = new HandlerRegistration(pluginContainer,
         postOrder, eventClass, handler, (EventHandler<Object>) handler,
-        AsyncType.ALWAYS);
+        AsyncType.ALWAYS, true);
     register(Collections.singletonList(registration));
   }
 
@@ -422,8 +459,10 @@ public class VelocityEventManager implements EventManager {
       }
 
       final EventHandler<Object> handler = untargetedHandler.buildHandler(listener);
+      // Continuation handlers never run async, but may resume the chain from another thread.
       registrations.add(new HandlerRegistration(pluginContainer, info.order,
-          info.eventType, listener, handler, info.asyncType));
+          info.eventType, listener, handler, info.asyncType,
+          info.asyncType != AsyncType.NEVER || info.continuationType != null));
     }
 
     register(registrations);
@@ -449,26 +488,14 @@ public class VelocityEventManager implements EventManager {
   }
 
   private void unregisterIf(final Predicate<HandlerRegistration> predicate) {
-    final List<HandlerRegistration> removed = new ArrayList<>();
     lock.writeLock().lock();
     try {
-      final Iterator<HandlerRegistration> it = handlersByType.values().iterator();
-      while (it.hasNext()) {
-        final HandlerRegistration registration = it.next();
-        if (predicate.test(registration)) {
-          it.remove();
-          removed.add(registration);
-        }
+      if (handlersByType.values().removeIf(predicate)) {
+        handlersGeneration++;
       }
     } finally {
       lock.writeLock().unlock();
     }
-
-    // Invalidate all the affected event subtypes
-    handlersCache.invalidateAll(removed.stream()
-        .flatMap(registration -> eventTypeTracker.getFriendsOf(registration.eventType).stream())
-        .distinct()
-        .collect(Collectors.toList()));
   }
 
   /**
@@ -480,15 +507,14 @@ public class VelocityEventManager implements EventManager {
    */
   public boolean hasSubscribers(final Class<?> eventClass) {
     requireNonNull(eventClass, "eventClass");
-    final HandlersCache handlersCache = this.handlersCache.get(eventClass);
-    return handlersCache != null && handlersCache.handlers.length > 0;
+    return getHandlers(eventClass).handlers.length > 0;
   }
 
   @Override
   public void fireAndForget(final Object event) {
     requireNonNull(event, "event");
-    final HandlersCache handlersCache = this.handlersCache.get(event.getClass());
-    if (handlersCache == null || handlersCache.handlers.length == 0) {
+    final HandlersCache handlersCache = getHandlers(event.getClass());
+    if (handlersCache.handlers.length == 0) {
       // Optimization: nobody's listening.
       return;
     }
@@ -498,16 +524,57 @@ public class VelocityEventManager implements EventManager {
   @Override
   public <E> CompletableFuture<E> fire(final E event) {
     requireNonNull(event, "event");
-    final HandlersCache handlersCache = this.handlersCache.get(event.getClass());
-    if (handlersCache == null || handlersCache.handlers.length == 0) {
+    final HandlersCache handlersCache = getHandlers(event.getClass());
+    if (handlersCache.handlers.length == 0) {
       // Optimization: nobody's listening.
       return CompletableFuture.completedFuture(event);
     }
+    if (handlersCache.synchronous) {
+      // Optimization: none of the handlers can return a task, so the chain completes right here.
+      fire(null, event, 0, false, handlersCache.handlers);
+      return CompletableFuture.completedFuture(event);
+    }
     final CompletableFuture<E> future = new CompletableFuture<>();
     fire(future, event, handlersCache);
     return future;
   }
 
+  /**
+   * Fires the specified event, then calls the callback on the given executor. If no handler can
+   * return a task or take a continuation and the current thread belongs to the executor, the
+   * handlers and the callback run before this method returns, without allocating a future or
+   * scheduling a task.
+   * Exceptions thrown by the callback are logged.
+   *
+   * @param event the event to fire
+   * @param executor the executor to call the callback on, usually the event loop of a connection
+   * @param callback the callback to call with the event once all handlers ran
+   * @param <E> the event type
+   */
+  public <E> void fire(final E event, final EventExecutor executor,
+      final Consumer<? super E> callback) {
+    requireNonNull(event, "event");
+    requireNonNull(callback, "callback");
+    final HandlersCache handlersCache = getHandlers(event.getClass());
+    if (handlersCache.synchronous && executor.inEventLoop()) {
+      if (handlersCache.handlers.length > 0) {
+        fire(null, event, 0, false, handlersCache.handlers);
+      }
+      runCallback(event, callback);
+      return;
+    }
+    fire(event).thenAcceptAsync(fired -> runCallback(fired, callback), executor);
+  }
+
+  private static <E> void runCallback(final E event, final Consumer<? super E> callback) {
+    try {
+      callback.accept(event);
+    } catch (final Throwable t) {
+      logger.error("Exception while handling the result of {}",
+          event.getClass().getSimpleName(), t);
+    }
+  }
+
   private <E> void fire(final @Nullable CompletableFuture<E> future,
       final E event, final HandlersCache handlersCache) {
     final HandlerRegistration registration = handlersCache.handlers[0];
@@ -35,6 +35,7 @@ import io.netty.channel.WriteBufferWaterMark;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import java.net.InetSocketAddress;
 import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
@@ -50,6 +51,10 @@ public final class ConnectionManager {
   private static final WriteBufferWaterMark SERVER_WRITE_MARK = new WriteBufferWaterMark(1 << 20,
       1 << 21);
   private static final Logger LOGGER = LogManager.getLogger(ConnectionManager.class, new ParameterizedMessageFactory());
+  private static final int SESSION_SERVER_MAX_CONCURRENT_REQUESTS =
+      Integer.getInteger("velocity.sessionserver.max-concurrent-requests", 64);
+  private static final int SESSION_SERVER_TIMEOUT_MILLIS =
+      Integer.getInteger("velocity.sessionserver.timeout", 10_000);
   private final Map<InetSocketAddress, Endpoint> endpoints = new HashMap<>();
   private final TransportType transportType;
   private final EventLoopGroup bossGroup;
@@ -61,6 +66,7 @@ public final class ConnectionManager {
   public final BackendChannelInitializerHolder backendChannelInitializer;
 
   private final SeparatePoolInetNameResolver resolver;
+  private final SessionServerClient sessionServerClient;
 
   /**
    * Initializes the {@code ConnectionManager}.
@@ -77,6 +83,14 @@ public final class ConnectionManager {
     this.backendChannelInitializer = new BackendChannelInitializerHolder(
         new BackendChannelInitializer(this.server));
     this.resolver = new SeparatePoolInetNameResolver(GlobalEventExecutor.INSTANCE);
+    this.sessionServerClient = new SessionServerClient(
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(SESSION_SERVER_TIMEOUT_MILLIS))
+            .executor(this.workerGroup)
+            .build(),
+        SESSION_SERVER_MAX_CONCURRENT_REQUESTS,
+        Duration.ofMillis(SESSION_SERVER_TIMEOUT_MILLIS));
   }
 
   public void logChannelInformation() {
@@ -229,12 +243,24 @@ public final class ConnectionManager {
     this.closeEndpoints(true);
 
     this.resolver.shutdown();
+
+    if (this.sessionServerClient.getClient() instanceof final AutoCloseable closeable) {
+      try {
+        closeable.close();
+      } catch (Exception e) {
+        LOGGER.error("Unable to close the session server HTTP client", e);
+      }
+    }
   }
 
   public EventLoopGroup getBossGroup() {
     return bossGroup;
   }
 
+  public EventLoopGroup getWorkerGroup() {
+    return workerGroup;
+  }
+
   public ServerChannelInitializerHolder getServerChannelInitializer() {
     return this.serverChannelInitializer;
   }
@@ -250,6 +276,15 @@ public final class ConnectionManager {
             .build();
   }
 
+  /**
+   * Returns the shared client used to authenticate players with the session server.
+   *
+   * @return the session server client
+   */
+  public SessionServerClient getSessionServerClient() {
+    return this.sessionServerClient;
+  }
+
   public BackendChannelInitializerHolder getBackendChannelInitializer() {
     return this.backendChannelInitializer;
   }
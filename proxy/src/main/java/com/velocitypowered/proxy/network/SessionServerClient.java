@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import static com.velocitypowered.proxy.VelocityServer.GENERAL_GSON;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.util.GameProfile;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Sends {@code hasJoined} requests to the session server over a single shared {@link HttpClient}.
+ *
+ * <p>The client negotiates HTTP/2 where the session server supports it, so concurrent logins are
+ * multiplexed over the same connection instead of each paying for its own TLS handshake. At most
+ * a fixed number of requests are in flight at once; further requests wait in a queue.</p>
+ */
+public final class SessionServerClient {
+
+  private final HttpClient client;
+  private final int maxConcurrentRequests;
+  private final Duration requestTimeout;
+  private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder totalLatencyNanos = new LongAdder();
+
+  SessionServerClient(final HttpClient client, final int maxConcurrentRequests,
+      final Duration requestTimeout) {
+    Preconditions.checkArgument(maxConcurrentRequests > 0, "maxConcurrentRequests");
+    this.client = client;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.requestTimeout = requestTimeout;
+  }
+
+  /**
+   * Asks the session server whether a player has joined. The body of a successful ({@code 200})
+   * response is parsed directly into a {@link GameProfile}; any other response has no body.
+   *
+   * @param uri the full {@code hasJoined} URI, including query parameters
+   * @param userAgent the user agent to send
+   * @return a future completed with the response
+   */
+  public CompletableFuture<HttpResponse<@Nullable GameProfile>> hasJoined(final URI uri,
+      final String userAgent) {
+    final HttpRequest request = HttpRequest.newBuilder()
+        .setHeader("User-Agent", userAgent)
+        .timeout(requestTimeout)
+        .uri(uri)
+        .build();
+
+    final CompletableFuture<HttpResponse<@Nullable GameProfile>> result =
+        new CompletableFuture<>();
+    pending.add(() -> {
+      final long start = System.nanoTime();
+      final CompletableFuture<HttpResponse<@Nullable GameProfile>> sent;
+      try {
+        sent = client.sendAsync(request, SessionServerClient::profileBodyHandler);
+      } catch (RuntimeException e) {
+        failed.increment();
+        inFlight.decrementAndGet();
+        result.completeExceptionally(e);
+        return;
+      }
+
+      sent.whenComplete((response, throwable) -> {
+        totalLatencyNanos.add(System.nanoTime() - start);
+        if (throwable != null) {
+          failed.increment();
+        } else {
+          completed.increment();
+        }
+        // Free the slot before completing, so the caller never sees this request as in flight.
+        inFlight.decrementAndGet();
+        drain();
+
+        if (throwable != null) {
+          result.completeExceptionally(throwable);
+        } else {
+          result.complete(response);
+        }
+      });
+    });
+    drain();
+    return result;
+  }
+
+  private void drain() {
+    while (!pending.isEmpty()) {
+      int current = inFlight.get();
+      if (current >= maxConcurrentRequests) {
+        return;
+      }
+      if (!inFlight.compareAndSet(current, current + 1)) {
+        continue;
+      }
+
+      Runnable task = pending.poll();
+      if (task == null) {
+        // Someone else took the last request, so give back the slot.
+        inFlight.decrementAndGet();
+        continue;
+      }
+      task.run();
+    }
+  }
+
+  private static HttpResponse.BodySubscriber<@Nullable GameProfile> profileBodyHandler(
+      final HttpResponse.ResponseInfo info) {
+    if (info.statusCode() != 200) {
+      return HttpResponse.BodySubscribers.replacing(null);
+    }
+    return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(),
+        body -> {
+          try (Reader reader = new InputStreamReader(new ByteArrayInputStream(body),
+              StandardCharsets.UTF_8)) {
+            return GENERAL_GSON.fromJson(reader, GameProfile.class);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  HttpClient getClient() {
+    return client;
+  }
+
+  /**
+   * Returns the number of requests currently being sent to the session server.
+   *
+   * @return the number of in-flight requests
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * Returns the number of requests waiting for a free slot.
+   *
+   * @return the number of queued requests
+   */
+  public int getQueued() {
+    return pending.size();
+  }
+
+  public long getCompleted() {
+    return completed.sum();
+  }
+
+  public long getFailed() {
+    return failed.sum();
+  }
+
+  /**
+   * Returns the mean time taken by finished requests, including failed ones.
+   *
+   * @return the mean latency in milliseconds, or {@code 0} if no request has finished yet
+   */
+  public double getAverageLatencyMillis() {
+    long finished = completed.sum() + failed.sum();
+    return finished == 0 ? 0 : totalLatencyNanos.sum() / 1_000_000.0 / finished;
+  }
+}
@@ -32,6 +32,7 @@ import com.velocitypowered.api.plugin.PluginManager;
 import com.velocitypowered.api.plugin.meta.PluginDependency;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.plugin.executor.PluginExecutors;
 import com.velocitypowered.proxy.plugin.loader.VelocityPluginContainer;
 import com.velocitypowered.proxy.plugin.loader.java.JavaPluginLoader;
 import com.velocitypowered.proxy.plugin.util.PluginDependencyUtils;
@@ -63,11 +64,16 @@ public class VelocityPluginManager implements PluginManager {
   private final Map<String, PluginContainer> pluginsById = new LinkedHashMap<>();
   private final Map<Object, PluginContainer> pluginInstances = new IdentityHashMap<>();
   private final VelocityServer server;
+  private final PluginExecutors executors = new PluginExecutors();
 
   public VelocityPluginManager(final VelocityServer server) {
     this.server = checkNotNull(server, "server");
   }
 
+  public PluginExecutors getExecutors() {
+    return executors;
+  }
+
   /**
    * Registers a plugin with the plugin manager.
    *
@@ -141,7 +147,7 @@ public class VelocityPluginManager implements PluginManager {
 
       try {
         PluginDescription realPlugin = loader.createPluginFromCandidate(candidate);
-        VelocityPluginContainer container = new VelocityPluginContainer(realPlugin);
+        VelocityPluginContainer container = new VelocityPluginContainer(realPlugin, executors);
         pluginContainers.put(container, loader.createModule(container));
         loadedCandidates.put(realPlugin.getId(), realPlugin);
       } catch (Throwable e) {
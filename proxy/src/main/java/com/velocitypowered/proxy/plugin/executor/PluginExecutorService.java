@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.plugin.executor;
+
+import com.google.common.base.Preconditions;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The executor given to a single plugin. It forwards tasks to the executor picked by
+ * {@link PluginExecutors}, which may be shared with other plugins, and keeps count of the tasks
+ * of this plugin so that a plugin flooding its executor can be spotted.
+ *
+ * <p>Shutting down this executor only stops it from accepting tasks from this plugin. A shared
+ * executor keeps running, and {@link #awaitTermination(long, TimeUnit)} only waits for the tasks
+ * of this plugin.</p>
+ */
+public final class PluginExecutorService extends AbstractExecutorService {
+
+  private final ExecutorService delegate;
+  private final boolean ownsDelegate;
+  private final PluginExecutorType type;
+  // Tasks that were submitted but have not finished yet, including the running ones.
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicInteger active = new AtomicInteger();
+  private final LongAdder completed = new LongAdder();
+  private final Object terminationLock = new Object();
+  private volatile boolean shutdown;
+
+  PluginExecutorService(final ExecutorService delegate, final boolean ownsDelegate,
+      final PluginExecutorType type) {
+    this.delegate = delegate;
+    this.ownsDelegate = ownsDelegate;
+    this.type = type;
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    Preconditions.checkNotNull(command, "command");
+    if (shutdown) {
+      throw new RejectedExecutionException("Executor has been shut down");
+    }
+
+    pending.incrementAndGet();
+    try {
+      delegate.execute(() -> {
+        active.incrementAndGet();
+        try {
+          command.run();
+        } finally {
+          active.decrementAndGet();
+          completed.increment();
+          taskFinished(1);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      taskFinished(1);
+      throw e;
+    }
+  }
+
+  private void taskFinished(final int count) {
+    if (pending.addAndGet(-count) == 0 && shutdown) {
+      synchronized (terminationLock) {
+        terminationLock.notifyAll();
+      }
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    if (ownsDelegate) {
+      delegate.shutdown();
+    }
+    taskFinished(0);
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    if (!ownsDelegate) {
+      // Tasks can't be taken back out of a shared executor.
+      taskFinished(0);
+      return List.of();
+    }
+    List<Runnable> dropped = delegate.shutdownNow();
+    taskFinished(dropped.size());
+    return dropped;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown && pending.get() == 0;
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (terminationLock) {
+      while (!isTerminated()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+      }
+      return true;
+    }
+  }
+
+  public PluginExecutorType getType() {
+    return type;
+  }
+
+  /**
+   * Returns the number of tasks of this plugin waiting for a thread.
+   *
+   * @return the number of queued tasks
+   */
+  public int getQueuedTasks() {
+    return Math.max(0, pending.get() - active.get());
+  }
+
+  /**
+   * Returns the number of tasks of this plugin currently running.
+   *
+   * @return the number of running tasks
+   */
+  public int getActiveTasks() {
+    return active.get();
+  }
+
+  /**
+   * Returns the number of tasks of this plugin that have finished, including failed ones.
+   *
+   * @return the number of completed tasks
+   */
+  public long getCompletedTasks() {
+    return completed.sum();
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.plugin.executor;
+
+/**
+ * The kinds of executors plugins can be given for their asynchronous event handlers and
+ * scheduled tasks.
+ */
+public enum PluginExecutorType {
+  /**
+   * Gives each plugin an unbounded cached thread pool, which starts a new platform thread
+   * whenever all existing threads are busy.
+   */
+  CACHED,
+  /**
+   * Gives each plugin an executor that runs every task on a new virtual thread. Requires Java 21
+   * or newer, and falls back to {@link #CACHED} otherwise.
+   */
+  VIRTUAL,
+  /**
+   * Gives each plugin a thread pool with a fixed maximum number of platform threads. Tasks wait
+   * in a queue while all threads are busy.
+   */
+  BOUNDED,
+  /**
+   * Runs the tasks of all plugins on a single shared {@link java.util.concurrent.ForkJoinPool}.
+   */
+  SHARED
+}
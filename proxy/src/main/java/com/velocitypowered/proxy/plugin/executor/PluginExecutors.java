@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.plugin.executor;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Creates the executors given to plugins, according to the configured
+ * {@link PluginExecutorType}. Changing the type only affects executors created afterwards.
+ */
+public final class PluginExecutors {
+
+  private static final Logger logger = LogManager.getLogger(PluginExecutors.class);
+  private static final int DEFAULT_THREADS = 64;
+  private static final @Nullable MethodHandle NEW_VIRTUAL_THREAD_FACTORY = findVirtualThreads();
+
+  private volatile PluginExecutorType type = PluginExecutorType.CACHED;
+  private volatile int threads = DEFAULT_THREADS;
+  private @Nullable ForkJoinPool sharedPool;
+
+  /**
+   * Sets the kind of executor created for plugins from now on.
+   *
+   * @param type the kind of executor
+   * @param threads the maximum number of threads of a bounded executor, or the parallelism of the
+   *                shared executor
+   */
+  public void configure(final PluginExecutorType type, final int threads) {
+    Preconditions.checkNotNull(type, "type");
+    Preconditions.checkArgument(threads > 0, "threads must be positive");
+    if (type == PluginExecutorType.VIRTUAL && NEW_VIRTUAL_THREAD_FACTORY == null) {
+      logger.warn("Virtual threads require Java 21 or newer, using cached thread pools for "
+          + "plugins instead.");
+      this.type = PluginExecutorType.CACHED;
+    } else {
+      this.type = type;
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Creates the executor for a plugin.
+   *
+   * @param pluginName the name of the plugin, used to name its threads
+   * @return the executor
+   */
+  public PluginExecutorService create(final String pluginName) {
+    PluginExecutorType type = this.type;
+    return switch (type) {
+      case CACHED -> new PluginExecutorService(
+          Executors.newCachedThreadPool(createThreadFactory(pluginName)), true, type);
+      case VIRTUAL -> new PluginExecutorService(createVirtualExecutor(pluginName), true, type);
+      case BOUNDED -> {
+        int threads = this.threads;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), createThreadFactory(pluginName));
+        executor.allowCoreThreadTimeOut(true);
+        yield new PluginExecutorService(executor, true, type);
+      }
+      case SHARED -> new PluginExecutorService(getSharedPool(), false, type);
+    };
+  }
+
+  private static ThreadFactory createThreadFactory(final String pluginName) {
+    return new ThreadFactoryBuilder()
+        .setNameFormat(pluginName + " - Task Executor #%d")
+        .setDaemon(true)
+        .build();
+  }
+
+  private synchronized ForkJoinPool getSharedPool() {
+    if (sharedPool == null) {
+      sharedPool = new ForkJoinPool(threads, pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+            .newThread(pool);
+        thread.setName("Velocity Plugin Executor #" + thread.getPoolIndex());
+        return thread;
+      }, null, true);
+    }
+    return sharedPool;
+  }
+
+  private static ExecutorService createVirtualExecutor(final String pluginName) {
+    try {
+      ThreadFactory factory = (ThreadFactory) NEW_VIRTUAL_THREAD_FACTORY.invoke(
+          pluginName + " - Virtual Task Executor #");
+      return (ExecutorService) Executors.class
+          .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, factory);
+    } catch (Throwable e) {
+      throw new IllegalStateException("Unable to create a virtual thread executor", e);
+    }
+  }
+
+  // The proxy is built for Java 17, so virtual threads can only be reached reflectively. Returns
+  // a handle creating a thread factory for a name prefix, if virtual threads are available.
+  private static @Nullable MethodHandle findVirtualThreads() {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+      MethodHandle create = lookup.findStatic(Thread.class, "ofVirtual",
+          MethodType.methodType(ofVirtual));
+      MethodHandle name = lookup.findVirtual(builder, "name",
+          MethodType.methodType(builder, String.class, long.class));
+      MethodHandle factory = lookup.findVirtual(builder, "factory",
+          MethodType.methodType(ThreadFactory.class));
+
+      // prefix -> Thread.ofVirtual().name(prefix, 0).factory()
+      MethodHandle named = MethodHandles.insertArguments(name, 2, 0L);
+      named = MethodHandles.collectArguments(named, 0,
+          create.asType(MethodType.methodType(builder)));
+      return MethodHandles.filterReturnValue(named, factory)
+          .asType(MethodType.methodType(ThreadFactory.class, String.class));
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+}
@@ -17,12 +17,11 @@
 
 package com.velocitypowered.proxy.plugin.loader;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.velocitypowered.api.plugin.PluginContainer;
 import com.velocitypowered.api.plugin.PluginDescription;
+import com.velocitypowered.proxy.plugin.executor.PluginExecutorService;
+import com.velocitypowered.proxy.plugin.executor.PluginExecutors;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Implements {@link PluginContainer}.
@@ -30,11 +29,14 @@ import java.util.concurrent.Executors;
 public class VelocityPluginContainer implements PluginContainer {
 
   private final PluginDescription description;
+  private final PluginExecutors executors;
   private Object instance;
-  private volatile ExecutorService service;
+  private volatile PluginExecutorService service;
 
-  public VelocityPluginContainer(final PluginDescription description) {
+  public VelocityPluginContainer(final PluginDescription description,
+      final PluginExecutors executors) {
     this.description = description;
+    this.executors = executors;
   }
 
   @Override
@@ -52,19 +54,12 @@ public class VelocityPluginContainer implements PluginContainer {
   }
 
   @Override
-  public ExecutorService getExecutorService() {
+  public PluginExecutorService getExecutorService() {
     if (this.service == null) {
       synchronized (this) {
         if (this.service == null) {
           String name = this.description.getName().orElse(this.description.getId());
-          this.service = Executors.unconfigurableExecutorService(
-              Executors.newCachedThreadPool(
-                new ThreadFactoryBuilder().setDaemon(true)
-                    .setNameFormat(name + " - Task Executor #%d")
-                    .setDaemon(true)
-                    .build()
-              )
-          );
+          this.service = this.executors.create(name);
         }
       }
     }
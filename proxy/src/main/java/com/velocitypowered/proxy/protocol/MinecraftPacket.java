@@ -41,4 +41,17 @@ public interface MinecraftPacket {
       ProtocolVersion version) {
     return 0;
   }
+
+  /**
+   * Returns the expected encoded size of this packet, excluding the packet ID, for packets that
+   * can cheaply tell. The encoder uses it to size the output buffer up front, so it should err on
+   * the side of being too large.
+   *
+   * @param direction the direction the packet is encoded for
+   * @param version the protocol version the packet is encoded for
+   * @return the encoded size, or {@code -1} if it is not known
+   */
+  default int encodeSizeHint(ProtocolUtils.Direction direction, ProtocolVersion version) {
+    return -1;
+  }
 }
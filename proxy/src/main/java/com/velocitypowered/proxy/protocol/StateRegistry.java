@@ -932,6 +932,16 @@ public enum StateRegistry {
       public boolean containsPacket(final MinecraftPacket packet) {
         return this.packetClassToId.containsKey(packet.getClass());
       }
+
+      /**
+       * Checks if the registry can decode a packet with the specified {@code id}.
+       *
+       * @param id the packet ID to check
+       * @return {@code true} if the packet ID is registered, {@code false} otherwise
+       */
+      public boolean containsPacketId(final int id) {
+        return this.packetIdToSupplier.containsKey(id);
+      }
     }
   }
 
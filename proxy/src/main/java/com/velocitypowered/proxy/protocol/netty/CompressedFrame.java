@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A still-compressed frame from a backend server whose packet ID is not known to the proxy. The
+ * frame is forwarded to the client as-is, which avoids inflating and deflating it again on the
+ * proxy.
+ *
+ * <p>The content of the frame is the raw deflated payload, without the frame length and the
+ * uncompressed data length.
+ */
+public final class CompressedFrame extends DefaultByteBufHolder {
+
+  private final int uncompressedSize;
+
+  /**
+   * Creates a new compressed frame.
+   *
+   * @param compressed the deflated payload
+   * @param uncompressedSize the size of the payload once inflated
+   */
+  public CompressedFrame(final ByteBuf compressed, final int uncompressedSize) {
+    super(compressed);
+    this.uncompressedSize = uncompressedSize;
+  }
+
+  public int getUncompressedSize() {
+    return uncompressedSize;
+  }
+
+  @Override
+  public CompressedFrame replace(final ByteBuf content) {
+    return new CompressedFrame(content, uncompressedSize);
+  }
+
+  @Override
+  public CompressedFrame retain() {
+    super.retain();
+    return this;
+  }
+
+  @Override
+  public CompressedFrame retain(final int increment) {
+    super.retain(increment);
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "CompressedFrame{"
+        + "uncompressedSize=" + uncompressedSize
+        + ", compressedSize=" + content().readableBytes()
+        + '}';
+  }
+}
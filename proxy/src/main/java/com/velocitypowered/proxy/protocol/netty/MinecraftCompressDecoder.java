@@ -27,6 +27,9 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Decompresses a Minecraft packet.
@@ -40,8 +43,15 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
       Boolean.getBoolean("velocity.increased-compression-cap")
           ? HARD_MAXIMUM_UNCOMPRESSED_SIZE : VANILLA_MAXIMUM_UNCOMPRESSED_SIZE;
 
+  // The most compressed input we are willing to feed through the inflater to discover the packet
+  // ID of a frame. Anything beyond this is far more than a deflate block header can take up.
+  private static final int PASSTHROUGH_PEEK_INPUT_LIMIT = 1024;
+
   private int threshold;
   private final VelocityCompressor compressor;
+  private @Nullable MinecraftDecoder passthroughDecoder;
+  private @Nullable Inflater peekInflater;
+  private final byte[] peekBuffer = new byte[5];
 
   public MinecraftCompressDecoder(final int threshold, final VelocityCompressor compressor) {
     this.threshold = threshold;
@@ -63,6 +73,15 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
         "Uncompressed size %s exceeds hard threshold of %s", claimedUncompressedSize,
         UNCOMPRESSED_CAP);
 
+    if (passthroughDecoder != null) {
+      int packetId = peekPacketId(in);
+      if (packetId != -1 && !passthroughDecoder.isRegistered(packetId)) {
+        // We would not do anything with this packet anyway, so skip inflating it.
+        out.add(new CompressedFrame(in.retainedSlice(), claimedUncompressedSize));
+        return;
+      }
+    }
+
     ByteBuf compatibleIn = ensureCompatible(ctx.alloc(), compressor, in);
     ByteBuf uncompressed = preferredBuffer(ctx.alloc(), compressor, claimedUncompressedSize);
     try {
@@ -76,12 +95,66 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
   }
 
+  /**
+   * Inflates just enough of the compressed payload to read the packet ID, without consuming any
+   * bytes from {@code in}.
+   *
+   * @param in the compressed payload
+   * @return the packet ID, or {@code -1} if it could not be determined cheaply
+   */
+  private int peekPacketId(final ByteBuf in) throws DataFormatException {
+    if (peekInflater == null) {
+      peekInflater = new Inflater();
+    } else {
+      peekInflater.reset();
+    }
+
+    int inputLength = Math.min(in.readableBytes(), PASSTHROUGH_PEEK_INPUT_LIMIT);
+    peekInflater.setInput(in.nioBuffer(in.readerIndex(), inputLength));
+
+    int peeked = 0;
+    while (peeked < peekBuffer.length && !peekInflater.finished()
+        && !peekInflater.needsInput()) {
+      int produced = peekInflater.inflate(peekBuffer, peeked, peekBuffer.length - peeked);
+      if (produced == 0) {
+        break;
+      }
+      peeked += produced;
+    }
+
+    int packetId = 0;
+    for (int i = 0; i < peeked; i++) {
+      byte b = peekBuffer[i];
+      packetId |= (b & 0x7F) << (i * 7);
+      if ((b & 0x80) != 128) {
+        return packetId;
+      }
+    }
+    return -1;
+  }
+
   @Override
   public void handlerRemoved(final ChannelHandlerContext ctx) {
     compressor.close();
+    if (peekInflater != null) {
+      peekInflater.end();
+      peekInflater = null;
+    }
   }
 
   public void setThreshold(final int threshold) {
     this.threshold = threshold;
   }
+
+  /**
+   * Sets the decoder used to determine whether a packet is known to the proxy. While set, frames
+   * carrying packets unknown to {@code decoder} are emitted as {@link CompressedFrame}s instead of
+   * being inflated.
+   *
+   * @param decoder the packet decoder further down the pipeline, or {@code null} to disable
+   *                compressed passthrough
+   */
+  public void setPassthroughDecoder(final @Nullable MinecraftDecoder decoder) {
+    this.passthroughDecoder = decoder;
+  }
 }
@@ -24,6 +24,7 @@ import com.velocitypowered.natives.util.MoreByteBufUtils;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 import java.util.zip.DataFormatException;
 
@@ -40,6 +41,67 @@ public class MinecraftCompressorAndLengthEncoder extends MessageToByteEncoder<By
     this.compressor = compressor;
   }
 
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+    if (msg instanceof CompressedFrame frame) {
+      writeCompressedFrame(ctx, frame, promise);
+    } else {
+      super.write(ctx, msg, promise);
+    }
+  }
+
+  private void writeCompressedFrame(final ChannelHandlerContext ctx, final CompressedFrame frame,
+      final ChannelPromise promise) throws Exception {
+    ByteBuf uncompressed = null;
+    ByteBuf out = null;
+    try {
+      int uncompressedSize = frame.getUncompressedSize();
+      if (threshold < 0 || uncompressedSize < threshold) {
+        // The frame would not be compressed by us, so we can't pass it on as-is.
+        ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ctx.alloc(), compressor,
+            frame.content());
+        try {
+          uncompressed = MoreByteBufUtils.preferredBuffer(ctx.alloc(), compressor,
+              uncompressedSize);
+          compressor.inflate(compatibleIn, uncompressed, uncompressedSize);
+        } finally {
+          compatibleIn.release();
+        }
+        ByteBuf inflated = uncompressed;
+        uncompressed = null;
+        super.write(ctx, inflated, promise);
+        return;
+      }
+
+      ByteBuf compressed = frame.content();
+      int compressedLength = compressed.readableBytes();
+      if (compressedLength >= 1 << 21) {
+        throw new DataFormatException("The server sent a very large (over 2MiB compressed) packet.");
+      }
+
+      int packetLength = ProtocolUtils.varIntBytes(uncompressedSize) + compressedLength;
+      int finalBufferSize = ProtocolUtils.varIntBytes(packetLength) + packetLength;
+      out = IS_JAVA_CIPHER
+          ? ctx.alloc().heapBuffer(finalBufferSize)
+          : ctx.alloc().directBuffer(finalBufferSize);
+      ProtocolUtils.writeVarInt(out, packetLength);
+      ProtocolUtils.writeVarInt(out, uncompressedSize);
+      out.writeBytes(compressed, compressed.readerIndex(), compressedLength);
+
+      ByteBuf toWrite = out;
+      out = null;
+      ctx.write(toWrite, promise);
+    } finally {
+      frame.release();
+      if (uncompressed != null) {
+        uncompressed.release();
+      }
+      if (out != null) {
+        out.release();
+      }
+    }
+  }
+
   @Override
   protected void encode(final ChannelHandlerContext ctx, final ByteBuf msg, final ByteBuf out) throws Exception {
     int uncompressed = msg.readableBytes();
@@ -148,6 +148,17 @@ public class MinecraftDecoder extends ChannelInboundHandlerAdapter {
     this.setProtocolVersion(registry.version);
   }
 
+  /**
+   * Determines whether the packet with the specified ID is decoded by the proxy in the current
+   * state and protocol version.
+   *
+   * @param packetId the packet ID
+   * @return {@code true} if the proxy decodes the packet, {@code false} otherwise
+   */
+  public boolean isRegistered(final int packetId) {
+    return registry.containsPacketId(packetId);
+  }
+
   public ProtocolUtils.Direction getDirection() {
     return direction;
   }
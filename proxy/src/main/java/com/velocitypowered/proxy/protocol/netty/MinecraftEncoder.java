@@ -24,6 +24,7 @@ import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 /**
@@ -34,6 +35,7 @@ public class MinecraftEncoder extends MessageToByteEncoder<MinecraftPacket> {
   private final ProtocolUtils.Direction direction;
   private StateRegistry state;
   private StateRegistry.PacketRegistry.ProtocolRegistry registry;
+  private int allocatedCapacity;
 
   /**
    * Creates a new {@code MinecraftEncoder} encoding packets for the specified {@code direction}.
@@ -47,11 +49,60 @@ public class MinecraftEncoder extends MessageToByteEncoder<MinecraftPacket> {
     this.state = StateRegistry.HANDSHAKE;
   }
 
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+      throws Exception {
+    if (msg instanceof PreEncodedPacket encoded) {
+      writePreEncoded(ctx, encoded, promise);
+    } else {
+      super.write(ctx, msg, promise);
+    }
+  }
+
+  private void writePreEncoded(final ChannelHandlerContext ctx, final PreEncodedPacket encoded,
+      final ChannelPromise promise) throws Exception {
+    if (encoded.getState() != state || encoded.getVersion() != registry.version) {
+      // The connection switched states since the packet was encoded.
+      MinecraftPacket packet = encoded.getPacket();
+      encoded.release();
+      super.write(ctx, packet, promise);
+      return;
+    }
+
+    ByteBuf content = encoded.content();
+    if (ctx.pipeline().get(MinecraftCipherEncoder.class) != null
+        && ctx.pipeline().get(MinecraftCompressorAndLengthEncoder.class) == null) {
+      // Without compression, the cipher would encrypt the shared buffer in place.
+      ByteBuf copy = ctx.alloc().buffer(content.readableBytes());
+      try {
+        copy.writeBytes(content, content.readerIndex(), content.readableBytes());
+      } finally {
+        encoded.release();
+      }
+      ctx.write(copy, promise);
+      return;
+    }
+    ctx.write(content, promise);
+  }
+
+  @Override
+  protected ByteBuf allocateBuffer(final ChannelHandlerContext ctx, final MinecraftPacket msg,
+      final boolean preferDirect) {
+    int hint = msg.encodeSizeHint(direction, registry.version);
+    int capacity = hint >= 0 ? hint + 5 // the packet ID is a VarInt of at most 5 bytes
+        : PacketSizePredictor.INSTANCE.predict(msg.getClass(), registry.version);
+    this.allocatedCapacity = capacity;
+    return preferDirect ? ctx.alloc().ioBuffer(capacity) : ctx.alloc().heapBuffer(capacity);
+  }
+
   @Override
   protected void encode(final ChannelHandlerContext ctx, final MinecraftPacket msg, final ByteBuf out) {
+    int start = out.writerIndex();
     int packetId = this.registry.getPacketId(msg);
     ProtocolUtils.writeVarInt(out, packetId);
     msg.encode(out, direction, registry.version);
+    PacketSizePredictor.INSTANCE.record(msg.getClass(), registry.version,
+        allocatedCapacity - start, out.writerIndex() - start);
   }
 
   public void setProtocolVersion(final ProtocolVersion protocolVersion) {
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.velocitypowered.api.network.ProtocolVersion;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Predicts how large an encoded packet will be, so that {@link MinecraftEncoder} can allocate a
+ * buffer of the right size up front instead of growing it while encoding.
+ *
+ * <p>A prediction is kept for every packet class and protocol version. Like Netty's
+ * {@code AdaptiveRecvByteBufAllocator}, it grows immediately when a packet doesn't fit, and
+ * shrinks slowly, as an exponentially weighted moving average, when packets get smaller.
+ * Predictions are updated without synchronization, as losing an update only costs accuracy.</p>
+ */
+public final class PacketSizePredictor {
+
+  public static final PacketSizePredictor INSTANCE = new PacketSizePredictor();
+
+  /**
+   * The size used for packets that have not been seen yet, which is the initial capacity
+   * {@code MessageToByteEncoder} would otherwise allocate.
+   */
+  static final int DEFAULT_SIZE = 256;
+  private static final int MIN_SIZE = 64;
+  private static final int MAX_SIZE = 1 << 21;
+  // Each smaller packet moves the prediction 1/8th of the way towards its size.
+  private static final int DECAY_SHIFT = 3;
+  private static final int VERSIONS = ProtocolVersion.values().length;
+
+  private final ClassValue<AtomicIntegerArray> predictions = new ClassValue<>() {
+    @Override
+    protected AtomicIntegerArray computeValue(final Class<?> type) {
+      return new AtomicIntegerArray(VERSIONS);
+    }
+  };
+  private final LongAdder encodedPackets = new LongAdder();
+  private final LongAdder reallocations = new LongAdder();
+  private final LongAdder bytesCopied = new LongAdder();
+
+  @VisibleForTesting
+  PacketSizePredictor() {
+  }
+
+  /**
+   * Returns the buffer capacity to allocate for a packet.
+   *
+   * @param type the class of the packet
+   * @param version the protocol version the packet is encoded for
+   * @return the predicted encoded size, including the packet ID
+   */
+  public int predict(final Class<?> type, final ProtocolVersion version) {
+    int prediction = predictions.get(type).get(version.ordinal());
+    return prediction == 0 ? DEFAULT_SIZE : prediction;
+  }
+
+  /**
+   * Records the size of an encoded packet.
+   *
+   * @param type the class of the packet
+   * @param version the protocol version the packet was encoded for
+   * @param allocated the capacity allocated for the packet
+   * @param size the encoded size of the packet, including the packet ID
+   */
+  public void record(final Class<?> type, final ProtocolVersion version, final int allocated,
+      final int size) {
+    AtomicIntegerArray array = predictions.get(type);
+    int index = version.ordinal();
+    int current = array.get(index);
+    int updated;
+    if (current == 0 || size >= current) {
+      updated = size;
+    } else {
+      updated = current - ((current - size) >> DECAY_SHIFT);
+    }
+    array.lazySet(index, Math.max(MIN_SIZE, Math.min(MAX_SIZE, updated)));
+
+    encodedPackets.increment();
+    if (size > allocated) {
+      recordGrowth(allocated, size);
+    }
+  }
+
+  // The buffer itself doesn't report how often it grew, so replay the growth policy of Netty's
+  // allocators: below 4 MiB, the capacity is raised to the next power of two that fits.
+  private void recordGrowth(final int allocated, final int size) {
+    long copied = 0;
+    int steps = 0;
+    int capacity = Math.max(allocated, 1);
+    while (capacity < size) {
+      copied += capacity;
+      steps++;
+      capacity = Math.max(MIN_SIZE, Integer.highestOneBit(capacity) << 1);
+    }
+    reallocations.add(steps);
+    bytesCopied.add(copied);
+  }
+
+  /**
+   * Returns the number of packets encoded since the proxy started.
+   *
+   * @return the number of encoded packets
+   */
+  public long getEncodedPackets() {
+    return encodedPackets.sum();
+  }
+
+  /**
+   * Returns the estimated number of times a buffer had to grow while a packet was encoded.
+   *
+   * @return the estimated number of reallocations
+   */
+  public long getReallocations() {
+    return reallocations.sum();
+  }
+
+  /**
+   * Returns the estimated number of bytes copied by buffers growing while packets were encoded.
+   *
+   * @return the estimated number of bytes copied
+   */
+  public long getBytesCopied() {
+    return bytesCopied.sum();
+  }
+}
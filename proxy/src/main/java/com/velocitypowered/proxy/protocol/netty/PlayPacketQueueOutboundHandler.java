@@ -56,15 +56,21 @@ public class PlayPacketQueueOutboundHandler extends ChannelDuplexHandler {
 
   @Override
   public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
-    if (!(msg instanceof final MinecraftPacket packet)) {
-      ctx.write(msg, promise);
+    Object message = msg;
+    if (message instanceof final PreEncodedPacket encoded) {
+      // The bytes were encoded for the PLAY state, so fall back to the packet itself.
+      message = encoded.getPacket();
+      encoded.release();
+    }
+    if (!(message instanceof final MinecraftPacket packet)) {
+      ctx.write(message, promise);
       return;
     }
 
     // If the packet exists in the CONFIG state, we want to always
     // ensure that it gets sent out to the client
     if (this.registry.containsPacket(packet)) {
-      ctx.write(msg, promise);
+      ctx.write(packet, promise);
       return;
     }
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A packet that was already encoded, usually once for many connections. The content holds the
+ * packet ID and the packet body as {@link MinecraftEncoder} would write them for the given state
+ * and protocol version, and is typically a duplicate of a buffer shared with other connections.
+ *
+ * <p>If the connection is no longer in that state by the time the packet reaches the encoder,
+ * the encoded bytes are dropped and the original packet is encoded again.</p>
+ */
+public final class PreEncodedPacket extends DefaultByteBufHolder {
+
+  private final MinecraftPacket packet;
+  private final StateRegistry state;
+  private final ProtocolVersion version;
+
+  /**
+   * Creates a new pre-encoded packet.
+   *
+   * @param encoded the packet ID and body
+   * @param packet the packet that was encoded
+   * @param state the state the packet was encoded for
+   * @param version the protocol version the packet was encoded for
+   */
+  public PreEncodedPacket(final ByteBuf encoded, final MinecraftPacket packet,
+      final StateRegistry state, final ProtocolVersion version) {
+    super(encoded);
+    this.packet = packet;
+    this.state = state;
+    this.version = version;
+  }
+
+  public MinecraftPacket getPacket() {
+    return packet;
+  }
+
+  public StateRegistry getState() {
+    return state;
+  }
+
+  public ProtocolVersion getVersion() {
+    return version;
+  }
+
+  @Override
+  public PreEncodedPacket replace(final ByteBuf content) {
+    return new PreEncodedPacket(content, packet, state, version);
+  }
+
+  @Override
+  public PreEncodedPacket retain() {
+    super.retain();
+    return this;
+  }
+
+  @Override
+  public PreEncodedPacket retain(final int increment) {
+    super.retain(increment);
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "PreEncodedPacket{"
+        + "packet=" + packet
+        + ", state=" + state
+        + ", version=" + version
+        + '}';
+  }
+}
@@ -41,6 +41,8 @@ import com.velocitypowered.proxy.protocol.ProtocolUtils.Direction;
 import com.velocitypowered.proxy.protocol.packet.brigadier.ArgumentPropertyRegistry;
 import com.velocitypowered.proxy.util.collect.IdentityHashStrategy;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.CorruptedFrameException;
 import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenCustomHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import java.util.ArrayDeque;
@@ -72,22 +74,82 @@ public class AvailableCommandsPacket implements MinecraftPacket {
   private static final byte FLAG_IS_REDIRECT = 0x08;
   private static final byte FLAG_HAS_SUGGESTIONS = 0x10;
 
+  private byte @Nullable [] encodedGraph;
+  private @Nullable ProtocolVersion encodedVersion;
   private @MonotonicNonNull RootCommandNode<CommandSource> rootNode;
 
+  public AvailableCommandsPacket() {
+  }
+
+  /**
+   * Creates a packet from an already serialized command graph.
+   *
+   * @param encodedGraph the serialized command graph
+   * @param encodedVersion the protocol version the graph was serialized for
+   */
+  public AvailableCommandsPacket(final byte[] encodedGraph, final ProtocolVersion encodedVersion) {
+    this.encodedGraph = encodedGraph;
+    this.encodedVersion = encodedVersion;
+  }
+
   /**
-   * Returns the root node.
+   * Returns the root node, deserializing the command graph if this has not been done yet. Any
+   * changes made to the returned graph are reflected when the packet is encoded.
+   *
+   * <p>As the graph is deserialized lazily, a malformed graph is only detected here rather than
+   * in the decoder. It is reported with the same {@link CorruptedFrameException} the decoder
+   * would have thrown, so callers can fail the connection in the same way.</p>
    *
    * @return the root node
+   * @throws CorruptedFrameException if the graph received from the server is malformed
    */
-  public RootCommandNode<CommandSource> getRootNode() {
+  public synchronized RootCommandNode<CommandSource> getRootNode() {
     if (rootNode == null) {
-      throw new IllegalStateException("Packet not yet deserialized");
+      if (encodedGraph == null || encodedVersion == null) {
+        throw new IllegalStateException("Packet not yet deserialized");
+      }
+      ByteBuf buf = Unpooled.wrappedBuffer(encodedGraph);
+      RootCommandNode<CommandSource> root;
+      try {
+        root = decodeGraph(buf, encodedVersion);
+      } catch (CorruptedFrameException e) {
+        throw e;
+      } catch (RuntimeException e) {
+        throw new CorruptedFrameException("Malformed command graph for " + encodedVersion, e);
+      }
+      if (buf.isReadable()) {
+        throw new CorruptedFrameException("Command graph has " + buf.readableBytes()
+            + " trailing bytes");
+      }
+      rootNode = root;
     }
     return rootNode;
   }
 
+  /**
+   * Returns the command graph exactly as it was received, as long as it has not been deserialized
+   * by {@link #getRootNode()}.
+   *
+   * @return the serialized command graph, or {@code null} if it has been deserialized
+   */
+  public byte @Nullable [] getEncodedGraph() {
+    return rootNode == null ? encodedGraph : null;
+  }
+
+  /**
+   * Reads the command graph. The graph itself is only deserialized once it is requested by
+   * {@link #getRootNode()}, which allows the packet to be forwarded or cached without building
+   * the graph.
+   */
   @Override
   public void decode(final ByteBuf buf, final Direction direction, final ProtocolVersion protocolVersion) {
+    encodedGraph = new byte[buf.readableBytes()];
+    buf.readBytes(encodedGraph);
+    encodedVersion = protocolVersion;
+  }
+
+  private static RootCommandNode<CommandSource> decodeGraph(final ByteBuf buf,
+      final ProtocolVersion protocolVersion) {
     int commands = ProtocolUtils.readVarInt(buf);
     WireNode[] wireNodes = new WireNode[commands];
     for (int i = 0; i < commands; i++) {
@@ -115,13 +177,20 @@ public class AvailableCommandsPacket implements MinecraftPacket {
     }
 
     int rootIdx = ProtocolUtils.readVarInt(buf);
-    rootNode = (RootCommandNode<CommandSource>) wireNodes[rootIdx].built;
+    return (RootCommandNode<CommandSource>) wireNodes[rootIdx].built;
   }
 
   @Override
   public void encode(final ByteBuf buf, final Direction direction, final ProtocolVersion protocolVersion) {
+    byte[] graph = getEncodedGraph();
+    if (graph != null && protocolVersion == encodedVersion) {
+      buf.writeBytes(graph);
+      return;
+    }
+
+    RootCommandNode<CommandSource> root = getRootNode();
     // Assign all the children an index.
-    Deque<CommandNode<CommandSource>> childrenQueue = new ArrayDeque<>(ImmutableList.of(rootNode));
+    Deque<CommandNode<CommandSource>> childrenQueue = new ArrayDeque<>(ImmutableList.of(root));
     Object2IntMap<CommandNode<CommandSource>> idMappings = new Object2IntLinkedOpenCustomHashMap<>(
         IdentityHashStrategy.instance());
     while (!childrenQueue.isEmpty()) {
@@ -140,7 +209,7 @@ public class AvailableCommandsPacket implements MinecraftPacket {
     for (CommandNode<CommandSource> child : idMappings.keySet()) {
       serializeNode(child, buf, idMappings, protocolVersion);
     }
-    ProtocolUtils.writeVarInt(buf, idMappings.getInt(rootNode));
+    ProtocolUtils.writeVarInt(buf, idMappings.getInt(root));
   }
 
   private static void serializeNode(final CommandNode<CommandSource> node, final ByteBuf buf,
@@ -197,6 +266,12 @@ public class AvailableCommandsPacket implements MinecraftPacket {
     return flags;
   }
 
+  @Override
+  public int encodeSizeHint(final Direction direction, final ProtocolVersion version) {
+    byte[] graph = getEncodedGraph();
+    return graph != null && version == encodedVersion ? graph.length : -1;
+  }
+
   @Override
   public boolean handle(final MinecraftSessionHandler handler) {
     return handler.handle(this);
@@ -109,6 +109,16 @@ public class PluginMessagePacket extends DeferredByteBufHolder implements Minecr
 
   }
 
+  @Override
+  public int encodeSizeHint(final ProtocolUtils.Direction direction, final ProtocolVersion version) {
+    if (channel == null || refCnt() == 0) {
+      return -1;
+    }
+    // The channel name may grow by a "legacy:" prefix and uses up to three bytes per character,
+    // and before 1.8 the contents have a length prefix of up to three bytes.
+    return 5 + (channel.length() + 7) * 3 + 3 + content().readableBytes();
+  }
+
   @Override
   public boolean handle(final MinecraftSessionHandler handler) {
     return handler.handle(this);
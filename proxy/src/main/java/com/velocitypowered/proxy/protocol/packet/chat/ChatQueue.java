@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 Velocity Contributors
+ * Copyright (C) 2022-2024 Velocity Contributors
  *
  * This program is free software: you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -21,23 +21,42 @@ import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
 import java.time.Instant;
 import java.util.BitSet;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A precisely ordered queue which allows for outside entries into the ordered queue through
  * piggybacking timestamps.
+ *
+ * <p>Any thread may add to the queue, but it is only ever drained on the event loop of the
+ * player. Packets are written in the order they were queued, without waiting for each write to
+ * complete: the queue only pauses while a packet is still being produced, or while the backend
+ * connection is not writable, in which case it resumes from the listener of the last write.
+ * Acknowledgements queued back to back are merged before they are forwarded, and all writes made
+ * in one pass over the queue are flushed together.</p>
  */
 public class ChatQueue {
 
-  private final Object internalLock = new Object();
+  private static final Logger logger = LogManager.getLogger(ChatQueue.class);
+
   private final ConnectedPlayer player;
   private final ChatState chatState = new ChatState();
-  private CompletableFuture<Void> head = CompletableFuture.completedFuture(null);
+  private final Queue<QueuedTask> tasks = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean draining = new AtomicBoolean();
+  // Only accessed while draining.
+  private @Nullable MinecraftConnection unflushed;
+  private @Nullable QueuedTask deferred;
 
   /**
    * Instantiates a {@link ChatQueue} for a specific {@link ConnectedPlayer}.
@@ -48,23 +67,16 @@ public class ChatQueue {
     this.player = player;
   }
 
-  private void queueTask(final Task task) {
-    synchronized (internalLock) {
-      MinecraftConnection smc = player.ensureAndGetCurrentServer().ensureConnected();
-      head = head.thenCompose(v -> {
-        try {
-          return task.update(chatState, smc).exceptionally(ignored -> null);
-        } catch (Throwable ignored) {
-          return CompletableFuture.completedFuture(null);
-        }
-      });
-    }
+  private void queueTask(final @Nullable Task task, final int ackCount) {
+    MinecraftConnection smc = player.ensureAndGetCurrentServer().ensureConnected();
+    tasks.add(new QueuedTask(task, ackCount, smc));
+    scheduleDrain();
   }
 
   /**
    * Queues a packet sent from the player - all packets must wait until this processes to send their
    * packets. This maintains order on the server-level for the client insertions of commands
-   * and messages. All entries are locked through an internal object lock.
+   * and messages.
    *
    * @param nextPacket       a function mapping {@link LastSeenMessages} state to a {@link CompletableFuture} that will
    *                         provide the next-processed packet. This should include the fixed {@link LastSeenMessages}.
@@ -72,10 +84,10 @@ public class ChatQueue {
    * @param lastSeenMessages the new {@link LastSeenMessages} last seen messages to update the internal chat state.
    */
   public void queuePacket(final Function<LastSeenMessages, CompletableFuture<MinecraftPacket>> nextPacket, @Nullable final Instant timestamp, @Nullable final LastSeenMessages lastSeenMessages) {
-    queueTask((chatState, smc) -> {
+    queueTask(chatState -> {
       LastSeenMessages newLastSeenMessages = chatState.updateFromMessage(timestamp, lastSeenMessages);
-      return nextPacket.apply(newLastSeenMessages).thenCompose(packet -> writePacket(packet, smc));
-    });
+      return nextPacket.apply(newLastSeenMessages);
+    }, 0);
   }
 
   /**
@@ -86,10 +98,7 @@ public class ChatQueue {
    * @param <T>            the type of packet to send.
    */
   public <T extends MinecraftPacket> void queuePacket(final Function<ChatState, T> packetFunction) {
-    queueTask((chatState, smc) -> {
-      T packet = packetFunction.apply(chatState);
-      return writePacket(packet, smc);
-    });
+    queueTask(chatState -> CompletableFuture.completedFuture(packetFunction.apply(chatState)), 0);
   }
 
   /**
@@ -99,28 +108,174 @@ public class ChatQueue {
    * @param offset the offset representing the specific message or event being acknowledged
    */
   public void handleAcknowledgement(final int offset) {
-    queueTask((chatState, smc) -> {
-      int ackCountToForward = chatState.accumulateAckCount(offset);
-      if (ackCountToForward > 0) {
-        return writePacket(new ChatAcknowledgementPacket(ackCountToForward), smc);
+    queueTask(null, offset);
+  }
+
+  private void scheduleDrain() {
+    if (!tasks.isEmpty() && draining.compareAndSet(false, true)) {
+      runOnEventLoop(this::drain);
+    }
+  }
+
+  private void runOnEventLoop(final Runnable runnable) {
+    EventLoop eventLoop = player.getConnection().eventLoop();
+    if (eventLoop.inEventLoop()) {
+      runnable.run();
+    } else {
+      eventLoop.execute(runnable);
+    }
+  }
+
+  private void drain() {
+    try {
+      drainTasks();
+    } catch (RuntimeException e) {
+      // The task that failed has already been polled, so carry on with the ones behind it rather
+      // than leaving the queue marked as draining forever.
+      logger.error("Exception while sending chat packets of {}", player.getUsername(), e);
+      try {
+        // Send whatever was written before the failure.
+        flush();
+      } finally {
+        draining.set(false);
       }
-      return CompletableFuture.completedFuture(null);
-    });
+      scheduleDrain();
+    }
   }
 
-  private static <T extends MinecraftPacket> CompletableFuture<Void> writePacket(final T packet, final MinecraftConnection smc) {
-    return CompletableFuture.runAsync(() -> {
-      if (!smc.isClosed()) {
-        ChannelFuture future = smc.write(packet);
-        if (future != null) {
-          future.awaitUninterruptibly();
+  private void drainTasks() {
+    MinecraftConnection ackConnection = null;
+    int ackCount = 0;
+    QueuedTask queued;
+    while ((queued = pollTask()) != null) {
+      if (queued.task() == null) {
+        if (ackConnection != null && ackConnection != queued.connection()) {
+          if (!forwardAcknowledgements(ackConnection, ackCount)) {
+            deferred = queued;
+            return;
+          }
+          ackCount = 0;
+        }
+        ackConnection = queued.connection();
+        ackCount += queued.ackCount();
+        continue;
+      }
+
+      if (ackConnection != null) {
+        boolean writable = forwardAcknowledgements(ackConnection, ackCount);
+        ackConnection = null;
+        ackCount = 0;
+        if (!writable) {
+          deferred = queued;
+          return;
         }
       }
-    }, smc.eventLoop());
+
+      CompletableFuture<? extends @Nullable MinecraftPacket> next;
+      try {
+        next = queued.task().update(chatState);
+      } catch (Throwable ignored) {
+        continue;
+      }
+
+      MinecraftConnection smc = queued.connection();
+      if (!next.isDone()) {
+        // Don't hold back the writes that were already made while waiting for the packet.
+        flush();
+        next.whenComplete((packet, throwable) -> runOnEventLoop(() -> {
+          boolean writable;
+          try {
+            writable = throwable != null || write(smc, packet);
+          } catch (RuntimeException e) {
+            logger.error("Exception while sending a chat packet of {}", player.getUsername(), e);
+            writable = true;
+          }
+          if (writable) {
+            drain();
+          }
+        }));
+        return;
+      }
+      if (!next.isCompletedExceptionally() && !write(smc, next.join())) {
+        return;
+      }
+    }
+
+    if (ackConnection != null && !forwardAcknowledgements(ackConnection, ackCount)) {
+      return;
+    }
+    flush();
+    draining.set(false);
+    // Something may have been queued after the last poll, while we were still draining.
+    scheduleDrain();
+  }
+
+  private @Nullable QueuedTask pollTask() {
+    QueuedTask queued = deferred;
+    if (queued != null) {
+      deferred = null;
+      return queued;
+    }
+    return tasks.poll();
+  }
+
+  private boolean forwardAcknowledgements(final MinecraftConnection smc, final int ackCount) {
+    int ackCountToForward = chatState.accumulateAckCount(ackCount);
+    if (ackCountToForward > 0) {
+      return write(smc, new ChatAcknowledgementPacket(ackCountToForward));
+    }
+    return true;
+  }
+
+  /**
+   * Writes a packet to the backend, without flushing it as long as the backend is writable.
+   *
+   * @param smc the backend connection
+   * @param packet the packet to write
+   * @return whether draining can carry on; otherwise, it is resumed once the write completes
+   */
+  private boolean write(final MinecraftConnection smc, final @Nullable MinecraftPacket packet) {
+    if (packet == null) {
+      return true;
+    }
+    if (smc.isClosed()) {
+      ReferenceCountUtil.release(packet);
+      return true;
+    }
+    if (unflushed != null && unflushed != smc) {
+      unflushed.flush();
+    }
+
+    if (smc.getChannel().isWritable()) {
+      smc.delayedWrite(packet);
+      unflushed = smc;
+      return true;
+    }
+    unflushed = null;
+    ChannelFuture future = smc.write(packet);
+    if (future == null) {
+      return true;
+    }
+    future.addListener(ignored -> runOnEventLoop(this::drain));
+    return false;
+  }
+
+  private void flush() {
+    MinecraftConnection connection = unflushed;
+    if (connection != null) {
+      unflushed = null;
+      connection.flush();
+    }
   }
 
   private interface Task {
-    CompletableFuture<Void> update(ChatState chatState, MinecraftConnection smc);
+    CompletableFuture<? extends @Nullable MinecraftPacket> update(ChatState chatState);
+  }
+
+  /**
+   * A task waiting in the queue, or an acknowledgement if {@code task} is {@code null}.
+   */
+  private record QueuedTask(@Nullable Task task, int ackCount, MinecraftConnection connection) {
   }
 
   /**
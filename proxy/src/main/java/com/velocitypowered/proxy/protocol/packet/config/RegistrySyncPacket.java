@@ -55,6 +55,12 @@ public class RegistrySyncPacket extends DeferredByteBufHolder implements Minecra
     buf.writeBytes(content());
   }
 
+  @Override
+  public int encodeSizeHint(final ProtocolUtils.Direction direction,
+                            final ProtocolVersion version) {
+    return refCnt() > 0 ? content().readableBytes() : -1;
+  }
+
   @Override
   public boolean handle(final MinecraftSessionHandler handler) {
     return handler.handle(this);
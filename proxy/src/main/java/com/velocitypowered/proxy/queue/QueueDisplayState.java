@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.queue;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * The status shown to a queued player in their action bar.
+ *
+ * <p>The ordinal of each constant is sent over Redis, so new states must only be appended.</p>
+ */
+public enum QueueDisplayState {
+  FULL("velocity.queue.player-status.full") {
+    @Override
+    Component render(final Component server, final int position, final Component size,
+        final int sendDelaySeconds) {
+      return template.arguments(Component.text(position), size, server,
+          QueueTimeFormatter.format(Math.max(sendDelaySeconds * position, 0)));
+    }
+  },
+  CONNECTING("velocity.queue.player-status.connecting") {
+    @Override
+    Component render(final Component server, final int position, final Component size,
+        final int sendDelaySeconds) {
+      return template.arguments(server);
+    }
+  },
+  PAUSED("velocity.queue.player-status.paused") {
+    @Override
+    Component render(final Component server, final int position, final Component size,
+        final int sendDelaySeconds) {
+      return template;
+    }
+  },
+  ONLINE("velocity.queue.player-status.online") {
+    @Override
+    Component render(final Component server, final int position, final Component size,
+        final int sendDelaySeconds) {
+      return template.arguments(Component.text(position), size, server,
+          QueueTimeFormatter.format(Math.max(sendDelaySeconds * position, 0)));
+    }
+  },
+  OFFLINE("velocity.queue.player-status.offline") {
+    @Override
+    Component render(final Component server, final int position, final Component size,
+        final int sendDelaySeconds) {
+      return template.arguments(Component.text(position), size, server);
+    }
+  };
+
+  private static final QueueDisplayState[] VALUES = values();
+
+  final TranslatableComponent template;
+
+  QueueDisplayState(final String key) {
+    this.template = Component.translatable(key, NamedTextColor.YELLOW);
+  }
+
+  /**
+   * Renders the action bar message for this state.
+   *
+   * @param server the name of the target server, as a component
+   * @param position the position in the queue, where {@code 1} is first
+   * @param size the size of the queue, as a component
+   * @param sendDelaySeconds the number of seconds between each player being sent
+   * @return the action bar message
+   */
+  abstract Component render(Component server, int position, Component size, int sendDelaySeconds);
+
+  /**
+   * Renders the action bar message for this state.
+   *
+   * @param server the name of the target server
+   * @param position the position in the queue, where {@code 1} is first
+   * @param size the size of the queue
+   * @param sendDelaySeconds the number of seconds between each player being sent
+   * @return the action bar message
+   */
+  public Component render(final String server, final int position, final int size,
+      final int sendDelaySeconds) {
+    return render(Component.text(server), position, Component.text(size), sendDelaySeconds);
+  }
+
+  /**
+   * Looks up a state by its ordinal.
+   *
+   * @param ordinal the ordinal of the state
+   * @return the state
+   * @throws IllegalArgumentException if no state has the given ordinal
+   */
+  public static QueueDisplayState fromOrdinal(final int ordinal) {
+    if (ordinal < 0 || ordinal >= VALUES.length) {
+      throw new IllegalArgumentException("Unknown queue display state " + ordinal);
+    }
+    return VALUES[ordinal];
+  }
+}
@@ -25,9 +25,9 @@ import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.plugin.virtual.VelocityVirtualPlugin;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -38,7 +38,7 @@ public abstract class QueueManager {
   protected final VelocityConfiguration.Queue config;
   protected ScheduledTask tickMessageTaskHandle;
   protected ScheduledTask tickPingingBackendTaskHandle;
-  protected final Map<String, ServerQueueStatus> serverQueues = new HashMap<>();
+  protected final Map<String, ServerQueueStatus> serverQueues = new ConcurrentHashMap<>();
 
   private final boolean enabled;
 
@@ -56,6 +56,22 @@ public abstract class QueueManager {
       return;
     }
 
+    server.getBackendPingService().addListener(health -> {
+      ServerQueueStatus queueStatus = serverQueues.get(health.server());
+      if (queueStatus != null) {
+        queueStatus.onHealthUpdate(health);
+      }
+    });
+  }
+
+  /**
+   * Starts pinging the backend servers and sending the actionbar messages. Subclasses call this
+   * once their own fields are initialised, as the tasks may run straight away.
+   */
+  protected final void startTasks() {
+    if (!enabled) {
+      return;
+    }
     this.schedulePingingBackend();
     this.scheduleTickMessage();
   }
@@ -72,7 +88,18 @@ public abstract class QueueManager {
       return null;
     }
     return serverQueues.computeIfAbsent(server, status ->
-        new ServerQueueStatus((VelocityRegisteredServer) registeredServer, this.server));
+        new ServerQueueStatus((VelocityRegisteredServer) registeredServer, this.server,
+            createStorage((VelocityRegisteredServer) registeredServer)));
+  }
+
+  /**
+   * Creates the storage for the queue of a server.
+   *
+   * @param server the server to create the storage for
+   * @return the storage
+   */
+  QueueStorage createStorage(final VelocityRegisteredServer server) {
+    return new QueueOrder();
   }
 
   /**
@@ -83,6 +110,16 @@ public abstract class QueueManager {
    */
   public abstract boolean isMasterProxy();
 
+  /**
+   * Returns whether this proxy knows the contents of every queue, and can therefore answer
+   * questions about queue positions itself.
+   *
+   * @return whether this proxy knows the contents of every queue
+   */
+  public boolean hasQueueState() {
+    return isMasterProxy();
+  }
+
   /**
    * Handles starting the task that manages sending the actionbar
    * messages to the players in the queues.
@@ -183,6 +220,13 @@ public abstract class QueueManager {
     }
   }
 
+  /**
+   * Gives up anything this proxy holds on behalf of the cluster, such as the master role. Called
+   * when the proxy shuts down.
+   */
+  public void shutdown() {
+  }
+
   /**
    * Return all the queues.
    *
@@ -24,6 +24,7 @@ import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.plugin.virtual.VelocityVirtualPlugin;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -41,6 +42,7 @@ public class QueueManagerNoRedisImpl extends QueueManager {
    */
   public QueueManagerNoRedisImpl(final VelocityServer server) {
     super(server);
+    this.startTasks();
   }
 
   /**
@@ -164,35 +166,28 @@ public class QueueManagerNoRedisImpl extends QueueManager {
    * Updates the actionbar message for this player.
    */
   public void tickMessageForAllPlayers() {
-    Map<Player, ServerQueueStatus> temp = new HashMap<>();
+    Map<Player, Component> temp = new HashMap<>();
     String filter = this.config.getMultipleServerMessagingSelection();
 
     for (ServerQueueStatus status : this.serverQueues.values()) {
-      Map<ServerQueueEntry, UUID> map = status.getActivePlayers();
-      for (ServerQueueEntry entry : map.keySet()) {
-        UUID player = map.get(entry);
+      List<ServerQueueEntry> entries = status.getAllEntries();
+      for (int i = 0; i < entries.size(); i++) {
+        ServerQueueEntry entry = entries.get(i);
 
-        Player p = server.getPlayer(player).orElse(null);
+        Player p = server.getPlayer(entry.player).orElse(null);
         if (p == null) {
-          return;
+          continue;
         }
 
         if (filter.equalsIgnoreCase("first") && temp.containsKey(p)) {
           continue;
         }
 
-        temp.put(p, status);
-
+        temp.put(p, status.getActionBarComponent(entry, i + 1));
       }
     }
 
-    for (Player player : temp.keySet()) {
-      ServerQueueStatus status = temp.get(player);
-      ServerQueueEntry entry = status.getEntry(player.getUniqueId()).orElse(null);
-      if (entry != null) {
-        player.sendActionBar(temp.get(player).getActionBarComponent(entry));
-      }
-    }
+    temp.forEach(Player::sendActionBar);
   }
 
   @Override
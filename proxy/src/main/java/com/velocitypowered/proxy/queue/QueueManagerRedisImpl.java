@@ -19,6 +19,7 @@ package com.velocitypowered.proxy.queue;
 
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
 import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.plugin.virtual.VelocityVirtualPlugin;
@@ -32,19 +33,31 @@ import com.velocitypowered.proxy.redis.multiproxy.RedisQueueLeaveRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisQueuePauseRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisQueueSendRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisQueueSendStatusRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueStatusBatch;
 import com.velocitypowered.proxy.redis.multiproxy.RedisSendActionBarRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisSendMessageToUuidRequest;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import net.kyori.adventure.text.Component;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * Manages the queue system with redis.
  */
 public class QueueManagerRedisImpl extends QueueManager {
+  private static final Logger logger = LogManager.getLogger(QueueManagerRedisImpl.class);
+
+  private final QueueMasterLease lease;
+  private ScheduledTask leaseTaskHandle;
+  private ScheduledTask refreshTaskHandle;
+  private boolean refreshFailing = false;
 
   /**
    * Constructs a {@link QueueManagerRedisImpl}.
@@ -53,7 +66,50 @@ public class QueueManagerRedisImpl extends QueueManager {
    */
   public QueueManagerRedisImpl(final VelocityServer server) {
     super(server);
+    this.lease = new QueueMasterLease(server.getRedisManager(),
+        server.getMultiProxyHandler().getOwnProxyId());
     this.registerRedisListeners();
+    this.startTasks();
+
+    if (!isEnabled()) {
+      return;
+    }
+
+    this.tickLease();
+    this.leaseTaskHandle = server.getScheduler()
+        .buildTask(VelocityVirtualPlugin.INSTANCE, this::tickLease)
+        .delay(QueueMasterLease.RENEW_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)
+        .repeat(QueueMasterLease.RENEW_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)
+        .schedule();
+
+    if (isSharedStorage()) {
+      this.refreshTaskHandle = server.getScheduler()
+          .buildTask(VelocityVirtualPlugin.INSTANCE, this::refreshQueues)
+          .delay(1, TimeUnit.SECONDS)
+          .repeat(1, TimeUnit.SECONDS)
+          .schedule();
+    }
+  }
+
+  private boolean isSharedStorage() {
+    return this.config.getStorage() == QueueStorageType.REDIS;
+  }
+
+  @Override
+  QueueStorage createStorage(final VelocityRegisteredServer server) {
+    if (isSharedStorage()) {
+      RedisQueueStorage storage = new RedisQueueStorage(this.server.getRedisManager(), server, this.server);
+      // This may run on an event loop, inside computeIfAbsent(), so load the queue elsewhere.
+      this.server.getScheduler().buildTask(VelocityVirtualPlugin.INSTANCE, () -> {
+        try {
+          storage.refresh();
+        } catch (RuntimeException e) {
+          logger.warn("Unable to load the queue of {} from Redis", server.getServerInfo().getName(), e);
+        }
+      }).schedule();
+      return storage;
+    }
+    return super.createStorage(server);
   }
 
   private void registerRedisListeners() {
@@ -185,6 +241,31 @@ public class QueueManagerRedisImpl extends QueueManager {
       });
     });
 
+    redisManager.listen(RedisQueueStatusBatch.ID, RedisQueueStatusBatch.class, it -> {
+      if (!it.proxyId().equals(this.server.getMultiProxyHandler().getOwnProxyId())) {
+        return;
+      }
+
+      boolean firstOnly = this.config.getMultipleServerMessagingSelection().equalsIgnoreCase("first");
+      Map<Player, Component> actionBars = new HashMap<>();
+      for (RedisQueueStatusBatch.Section section : it.sections()) {
+        Component serverName = Component.text(section.server());
+        Component size = Component.text(section.size());
+
+        for (RedisQueueStatusBatch.Status status : section.statuses()) {
+          Player player = this.server.getPlayer(status.player()).orElse(null);
+          if (player == null || firstOnly && actionBars.containsKey(player)) {
+            continue;
+          }
+
+          actionBars.put(player, status.state().render(serverName, status.position(), size,
+              section.sendDelaySeconds()));
+        }
+      }
+
+      actionBars.forEach(Player::sendActionBar);
+    });
+
     redisManager.listen(RedisSendActionBarRequest.ID, RedisSendActionBarRequest.class, it -> {
       Component component = it.component();
 
@@ -238,40 +319,113 @@ public class QueueManagerRedisImpl extends QueueManager {
   }
 
   /**
-   * Checks whether the current proxy is the current master-proxy or not.
+   * Checks whether the current proxy is the current master-proxy or not. This only checks the
+   * local view of the master lease, and does not contact Redis.
    *
    * @return whether the current proxy is the current master-proxy or not.
    */
   @Override
   public boolean isMasterProxy() {
-    List<String> masterProxies = this.server.getConfiguration().getQueue().getMasterProxyIds();
-    List<String> activeProxies = new ArrayList<>(this.server.getMultiProxyHandler()
-            .getAllProxyIds().stream().toList());
-    Collections.sort(activeProxies);
+    return this.lease.isHeld();
+  }
 
-    activeProxies.retainAll(masterProxies);
+  @Override
+  public boolean hasQueueState() {
+    return isSharedStorage() || isMasterProxy();
+  }
 
+  /**
+   * Returns whether this proxy should be the master proxy: it must be listed in
+   * {@code master-proxy-ids}, and no proxy listed before it may be online.
+   */
+  private boolean shouldBeMaster() {
+    List<String> masterProxies = this.server.getConfiguration().getQueue().getMasterProxyIds();
+    int ownIndex = masterProxies.indexOf(this.server.getMultiProxyHandler().getOwnProxyId());
+    if (ownIndex == -1) {
+      return false;
+    }
 
-    String ownProxy = this.server.getMultiProxyHandler().getOwnProxyId();
+    Set<String> activeProxies = new HashSet<>(this.server.getMultiProxyHandler().getAllProxyIds());
+    for (int i = 0; i < ownIndex; i++) {
+      if (activeProxies.contains(masterProxies.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Renews, acquires or gives up the master lease, depending on which proxies are online.
+   */
+  private void tickLease() {
+    boolean wasMaster = this.lease.isHeld();
+    boolean master;
+    try {
+      if (shouldBeMaster()) {
+        master = this.lease.acquire();
+      } else {
+        this.lease.release();
+        master = false;
+      }
+    } catch (RuntimeException e) {
+      if (wasMaster) {
+        logger.warn("Unable to renew the queue master lease", e);
+      }
+      // Keep acting as master until the lease we already have runs out.
+      master = this.lease.isHeld();
+    }
 
-    String firstMasterProxy = null;
+    if (master && !wasMaster) {
+      logger.info("This proxy is now the queue master");
+      this.onBecomeMaster();
+    } else if (!master && wasMaster) {
+      logger.info("This proxy is no longer the queue master");
+    }
+  }
 
-    for (String activeProxy : activeProxies) {
-      if (masterProxies.contains(activeProxy)) {
-        firstMasterProxy = activeProxy;
-        break;
+  private void onBecomeMaster() {
+    for (RegisteredServer registeredServer : this.server.getAllServers()) {
+      ServerQueueStatus status = getQueue(registeredServer.getServerInfo().getName());
+      try {
+        status.refresh();
+      } catch (RuntimeException e) {
+        logger.warn("Unable to load the queue of {} from Redis", status.getServerName(), e);
       }
+      status.reloadConfig();
     }
 
-    if (firstMasterProxy != null && firstMasterProxy.equalsIgnoreCase(ownProxy)) {
-      int ownIndex = masterProxies.indexOf(ownProxy);
-      int firstIndex = masterProxies.indexOf(firstMasterProxy);
+    this.schedulePingingBackend();
+    this.scheduleTickMessage();
+  }
 
+  private void refreshQueues() {
+    try {
+      for (ServerQueueStatus status : this.serverQueues.values()) {
+        status.refresh();
+      }
+      this.refreshFailing = false;
+    } catch (RuntimeException e) {
+      if (!this.refreshFailing) {
+        logger.warn("Unable to refresh the queues from Redis", e);
+      }
+      this.refreshFailing = true;
+    }
+  }
 
-      return ownIndex != -1 && ownIndex == firstIndex;
+  @Override
+  public void shutdown() {
+    if (this.leaseTaskHandle != null) {
+      this.leaseTaskHandle.cancel();
+    }
+    if (this.refreshTaskHandle != null) {
+      this.refreshTaskHandle.cancel();
     }
 
-    return false;
+    try {
+      this.lease.release();
+    } catch (RuntimeException e) {
+      logger.warn("Unable to release the queue master lease", e);
+    }
   }
 
   /**
@@ -321,12 +475,38 @@ public class QueueManagerRedisImpl extends QueueManager {
    */
   @Override
   public void tickMessageForAllPlayers() {
+    if (!isMasterProxy()) {
+      return;
+    }
+
+    MultiProxyHandler multiProxyHandler = this.server.getMultiProxyHandler();
+    Map<String, List<RedisQueueStatusBatch.Section>> byProxy = new HashMap<>();
+
     for (ServerQueueStatus status : this.serverQueues.values()) {
-      status.getActivePlayers().forEach((entry, player) -> {
-        this.server.getRedisManager().send(new RedisSendActionBarRequest(player,
-                status.getActionBarComponent(entry)));
-      });
+      List<ServerQueueEntry> entries = status.getAllEntries();
+      if (entries.isEmpty()) {
+        continue;
+      }
+
+      Map<String, List<RedisQueueStatusBatch.Status>> statuses = new HashMap<>();
+      for (int i = 0; i < entries.size(); i++) {
+        ServerQueueEntry entry = entries.get(i);
+        MultiProxyHandler.RemotePlayerInfo info = multiProxyHandler.getPlayerInfo(entry.player);
+        if (info == null) {
+          continue;
+        }
+
+        statuses.computeIfAbsent(info.getProxyId(), k -> new ArrayList<>())
+            .add(new RedisQueueStatusBatch.Status(entry.player, i + 1, status.getDisplayState(entry)));
+      }
+
+      statuses.forEach((proxyId, proxyStatuses) -> byProxy.computeIfAbsent(proxyId, k -> new ArrayList<>())
+          .add(new RedisQueueStatusBatch.Section(status.getServerName(), entries.size(),
+              status.getSendDelaySeconds(), proxyStatuses)));
     }
+
+    byProxy.forEach((proxyId, sections) ->
+        this.server.getRedisManager().send(new RedisQueueStatusBatch(proxyId, sections)));
   }
 
   @Override
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.queue;
+
+import com.velocitypowered.proxy.redis.RedisManagerImpl;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A lease on the {@code QUEUE_MASTER} key in Redis, held by the proxy that maintains the queues.
+ *
+ * <p>The key holds the ID of the master proxy and expires after {@value #TTL_MILLIS}ms unless the
+ * master renews it. Acquiring and renewing happen in one Lua script, so a proxy can only ever
+ * extend its own lease. The local view of the lease ends at the time the last successful renewal
+ * was <em>sent</em>, plus the TTL, which is never later than the key actually expires in Redis:
+ * a master that loses contact with Redis stops acting as master before another proxy can take
+ * over.</p>
+ */
+final class QueueMasterLease {
+
+  static final long TTL_MILLIS = 10_000;
+  static final long RENEW_INTERVAL_MILLIS = 3_000;
+  private static final String KEY = "QUEUE_MASTER";
+
+  // KEYS: lease; ARGV: proxy ID, TTL
+  private static final String ACQUIRE_SCRIPT = String.join("\n",
+      "local holder = redis.call('GET', KEYS[1])",
+      "if holder == false then",
+      "  redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])",
+      "  return 1",
+      "elseif holder == ARGV[1] then",
+      "  redis.call('PEXPIRE', KEYS[1], ARGV[2])",
+      "  return 1",
+      "end",
+      "return 0");
+
+  // KEYS: lease; ARGV: proxy ID
+  private static final String RELEASE_SCRIPT = String.join("\n",
+      "if redis.call('GET', KEYS[1]) == ARGV[1] then",
+      "  return redis.call('DEL', KEYS[1])",
+      "end",
+      "return 0");
+
+  private final RedisManagerImpl redis;
+  private final String proxyId;
+  private volatile boolean held;
+  private volatile long heldUntilNanos;
+
+  QueueMasterLease(final RedisManagerImpl redis, final String proxyId) {
+    this.redis = redis;
+    this.proxyId = proxyId;
+  }
+
+  /**
+   * Returns whether this proxy holds the lease. This does not contact Redis.
+   *
+   * @return whether this proxy holds the lease
+   */
+  boolean isHeld() {
+    return held && heldUntilNanos - System.nanoTime() > 0;
+  }
+
+  /**
+   * Renews the lease if this proxy holds it, or acquires it if no proxy does.
+   *
+   * @return whether this proxy holds the lease afterwards
+   * @throws redis.clients.jedis.exceptions.JedisException if Redis could not be reached
+   */
+  boolean acquire() {
+    long sentAt = System.nanoTime();
+    Object result = redis.execute(jedis -> jedis.eval(ACQUIRE_SCRIPT, List.of(KEY),
+        List.of(proxyId, Long.toString(TTL_MILLIS))));
+    if (Long.valueOf(1).equals(result)) {
+      heldUntilNanos = sentAt + TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS);
+      held = true;
+    } else {
+      held = false;
+    }
+    return held;
+  }
+
+  /**
+   * Gives up the lease, if this proxy holds it, so that another proxy can take over without
+   * waiting for it to expire.
+   */
+  void release() {
+    if (!held) {
+      return;
+    }
+    held = false;
+    redis.execute(jedis -> jedis.eval(RELEASE_SCRIPT, List.of(KEY), List.of(proxyId)));
+  }
+}
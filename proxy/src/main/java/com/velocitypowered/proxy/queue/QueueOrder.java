@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.queue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The ordering of a single server queue, kept in memory.
+ *
+ * <p>The entries are kept in a treap augmented with subtree sizes, so adding, removing and
+ * finding the position of a player are all O(log n). All operations are synchronized on this
+ * instance.</p>
+ */
+final class QueueOrder implements QueueStorage {
+  private final Map<UUID, Node> byPlayer = new HashMap<>();
+  private final SplittableRandom random = new SplittableRandom();
+  private @Nullable Node root;
+  private long nextSequence;
+
+  private static final class Node {
+    final ServerQueueEntry entry;
+    final int priority;
+    final long sequence;
+    final int weight;
+    @Nullable Node left;
+    @Nullable Node right;
+    int size = 1;
+
+    Node(final ServerQueueEntry entry, final long sequence, final int weight) {
+      this.entry = entry;
+      this.priority = entry.priority;
+      this.sequence = sequence;
+      this.weight = weight;
+    }
+
+    int compareTo(final Node other) {
+      if (priority != other.priority) {
+        return Integer.compare(other.priority, priority);
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+
+    void update() {
+      size = 1 + size(left) + size(right);
+    }
+  }
+
+  private static int size(final @Nullable Node node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private static @Nullable Node merge(final @Nullable Node left, final @Nullable Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (left.weight > right.weight) {
+      left.right = merge(left.right, right);
+      left.update();
+      return left;
+    }
+    right.left = merge(left, right.left);
+    right.update();
+    return right;
+  }
+
+  // Splits the tree into the nodes ordered before `key` (index 0) and the rest (index 1).
+  private static void split(final @Nullable Node node, final Node key, final @Nullable Node[] out) {
+    if (node == null) {
+      out[0] = null;
+      out[1] = null;
+      return;
+    }
+    if (node.compareTo(key) < 0) {
+      split(node.right, key, out);
+      node.right = out[0];
+      node.update();
+      out[0] = node;
+    } else {
+      split(node.left, key, out);
+      node.left = out[1];
+      node.update();
+      out[1] = node;
+    }
+  }
+
+  private static @Nullable Node remove(final @Nullable Node node, final Node target) {
+    if (node == null) {
+      return null;
+    }
+    if (node == target) {
+      return merge(node.left, node.right);
+    }
+    if (target.compareTo(node) < 0) {
+      node.left = remove(node.left, target);
+    } else {
+      node.right = remove(node.right, target);
+    }
+    node.update();
+    return node;
+  }
+
+  @Override
+  public synchronized void add(final ServerQueueEntry entry) {
+    add(entry, nextSequence++);
+  }
+
+  /**
+   * Adds an entry with a sequence number that was assigned elsewhere. Among entries with the same
+   * priority, lower sequence numbers are ordered first.
+   *
+   * @param entry the entry to add
+   * @param sequence the sequence number of the entry
+   */
+  synchronized void add(final ServerQueueEntry entry, final long sequence) {
+    remove(entry.player);
+
+    Node node = new Node(entry, sequence, random.nextInt());
+    Node[] parts = new Node[2];
+    split(root, node, parts);
+    root = merge(merge(parts[0], node), parts[1]);
+    byPlayer.put(entry.player, node);
+  }
+
+  @Override
+  public synchronized @Nullable ServerQueueEntry remove(final UUID player) {
+    Node node = byPlayer.remove(player);
+    if (node == null) {
+      return null;
+    }
+    root = remove(root, node);
+    return node.entry;
+  }
+
+  @Override
+  public synchronized @Nullable ServerQueueEntry first() {
+    Node node = root;
+    if (node == null) {
+      return null;
+    }
+    while (node.left != null) {
+      node = node.left;
+    }
+    return node.entry;
+  }
+
+  @Override
+  public synchronized @Nullable ServerQueueEntry get(final UUID player) {
+    Node node = byPlayer.get(player);
+    return node == null ? null : node.entry;
+  }
+
+  @Override
+  public synchronized boolean contains(final UUID player) {
+    return byPlayer.containsKey(player);
+  }
+
+  @Override
+  public synchronized int position(final UUID player) {
+    Node target = byPlayer.get(player);
+    if (target == null) {
+      return -1;
+    }
+
+    int position = 0;
+    Node node = root;
+    while (node != null) {
+      if (node == target) {
+        return position + size(node.left) + 1;
+      }
+      if (target.compareTo(node) < 0) {
+        node = node.left;
+      } else {
+        position += size(node.left) + 1;
+        node = node.right;
+      }
+    }
+    throw new IllegalStateException("queue index out of sync for " + player);
+  }
+
+  @Override
+  public synchronized int size() {
+    return size(root);
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return root == null;
+  }
+
+  @Override
+  public synchronized List<ServerQueueEntry> snapshot() {
+    List<ServerQueueEntry> entries = new ArrayList<>(size(root));
+    Deque<Node> stack = new ArrayDeque<>();
+    Node node = root;
+    while (node != null || !stack.isEmpty()) {
+      while (node != null) {
+        stack.push(node);
+        node = node.left;
+      }
+      node = stack.pop();
+      entries.add(node.entry);
+      node = node.right;
+    }
+    return entries;
+  }
+}
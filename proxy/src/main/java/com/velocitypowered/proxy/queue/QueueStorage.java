@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.queue;
+
+import java.util.List;
+import java.util.UUID;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Stores the ordering of a single server queue.
+ *
+ * <p>Entries are ordered by descending priority, then by the order in which they were added.</p>
+ */
+interface QueueStorage {
+
+  /**
+   * Adds an entry behind every entry with the same or a higher priority. If the player is already
+   * in the queue, their previous entry is replaced.
+   *
+   * @param entry the entry to add
+   */
+  void add(ServerQueueEntry entry);
+
+  /**
+   * Removes the entry of the given player.
+   *
+   * @param player the player to remove
+   * @return the removed entry, or {@code null} if the player was not queued
+   */
+  @Nullable ServerQueueEntry remove(UUID player);
+
+  @Nullable ServerQueueEntry first();
+
+  @Nullable ServerQueueEntry get(UUID player);
+
+  boolean contains(UUID player);
+
+  /**
+   * Returns the position of the given player.
+   *
+   * @param player the player to look up
+   * @return their position, where {@code 1} is first, or {@code -1} if they are not queued
+   */
+  int position(UUID player);
+
+  int size();
+
+  boolean isEmpty();
+
+  /**
+   * Returns every entry in queue order. An entry's position is its index in the list plus one.
+   *
+   * @return the entries in queue order
+   */
+  List<ServerQueueEntry> snapshot();
+
+  /**
+   * Returns whether this storage is shared with the other proxies, in which case every proxy sees
+   * the same entries and only the master proxy may change them.
+   *
+   * @return whether this storage is shared
+   */
+  default boolean isShared() {
+    return false;
+  }
+
+  /**
+   * Reloads the entries from the shared copy of this storage, if there is one.
+   */
+  default void refresh() {
+  }
+}
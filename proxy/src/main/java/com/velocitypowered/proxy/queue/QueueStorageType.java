@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.queue;
+
+/**
+ * The places queue state can be kept in.
+ */
+public enum QueueStorageType {
+  /**
+   * Keeps every queue in the memory of the master proxy. Other proxies ask the master, or receive
+   * its broadcasts, to learn about queue positions.
+   */
+  MEMORY,
+  /**
+   * Keeps every queue in Redis. Each proxy mirrors the queues locally, so any proxy can answer
+   * position queries. Requires Redis to be enabled.
+   */
+  REDIS
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.queue;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.redis.RedisManagerImpl;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.resps.Tuple;
+
+/**
+ * Stores a server queue in Redis, so that every proxy in the cluster sees the same queue.
+ *
+ * <p>The queue is a sorted set of player UUIDs scored by {@code -priority * 2^32 + sequence},
+ * where the sequence comes from a per-queue counter. Sorting by score therefore orders entries
+ * exactly like {@link QueueOrder}, and the score stays an exact integer in a double for
+ * priorities within &plusmn;{@value #MAX_PRIORITY}. Adding and removing an entry each run as a
+ * single Lua script, so the sorted set, the counter and the full-bypass flags never disagree.</p>
+ *
+ * <p>Reads are served from a local {@link QueueOrder} mirror, which is updated by every write
+ * made through this instance and rebuilt from Redis by {@link #refresh()}. Redis is never called
+ * while holding the lock on the mirror, and a new storage starts out empty until its first
+ * refresh. Only the master proxy writes to the queue; every other proxy just refreshes its
+ * mirror.</p>
+ */
+final class RedisQueueStorage implements QueueStorage {
+
+  private static final long SEQUENCE_RANGE = 1L << 32;
+  private static final int MAX_PRIORITY = 1 << 20;
+
+  // KEYS: queue, sequence, full bypass; ARGV: player, priority, full bypass
+  private static final String ADD_SCRIPT = String.join("\n",
+      "local sequence = redis.call('INCR', KEYS[2])",
+      "redis.call('ZADD', KEYS[1], -tonumber(ARGV[2]) * 4294967296 + sequence, ARGV[1])",
+      "redis.call('HSET', KEYS[3], ARGV[1], ARGV[3])",
+      "return sequence");
+
+  // KEYS: queue, sequence, full bypass; ARGV: player
+  private static final String REMOVE_SCRIPT = String.join("\n",
+      "redis.call('HDEL', KEYS[3], ARGV[1])",
+      "local removed = redis.call('ZREM', KEYS[1], ARGV[1])",
+      "if redis.call('ZCARD', KEYS[1]) == 0 then redis.call('DEL', KEYS[2]) end",
+      "return removed");
+
+  private final Commands commands;
+  private final VelocityRegisteredServer server;
+  private final VelocityServer proxy;
+  private final Object lock = new Object();
+  private volatile QueueOrder mirror = new QueueOrder();
+  // Guarded by lock. Redis is only called outside of the lock.
+  private int writesInFlight;
+  private long version;
+
+  RedisQueueStorage(final RedisManagerImpl redis, final VelocityRegisteredServer server,
+      final VelocityServer proxy) {
+    this(new RedisCommands(redis, server.getServerInfo().getName()), server, proxy);
+  }
+
+  @VisibleForTesting
+  RedisQueueStorage(final Commands commands, final VelocityRegisteredServer server,
+      final VelocityServer proxy) {
+    this.commands = commands;
+    this.server = server;
+    this.proxy = proxy;
+  }
+
+  @Override
+  public void add(final ServerQueueEntry entry) {
+    entry.priority = Math.max(-MAX_PRIORITY, Math.min(MAX_PRIORITY, entry.priority));
+    beginWrite();
+    long sequence;
+    try {
+      sequence = commands.add(entry.player, entry.priority, entry.fullBypass);
+    } catch (RuntimeException e) {
+      endWrite();
+      throw e;
+    }
+    synchronized (lock) {
+      mirror.add(entry, sequence);
+      endWrite();
+    }
+  }
+
+  @Override
+  public @Nullable ServerQueueEntry remove(final UUID player) {
+    beginWrite();
+    try {
+      commands.remove(player);
+    } catch (RuntimeException e) {
+      endWrite();
+      throw e;
+    }
+    synchronized (lock) {
+      ServerQueueEntry removed = mirror.remove(player);
+      endWrite();
+      return removed;
+    }
+  }
+
+  private void beginWrite() {
+    synchronized (lock) {
+      writesInFlight++;
+    }
+  }
+
+  private void endWrite() {
+    synchronized (lock) {
+      writesInFlight--;
+      version++;
+    }
+  }
+
+  @Override
+  public @Nullable ServerQueueEntry first() {
+    return mirror.first();
+  }
+
+  @Override
+  public @Nullable ServerQueueEntry get(final UUID player) {
+    return mirror.get(player);
+  }
+
+  @Override
+  public boolean contains(final UUID player) {
+    return mirror.contains(player);
+  }
+
+  @Override
+  public int position(final UUID player) {
+    return mirror.position(player);
+  }
+
+  @Override
+  public int size() {
+    return mirror.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return mirror.isEmpty();
+  }
+
+  @Override
+  public List<ServerQueueEntry> snapshot() {
+    return mirror.snapshot();
+  }
+
+  @Override
+  public boolean isShared() {
+    return true;
+  }
+
+  /**
+   * Rebuilds the local mirror from Redis. Entries that are still queued keep their local state,
+   * such as whether a connection attempt is in progress.
+   *
+   * <p>If a write was made through this instance while Redis was being read, the read may not
+   * include it, so the mirror is left as it is until the next refresh.</p>
+   */
+  @Override
+  public void refresh() {
+    long startVersion;
+    synchronized (lock) {
+      startVersion = version;
+    }
+    Contents contents = commands.load();
+
+    synchronized (lock) {
+      if (writesInFlight > 0 || version != startVersion) {
+        return;
+      }
+      QueueOrder previous = this.mirror;
+      QueueOrder next = new QueueOrder();
+      for (Tuple member : contents.members()) {
+        UUID player = UUID.fromString(member.getElement());
+        long score = (long) member.getScore();
+        int priority = priority(score);
+
+        ServerQueueEntry entry = previous.get(player);
+        if (entry == null) {
+          entry = new ServerQueueEntry(player, server, proxy, priority, false);
+        }
+        entry.priority = priority;
+        entry.fullBypass = "1".equals(contents.fullBypass().get(member.getElement()));
+        next.add(entry, sequence(score, priority));
+      }
+      this.mirror = next;
+      version++;
+    }
+  }
+
+  @VisibleForTesting
+  static int priority(final long score) {
+    return (int) -Math.floorDiv(score, SEQUENCE_RANGE);
+  }
+
+  @VisibleForTesting
+  static long sequence(final long score, final int priority) {
+    return score + priority * SEQUENCE_RANGE;
+  }
+
+  /**
+   * The Redis commands behind a queue.
+   */
+  @VisibleForTesting
+  interface Commands {
+
+    /**
+     * Adds or replaces the entry of a player.
+     *
+     * @param player the player
+     * @param priority their priority
+     * @param fullBypass whether they may join the server when it is full
+     * @return the sequence number of the new entry
+     */
+    long add(UUID player, int priority, boolean fullBypass);
+
+    void remove(UUID player);
+
+    Contents load();
+  }
+
+  /**
+   * The contents of a queue in Redis.
+   *
+   * @param members the members of the sorted set, with their scores
+   * @param fullBypass the full-bypass flag of every member, {@code "1"} if set
+   */
+  @VisibleForTesting
+  record Contents(List<Tuple> members, Map<String, String> fullBypass) {
+  }
+
+  private static final class RedisCommands implements Commands {
+
+    private final RedisManagerImpl redis;
+    private final List<String> keys;
+
+    RedisCommands(final RedisManagerImpl redis, final String serverName) {
+      this.redis = redis;
+      // The hash tag keeps every key of a queue in the same slot of a Redis Cluster.
+      String tag = "{" + serverName + "}";
+      // queue, sequence, full bypass
+      this.keys = List.of("QUEUE:" + tag, "QUEUE:" + tag + ":SEQUENCE", "QUEUE:" + tag + ":FULL_BYPASS");
+    }
+
+    @Override
+    public long add(final UUID player, final int priority, final boolean fullBypass) {
+      return (Long) redis.execute(jedis -> jedis.eval(ADD_SCRIPT, keys,
+          List.of(player.toString(), Integer.toString(priority), fullBypass ? "1" : "0")));
+    }
+
+    @Override
+    public void remove(final UUID player) {
+      redis.execute(jedis -> jedis.eval(REMOVE_SCRIPT, keys, List.of(player.toString())));
+    }
+
+    @Override
+    public Contents load() {
+      return redis.execute(jedis -> {
+        Pipeline pipeline = jedis.pipelined();
+        Response<List<Tuple>> members = pipeline.zrangeWithScores(keys.get(0), 0, -1);
+        Response<Map<String, String>> fullBypass = pipeline.hgetAll(keys.get(2));
+        pipeline.sync();
+        return new Contents(members.get(), fullBypass.get());
+      });
+    }
+  }
+}
@@ -25,17 +25,13 @@ import com.velocitypowered.proxy.plugin.virtual.VelocityVirtualPlugin;
 import com.velocitypowered.proxy.redis.multiproxy.RedisPlayerSetQueuedServerRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisQueueSendRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisSendMessageToUuidRequest;
+import com.velocitypowered.proxy.server.BackendPingService;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
-import java.util.Deque;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.TimeUnit;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 
 /**
@@ -45,7 +41,7 @@ public class ServerQueueStatus {
   private final VelocityRegisteredServer server;
   private final VelocityServer velocityServer;
   private VelocityConfiguration.@MonotonicNonNull Queue config;
-  private final Deque<ServerQueueEntry> queue = new ConcurrentLinkedDeque<>();
+  private final QueueStorage queue;
   private boolean online = true;
   private boolean paused = false;
   private boolean full = false;
@@ -59,8 +55,14 @@ public class ServerQueueStatus {
    */
   public ServerQueueStatus(final VelocityRegisteredServer server,
                            final VelocityServer velocityServer) {
+    this(server, velocityServer, new QueueOrder());
+  }
+
+  ServerQueueStatus(final VelocityRegisteredServer server, final VelocityServer velocityServer,
+                    final QueueStorage queue) {
     this.server = server;
     this.velocityServer = velocityServer;
+    this.queue = queue;
     this.reloadConfig();
   }
 
@@ -68,8 +70,11 @@ public class ServerQueueStatus {
    * Stops the queue.
    */
   public void stop() {
-    for (ServerQueueEntry entry : this.queue) {
-      this.velocityServer.getRedisManager().send(new RedisPlayerSetQueuedServerRequest(entry.player, null));
+    // A shared queue outlives this proxy, so its players are still queued.
+    if (!this.queue.isShared()) {
+      for (ServerQueueEntry entry : this.queue.snapshot()) {
+        this.velocityServer.getRedisManager().send(new RedisPlayerSetQueuedServerRequest(entry.player, null));
+      }
     }
     if (sendingTaskHandle != null) {
       sendingTaskHandle.cancel();
@@ -95,9 +100,30 @@ public class ServerQueueStatus {
     this.rescheduleTimerTask();
   }
 
+  /**
+   * Called by {@link QueueManagerRedisImpl} to reload a shared queue from Redis.
+   */
+  void refresh() {
+    this.queue.refresh();
+  }
+
+  /**
+   * Returns whether this proxy may send players from this queue. Every proxy mirrors a shared
+   * queue, but only the master proxy acts on it.
+   *
+   * @return whether this proxy may send players from this queue
+   */
+  private boolean isActive() {
+    if (!this.queue.isShared()) {
+      return true;
+    }
+    QueueManager queueManager = this.velocityServer.getQueueManager();
+    return queueManager != null && queueManager.isMasterProxy();
+  }
+
   private void sendFirstInQueue() {
 
-    ServerQueueEntry entry = queue.peekFirst();
+    ServerQueueEntry entry = queue.first();
 
     if (entry == null) {
       return;
@@ -110,11 +136,11 @@ public class ServerQueueStatus {
     if (velocityServer.getMultiProxyHandler().isEnabled()) {
       if (!velocityServer.getMultiProxyHandler().isPlayerOnline(entry.player)) {
         this.velocityServer.getRedisManager().send(new RedisPlayerSetQueuedServerRequest(entry.player, null));
-        queue.removeFirst();
+        queue.remove(entry.player);
         return;
       }
     } else {
-      queue.removeFirst();
+      queue.remove(entry.player);
     }
 
     entry.send();
@@ -124,7 +150,7 @@ public class ServerQueueStatus {
    * Sends the next player in queue, unless the queue is paused.
    */
   private void tickSending() {
-    if (paused || !online) {
+    if (paused || !online || !isActive()) {
       return;
     }
 
@@ -132,7 +158,7 @@ public class ServerQueueStatus {
       return;
     }
 
-    ServerQueueEntry entry = queue.peekFirst();
+    ServerQueueEntry entry = queue.first();
 
 
     if (entry == null || full && !entry.fullBypass) {
@@ -151,31 +177,39 @@ public class ServerQueueStatus {
   }
 
   /**
-   * Pings the backend to update the online flag.
+   * Pings the backend to update the online flag. The result reaches this queue through
+   * {@link #onHealthUpdate(BackendPingService.Health)}, like the result of any other ping of the
+   * backend.
    */
   public void tickPingingBackend() {
-    server.ping().whenComplete((result, th) -> {
-      if (!online && th == null) {
-        for (ServerQueueEntry entry : queue) {
-          if (entry.priority == -1) {
-            entry.send();
-          }
+    server.ping();
+  }
+
+  /**
+   * Updates the online and full flags from the latest ping of the backend.
+   *
+   * @param health the health of the backend
+   */
+  void onHealthUpdate(final BackendPingService.Health health) {
+    if (!online && health.online() && isActive()) {
+      for (ServerQueueEntry entry : queue.snapshot()) {
+        if (entry.priority == -1) {
+          entry.send();
         }
       }
-      online = th == null;
+    }
+    online = health.online();
 
-      if (online) {
-        final int maxPlayers = this.velocityServer.getConfiguration().getPlayerCaps().get(server.getServerInfo().getName());
-        long playerCount;
-        if (this.velocityServer.getMultiProxyHandler().isEnabled()) {
-          playerCount = this.velocityServer.getMultiProxyHandler().getAllPlayers().stream().filter(info -> info.getServerName() != null
-              && info.getServerName().equalsIgnoreCase(server.getServerInfo().getName())).count();
-        } else {
-          playerCount = server.getPlayerCount();
-        }
-        full = playerCount >= maxPlayers;
+    if (online) {
+      final int maxPlayers = this.velocityServer.getConfiguration().getPlayerCaps().get(server.getServerInfo().getName());
+      long playerCount;
+      if (this.velocityServer.getMultiProxyHandler().isEnabled()) {
+        playerCount = this.velocityServer.getMultiProxyHandler().getServerPlayerCount(server.getServerInfo().getName());
+      } else {
+        playerCount = server.getPlayerCount();
       }
-    });
+      full = playerCount >= maxPlayers;
+    }
   }
 
   /**
@@ -185,7 +219,7 @@ public class ServerQueueStatus {
    * @return ETA component.
    */
   public Component calculateEta(final int position) {
-    int delayInSeconds = (int) this.config.getSendDelay() * position;
+    int delayInSeconds = getSendDelaySeconds() * position;
 
     return QueueTimeFormatter.format(Math.max(delayInSeconds, 0));
   }
@@ -230,49 +264,13 @@ public class ServerQueueStatus {
     }
 
     ServerQueueEntry entry = new ServerQueueEntry(playerUuid, this.server, this.velocityServer, priority, fullBypass);
-
-    synchronized (queue) {
-      var iterator = queue.iterator();
-      boolean inserted = false;
-      int position = 0;
-
-      while (iterator.hasNext()) {
-        ServerQueueEntry currentEntry = iterator.next();
-
-        if (currentEntry.priority < priority) {
-          insertAtPosition(entry, position);
-          inserted = true;
-          break;
-        }
-        position++;
-      }
-
-      if (!inserted) {
-        queue.addLast(entry);
-      }
-    }
+    queue.add(entry);
 
     if (this.sendingTaskHandle == null) {
       this.rescheduleTimerTask();
     }
   }
 
-  private void insertAtPosition(final ServerQueueEntry newEntry, final int position) {
-    var tempQueue = new ConcurrentLinkedDeque<ServerQueueEntry>();
-    int index = 0;
-
-    for (ServerQueueEntry entry : queue) {
-      if (index == position) {
-        tempQueue.add(newEntry);
-      }
-      tempQueue.add(entry);
-      index++;
-    }
-
-    queue.clear();
-    queue.addAll(tempQueue);
-  }
-
   /**
    * Removes a player from this queue.
    *
@@ -296,7 +294,7 @@ public class ServerQueueStatus {
       }
     }).delay(1, TimeUnit.SECONDS).schedule();
 
-    this.queue.removeIf(entry -> entry.player.equals(player));
+    this.queue.remove(player);
   }
 
   /**
@@ -307,12 +305,7 @@ public class ServerQueueStatus {
    * @return The {@link ServerQueueEntry} for the player.
    */
   public Optional<ServerQueueEntry> getEntry(final UUID playerUuid) {
-    for (ServerQueueEntry entry : queue) {
-      if (entry.player.equals(playerUuid)) {
-        return Optional.of(entry);
-      }
-    }
-    return Optional.empty();
+    return Optional.ofNullable(queue.get(playerUuid));
   }
 
   /**
@@ -339,7 +332,7 @@ public class ServerQueueStatus {
    * @param component the component to send as a message
    */
   public void broadcast(final Component component) {
-    for (ServerQueueEntry status : queue) {
+    for (ServerQueueEntry status : queue.snapshot()) {
       this.velocityServer.getPlayer(status.player).ifPresent(player ->
                 player.sendMessage(component));
     }
@@ -352,13 +345,7 @@ public class ServerQueueStatus {
    * @return whether they are queued
    */
   public boolean isQueued(final UUID playerUuid) {
-    for (ServerQueueEntry queueStatus : queue) {
-      if (queueStatus.player.equals(playerUuid)) {
-        return true;
-      }
-    }
-
-    return false;
+    return queue.contains(playerUuid);
   }
 
   /**
@@ -377,73 +364,59 @@ public class ServerQueueStatus {
    * @return the component to display to the player
    */
   public Component getActionBarComponent(final ServerQueueEntry entry) {
-    int position = getQueuePosition(entry.player);
+    return getActionBarComponent(entry, getQueuePosition(entry.player));
+  }
+
+  /**
+   * Returns the actionbar component for this server queue for the given entry, when its
+   * position is already known.
+   *
+   * @param entry the entry to generate a component for
+   * @param position the position of the entry in the queue, where {@code 1} is first
+   * @return the component to display to the player
+   */
+  public Component getActionBarComponent(final ServerQueueEntry entry, final int position) {
+    return getDisplayState(entry).render(getServerName(), position, queue.size(), getSendDelaySeconds());
+  }
+
+  /**
+   * Returns the status to show to the given entry.
+   *
+   * @param entry the entry to check
+   * @return the status of the entry
+   */
+  public QueueDisplayState getDisplayState(final ServerQueueEntry entry) {
     if (full && !entry.fullBypass) {
-      return Component.translatable("velocity.queue.player-status.full", NamedTextColor.YELLOW)
-          .arguments(
-              Component.text(position),
-              Component.text(queue.size()),
-              Component.text(entry.target.getServerInfo().getName()),
-              calculateEta(position)
-          );
+      return QueueDisplayState.FULL;
     } else if (entry.waitingForConnection) {
-      return Component.translatable("velocity.queue.player-status.connecting",
-                      NamedTextColor.YELLOW)
-          .arguments(Component.text(entry.target.getServerInfo().getName()));
+      return QueueDisplayState.CONNECTING;
     } else if (paused) {
-      return Component.translatable("velocity.queue.player-status.paused", NamedTextColor.YELLOW);
+      return QueueDisplayState.PAUSED;
     } else if (online) {
-      return Component.translatable("velocity.queue.player-status.online", NamedTextColor.YELLOW)
-          .arguments(
-              Component.text(position),
-              Component.text(queue.size()),
-              Component.text(entry.target.getServerInfo().getName()),
-              calculateEta(position)
-          );
+      return QueueDisplayState.ONLINE;
     } else {
-      return Component.translatable("velocity.queue.player-status.offline", NamedTextColor.YELLOW)
-          .arguments(
-              Component.text(position),
-              Component.text(queue.size()),
-              Component.text(entry.target.getServerInfo().getName())
-          );
+      return QueueDisplayState.OFFLINE;
     }
   }
 
   /**
-   * Returns the position of the given player in the queue.
+   * Returns the number of whole seconds between each player being sent, used for ETAs.
    *
-   * @param player the player to check
-   * @return their position in queue, where {@code 1} is first
-   * @throws IllegalArgumentException if the player is not queued
+   * @return the send delay in seconds
    */
-  public int getQueuePosition(final UUID player) {
-    int position = 1;
-
-    for (ServerQueueEntry entry : queue) {
-      if (entry.player.equals(player)) {
-        return position;
-      }
-
-      position += 1;
-    }
-
-    return -1;
+  public int getSendDelaySeconds() {
+    return (int) this.config.getSendDelay();
   }
 
   /**
-   * Gets all the possible active player instances that are connected to this proxy.
+   * Returns the position of the given player in the queue.
    *
-   * @return map of players that are connected to this proxy with its queue entry.
+   * @param player the player to check
+   * @return their position in queue, where {@code 1} is first
+   * @throws IllegalArgumentException if the player is not queued
    */
-  Map<ServerQueueEntry, UUID> getActivePlayers() {
-    Map<ServerQueueEntry, UUID> foundPlayers = new HashMap<>();
-
-    for (ServerQueueEntry entry : queue) {
-      foundPlayers.put(entry, entry.player);
-    }
-
-    return foundPlayers;
+  public int getQueuePosition(final UUID player) {
+    return queue.position(player);
   }
 
   /**
@@ -460,11 +433,12 @@ public class ServerQueueStatus {
   }
 
   /**
-   * Return all the queue entries.
+   * Return all the queue entries, in queue order. The position of an entry is its index in
+   * the list plus one.
    *
    * @return The queue entries of this queue.
    */
   public List<ServerQueueEntry> getAllEntries() {
-    return this.queue.stream().toList();
+    return this.queue.snapshot();
   }
 }
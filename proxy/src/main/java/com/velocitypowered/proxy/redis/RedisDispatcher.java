@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the handlers for received Redis packets on a fixed number of single-threaded shards.
+ *
+ * <p>Each packet is assigned to a shard by its {@link RedisPacket#getOrderingKey() ordering key},
+ * so packets about the same player are still handled one at a time and in the order they were
+ * received, while packets about different players are handled in parallel. A slow handler only
+ * holds up the packets that share its shard. Packets that affect every player are handled as a
+ * barrier across all shards.</p>
+ *
+ * <p>The lag of a packet is the time between it being received from Redis and its handler
+ * starting to run.</p>
+ */
+public final class RedisDispatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(RedisDispatcher.class);
+
+  private final ThreadPoolExecutor[] shards;
+  private final LongAdder dispatched = new LongAdder();
+  private final LongAdder totalLagNanos = new LongAdder();
+  private final AtomicLong maxLagNanos = new AtomicLong();
+
+  RedisDispatcher(final int shards) {
+    Preconditions.checkArgument(shards > 0, "shards must be positive");
+    ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setNameFormat("Velocity Redis Dispatcher #%d")
+        .setDaemon(true)
+        .build();
+    this.shards = new ThreadPoolExecutor[shards];
+    for (int i = 0; i < shards; i++) {
+      this.shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+          new LinkedBlockingQueue<>(), threadFactory);
+    }
+  }
+
+  /**
+   * Queues a handler on the shard for the given key.
+   *
+   * @param key the ordering key of the packet
+   * @param handler the handler to run
+   */
+  void dispatch(final Object key, final Runnable handler) {
+    try {
+      shards[shardIndex(key)].execute(new Dispatch(handler, System.nanoTime()));
+    } catch (RejectedExecutionException e) {
+      logger.debug("dropping Redis packet received during shutdown");
+    }
+  }
+
+  /**
+   * Queues a handler that runs once every shard has handled the packets queued before it. Every
+   * shard waits for the handler to finish, so packets queued afterwards are handled after it,
+   * whatever their key.
+   *
+   * @param handler the handler to run
+   */
+  void dispatchBarrier(final Runnable handler) {
+    CountDownLatch arrived = new CountDownLatch(shards.length);
+    CountDownLatch finished = new CountDownLatch(1);
+    Dispatch dispatch = new Dispatch(handler, System.nanoTime());
+    for (int i = 0; i < shards.length; i++) {
+      Runnable task;
+      if (i == 0) {
+        // The first shard runs the handler once the others have caught up.
+        task = () -> {
+          arrived.countDown();
+          Uninterruptibles.awaitUninterruptibly(arrived);
+          try {
+            dispatch.run();
+          } finally {
+            finished.countDown();
+          }
+        };
+      } else {
+        task = () -> {
+          arrived.countDown();
+          Uninterruptibles.awaitUninterruptibly(finished);
+        };
+      }
+
+      try {
+        shards[i].execute(task);
+      } catch (RejectedExecutionException e) {
+        // Shutting down: make sure the shards that did accept the barrier don't wait forever.
+        arrived.countDown();
+        if (i == 0) {
+          finished.countDown();
+          logger.debug("dropping Redis packet received during shutdown");
+        }
+      }
+    }
+  }
+
+  int shardIndex(final Object key) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    return Math.floorMod(hash, shards.length);
+  }
+
+  /**
+   * Stops accepting packets and waits for the queued ones to be handled.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit the unit of {@code timeout}
+   * @return whether every queued packet was handled in time
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  boolean shutdown(final long timeout, final TimeUnit unit) throws InterruptedException {
+    for (ThreadPoolExecutor shard : shards) {
+      shard.shutdown();
+    }
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (ThreadPoolExecutor shard : shards) {
+      if (!shard.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int getShards() {
+    return shards.length;
+  }
+
+  /**
+   * Returns the number of packets waiting for their shard.
+   *
+   * @return the number of queued packets
+   */
+  public int getQueuedPackets() {
+    int queued = 0;
+    for (ThreadPoolExecutor shard : shards) {
+      queued += shard.getQueue().size();
+    }
+    return queued;
+  }
+
+  /**
+   * Returns how long the oldest packet that is still waiting for its shard has been queued.
+   *
+   * @return the current lag in milliseconds, or {@code 0} if no packet is queued
+   */
+  public long getCurrentLagMillis() {
+    long now = System.nanoTime();
+    long lag = 0;
+    for (ThreadPoolExecutor shard : shards) {
+      if (shard.getQueue().peek() instanceof Dispatch dispatch) {
+        lag = Math.max(lag, now - dispatch.receivedNanos);
+      }
+    }
+    return TimeUnit.NANOSECONDS.toMillis(lag);
+  }
+
+  public long getDispatchedPackets() {
+    return dispatched.sum();
+  }
+
+  /**
+   * Returns the mean lag of the packets handled so far.
+   *
+   * @return the mean lag in milliseconds, or {@code 0} if no packet has been handled yet
+   */
+  public double getAverageLagMillis() {
+    long count = dispatched.sum();
+    return count == 0 ? 0 : totalLagNanos.sum() / 1_000_000.0 / count;
+  }
+
+  /**
+   * Returns the highest lag of the packets handled so far.
+   *
+   * @return the highest lag in milliseconds
+   */
+  public long getMaxLagMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get());
+  }
+
+  private final class Dispatch implements Runnable {
+
+    private final Runnable handler;
+    private final long receivedNanos;
+
+    private Dispatch(final Runnable handler, final long receivedNanos) {
+      this.handler = handler;
+      this.receivedNanos = receivedNanos;
+    }
+
+    @Override
+    public void run() {
+      long lag = System.nanoTime() - receivedNanos;
+      dispatched.increment();
+      totalLagNanos.add(lag);
+      maxLagNanos.accumulateAndGet(lag, Math::max);
+
+      try {
+        handler.run();
+      } catch (Throwable t) {
+        logger.error("Redis packet handler threw", t);
+      }
+    }
+  }
+}
@@ -17,15 +17,18 @@
 
 package com.velocitypowered.proxy.redis;
 
+import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.plugin.virtual.VelocityVirtualPlugin;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.multiproxy.MultiProxyHandler;
 import com.velocitypowered.proxy.redis.multiproxy.RedisGetPlayerPingRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisPlayerSetTransferringRequest;
@@ -34,18 +37,28 @@ import com.velocitypowered.proxy.redis.multiproxy.RedisSendMessageToUuidRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisServerAlertRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisSwitchServerRequest;
 import com.velocitypowered.proxy.redis.multiproxy.RedisTransferCommandRequest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import redis.clients.jedis.BinaryJedisPubSub;
 import redis.clients.jedis.DefaultJedisClientConfig;
 import redis.clients.jedis.DefaultRedisCredentials;
 import redis.clients.jedis.HostAndPort;
@@ -53,8 +66,6 @@ import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisClientConfig;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
-import redis.clients.jedis.JedisPubSub;
-import redis.clients.jedis.exceptions.JedisException;
 
 /**
  * Manages Redis connectivity and communication within the Velocity proxy.
@@ -63,15 +74,33 @@ import redis.clients.jedis.exceptions.JedisException;
  * and receive messages through a dedicated Redis channel, enabling multi-proxy
  * communication. It includes configuration management and error handling to
  * ensure reliable operation within the Velocity environment.</p>
+ *
+ * <p>The subscription is supervised by a {@link RedisSubscriber}, which reconnects if the
+ * connection to Redis is lost, and received packets are handled on a {@link RedisDispatcher}.</p>
  */
 public class RedisManagerImpl {
+  /**
+   * The Redis set holding the IDs of every registered proxy.
+   */
+  public static final String PROXY_IDS_KEY = "PROXY_IDS";
+
   private static final String CHANNEL = "velocityredis";
+  private static final String BINARY_CHANNEL = "velocityredis-bin";
+  private static final byte[] CHANNEL_BYTES = CHANNEL.getBytes(StandardCharsets.UTF_8);
+  private static final byte[] BINARY_CHANNEL_BYTES = BINARY_CHANNEL.getBytes(StandardCharsets.UTF_8);
 
   private static final Logger logger = LoggerFactory.getLogger(RedisManagerImpl.class);
   private static final Gson gson = new Gson();
 
   private @MonotonicNonNull JedisPool jedisPool;
-  private final VelocityPubSub pubSub;
+  private @MonotonicNonNull RedisDispatcher dispatcher;
+  private @MonotonicNonNull RedisSubscriber subscriber;
+  private @MonotonicNonNull RedisPublisher publisher;
+  private final Map<String, ChannelRegistration<?>> listeners = new ConcurrentHashMap<>();
+  private final List<Runnable> resubscribeHooks = new CopyOnWriteArrayList<>();
+  private final Set<String> reportedUnknownPackets = ConcurrentHashMap.newKeySet();
+  private final boolean useBinaryProtocol;
+  private final VelocityServer velocityServer;
 
   /**
    * Constructs a Redis manager using the given Velocity server instance to retrieve
@@ -80,8 +109,9 @@ public class RedisManagerImpl {
    * @param velocityServer the instance of the Velocity server
    */
   public RedisManagerImpl(final VelocityServer velocityServer) {
+    this.velocityServer = velocityServer;
     VelocityConfiguration.Redis redisConfig = velocityServer.getConfiguration().getRedis();
-    this.pubSub = new VelocityPubSub();
+    this.useBinaryProtocol = redisConfig.isUseBinaryProtocol();
 
     if (redisConfig.isEnabled()) {
       this.start(redisConfig);
@@ -168,7 +198,7 @@ public class RedisManagerImpl {
     }
 
     try (Jedis jedis = this.jedisPool.getResource()) {
-      jedis.sadd("PROXY_IDS", id);
+      jedis.sadd(PROXY_IDS_KEY, id);
     } catch (Exception e) {
       e.printStackTrace();
     }
@@ -185,12 +215,28 @@ public class RedisManagerImpl {
     }
 
     try (Jedis jedis = this.jedisPool.getResource()) {
-      jedis.srem("PROXY_IDS", id);
+      jedis.srem(PROXY_IDS_KEY, id);
     } catch (Exception e) {
       e.printStackTrace();
     }
   }
 
+  /**
+   * Runs commands on a pooled connection.
+   *
+   * @param commands the commands to run
+   * @param <T> the type of the result
+   * @return the result of {@code commands}
+   * @throws IllegalStateException if Redis is disabled
+   * @throws redis.clients.jedis.exceptions.JedisException if Redis could not be reached
+   */
+  public <T> T execute(final Function<Jedis, T> commands) {
+    Preconditions.checkState(this.jedisPool != null, "Redis is disabled");
+    try (Jedis jedis = this.jedisPool.getResource()) {
+      return commands.apply(jedis);
+    }
+  }
+
   /**
    * Gets all proxy ids from the cache.
    *
@@ -203,7 +249,7 @@ public class RedisManagerImpl {
 
 
     try (Jedis jedis = this.jedisPool.getResource()) {
-      return new ArrayList<>(jedis.smembers("PROXY_IDS").stream().toList());
+      return new ArrayList<>(jedis.smembers(PROXY_IDS_KEY).stream().toList());
     } catch (Exception e) {
       e.printStackTrace();
     }
@@ -224,25 +270,68 @@ public class RedisManagerImpl {
       poolConfig.setMaxTotal(redisConfig.getMaxConcurrentConnections());
       poolConfig.setBlockWhenExhausted(false);
       this.jedisPool = new JedisPool(poolConfig, hostAndPort, clientConfig);
-
-      Thread thread = new Thread(() -> {
-        try (Jedis jedis = this.jedisPool.getResource()) {
-          jedis.subscribe(this.pubSub, CHANNEL);
-        } catch (JedisException e) {
-          logger.error("error in pubsub listener", e);
-        }
-      });
-      thread.setName("Velocity Redis PubSub Listener Thread");
-      thread.setDaemon(true);
-      thread.start();
+      this.dispatcher = new RedisDispatcher(redisConfig.getDispatcherThreads());
+      this.subscriber = new RedisSubscriber(this.jedisPool, VelocityPubSub::new,
+          this::onResubscribe, CHANNEL_BYTES, BINARY_CHANNEL_BYTES);
+      this.subscriber.start();
+      this.publisher = new RedisPublisher(() -> new Jedis(hostAndPort, clientConfig),
+          redisConfig.getPublishQueueCapacity(), redisConfig.getPublishMaxBatch(),
+          redisConfig.getPublishMaxLatency(), TimeUnit.MILLISECONDS);
+      this.publisher.start();
     } catch (Exception e) {
       logger.error("Failed to set up Redis connection", e);
     }
   }
 
+  private void onResubscribe() {
+    for (Runnable hook : this.resubscribeHooks) {
+      this.dispatcher.dispatchBarrier(hook);
+    }
+  }
+
+  /**
+   * Adds a hook that is run after the pubsub connection to Redis was lost and has been
+   * re-established. Messages sent by other proxies in the meantime were not received, so the
+   * hook should resynchronize any state that depends on them.
+   *
+   * @param hook the hook to run
+   */
+  public void addResubscribeHook(final Runnable hook) {
+    this.resubscribeHooks.add(hook);
+  }
+
+  /**
+   * Stops listening for messages, waits briefly for queued handlers to finish and for queued
+   * messages to be published, and closes the connection pool.
+   */
+  public void shutdown() {
+    if (this.jedisPool == null) {
+      return;
+    }
+
+    this.subscriber.stop();
+    try {
+      if (!this.dispatcher.shutdown(5, TimeUnit.SECONDS)) {
+        logger.warn("Timed out waiting for Redis packet handlers to finish");
+      }
+      if (!this.publisher.shutdown(5, TimeUnit.SECONDS)) {
+        logger.warn("Timed out waiting for Redis messages to be published");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    this.jedisPool.close();
+  }
+
   /**
    * Sends an object on the given channel.
    *
+   * <p>Packets are sent in the binary wire format if enabled in the config, and as JSON
+   * otherwise. Every proxy listens for both formats.</p>
+   *
+   * <p>The packet is encoded on the calling thread and then handed to the
+   * {@link RedisPublisher}, so this never blocks on Redis.</p>
+   *
    * @param packet the object to send
    */
   public void send(final RedisPacket packet) {
@@ -250,14 +339,25 @@ public class RedisManagerImpl {
       return;
     }
 
-    try (Jedis jedis = this.jedisPool.getResource()) {
+    if (this.useBinaryProtocol && RedisPacketRegistry.isRegistered(packet)) {
+      try {
+        this.publisher.publish(BINARY_CHANNEL_BYTES, RedisPacketRegistry.encode(packet));
+        return;
+      } catch (Exception e) {
+        // Every proxy also understands JSON, so the packet can still get through.
+        logger.warn("Failed to encode Redis packet {} in the binary format, sending it as JSON",
+            packet.getId(), e);
+      }
+    }
+
+    try {
       JsonElement packetData = gson.toJsonTree(packet);
       JsonObject object = new JsonObject();
       object.add("obj", packetData);
       object.addProperty("id", packet.getId());
-      jedis.publish(CHANNEL, gson.toJson(object));
+      this.publisher.publish(CHANNEL_BYTES, gson.toJson(object).getBytes(StandardCharsets.UTF_8));
     } catch (Exception e) {
-      logger.error("Failed to send Redis pubsub message", e);
+      logger.error("Failed to encode Redis pubsub message", e);
     }
   }
 
@@ -274,40 +374,164 @@ public class RedisManagerImpl {
       return;
     }
 
-    this.pubSub.register(id, clazz, consumer);
+    this.listeners.put(id, new ChannelRegistration<>(clazz, consumer));
   }
 
   public boolean isEnabled() {
     return jedisPool != null;
   }
 
+  /**
+   * Returns the dispatcher that handles received packets.
+   *
+   * @return the dispatcher, or {@code null} if Redis is disabled
+   */
+  public @Nullable RedisDispatcher getDispatcher() {
+    return dispatcher;
+  }
+
+  /**
+   * Returns the publisher that sends packets to the other proxies.
+   *
+   * @return the publisher, or {@code null} if Redis is disabled
+   */
+  public @Nullable RedisPublisher getPublisher() {
+    return publisher;
+  }
+
+  /**
+   * Returns whether the proxy is currently subscribed to the Redis channels.
+   *
+   * @return whether messages from other proxies are being received
+   */
+  public boolean isSubscribed() {
+    return subscriber != null && subscriber.isSubscribed();
+  }
+
+  /**
+   * Returns how many times the pubsub connection was re-established after being lost.
+   *
+   * @return the number of reconnects
+   */
+  public long getReconnects() {
+    return subscriber == null ? 0 : subscriber.getReconnects();
+  }
+
+  /**
+   * Logs that messages of an unknown kind are being dropped, once per kind. This happens when
+   * proxies in the cluster run different versions, for example during a rolling upgrade.
+   *
+   * @param description what this proxy did not understand about the message
+   */
+  private void reportUnknownPacket(final String description) {
+    if (reportedUnknownPackets.add(description)) {
+      logger.warn("Dropping Redis messages with {} sent by another proxy. Make sure every proxy in"
+          + " the cluster runs the same version.", description);
+    }
+  }
+
+  private record ChannelRegistration<T>(Class<T> clazz, Consumer<T> consumer) {
+  }
+
   /**
    * Manages subscriptions and incoming message handling on a Redis channel.
    *
-   * <p>This inner class extends {@link JedisPubSub} to implement a custom message
-   * handler that dispatches messages based on packet ID to registered listeners.</p>
+   * <p>This inner class extends {@link BinaryJedisPubSub} to implement a custom message
+   * handler that decodes messages and hands them to the {@link RedisDispatcher}, which runs the
+   * listener registered for their packet ID. Messages are accepted both as JSON and in the
+   * binary wire format of {@link RedisPacketRegistry}. A new instance is created for every
+   * connection made by the {@link RedisSubscriber}.</p>
    */
-  public static class VelocityPubSub extends JedisPubSub {
+  private final class VelocityPubSub extends BinaryJedisPubSub {
     private static final Logger logger = LoggerFactory.getLogger(VelocityPubSub.class);
-    private final Map<String, ChannelRegistration<?>> listeners = new HashMap<>();
 
     @Override
-    public void onMessage(final String channel, final String message) {
-      JsonObject obj = gson.fromJson(message, JsonObject.class);
-      String packetId = obj.getAsJsonPrimitive("id").getAsString();
-      JsonObject packetObj = obj.getAsJsonObject("obj");
-      ChannelRegistration<?> registration = this.listeners.get(packetId);
+    public void onSubscribe(final byte[] channel, final int subscribedChannels) {
+      subscriber.onSubscribed(subscribedChannels);
+    }
+
+    @Override
+    public void onMessage(final byte[] channel, final byte[] message) {
+      if (Arrays.equals(channel, BINARY_CHANNEL_BYTES)) {
+        this.onBinaryMessage(message);
+      } else {
+        this.onJsonMessage(CHANNEL, new String(message, StandardCharsets.UTF_8));
+      }
+    }
+
+    private void onBinaryMessage(final byte[] message) {
+      ByteBuf buf = Unpooled.wrappedBuffer(message);
+      RedisPacketRegistry.Entry<?> entry;
+      try {
+        entry = RedisPacketRegistry.readHeader(buf);
+      } catch (Exception e) {
+        logger.error("received malformed binary message on channel {}", BINARY_CHANNEL, e);
+        return;
+      }
+
+      if (entry == null) {
+        // Either a newer wire version or a packet this proxy doesn't know about yet.
+        int version = message.length == 0 ? -1 : message[0] & 0xFF;
+        if (version != RedisPacketRegistry.WIRE_VERSION) {
+          reportUnknownPacket("unknown binary wire version " + version);
+        } else {
+          reportUnknownPacket("unknown binary packet ID "
+              + ProtocolUtils.readVarInt(buf.readerIndex(1)));
+        }
+        return;
+      }
 
+      ChannelRegistration<?> registration = listeners.get(entry.id());
       if (registration == null) {
         return;
       }
 
-      this.onMessage0(registration, channel, packetObj);
+      this.onBinaryMessage0(registration, entry, buf);
     }
 
     // second function for `T` parameter
-    private <T> void onMessage0(final ChannelRegistration<T> registration, final String channel,
-                                final JsonObject obj) {
+    private <T> void onBinaryMessage0(final ChannelRegistration<T> registration,
+                                      final RedisPacketRegistry.Entry<?> entry, final ByteBuf buf) {
+      T instance;
+
+      try {
+        instance = registration.clazz.cast(entry.codec().decode(buf));
+      } catch (Exception e) {
+        logger.error("received invalid binary message on channel {} for packet class {}",
+            BINARY_CHANNEL, registration.clazz, e);
+        return;
+      }
+
+      this.dispatch(entry.id(), registration, instance);
+    }
+
+    private void onJsonMessage(final String channel, final String message) {
+      String packetId;
+      JsonObject packetObj;
+      try {
+        JsonObject obj = gson.fromJson(message, JsonObject.class);
+        packetId = obj.getAsJsonPrimitive("id").getAsString();
+        packetObj = obj.getAsJsonObject("obj");
+      } catch (Exception e) {
+        // Throwing here would tear down the subscription for every other message.
+        logger.error("received malformed JSON message on channel {}", channel, e);
+        return;
+      }
+      ChannelRegistration<?> registration = listeners.get(packetId);
+
+      if (registration == null) {
+        if (RedisPacketRegistry.byId(packetId) == null) {
+          reportUnknownPacket("unknown packet ID " + packetId);
+        }
+        return;
+      }
+
+      this.onMessage0(packetId, registration, channel, packetObj);
+    }
+
+    // second function for `T` parameter
+    private <T> void onMessage0(final String packetId, final ChannelRegistration<T> registration,
+                                final String channel, final JsonObject obj) {
       T instance;
 
       try {
@@ -318,18 +542,39 @@ public class RedisManagerImpl {
         return;
       }
 
-      try {
-        registration.consumer.accept(instance);
-      } catch (Throwable th) {
-        logger.error("packet handler for packet class {} threw", registration.clazz, th);
-      }
+      this.dispatch(packetId, registration, instance);
     }
 
-    private record ChannelRegistration<T>(Class<T> clazz, Consumer<T> consumer) {
+    private <T> void dispatch(final String packetId, final ChannelRegistration<T> registration,
+                              final T instance) {
+      Runnable handler = () -> {
+        try {
+          registration.consumer.accept(instance);
+        } catch (Throwable th) {
+          logger.error("packet handler for packet class {} threw", registration.clazz, th);
+        }
+      };
+
+      Object key = instance instanceof RedisPacket packet ? packet.getOrderingKey() : null;
+      if (key == RedisPacket.ALL_PLAYERS) {
+        dispatcher.dispatchBarrier(handler);
+        return;
+      }
+      if (key instanceof RedisPacket.PlayerName name) {
+        key = resolvePlayer(name.username());
+      }
+      dispatcher.dispatch(key != null ? key : packetId, handler);
     }
 
-    private <T> void register(final String id, final Class<T> clazz, final Consumer<T> consumer) {
-      this.listeners.put(id, new ChannelRegistration<>(clazz, consumer));
+    private Object resolvePlayer(final String username) {
+      Player player = velocityServer.getPlayer(username).orElse(null);
+      if (player != null) {
+        return player.getUniqueId();
+      }
+      MultiProxyHandler multiProxyHandler = velocityServer.getMultiProxyHandler();
+      MultiProxyHandler.RemotePlayerInfo info = multiProxyHandler == null
+          ? null : multiProxyHandler.getPlayerInfo(username);
+      return info != null ? info.getUuid() : username.toLowerCase(Locale.ROOT);
     }
   }
 }
@@ -17,9 +17,43 @@
 
 package com.velocitypowered.proxy.redis;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 /**
  * Interface implemented by Redis packets.
  */
 public interface RedisPacket {
+
+  /**
+   * The ordering key of packets that affect every player, such as a snapshot of the players of a
+   * whole proxy. Such packets are handled after every packet received before them, and before
+   * every packet received after them, whatever their keys.
+   */
+  Object ALL_PLAYERS = new Object();
+
   String getId();
+
+  /**
+   * Returns the key this packet is ordered by when it is received. Packets with equal keys are
+   * handled one at a time, in the order they arrived, while packets with different keys may be
+   * handled concurrently. Packets about a single player should return that player's UUID, or a
+   * {@link PlayerName} if they only know the player's username.
+   *
+   * @return the ordering key, or {@code null} to only order this packet against other packets
+   *         of the same type
+   * @see #ALL_PLAYERS
+   */
+  default @Nullable Object getOrderingKey() {
+    return null;
+  }
+
+  /**
+   * The ordering key of a packet that only knows the username of the player it is about. The
+   * receiving proxy resolves it to the UUID of the player, so that the packet is ordered against
+   * the other packets about the same player.
+   *
+   * @param username the username of the player
+   */
+  record PlayerName(String username) {
+  }
 }
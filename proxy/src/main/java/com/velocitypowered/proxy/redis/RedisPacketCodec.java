@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.velocitypowered.proxy.redis;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Encodes and decodes a {@link RedisPacket} in the binary Redis wire format.
+ *
+ * @param <T> the type of the packet
+ */
+public interface RedisPacketCodec<T extends RedisPacket> {
+
+  /**
+   * The largest string (in characters) accepted in a Redis packet. Component JSON can get quite
+   * large, so this matches what we accept from clients for components.
+   */
+  int MAX_STRING_SIZE = 262143;
+
+  void encode(T packet, ByteBuf buf);
+
+  T decode(ByteBuf buf);
+
+  /**
+   * Creates a codec out of an encoder and a decoder function.
+   *
+   * @param encoder the function writing the packet to the buffer
+   * @param decoder the function reading the packet from the buffer
+   * @param <T> the type of the packet
+   * @return the codec
+   */
+  static <T extends RedisPacket> RedisPacketCodec<T> of(final BiConsumer<T, ByteBuf> encoder,
+      final Function<ByteBuf, T> decoder) {
+    return new RedisPacketCodec<>() {
+      @Override
+      public void encode(final T packet, final ByteBuf buf) {
+        encoder.accept(packet, buf);
+      }
+
+      @Override
+      public T decode(final ByteBuf buf) {
+        return decoder.apply(buf);
+      }
+    };
+  }
+
+  /**
+   * Writes a string that may be {@code null}.
+   *
+   * @param buf the buffer to write to
+   * @param str the string to write
+   */
+  static void writeString(final ByteBuf buf, final @Nullable String str) {
+    buf.writeBoolean(str != null);
+    if (str != null) {
+      ProtocolUtils.writeString(buf, str);
+    }
+  }
+
+  /**
+   * Reads a string written by {@link #writeString(ByteBuf, String)}.
+   *
+   * @param buf the buffer to read from
+   * @return the string, which may be {@code null}
+   */
+  static @Nullable String readString(final ByteBuf buf) {
+    return buf.readBoolean() ? ProtocolUtils.readString(buf, MAX_STRING_SIZE) : null;
+  }
+
+  /**
+   * Writes a UUID that may be {@code null}.
+   *
+   * @param buf the buffer to write to
+   * @param uuid the UUID to write
+   */
+  static void writeUuid(final ByteBuf buf, final @Nullable UUID uuid) {
+    buf.writeBoolean(uuid != null);
+    if (uuid != null) {
+      ProtocolUtils.writeUuid(buf, uuid);
+    }
+  }
+
+  /**
+   * Reads a UUID written by {@link #writeUuid(ByteBuf, UUID)}.
+   *
+   * @param buf the buffer to read from
+   * @return the UUID, which may be {@code null}
+   */
+  static @Nullable UUID readUuid(final ByteBuf buf) {
+    return buf.readBoolean() ? ProtocolUtils.readUuid(buf) : null;
+  }
+}
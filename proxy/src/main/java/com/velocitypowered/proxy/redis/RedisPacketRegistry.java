@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.redis.multiproxy.RedisGenericReplyRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisGetPlayerPingRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisPlayerJoinUpdate;
+import com.velocitypowered.proxy.redis.multiproxy.RedisPlayerLeaveUpdate;
+import com.velocitypowered.proxy.redis.multiproxy.RedisPlayerServerChange;
+import com.velocitypowered.proxy.redis.multiproxy.RedisPlayerSetQueuedServerRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisPlayerSetTransferringRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisProxyHeartbeat;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueAddRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueAlreadyJoinedRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueDisableWaitingForConnectionRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueLeaveRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueuePauseRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueSendRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueSendStatusRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueStatusBatch;
+import com.velocitypowered.proxy.redis.multiproxy.RedisSendActionBarRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisSendMessage;
+import com.velocitypowered.proxy.redis.multiproxy.RedisSendMessageToUuidRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisServerAlertRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisShuttingDownAnnouncement;
+import com.velocitypowered.proxy.redis.multiproxy.RedisStartupFillPlayersRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisStartupRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisSudo;
+import com.velocitypowered.proxy.redis.multiproxy.RedisSwitchServerRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisTransferCommandRequest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Maps {@link RedisPacket}s to the numeric IDs and codecs used by the binary Redis wire format.
+ *
+ * <p>A binary message is laid out as {@code [wire version: byte][packet id: VarInt][payload]}.
+ * Numeric IDs are part of the wire format shared by every proxy in the cluster: never reuse or
+ * reorder them, only append new packets at the end. Changing the layout of an existing payload
+ * requires bumping {@link #WIRE_VERSION}.</p>
+ */
+public final class RedisPacketRegistry {
+
+  /**
+   * The version of the binary wire format written by this proxy.
+   */
+  public static final int WIRE_VERSION = 1;
+
+  private static final IntObjectMap<Entry<?>> BY_NUMERIC_ID = new IntObjectHashMap<>();
+  private static final Map<String, Entry<?>> BY_ID = new HashMap<>();
+  private static final Map<Class<?>, Entry<?>> BY_CLASS = new HashMap<>();
+
+  static {
+    register(0x00, RedisGenericReplyRequest.ID, RedisGenericReplyRequest.class,
+        RedisGenericReplyRequest.CODEC);
+    register(0x01, RedisGetPlayerPingRequest.ID, RedisGetPlayerPingRequest.class,
+        RedisGetPlayerPingRequest.CODEC);
+    register(0x02, RedisPlayerJoinUpdate.ID, RedisPlayerJoinUpdate.class,
+        RedisPlayerJoinUpdate.CODEC);
+    register(0x03, RedisPlayerLeaveUpdate.ID, RedisPlayerLeaveUpdate.class,
+        RedisPlayerLeaveUpdate.CODEC);
+    register(0x04, RedisPlayerServerChange.ID, RedisPlayerServerChange.class,
+        RedisPlayerServerChange.CODEC);
+    register(0x05, RedisPlayerSetQueuedServerRequest.ID, RedisPlayerSetQueuedServerRequest.class,
+        RedisPlayerSetQueuedServerRequest.CODEC);
+    register(0x06, RedisPlayerSetTransferringRequest.ID, RedisPlayerSetTransferringRequest.class,
+        RedisPlayerSetTransferringRequest.CODEC);
+    register(0x07, RedisQueueAddRequest.ID, RedisQueueAddRequest.class,
+        RedisQueueAddRequest.CODEC);
+    register(0x08, RedisQueueAlreadyJoinedRequest.ID, RedisQueueAlreadyJoinedRequest.class,
+        RedisQueueAlreadyJoinedRequest.CODEC);
+    register(0x09, RedisQueueDisableWaitingForConnectionRequest.ID,
+        RedisQueueDisableWaitingForConnectionRequest.class,
+        RedisQueueDisableWaitingForConnectionRequest.CODEC);
+    register(0x0A, RedisQueueLeaveRequest.ID, RedisQueueLeaveRequest.class,
+        RedisQueueLeaveRequest.CODEC);
+    register(0x0B, RedisQueuePauseRequest.ID, RedisQueuePauseRequest.class,
+        RedisQueuePauseRequest.CODEC);
+    register(0x0C, RedisQueueSendRequest.ID, RedisQueueSendRequest.class,
+        RedisQueueSendRequest.CODEC);
+    register(0x0D, RedisQueueSendStatusRequest.ID, RedisQueueSendStatusRequest.class,
+        RedisQueueSendStatusRequest.CODEC);
+    register(0x0E, RedisSendActionBarRequest.ID, RedisSendActionBarRequest.class,
+        RedisSendActionBarRequest.CODEC);
+    register(0x0F, RedisSendMessage.ID, RedisSendMessage.class,
+        RedisSendMessage.CODEC);
+    register(0x10, RedisSendMessageToUuidRequest.ID, RedisSendMessageToUuidRequest.class,
+        RedisSendMessageToUuidRequest.CODEC);
+    register(0x11, RedisServerAlertRequest.ID, RedisServerAlertRequest.class,
+        RedisServerAlertRequest.CODEC);
+    register(0x12, RedisShuttingDownAnnouncement.ID, RedisShuttingDownAnnouncement.class,
+        RedisShuttingDownAnnouncement.CODEC);
+    register(0x13, RedisStartupFillPlayersRequest.ID, RedisStartupFillPlayersRequest.class,
+        RedisStartupFillPlayersRequest.CODEC);
+    register(0x14, RedisStartupRequest.ID, RedisStartupRequest.class,
+        RedisStartupRequest.CODEC);
+    register(0x15, RedisSudo.ID, RedisSudo.class,
+        RedisSudo.CODEC);
+    register(0x16, RedisSwitchServerRequest.ID, RedisSwitchServerRequest.class,
+        RedisSwitchServerRequest.CODEC);
+    register(0x17, RedisTransferCommandRequest.ID, RedisTransferCommandRequest.class,
+        RedisTransferCommandRequest.CODEC);
+    register(0x18, RedisQueueStatusBatch.ID, RedisQueueStatusBatch.class,
+        RedisQueueStatusBatch.CODEC);
+    register(0x19, RedisProxyHeartbeat.ID, RedisProxyHeartbeat.class,
+        RedisProxyHeartbeat.CODEC);
+  }
+
+  private RedisPacketRegistry() {
+    throw new AssertionError();
+  }
+
+  private static <T extends RedisPacket> void register(final int numericId, final String id,
+      final Class<T> clazz, final RedisPacketCodec<T> codec) {
+    Entry<T> entry = new Entry<>(numericId, id, clazz, codec);
+    if (BY_NUMERIC_ID.put(numericId, entry) != null || BY_ID.put(id, entry) != null
+        || BY_CLASS.put(clazz, entry) != null) {
+      throw new IllegalStateException("Duplicate Redis packet registration for " + clazz);
+    }
+  }
+
+  /**
+   * Returns whether the given packet can be sent in the binary wire format.
+   *
+   * @param packet the packet to check
+   * @return whether a codec is registered for the packet
+   */
+  public static boolean isRegistered(final RedisPacket packet) {
+    return BY_CLASS.containsKey(packet.getClass());
+  }
+
+  /**
+   * Returns the registration for the given string packet ID.
+   *
+   * @param id the string ID of the packet
+   * @return the registration, or {@code null} if none exists
+   */
+  public static @Nullable Entry<?> byId(final String id) {
+    return BY_ID.get(id);
+  }
+
+  /**
+   * Encodes a packet into a binary Redis message.
+   *
+   * @param packet the packet to encode
+   * @return the encoded message
+   * @throws IllegalArgumentException if the packet has no registered codec
+   */
+  @SuppressWarnings("unchecked")
+  public static byte[] encode(final RedisPacket packet) {
+    Entry<RedisPacket> entry = (Entry<RedisPacket>) BY_CLASS.get(packet.getClass());
+    if (entry == null) {
+      throw new IllegalArgumentException("No Redis codec registered for " + packet.getClass());
+    }
+
+    ByteBuf buf = Unpooled.buffer();
+    try {
+      buf.writeByte(WIRE_VERSION);
+      ProtocolUtils.writeVarInt(buf, entry.numericId());
+      entry.codec().encode(packet, buf);
+
+      byte[] message = new byte[buf.readableBytes()];
+      buf.readBytes(message);
+      return message;
+    } finally {
+      buf.release();
+    }
+  }
+
+  /**
+   * Reads the header of a binary Redis message. The buffer is left positioned at the start of the
+   * payload, ready to be passed to the codec of the returned registration.
+   *
+   * @param buf the message
+   * @return the registration for the packet, or {@code null} if the message uses a wire version
+   *         or packet ID this proxy does not know
+   */
+  public static @Nullable Entry<?> readHeader(final ByteBuf buf) {
+    if (!buf.isReadable() || buf.readUnsignedByte() != WIRE_VERSION) {
+      return null;
+    }
+    return BY_NUMERIC_ID.get(ProtocolUtils.readVarInt(buf));
+  }
+
+  /**
+   * A registered Redis packet.
+   *
+   * @param numericId the ID used in the binary wire format
+   * @param id the string ID of the packet, as used by listeners
+   * @param clazz the packet class
+   * @param codec the codec for the packet
+   * @param <T> the type of the packet
+   */
+  public record Entry<T extends RedisPacket>(int numericId, String id, Class<T> clazz,
+                                             RedisPacketCodec<T> codec) {
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+/**
+ * Publishes Redis messages asynchronously over a single dedicated connection.
+ *
+ * <p>Senders only append the encoded message to a bounded queue, so they never wait for Redis
+ * and never compete for pooled connections. A dedicated thread takes up to {@code maxBatch}
+ * messages at a time, waiting at most {@code maxLatency} after the first one for more to arrive,
+ * and writes them with a single pipelined round trip.</p>
+ *
+ * <p>If the queue is full, or Redis can't be reached, messages are dropped and counted rather
+ * than retried, matching the at-most-once delivery of Redis pubsub itself.</p>
+ */
+public final class RedisPublisher {
+
+  private static final Logger logger = LoggerFactory.getLogger(RedisPublisher.class);
+  private static final long IDLE_POLL_MILLIS = 100;
+  private static final long MIN_BACKOFF_MILLIS = 100;
+  private static final long MAX_BACKOFF_MILLIS = 5_000;
+  private static final long DROP_WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  private final Supplier<Jedis> connectionFactory;
+  private final BlockingQueue<Message> queue;
+  private final int capacity;
+  private final int maxBatch;
+  private final long maxLatencyNanos;
+  private final Thread thread;
+  private final LongAdder published = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private volatile boolean running = true;
+  private volatile long lastDropWarning = System.nanoTime() - DROP_WARNING_INTERVAL_NANOS;
+  private @Nullable Jedis connection;
+  private long backoffMillis = MIN_BACKOFF_MILLIS;
+
+  /**
+   * Creates a publisher.
+   *
+   * @param connectionFactory opens a new connection to Redis
+   * @param capacity the maximum number of messages waiting to be published
+   * @param maxBatch the maximum number of messages written in one round trip
+   * @param maxLatency how long to wait for a batch to fill up after its first message
+   * @param unit the unit of {@code maxLatency}
+   */
+  RedisPublisher(final Supplier<Jedis> connectionFactory, final int capacity,
+      final int maxBatch, final long maxLatency, final TimeUnit unit) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+    Preconditions.checkArgument(maxBatch > 0, "maxBatch must be positive");
+    Preconditions.checkArgument(maxLatency >= 0, "maxLatency must not be negative");
+    this.connectionFactory = connectionFactory;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.capacity = capacity;
+    this.maxBatch = maxBatch;
+    this.maxLatencyNanos = unit.toNanos(maxLatency);
+    this.thread = new Thread(this::run, "Velocity Redis Publisher Thread");
+    this.thread.setDaemon(true);
+  }
+
+  void start() {
+    thread.start();
+  }
+
+  /**
+   * Queues a message to be published.
+   *
+   * @param channel the channel to publish on
+   * @param payload the message
+   * @return whether the message was queued, {@code false} if the queue was full or the publisher
+   *         was shut down
+   */
+  boolean publish(final byte[] channel, final byte[] payload) {
+    if (running && queue.offer(new Message(channel, payload))) {
+      return true;
+    }
+
+    dropped.increment();
+    long now = System.nanoTime();
+    long last = lastDropWarning;
+    if (now - last >= DROP_WARNING_INTERVAL_NANOS) {
+      lastDropWarning = now;
+      logger.warn("Redis publish queue is full or shut down, dropping messages ({} so far)",
+          dropped.sum());
+    }
+    return false;
+  }
+
+  private void run() {
+    List<Message> batch = new ArrayList<>(maxBatch);
+    while (running || !queue.isEmpty()) {
+      try {
+        fill(batch);
+      } catch (InterruptedException e) {
+        // Shutting down: publish what has already been taken from the queue, the loop drains
+        // the rest.
+      }
+      flushIfNotEmpty(batch);
+    }
+
+    // A sender may have queued a message just before running was cleared.
+    queue.drainTo(batch);
+    flushIfNotEmpty(batch);
+    closeConnection();
+  }
+
+  private void fill(final List<Message> batch) throws InterruptedException {
+    Message first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+    if (first == null) {
+      return;
+    }
+    batch.add(first);
+
+    long deadline = System.nanoTime() + maxLatencyNanos;
+    while (batch.size() < maxBatch) {
+      queue.drainTo(batch, maxBatch - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= maxBatch || remaining <= 0 || !running) {
+        break;
+      }
+      Message next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+  }
+
+  private void flushIfNotEmpty(final List<Message> batch) {
+    if (!batch.isEmpty()) {
+      flush(batch);
+      batch.clear();
+    }
+  }
+
+  private void flush(final List<Message> batch) {
+    Jedis jedis = connect();
+    if (jedis == null) {
+      failed.add(batch.size());
+      return;
+    }
+
+    try {
+      if (batch.size() == 1) {
+        Message message = batch.get(0);
+        jedis.publish(message.channel, message.payload);
+      } else {
+        Pipeline pipeline = jedis.pipelined();
+        for (Message message : batch) {
+          pipeline.publish(message.channel, message.payload);
+        }
+        pipeline.sync();
+      }
+      published.add(batch.size());
+      batches.increment();
+    } catch (Exception e) {
+      // We can't tell which messages made it, so count the whole batch as failed.
+      failed.add(batch.size());
+      logger.error("Failed to publish {} Redis messages", batch.size(), e);
+      closeConnection();
+    }
+  }
+
+  private @Nullable Jedis connect() {
+    if (connection != null) {
+      return connection;
+    }
+
+    Jedis jedis = null;
+    try {
+      jedis = connectionFactory.get();
+      // Jedis connects lazily, so make sure the connection works before handing it a batch.
+      jedis.ping();
+      connection = jedis;
+      backoffMillis = MIN_BACKOFF_MILLIS;
+      return jedis;
+    } catch (Exception e) {
+      if (jedis != null) {
+        jedis.close();
+      }
+      logger.error("Failed to connect to Redis to publish messages, retrying in {} ms",
+          backoffMillis, e);
+      try {
+        Thread.sleep(backoffMillis);
+      } catch (InterruptedException ignored) {
+        // Shutting down, the caller gives up on this batch.
+      }
+      backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+      return null;
+    }
+  }
+
+  private void closeConnection() {
+    Jedis jedis = connection;
+    connection = null;
+    if (jedis != null) {
+      try {
+        jedis.close();
+      } catch (Exception e) {
+        logger.debug("failed to close Redis publisher connection", e);
+      }
+    }
+  }
+
+  /**
+   * Stops accepting messages and waits for the queued ones to be published.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit the unit of {@code timeout}
+   * @return whether every queued message was handled in time
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  boolean shutdown(final long timeout, final TimeUnit unit) throws InterruptedException {
+    running = false;
+    thread.interrupt();
+    thread.join(Math.max(1, unit.toMillis(timeout)));
+    return !thread.isAlive();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the number of messages waiting to be published. A queue that stays close to
+   * {@link #getCapacity()} means messages are sent faster than Redis accepts them.
+   *
+   * @return the number of queued messages
+   */
+  public int getQueuedMessages() {
+    return queue.size();
+  }
+
+  public long getPublishedMessages() {
+    return published.sum();
+  }
+
+  public long getBatches() {
+    return batches.sum();
+  }
+
+  /**
+   * Returns the number of messages dropped because the queue was full.
+   *
+   * @return the number of dropped messages
+   */
+  public long getDroppedMessages() {
+    return dropped.sum();
+  }
+
+  /**
+   * Returns the number of messages that could not be published because Redis was unreachable
+   * or returned an error.
+   *
+   * @return the number of failed messages
+   */
+  public long getFailedMessages() {
+    return failed.sum();
+  }
+
+  private record Message(byte[] channel, byte[] payload) {
+  }
+}
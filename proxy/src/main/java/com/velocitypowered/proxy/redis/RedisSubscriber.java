@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * Keeps a pub/sub subscription to a set of Redis channels alive.
+ *
+ * <p>The subscription is held on a dedicated thread. If the connection is lost, the thread
+ * reconnects with jittered exponential backoff instead of exiting. Every time the subscription is
+ * re-established after the first, the resubscribe hook is run so the proxy can catch up on the
+ * messages it missed while it was disconnected.</p>
+ */
+final class RedisSubscriber {
+
+  private static final Logger logger = LoggerFactory.getLogger(RedisSubscriber.class);
+  private static final long MIN_BACKOFF_MILLIS = 100;
+  private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+  private final JedisPool pool;
+  private final Supplier<? extends BinaryJedisPubSub> pubSubFactory;
+  private final Runnable resubscribeHook;
+  private final byte[][] channels;
+  private final Thread thread;
+  private final LongAdder reconnects = new LongAdder();
+  private volatile boolean running = true;
+  private volatile boolean subscribed;
+  private volatile @Nullable BinaryJedisPubSub current;
+  private boolean subscribedBefore;
+  private long backoffMillis = MIN_BACKOFF_MILLIS;
+
+  /**
+   * Creates a subscriber. The {@code pubSubFactory} is asked for a new listener for every
+   * connection attempt, and that listener must call {@link #onSubscribed(int)} from
+   * {@link BinaryJedisPubSub#onSubscribe(byte[], int)}.
+   *
+   * @param pool the pool to take connections from
+   * @param pubSubFactory creates the listener for a connection attempt
+   * @param resubscribeHook run on the subscriber thread after reconnecting
+   * @param channels the channels to subscribe to
+   */
+  RedisSubscriber(final JedisPool pool, final Supplier<? extends BinaryJedisPubSub> pubSubFactory,
+      final Runnable resubscribeHook, final byte[]... channels) {
+    this.pool = pool;
+    this.pubSubFactory = pubSubFactory;
+    this.resubscribeHook = resubscribeHook;
+    this.channels = channels;
+    this.thread = new Thread(this::run, "Velocity Redis PubSub Listener Thread");
+    this.thread.setDaemon(true);
+  }
+
+  void start() {
+    thread.start();
+  }
+
+  private void run() {
+    while (running) {
+      BinaryJedisPubSub pubSub = pubSubFactory.get();
+      current = pubSub;
+      try (Jedis jedis = pool.getResource()) {
+        jedis.subscribe(pubSub, channels);
+      } catch (Exception e) {
+        if (running) {
+          logger.warn("Lost the Redis pubsub connection, reconnecting in about {} ms",
+              backoffMillis, e);
+        }
+      } finally {
+        subscribed = false;
+        current = null;
+      }
+
+      if (!running) {
+        return;
+      }
+
+      try {
+        // Spread out reconnects so a Redis restart isn't met by the whole fleet at once.
+        long half = backoffMillis / 2;
+        Thread.sleep(half + ThreadLocalRandom.current().nextLong(half + 1));
+      } catch (InterruptedException e) {
+        if (!running) {
+          return;
+        }
+      }
+      backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+    }
+  }
+
+  /**
+   * Called on the subscriber thread whenever the server confirms a subscription.
+   *
+   * @param subscribedChannels the number of channels the connection is now subscribed to
+   */
+  void onSubscribed(final int subscribedChannels) {
+    if (subscribedChannels < channels.length) {
+      return;
+    }
+
+    subscribed = true;
+    backoffMillis = MIN_BACKOFF_MILLIS;
+    if (!subscribedBefore) {
+      subscribedBefore = true;
+      return;
+    }
+
+    reconnects.increment();
+    logger.info("Reconnected to Redis pubsub, resynchronizing with the other proxies");
+    try {
+      resubscribeHook.run();
+    } catch (Throwable t) {
+      logger.error("Redis resubscribe hook threw", t);
+    }
+  }
+
+  /**
+   * Unsubscribes and stops reconnecting.
+   */
+  void stop() {
+    running = false;
+    BinaryJedisPubSub pubSub = current;
+    if (pubSub != null && subscribed) {
+      try {
+        pubSub.unsubscribe();
+      } catch (Exception e) {
+        logger.debug("failed to unsubscribe from Redis pubsub", e);
+      }
+    }
+    thread.interrupt();
+  }
+
+  boolean isSubscribed() {
+    return subscribed;
+  }
+
+  long getReconnects() {
+    return reconnects.sum();
+  }
+}
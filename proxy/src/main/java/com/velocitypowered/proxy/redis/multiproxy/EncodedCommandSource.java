@@ -21,6 +21,8 @@ import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.ConsoleCommandSource;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
+import io.netty.buffer.ByteBuf;
 import java.util.Objects;
 import java.util.UUID;
 import net.kyori.adventure.text.Component;
@@ -72,6 +74,15 @@ public class EncodedCommandSource {
     return new EncodedCommandSource("#all", proxyId);
   }
 
+  void write(final ByteBuf buf) {
+    RedisPacketCodec.writeString(buf, target);
+    RedisPacketCodec.writeString(buf, targetProxy);
+  }
+
+  static EncodedCommandSource read(final ByteBuf buf) {
+    return new EncodedCommandSource(RedisPacketCodec.readString(buf), RedisPacketCodec.readString(buf));
+  }
+
   /**
    * Returns the encoded command source corresponding to the remote server console.
    *
@@ -17,40 +17,62 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.github.benmanes.caffeine.cache.Ticker;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
 import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.command.builtin.VelocityCommand;
 import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.plugin.virtual.VelocityVirtualPlugin;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisManagerImpl;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.concurrent.EventExecutor;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
 /**
  * Implements handling for setups with multiple proxies.
  */
 public class MultiProxyHandler {
   private static final Logger logger = LoggerFactory.getLogger(MultiProxyHandler.class);
+  private static final int RESYNC_GRACE_SECONDS = 5;
+  private static final String HEARTBEAT_KEY_PREFIX = "PROXY:";
 
   private final VelocityServer server;
   private final VelocityConfiguration.Redis config;
   private boolean shuttingDown = false;
-  private final Map<UUID, String> transferringServers = new HashMap<>();
+  private final Map<UUID, String> transferringServers = Collections.synchronizedMap(new HashMap<>());
+  private volatile @Nullable Set<UUID> unconfirmedPlayers;
 
   // All the players currently connected on ALL proxies, including own proxy.
-  private final List<RemotePlayerInfo> allPlayers = new CopyOnWriteArrayList<>();
+  private final RemotePlayerDirectory directory = new RemotePlayerDirectory();
+  // All the proxies that are currently online, including own proxy.
+  private final ProxyMembership membership = new ProxyMembership(Ticker.systemTicker());
+  private final AtomicLong eventLoopLagNanos = new AtomicLong();
+  private @Nullable ScheduledTask heartbeatTaskHandle;
+  private boolean heartbeatFailing = false;
 
   private final boolean enabled;
 
@@ -132,13 +154,84 @@ public class MultiProxyHandler {
       return this.proxyId;
     }
 
-    public void setServerName(final String serverName) {
+    /**
+     * Sets the server the player is connected to. Only {@link RemotePlayerDirectory} may call
+     * this, as it has to move the player in its server index at the same time; anything else
+     * should go through {@link RemotePlayerDirectory#updateServer(UUID, String)}.
+     *
+     * @param serverName the new server, or {@code null} if the player isn't on one
+     */
+    void setServerName(final String serverName) {
       this.serverName = serverName;
     }
 
     public void setBeingTransferred(final boolean beingTransferred) {
       this.beingTransferred = beingTransferred;
     }
+
+    void write(final ByteBuf buf) {
+      RedisPacketCodec.writeString(buf, proxyId);
+      ProtocolUtils.writeUuid(buf, uuid);
+      RedisPacketCodec.writeString(buf, name);
+      ProtocolUtils.writeVarInt(buf, queuePriority == null ? 0 : queuePriority.size());
+      if (queuePriority != null) {
+        for (Map.Entry<String, Integer> entry : queuePriority.entrySet()) {
+          RedisPacketCodec.writeString(buf, entry.getKey());
+          ProtocolUtils.writeVarInt(buf, entry.getValue());
+        }
+      }
+      buf.writeBoolean(fullQueueBypass);
+      RedisPacketCodec.writeString(buf, serverName);
+      RedisPacketCodec.writeString(buf, queuedServer);
+      buf.writeBoolean(beingTransferred);
+    }
+
+    static RemotePlayerInfo read(final ByteBuf buf) {
+      String proxyId = RedisPacketCodec.readString(buf);
+      UUID uuid = ProtocolUtils.readUuid(buf);
+      String name = RedisPacketCodec.readString(buf);
+      int priorities = ProtocolUtils.readVarInt(buf);
+      Map<String, Integer> queuePriority = new HashMap<>(Math.min(priorities, 64));
+      for (int i = 0; i < priorities; i++) {
+        queuePriority.put(RedisPacketCodec.readString(buf), ProtocolUtils.readVarInt(buf));
+      }
+      RemotePlayerInfo info = new RemotePlayerInfo(proxyId, uuid, name, queuePriority, buf.readBoolean());
+      info.serverName = RedisPacketCodec.readString(buf);
+      info.queuedServer = RedisPacketCodec.readString(buf);
+      info.beingTransferred = buf.readBoolean();
+      return info;
+    }
+
+    static void writeList(final ByteBuf buf, final List<RemotePlayerInfo> players) {
+      ProtocolUtils.writeVarInt(buf, players.size());
+      for (RemotePlayerInfo player : players) {
+        player.write(buf);
+      }
+    }
+
+    static List<RemotePlayerInfo> readList(final ByteBuf buf) {
+      int size = ProtocolUtils.readVarInt(buf);
+      List<RemotePlayerInfo> players = new ArrayList<>(Math.min(size, 4096));
+      for (int i = 0; i < size; i++) {
+        players.add(read(buf));
+      }
+      return players;
+    }
+  }
+
+  /**
+   * The last known state of an online proxy.
+   *
+   * @param proxyId the ID of the proxy
+   * @param playerCount the number of players connected to the proxy
+   * @param cpuLoad the CPU usage of the proxy process, from {@code 0} to {@code 1}, or a negative
+   *                value if it is not known
+   * @param eventLoopLagMillis the longest time a task recently waited to run on one of the
+   *                           proxy's network event loops
+   * @param lastSeenNanos when the proxy was last heard from, as a {@link System#nanoTime()} value
+   */
+  public record ProxyStatus(String proxyId, int playerCount, double cpuLoad,
+                            long eventLoopLagMillis, long lastSeenNanos) {
   }
 
   /**
@@ -166,8 +259,17 @@ public class MultiProxyHandler {
     RedisManagerImpl redisManager = this.server.getRedisManager();
 
     redisManager.addProxyId(this.server.getConfiguration().getRedis().getProxyId());
+    this.membership.touch(config.getProxyId());
+    this.loadMembership();
+
+    redisManager.listen(RedisProxyHeartbeat.ID, RedisProxyHeartbeat.class, it -> {
+      if (!it.proxyId().equals(this.getOwnProxyId()) && this.membership.heartbeat(it)) {
+        logger.info("Proxy {} is now online", it.proxyId());
+      }
+    });
 
     redisManager.listen(RedisPlayerJoinUpdate.ID, RedisPlayerJoinUpdate.class, it -> {
+      this.confirm(it.player());
       this.handleJoin(it.player());
     });
 
@@ -176,11 +278,7 @@ public class MultiProxyHandler {
     });
 
     redisManager.listen(RedisPlayerServerChange.ID, RedisPlayerServerChange.class, it -> {
-      for (RemotePlayerInfo player : allPlayers) {
-        if (it.uuid().equals(player.uuid)) {
-          player.serverName = it.server();
-        }
-      }
+      this.directory.updateServer(it.uuid(), it.server());
     });
 
     redisManager.listen(RedisShuttingDownAnnouncement.ID, RedisShuttingDownAnnouncement.class, it -> {
@@ -193,10 +291,15 @@ public class MultiProxyHandler {
     });
 
     redisManager.listen(RedisStartupRequest.ID, RedisStartupRequest.class, it -> {
-      this.server.getRedisManager().send(new RedisStartupFillPlayersRequest(
-          this.server.getMultiProxyHandler().getAllPlayers(),
-          it.proxyId()
-      ));
+      this.membership.touch(it.proxyId());
+
+      // Our own directory is exactly what a resync started by this proxy is meant to verify.
+      if (!it.proxyId().equals(this.getOwnProxyId())) {
+        this.server.getRedisManager().send(new RedisStartupFillPlayersRequest(
+            this.getAllPlayers(),
+            it.proxyId()
+        ));
+      }
 
       this.server.getScheduler().buildTask(VelocityVirtualPlugin.INSTANCE, () -> {
         if (!this.server.getQueueManager().isMasterProxy()) {
@@ -207,10 +310,10 @@ public class MultiProxyHandler {
 
     redisManager.listen(RedisStartupFillPlayersRequest.ID, RedisStartupFillPlayersRequest.class, it -> {
       for (RemotePlayerInfo info : it.players()) {
-        this.server.getMultiProxyHandler().getAllPlayers().removeIf(i -> i.getUuid().equals(info.getUuid()));
+        this.confirm(info);
+        this.membership.touch(info.getProxyId());
+        this.directory.add(info);
       }
-
-      this.server.getMultiProxyHandler().getAllPlayers().addAll(it.players());
     });
 
     redisManager.listen(RedisGenericReplyRequest.ID, RedisGenericReplyRequest.class, it -> {
@@ -288,7 +391,168 @@ public class MultiProxyHandler {
       );
     });
 
+    redisManager.addResubscribeHook(this::resync);
     redisManager.send(new RedisStartupRequest(config.getProxyId()));
+
+    this.heartbeatTaskHandle = this.server.getScheduler()
+        .buildTask(VelocityVirtualPlugin.INSTANCE, this::tickHeartbeat)
+        .repeat(config.getHeartbeatInterval(), TimeUnit.MILLISECONDS)
+        .schedule();
+  }
+
+  /**
+   * Seeds the membership view with the proxies that are registered in Redis and still have an
+   * unexpired heartbeat. Proxies that are registered but have no heartbeat crashed without
+   * unregistering themselves, so they are removed.
+   */
+  private void loadMembership() {
+    RedisManagerImpl redisManager = this.server.getRedisManager();
+    List<String> registered = redisManager.getProxyIds();
+    Map<String, Boolean> alive;
+    try {
+      alive = redisManager.execute(jedis -> {
+        Pipeline pipeline = jedis.pipelined();
+        Map<String, Response<Boolean>> responses = new HashMap<>();
+        for (String proxyId : registered) {
+          responses.put(proxyId, pipeline.exists(HEARTBEAT_KEY_PREFIX + proxyId));
+        }
+        pipeline.sync();
+
+        Map<String, Boolean> result = new HashMap<>();
+        responses.forEach((proxyId, response) -> result.put(proxyId, response.get()));
+        return result;
+      });
+    } catch (RuntimeException e) {
+      logger.warn("Unable to load the list of online proxies from Redis", e);
+      return;
+    }
+
+    alive.forEach((proxyId, hasHeartbeat) -> {
+      if (proxyId.equals(this.getOwnProxyId())) {
+        return;
+      }
+      if (hasHeartbeat) {
+        this.membership.touch(proxyId);
+      } else {
+        logger.info("Removing proxy {}, which is registered but has no heartbeat", proxyId);
+        redisManager.removeProxyId(proxyId);
+      }
+    });
+  }
+
+  /**
+   * Announces that this proxy is still online, along with its current load, and forgets the
+   * proxies that have not done the same within the heartbeat timeout.
+   */
+  private void tickHeartbeat() {
+    if (shuttingDown) {
+      return;
+    }
+
+    String ownProxyId = this.getOwnProxyId();
+    RedisProxyHeartbeat heartbeat = new RedisProxyHeartbeat(ownProxyId, this.server.getPlayerCount(),
+        processCpuLoad(), TimeUnit.NANOSECONDS.toMillis(this.eventLoopLagNanos.getAndSet(0)));
+    this.sampleEventLoopLag();
+    this.membership.heartbeat(heartbeat);
+
+    RedisManagerImpl redisManager = this.server.getRedisManager();
+    redisManager.send(heartbeat);
+    try {
+      redisManager.execute(jedis -> {
+        String key = HEARTBEAT_KEY_PREFIX + ownProxyId;
+        Pipeline pipeline = jedis.pipelined();
+        pipeline.hset(key, Map.of(
+            "players", Integer.toString(heartbeat.playerCount()),
+            "cpu", Double.toString(heartbeat.cpuLoad()),
+            "event-loop-lag", Long.toString(heartbeat.eventLoopLagMillis()),
+            "updated", Long.toString(System.currentTimeMillis())));
+        pipeline.pexpire(key, config.getHeartbeatTimeout());
+        // Another proxy may have evicted us while we could not reach Redis.
+        pipeline.sadd(RedisManagerImpl.PROXY_IDS_KEY, ownProxyId);
+        pipeline.sync();
+        return null;
+      });
+      this.heartbeatFailing = false;
+    } catch (RuntimeException e) {
+      if (!this.heartbeatFailing) {
+        logger.warn("Unable to write the heartbeat of this proxy to Redis", e);
+      }
+      this.heartbeatFailing = true;
+    }
+
+    this.evictExpiredProxies();
+  }
+
+  private void evictExpiredProxies() {
+    long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getHeartbeatTimeout());
+    for (String proxyId : this.membership.expired(timeoutNanos)) {
+      if (proxyId.equals(this.getOwnProxyId()) || !this.membership.remove(proxyId)) {
+        continue;
+      }
+
+      int players = this.directory.countOnProxy(proxyId);
+      this.directory.removeProxy(proxyId);
+      this.server.getRedisManager().removeProxyId(proxyId);
+      logger.warn("Proxy {} has not sent a heartbeat for {}ms, removed it and its {} players",
+          proxyId, config.getHeartbeatTimeout(), players);
+    }
+  }
+
+  // Measures how long a task waits before it runs on each event loop. The result is read by the
+  // next heartbeat.
+  private void sampleEventLoopLag() {
+    for (EventExecutor eventLoop : this.server.getWorkerGroup()) {
+      long scheduledAt = System.nanoTime();
+      eventLoop.execute(() ->
+          this.eventLoopLagNanos.accumulateAndGet(System.nanoTime() - scheduledAt, Math::max));
+    }
+  }
+
+  private static double processCpuLoad() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    if (os instanceof com.sun.management.OperatingSystemMXBean platformOs) {
+      return platformOs.getProcessCpuLoad();
+    }
+    return -1;
+  }
+
+  /**
+   * Catches up after the pubsub connection to Redis was re-established. Any joins and leaves
+   * sent by other proxies in the meantime were missed, so every proxy is asked to send its
+   * players again, exactly as on startup. Remote players that no proxy reports within
+   * {@value #RESYNC_GRACE_SECONDS} seconds are assumed to have left.
+   */
+  private void resync() {
+    Set<UUID> unconfirmed = ConcurrentHashMap.newKeySet();
+    for (RemotePlayerInfo info : directory.all()) {
+      if (!info.getProxyId().equals(this.getOwnProxyId())) {
+        unconfirmed.add(info.getUuid());
+      }
+    }
+    this.unconfirmedPlayers = unconfirmed;
+    this.server.getRedisManager().send(new RedisStartupRequest(config.getProxyId()));
+
+    this.server.getScheduler().buildTask(VelocityVirtualPlugin.INSTANCE, () -> {
+      if (this.unconfirmedPlayers != unconfirmed) {
+        // A later resync took over.
+        return;
+      }
+      this.unconfirmedPlayers = null;
+      for (UUID uuid : unconfirmed) {
+        this.handleLeave(uuid);
+      }
+      if (!unconfirmed.isEmpty()) {
+        logger.info("Removed {} players that left other proxies while Redis was unreachable",
+            unconfirmed.size());
+      }
+    }).delay(RESYNC_GRACE_SECONDS, TimeUnit.SECONDS).schedule();
+  }
+
+  private void confirm(final RemotePlayerInfo info) {
+    Set<UUID> unconfirmed = this.unconfirmedPlayers;
+    if (unconfirmed != null) {
+      unconfirmed.remove(info.getUuid());
+    }
   }
 
   public Map<UUID, String> getTransferringServers() {
@@ -296,26 +560,24 @@ public class MultiProxyHandler {
   }
 
   private void handleShutdown(final String proxyId) {
-    allPlayers.removeIf(info -> info.proxyId.equalsIgnoreCase(proxyId));
+    membership.remove(proxyId);
+    directory.removeProxy(proxyId);
   }
 
 
   private void handleLeave(final UUID player) {
-    allPlayers.removeIf(info -> info.uuid.equals(player));
+    directory.remove(player);
   }
 
   private void handleJoin(final RemotePlayerInfo player) {
+    membership.touch(player.getProxyId());
     // This handles the edge case if a player joins two proxies at once, once the player info broadcast is received,
     // we disconnect them from the local proxy.
-    for (RemotePlayerInfo info : this.allPlayers) {
-      if (info.uuid.equals(player.uuid)) {
-        this.server.getPlayer(info.uuid).ifPresent(p -> {
-          p.disconnect(Component.translatable("velocity.error.already-connected-proxy.remote"));
-        });
-      }
+    if (directory.add(player) != null) {
+      this.server.getPlayer(player.uuid).ifPresent(p -> {
+        p.disconnect(Component.translatable("velocity.error.already-connected-proxy.remote"));
+      });
     }
-
-    allPlayers.add(player);
   }
 
   /**
@@ -375,16 +637,10 @@ public class MultiProxyHandler {
     }
 
     // check for dupe connections on foreign proxies and disconnect.
-    for (String proxyId : this.getAllProxyIds()) {
-      if (proxyId.equals(this.getOwnProxyId())) {
-        continue;
-      }
-
-      for (RemotePlayerInfo playerInfo : this.getPlayers(proxyId)) {
-        if (playerInfo.uuid.equals(player.getUniqueId())) {
-          return true;
-        }
-      }
+    RemotePlayerInfo existing = directory.get(player.getUniqueId());
+    if (existing != null && !existing.proxyId.equals(this.getOwnProxyId())
+        && this.getAllProxyIds().stream().anyMatch(existing.proxyId::equalsIgnoreCase)) {
+      return true;
     }
 
     Map<String, Integer> queuePriorities = new HashMap<>();
@@ -408,7 +664,15 @@ public class MultiProxyHandler {
    */
   public void shutdown() {
     shuttingDown = true;
+    if (this.heartbeatTaskHandle != null) {
+      this.heartbeatTaskHandle.cancel();
+    }
     this.server.getRedisManager().removeProxyId(this.server.getConfiguration().getRedis().getProxyId());
+    try {
+      this.server.getRedisManager().execute(jedis -> jedis.del(HEARTBEAT_KEY_PREFIX + this.getOwnProxyId()));
+    } catch (RuntimeException e) {
+      logger.warn("Unable to remove the heartbeat of this proxy from Redis", e);
+    }
 
     this.server.getRedisManager().send(new RedisShuttingDownAnnouncement(this.config.getProxyId()));
   }
@@ -419,18 +683,57 @@ public class MultiProxyHandler {
    * @return the combined player count from this proxy and all other known proxies
    */
   public int getTotalPlayerCount() {
-    return allPlayers.size();
+    return directory.size();
   }
 
   /**
-   * Returns the set of all proxy IDs known to this proxy.
+   * Retrieves the number of players connected to the given proxy.
    *
-   * @return the list of all proxy IDs
+   * @param proxyId the ID of the proxy
+   * @return the number of players on the proxy
+   */
+  public int getPlayerCount(final String proxyId) {
+    return directory.countOnProxy(proxyId);
+  }
+
+  /**
+   * Retrieves the number of players connected to the given backend server, across all proxies.
+   *
+   * @param serverName the name of the server
+   * @return the number of players on the server
+   */
+  public int getServerPlayerCount(final String serverName) {
+    return directory.countOnServer(serverName);
+  }
+
+  /**
+   * Retrieves the players connected to the given backend server, across all proxies.
+   *
+   * @param serverName the name of the server
+   * @return an unmodifiable, live view of the players on the server
+   */
+  public Collection<RemotePlayerInfo> getServerPlayers(final String serverName) {
+    return directory.onServer(serverName);
+  }
+
+  /**
+   * Returns the IDs of every proxy that is currently online, including this one. This does not
+   * contact Redis.
+   *
+   * @return an immutable, sorted list of all proxy IDs
    */
   public List<String> getAllProxyIds() {
-    List<String> ids = this.server.getRedisManager().getProxyIds();
-    Collections.sort(ids);
-    return ids;
+    return this.membership.ids();
+  }
+
+  /**
+   * Returns the last known state of an online proxy, as reported by its heartbeats.
+   *
+   * @param proxyId the ID of the proxy
+   * @return the state of the proxy, or {@code null} if the proxy is not online
+   */
+  public @Nullable ProxyStatus getProxyStatus(final String proxyId) {
+    return this.membership.get(proxyId);
   }
 
   /**
@@ -441,9 +744,7 @@ public class MultiProxyHandler {
    *         or {@code null} if the proxy ID is unknown
    */
   public List<RemotePlayerInfo> getPlayers(final String proxyId) {
-    return allPlayers.stream()
-        .filter(info -> info.getProxyId().equalsIgnoreCase(proxyId))
-        .toList();
+    return List.copyOf(directory.onProxy(proxyId));
   }
 
   /**
@@ -479,44 +780,32 @@ public class MultiProxyHandler {
   }
 
   /**
-   * Returns the list of all known remote players.
+   * Returns a snapshot of all known remote players.
    *
    * @return the list of all known remote players
    */
   public List<RemotePlayerInfo> getAllPlayers() {
-    return allPlayers;
+    return List.copyOf(directory.all());
   }
 
   /**
    * Get the connected players information if it exists.
-   * Can be quite resource extensive, so use with caution.
    *
    * @param uuid The UUID of the player to fetch.
    * @return the {@link RemotePlayerInfo} of the player, or null.
    */
-  public RemotePlayerInfo getPlayerInfo(final UUID uuid) {
-    for (RemotePlayerInfo info : getAllPlayers()) {
-      if (info.uuid.equals(uuid)) {
-        return info;
-      }
-    }
-    return null;
+  public @Nullable RemotePlayerInfo getPlayerInfo(final UUID uuid) {
+    return directory.get(uuid);
   }
 
   /**
    * Get the connected players information if it exists.
-   * Can be quite resource extensive, so use with caution.
    *
    * @param username The username of the player to fetch.
    * @return the {@link RemotePlayerInfo} of the player, or null.
    */
-  public RemotePlayerInfo getPlayerInfo(final String username) {
-    for (RemotePlayerInfo info : getAllPlayers()) {
-      if (info.name.equalsIgnoreCase(username)) {
-        return info;
-      }
-    }
-    return null;
+  public @Nullable RemotePlayerInfo getPlayerInfo(final String username) {
+    return directory.get(username);
   }
 
   /**
@@ -527,7 +816,7 @@ public class MultiProxyHandler {
    * @return Whether the player is connected to any proxy or not.
    */
   public boolean isPlayerOnline(final UUID uuid) {
-    return allPlayers.stream().anyMatch(info -> info.uuid.equals(uuid));
+    return directory.get(uuid) != null;
   }
 
   /**
@@ -538,8 +827,7 @@ public class MultiProxyHandler {
    * @return Whether the player is connected to any proxy or not.
    */
   public boolean isPlayerOnline(final String username) {
-    return allPlayers.stream().anyMatch(info -> info.getUsername().equalsIgnoreCase(username));
-
+    return directory.get(username) != null;
   }
 
   /**
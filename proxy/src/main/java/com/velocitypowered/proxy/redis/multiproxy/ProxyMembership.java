@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis.multiproxy;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.velocitypowered.proxy.redis.multiproxy.MultiProxyHandler.ProxyStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The proxies this proxy believes to be online, built from their heartbeats.
+ *
+ * <p>Lookups are plain memory reads. The sorted list of proxy IDs is only rebuilt when a proxy
+ * joins or leaves, not on every heartbeat.</p>
+ */
+final class ProxyMembership {
+  private final Map<String, ProxyStatus> proxies = new ConcurrentHashMap<>();
+  private final Ticker ticker;
+  private volatile List<String> ids = List.of();
+
+  ProxyMembership(final Ticker ticker) {
+    this.ticker = ticker;
+  }
+
+  /**
+   * Records a heartbeat from a proxy.
+   *
+   * @param heartbeat the heartbeat
+   * @return whether the proxy was not known before
+   */
+  boolean heartbeat(final RedisProxyHeartbeat heartbeat) {
+    ProxyStatus status = new ProxyStatus(heartbeat.proxyId(), heartbeat.playerCount(),
+        heartbeat.cpuLoad(), heartbeat.eventLoopLagMillis(), ticker.read());
+    return put(status);
+  }
+
+  /**
+   * Records that a proxy is alive without knowing its load, for example because it sent players.
+   * Does nothing if the proxy is already known.
+   *
+   * @param proxyId the ID of the proxy
+   * @return whether the proxy was not known before
+   */
+  boolean touch(final String proxyId) {
+    if (proxies.containsKey(proxyId)) {
+      return false;
+    }
+    return put(new ProxyStatus(proxyId, 0, -1, 0, ticker.read()));
+  }
+
+  private boolean put(final ProxyStatus status) {
+    if (proxies.put(status.proxyId(), status) != null) {
+      return false;
+    }
+    rebuildIds();
+    return true;
+  }
+
+  /**
+   * Forgets a proxy.
+   *
+   * @param proxyId the ID of the proxy
+   * @return whether the proxy was known
+   */
+  boolean remove(final String proxyId) {
+    if (proxies.remove(proxyId) == null) {
+      return false;
+    }
+    rebuildIds();
+    return true;
+  }
+
+  /**
+   * Returns the proxies that have not sent a heartbeat for longer than the given timeout.
+   *
+   * @param timeoutNanos the timeout, in nanoseconds
+   * @return the IDs of the expired proxies
+   */
+  List<String> expired(final long timeoutNanos) {
+    long now = ticker.read();
+    List<String> expired = new ArrayList<>();
+    for (ProxyStatus status : proxies.values()) {
+      if (now - status.lastSeenNanos() > timeoutNanos) {
+        expired.add(status.proxyId());
+      }
+    }
+    return expired;
+  }
+
+  private synchronized void rebuildIds() {
+    List<String> sorted = new ArrayList<>(proxies.keySet());
+    sorted.sort(null);
+    this.ids = List.copyOf(sorted);
+  }
+
+  /**
+   * Returns the IDs of every known proxy, sorted.
+   *
+   * @return an immutable, sorted list of proxy IDs
+   */
+  List<String> ids() {
+    return ids;
+  }
+
+  @Nullable ProxyStatus get(final String proxyId) {
+    return proxies.get(proxyId);
+  }
+}
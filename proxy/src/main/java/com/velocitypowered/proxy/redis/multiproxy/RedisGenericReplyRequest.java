@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 
 /**
  * Used for no-arg packets that do something that solicits a reply.
@@ -28,6 +30,16 @@ import com.velocitypowered.proxy.redis.RedisPacket;
  */
 public record RedisGenericReplyRequest(Type type, String targetProxy, EncodedCommandSource source) implements RedisPacket {
   public static final String ID = "generic-command-request";
+  public static final RedisPacketCodec<RedisGenericReplyRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        ProtocolUtils.writeVarInt(buf, packet.type().ordinal());
+        RedisPacketCodec.writeString(buf, packet.targetProxy());
+        packet.source().write(buf);
+      },
+      buf -> new RedisGenericReplyRequest(
+          Type.values()[ProtocolUtils.readVarInt(buf)],
+          RedisPacketCodec.readString(buf),
+          EncodedCommandSource.read(buf)));
 
   @Override
   public String getId() {
@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 
 /**
  * This packet is used to indicate a request that a player wants to view someone's ping.
@@ -27,9 +28,20 @@ import com.velocitypowered.proxy.redis.RedisPacket;
  */
 public record RedisGetPlayerPingRequest(EncodedCommandSource commandSender, String playerToCheck) implements RedisPacket {
   public static final String ID = "get-player-ping";
+  public static final RedisPacketCodec<RedisGetPlayerPingRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        packet.commandSender().write(buf);
+        RedisPacketCodec.writeString(buf, packet.playerToCheck());
+      },
+      buf -> new RedisGetPlayerPingRequest(EncodedCommandSource.read(buf), RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public PlayerName getOrderingKey() {
+    return new PlayerName(playerToCheck);
+  }
 }
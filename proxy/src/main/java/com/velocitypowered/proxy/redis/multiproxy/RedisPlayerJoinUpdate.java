@@ -18,6 +18,8 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
+import java.util.UUID;
 
 /**
  * Represents a packet sent when a player joins a proxy in a multi-proxy setup.
@@ -30,9 +32,17 @@ import com.velocitypowered.proxy.redis.RedisPacket;
  */
 public record RedisPlayerJoinUpdate(MultiProxyHandler.RemotePlayerInfo player) implements RedisPacket {
   public static final String ID = "player-join";
+  public static final RedisPacketCodec<RedisPlayerJoinUpdate> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> packet.player().write(buf),
+      buf -> new RedisPlayerJoinUpdate(MultiProxyHandler.RemotePlayerInfo.read(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return player.getUuid();
+  }
 }
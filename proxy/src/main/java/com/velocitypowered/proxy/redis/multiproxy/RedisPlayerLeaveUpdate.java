@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -31,9 +33,20 @@ import java.util.UUID;
  */
 public record RedisPlayerLeaveUpdate(String proxyId, UUID uuid) implements RedisPacket {
   public static final String ID = "player-leave";
+  public static final RedisPacketCodec<RedisPlayerLeaveUpdate> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        RedisPacketCodec.writeString(buf, packet.proxyId());
+        ProtocolUtils.writeUuid(buf, packet.uuid());
+      },
+      buf -> new RedisPlayerLeaveUpdate(RedisPacketCodec.readString(buf), ProtocolUtils.readUuid(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return uuid;
+  }
 }
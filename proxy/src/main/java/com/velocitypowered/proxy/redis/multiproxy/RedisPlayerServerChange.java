@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -34,9 +36,21 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 public record RedisPlayerServerChange(String proxyId, UUID uuid, @Nullable String server) implements RedisPacket {
   public static final String ID = "player-server-change";
+  public static final RedisPacketCodec<RedisPlayerServerChange> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        RedisPacketCodec.writeString(buf, packet.proxyId());
+        ProtocolUtils.writeUuid(buf, packet.uuid());
+        RedisPacketCodec.writeString(buf, packet.server());
+      },
+      buf -> new RedisPlayerServerChange(RedisPacketCodec.readString(buf), ProtocolUtils.readUuid(buf), RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return uuid;
+  }
 }
@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -29,9 +31,20 @@ import java.util.UUID;
  */
 public record RedisPlayerSetQueuedServerRequest(UUID player, String server) implements RedisPacket {
   public static final String ID = "set-queued-server";
+  public static final RedisPacketCodec<RedisPlayerSetQueuedServerRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        ProtocolUtils.writeUuid(buf, packet.player());
+        RedisPacketCodec.writeString(buf, packet.server());
+      },
+      buf -> new RedisPlayerSetQueuedServerRequest(ProtocolUtils.readUuid(buf), RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return player;
+  }
 }
@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -30,9 +32,21 @@ import java.util.UUID;
  */
 public record RedisPlayerSetTransferringRequest(UUID uuid, boolean transferring, String currentlyConnectedServer) implements RedisPacket {
   public static final String ID = "set-transfer-request";
+  public static final RedisPacketCodec<RedisPlayerSetTransferringRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        ProtocolUtils.writeUuid(buf, packet.uuid());
+        buf.writeBoolean(packet.transferring());
+        RedisPacketCodec.writeString(buf, packet.currentlyConnectedServer());
+      },
+      buf -> new RedisPlayerSetTransferringRequest(ProtocolUtils.readUuid(buf), buf.readBoolean(), RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return uuid;
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis.multiproxy;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
+
+/**
+ * Sent periodically by every proxy to show that it is still alive, along with its current load.
+ *
+ * @param proxyId the ID of the proxy
+ * @param playerCount the number of players connected to the proxy
+ * @param cpuLoad the CPU usage of the proxy process, from {@code 0} to {@code 1}, or a negative
+ *                value if it is not known
+ * @param eventLoopLagMillis the longest time a task recently waited to run on one of the proxy's
+ *                           network event loops
+ */
+public record RedisProxyHeartbeat(String proxyId, int playerCount, double cpuLoad,
+                                  long eventLoopLagMillis) implements RedisPacket {
+  public static final String ID = "proxy-heartbeat";
+  public static final RedisPacketCodec<RedisProxyHeartbeat> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        RedisPacketCodec.writeString(buf, packet.proxyId());
+        ProtocolUtils.writeVarInt(buf, packet.playerCount());
+        buf.writeDouble(packet.cpuLoad());
+        buf.writeLong(packet.eventLoopLagMillis());
+      },
+      buf -> new RedisProxyHeartbeat(RedisPacketCodec.readString(buf), ProtocolUtils.readVarInt(buf),
+          buf.readDouble(), buf.readLong()));
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  // Keeps heartbeats in order with the shutdown announcement of the same proxy.
+  @Override
+  public String getOrderingKey() {
+    return proxyId;
+  }
+}
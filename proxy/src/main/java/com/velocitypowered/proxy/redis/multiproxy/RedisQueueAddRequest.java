@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -33,9 +35,28 @@ public record RedisQueueAddRequest(UUID playerUuid, String serverName, int prior
                                    boolean alreadyQueuedMessage,
                                    boolean fullBypass) implements RedisPacket {
   public static final String ID = "redis-queue-add";
+  public static final RedisPacketCodec<RedisQueueAddRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        ProtocolUtils.writeUuid(buf, packet.playerUuid());
+        RedisPacketCodec.writeString(buf, packet.serverName());
+        ProtocolUtils.writeVarInt(buf, packet.priority());
+        buf.writeBoolean(packet.alreadyQueuedMessage());
+        buf.writeBoolean(packet.fullBypass());
+      },
+      buf -> new RedisQueueAddRequest(
+          ProtocolUtils.readUuid(buf),
+          RedisPacketCodec.readString(buf),
+          ProtocolUtils.readVarInt(buf),
+          buf.readBoolean(),
+          buf.readBoolean()));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return playerUuid;
+  }
 }
@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -29,9 +31,20 @@ import java.util.UUID;
  */
 public record RedisQueueAlreadyJoinedRequest(UUID uuid, String serverName) implements RedisPacket {
   public static final String ID = "redis-queue-already-joined";
+  public static final RedisPacketCodec<RedisQueueAlreadyJoinedRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        ProtocolUtils.writeUuid(buf, packet.uuid());
+        RedisPacketCodec.writeString(buf, packet.serverName());
+      },
+      buf -> new RedisQueueAlreadyJoinedRequest(ProtocolUtils.readUuid(buf), RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return uuid;
+  }
 }
@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -30,9 +32,20 @@ import java.util.UUID;
  */
 public record RedisQueueDisableWaitingForConnectionRequest(UUID playerUuid, String serverName) implements RedisPacket {
   public static final String ID = "redis-queue-disable-waiting";
+  public static final RedisPacketCodec<RedisQueueDisableWaitingForConnectionRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        ProtocolUtils.writeUuid(buf, packet.playerUuid());
+        RedisPacketCodec.writeString(buf, packet.serverName());
+      },
+      buf -> new RedisQueueDisableWaitingForConnectionRequest(ProtocolUtils.readUuid(buf), RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return playerUuid;
+  }
 }
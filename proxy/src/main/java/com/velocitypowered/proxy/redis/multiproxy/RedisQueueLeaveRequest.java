@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -29,9 +31,21 @@ import java.util.UUID;
  */
 public record RedisQueueLeaveRequest(UUID playerUuid, String serverName, boolean command) implements RedisPacket {
   public static final String ID = "redis-queue-leave";
+  public static final RedisPacketCodec<RedisQueueLeaveRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        ProtocolUtils.writeUuid(buf, packet.playerUuid());
+        RedisPacketCodec.writeString(buf, packet.serverName());
+        buf.writeBoolean(packet.command());
+      },
+      buf -> new RedisQueueLeaveRequest(ProtocolUtils.readUuid(buf), RedisPacketCodec.readString(buf), buf.readBoolean()));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return playerUuid;
+  }
 }
@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 
 /**
  * Constructs a request to pause a queue.
@@ -27,6 +28,12 @@ import com.velocitypowered.proxy.redis.RedisPacket;
  */
 public record RedisQueuePauseRequest(String server, boolean pause) implements RedisPacket {
   public static final String ID = "redis-queue-pause";
+  public static final RedisPacketCodec<RedisQueuePauseRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        RedisPacketCodec.writeString(buf, packet.server());
+        buf.writeBoolean(packet.pause());
+      },
+      buf -> new RedisQueuePauseRequest(RedisPacketCodec.readString(buf), buf.readBoolean()));
 
   @Override
   public String getId() {
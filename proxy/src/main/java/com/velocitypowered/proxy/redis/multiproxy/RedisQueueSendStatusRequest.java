@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -32,9 +34,26 @@ import java.util.UUID;
 public record RedisQueueSendStatusRequest(UUID playerUuid, String serverName,
                                           boolean successfulTransfer, UUID id) implements RedisPacket {
   public static final String ID = "redis-queue-send-status";
+  public static final RedisPacketCodec<RedisQueueSendStatusRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        ProtocolUtils.writeUuid(buf, packet.playerUuid());
+        RedisPacketCodec.writeString(buf, packet.serverName());
+        buf.writeBoolean(packet.successfulTransfer());
+        ProtocolUtils.writeUuid(buf, packet.id());
+      },
+      buf -> new RedisQueueSendStatusRequest(
+          ProtocolUtils.readUuid(buf),
+          RedisPacketCodec.readString(buf),
+          buf.readBoolean(),
+          ProtocolUtils.readUuid(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return playerUuid;
+  }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis.multiproxy;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.queue.QueueDisplayState;
+import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
+import io.netty.buffer.ByteBuf;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Carries the queue status of every queued player connected to a single proxy, so that proxy can
+ * render their action bars locally. The master proxy sends one of these per proxy per tick.
+ *
+ * @param proxyId The proxy the players in this batch are connected to.
+ * @param sections The queue status, grouped by the server being queued for.
+ */
+public record RedisQueueStatusBatch(String proxyId, List<Section> sections) implements RedisPacket {
+  public static final String ID = "redis-queue-status-batch";
+  public static final RedisPacketCodec<RedisQueueStatusBatch> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        RedisPacketCodec.writeString(buf, packet.proxyId());
+        ProtocolUtils.writeVarInt(buf, packet.sections().size());
+        for (Section section : packet.sections()) {
+          section.write(buf);
+        }
+      },
+      buf -> {
+        String proxyId = RedisPacketCodec.readString(buf);
+        int count = ProtocolUtils.readVarInt(buf);
+        List<Section> sections = new ArrayList<>(Math.min(count, 256));
+        for (int i = 0; i < count; i++) {
+          sections.add(Section.read(buf));
+        }
+        return new RedisQueueStatusBatch(proxyId, sections);
+      });
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  /**
+   * The status of the players queued for a single server.
+   *
+   * @param server The name of the server.
+   * @param size The total number of players in the queue.
+   * @param sendDelaySeconds The number of seconds between each player being sent, for the ETA.
+   * @param statuses The status of each player.
+   */
+  public record Section(String server, int size, int sendDelaySeconds, List<Status> statuses) {
+
+    private void write(final ByteBuf buf) {
+      RedisPacketCodec.writeString(buf, server);
+      ProtocolUtils.writeVarInt(buf, size);
+      ProtocolUtils.writeVarInt(buf, sendDelaySeconds);
+      ProtocolUtils.writeVarInt(buf, statuses.size());
+      for (Status status : statuses) {
+        ProtocolUtils.writeUuid(buf, status.player());
+        ProtocolUtils.writeVarInt(buf, status.position());
+        buf.writeByte(status.state().ordinal());
+      }
+    }
+
+    private static Section read(final ByteBuf buf) {
+      String server = RedisPacketCodec.readString(buf);
+      int size = ProtocolUtils.readVarInt(buf);
+      int sendDelaySeconds = ProtocolUtils.readVarInt(buf);
+      int count = ProtocolUtils.readVarInt(buf);
+      List<Status> statuses = new ArrayList<>(Math.min(count, 4096));
+      for (int i = 0; i < count; i++) {
+        statuses.add(new Status(ProtocolUtils.readUuid(buf), ProtocolUtils.readVarInt(buf),
+            QueueDisplayState.fromOrdinal(buf.readUnsignedByte())));
+      }
+      return new Section(server, size, sendDelaySeconds, statuses);
+    }
+  }
+
+  /**
+   * The status of a single queued player.
+   *
+   * @param player The UUID of the player.
+   * @param position The position of the player in the queue, where {@code 1} is first.
+   * @param state What to show to the player.
+   */
+  public record Status(UUID player, int position, QueueDisplayState state) {
+  }
+}
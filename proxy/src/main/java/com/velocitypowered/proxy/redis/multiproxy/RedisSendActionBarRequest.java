@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
@@ -31,6 +33,12 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 public record RedisSendActionBarRequest(UUID playerUuid, String componentJson) implements RedisPacket {
   public static final String ID = "redis-send-actionbar-request";
+  public static final RedisPacketCodec<RedisSendActionBarRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        ProtocolUtils.writeUuid(buf, packet.playerUuid());
+        RedisPacketCodec.writeString(buf, packet.componentJson());
+      },
+      buf -> new RedisSendActionBarRequest(ProtocolUtils.readUuid(buf), RedisPacketCodec.readString(buf)));
   private static final GsonComponentSerializer SERIALIZER = GsonComponentSerializer.gson();
 
   /**
@@ -49,6 +57,11 @@ public record RedisSendActionBarRequest(UUID playerUuid, String componentJson) i
     return ID;
   }
 
+  @Override
+  public UUID getOrderingKey() {
+    return playerUuid;
+  }
+
   /**
    * Gets the component out of this packet, decoded.
    *
@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -34,6 +35,12 @@ public record RedisSendMessage(EncodedCommandSource target, String componentJson
   private static final Logger logger = LoggerFactory.getLogger(RedisSendMessage.class);
   private static final GsonComponentSerializer SERIALIZER = GsonComponentSerializer.gson();
   public static final String ID = "send-message";
+  public static final RedisPacketCodec<RedisSendMessage> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        packet.target().write(buf);
+        RedisPacketCodec.writeString(buf, packet.componentJson());
+      },
+      buf -> new RedisSendMessage(EncodedCommandSource.read(buf), RedisPacketCodec.readString(buf)));
 
   /**
    * Sends a message to a target. Encodes the given component as JSON text.
@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
@@ -35,6 +36,12 @@ public record RedisSendMessageToUuidRequest(UUID player, String componentJson) i
   private static final Logger logger = LoggerFactory.getLogger(RedisSendMessage.class);
   private static final GsonComponentSerializer SERIALIZER = GsonComponentSerializer.gson();
   public static final String ID = "send-message-uuid";
+  public static final RedisPacketCodec<RedisSendMessageToUuidRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        RedisPacketCodec.writeUuid(buf, packet.player());
+        RedisPacketCodec.writeString(buf, packet.componentJson());
+      },
+      buf -> new RedisSendMessageToUuidRequest(RedisPacketCodec.readUuid(buf), RedisPacketCodec.readString(buf)));
 
   /**
    * Sends a message to a target. Encodes the given component as JSON text.
@@ -51,6 +58,11 @@ public record RedisSendMessageToUuidRequest(UUID player, String componentJson) i
     return ID;
   }
 
+  @Override
+  public UUID getOrderingKey() {
+    return player;
+  }
+
   /**
    * Gets the component out of this packet, decoded.
    *
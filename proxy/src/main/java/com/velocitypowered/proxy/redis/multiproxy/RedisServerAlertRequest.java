@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -31,6 +32,9 @@ import org.slf4j.LoggerFactory;
  */
 public record RedisServerAlertRequest(String componentJson) implements RedisPacket {
   public static final String ID = "redis-server-alert";
+  public static final RedisPacketCodec<RedisServerAlertRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> RedisPacketCodec.writeString(buf, packet.componentJson()),
+      buf -> new RedisServerAlertRequest(RedisPacketCodec.readString(buf)));
 
   private static final Logger logger = LoggerFactory.getLogger(RedisSendMessage.class);
   private static final GsonComponentSerializer SERIALIZER = GsonComponentSerializer.gson();
@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 
 /**
  * Represents a packet sent when a proxy in a multi-proxy setup is shutting down.
@@ -30,9 +31,17 @@ import com.velocitypowered.proxy.redis.RedisPacket;
  */
 public record RedisShuttingDownAnnouncement(String proxyId) implements RedisPacket {
   public static final String ID = "shutting-down";
+  public static final RedisPacketCodec<RedisShuttingDownAnnouncement> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> RedisPacketCodec.writeString(buf, packet.proxyId()),
+      buf -> new RedisShuttingDownAnnouncement(RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public Object getOrderingKey() {
+    return ALL_PLAYERS;
+  }
 }
@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.List;
 
 /**
@@ -29,9 +30,20 @@ import java.util.List;
  */
 public record RedisStartupFillPlayersRequest(List<MultiProxyHandler.RemotePlayerInfo> players, String proxyIdToUpdate) implements RedisPacket {
   public static final String ID = "redis-startup-fill-players";
+  public static final RedisPacketCodec<RedisStartupFillPlayersRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        MultiProxyHandler.RemotePlayerInfo.writeList(buf, packet.players());
+        RedisPacketCodec.writeString(buf, packet.proxyIdToUpdate());
+      },
+      buf -> new RedisStartupFillPlayersRequest(MultiProxyHandler.RemotePlayerInfo.readList(buf), RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public Object getOrderingKey() {
+    return ALL_PLAYERS;
+  }
 }
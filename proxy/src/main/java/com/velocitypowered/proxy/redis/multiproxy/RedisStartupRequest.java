@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 
 /**
  * Constructs a packet that announces a proxy startup.
@@ -26,9 +27,17 @@ import com.velocitypowered.proxy.redis.RedisPacket;
  */
 public record RedisStartupRequest(String proxyId) implements RedisPacket {
   public static final String ID = "redis-startup";
+  public static final RedisPacketCodec<RedisStartupRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> RedisPacketCodec.writeString(buf, packet.proxyId()),
+      buf -> new RedisStartupRequest(RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public Object getOrderingKey() {
+    return ALL_PLAYERS;
+  }
 }
@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -30,9 +32,26 @@ import java.util.UUID;
  */
 public record RedisSudo(String targetProxy, UUID playerUuid, EncodedCommandSource replySource, String message) implements RedisPacket {
   public static final String ID = "sudo";
+  public static final RedisPacketCodec<RedisSudo> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        RedisPacketCodec.writeString(buf, packet.targetProxy());
+        ProtocolUtils.writeUuid(buf, packet.playerUuid());
+        packet.replySource().write(buf);
+        RedisPacketCodec.writeString(buf, packet.message());
+      },
+      buf -> new RedisSudo(
+          RedisPacketCodec.readString(buf),
+          ProtocolUtils.readUuid(buf),
+          EncodedCommandSource.read(buf),
+          RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public UUID getOrderingKey() {
+    return playerUuid;
+  }
 }
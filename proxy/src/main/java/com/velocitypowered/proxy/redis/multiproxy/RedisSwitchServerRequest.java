@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy.redis.multiproxy;
 
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 
 /**
  * Constructs a packet to send to redis to get the corresponding proxy to send the player
@@ -28,9 +29,20 @@ import com.velocitypowered.proxy.redis.RedisPacket;
  */
 public record RedisSwitchServerRequest(String username, String server) implements RedisPacket {
   public static final String ID = "switch-server";
+  public static final RedisPacketCodec<RedisSwitchServerRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        RedisPacketCodec.writeString(buf, packet.username());
+        RedisPacketCodec.writeString(buf, packet.server());
+      },
+      buf -> new RedisSwitchServerRequest(RedisPacketCodec.readString(buf), RedisPacketCodec.readString(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public PlayerName getOrderingKey() {
+    return new PlayerName(username);
+  }
 }
@@ -17,7 +17,9 @@
 
 package com.velocitypowered.proxy.redis.multiproxy;
 
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.redis.RedisPacket;
+import com.velocitypowered.proxy.redis.RedisPacketCodec;
 import java.util.UUID;
 
 /**
@@ -31,9 +33,28 @@ import java.util.UUID;
  */
 public record RedisTransferCommandRequest(UUID requester, String player, String proxyId, String ip, int port) implements RedisPacket {
   public static final String ID = "transfer-command-request";
+  public static final RedisPacketCodec<RedisTransferCommandRequest> CODEC = RedisPacketCodec.of(
+      (packet, buf) -> {
+        RedisPacketCodec.writeUuid(buf, packet.requester());
+        RedisPacketCodec.writeString(buf, packet.player());
+        RedisPacketCodec.writeString(buf, packet.proxyId());
+        RedisPacketCodec.writeString(buf, packet.ip());
+        ProtocolUtils.writeVarInt(buf, packet.port());
+      },
+      buf -> new RedisTransferCommandRequest(
+          RedisPacketCodec.readUuid(buf),
+          RedisPacketCodec.readString(buf),
+          RedisPacketCodec.readString(buf),
+          RedisPacketCodec.readString(buf),
+          ProtocolUtils.readVarInt(buf)));
 
   @Override
   public String getId() {
     return ID;
   }
+
+  @Override
+  public PlayerName getOrderingKey() {
+    return new PlayerName(player);
+  }
 }
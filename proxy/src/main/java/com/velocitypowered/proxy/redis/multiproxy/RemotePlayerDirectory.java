@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis.multiproxy;
+
+import com.velocitypowered.proxy.redis.multiproxy.MultiProxyHandler.RemotePlayerInfo;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Indexes every player connected to the network by UUID, username, proxy and server.
+ *
+ * <p>Lookups are lock-free and never block. Mutations are serialized on the directory so the
+ * indexes stay consistent with each other; they come almost exclusively from the Redis listener
+ * thread, so this lock is uncontended in practice. Proxy IDs, usernames and server names are all
+ * matched case-insensitively.</p>
+ */
+final class RemotePlayerDirectory {
+  private final Map<UUID, RemotePlayerInfo> byUuid = new ConcurrentHashMap<>();
+  private final Map<String, RemotePlayerInfo> byName = new ConcurrentHashMap<>();
+  private final Map<String, Set<RemotePlayerInfo>> byProxy = new ConcurrentHashMap<>();
+  private final Map<String, Set<RemotePlayerInfo>> byServer = new ConcurrentHashMap<>();
+  private final Collection<RemotePlayerInfo> allPlayers = Collections.unmodifiableCollection(
+      byUuid.values());
+
+  private static String key(final String value) {
+    return value.toLowerCase(Locale.ROOT);
+  }
+
+  private static void index(final Map<String, Set<RemotePlayerInfo>> index,
+      final @Nullable String key, final RemotePlayerInfo info) {
+    if (key == null || key.isEmpty()) {
+      return;
+    }
+    index.computeIfAbsent(key(key), k -> ConcurrentHashMap.newKeySet()).add(info);
+  }
+
+  private static void unindex(final Map<String, Set<RemotePlayerInfo>> index,
+      final @Nullable String key, final RemotePlayerInfo info) {
+    if (key == null || key.isEmpty()) {
+      return;
+    }
+    index.computeIfPresent(key(key), (k, players) -> {
+      players.remove(info);
+      return players.isEmpty() ? null : players;
+    });
+  }
+
+  /**
+   * Adds a player to the directory, replacing any existing entry with the same UUID.
+   *
+   * @param info the player
+   * @return the entry that was replaced, if any
+   */
+  synchronized @Nullable RemotePlayerInfo add(final RemotePlayerInfo info) {
+    RemotePlayerInfo previous = removeUnlocked(info.getUuid());
+    byUuid.put(info.getUuid(), info);
+    byName.put(key(info.getName()), info);
+    index(byProxy, info.getProxyId(), info);
+    index(byServer, info.getServerName(), info);
+    return previous;
+  }
+
+  synchronized @Nullable RemotePlayerInfo remove(final UUID uuid) {
+    return removeUnlocked(uuid);
+  }
+
+  private @Nullable RemotePlayerInfo removeUnlocked(final UUID uuid) {
+    RemotePlayerInfo info = byUuid.remove(uuid);
+    if (info == null) {
+      return null;
+    }
+    byName.remove(key(info.getName()), info);
+    unindex(byProxy, info.getProxyId(), info);
+    unindex(byServer, info.getServerName(), info);
+    return info;
+  }
+
+  /**
+   * Removes every player connected to the given proxy.
+   *
+   * @param proxyId the ID of the proxy
+   */
+  synchronized void removeProxy(final String proxyId) {
+    Set<RemotePlayerInfo> players = byProxy.get(key(proxyId));
+    if (players == null) {
+      return;
+    }
+    for (RemotePlayerInfo info : players.toArray(new RemotePlayerInfo[0])) {
+      removeUnlocked(info.getUuid());
+    }
+  }
+
+  /**
+   * Moves a player to another server, keeping the server index in sync.
+   *
+   * @param uuid the UUID of the player
+   * @param serverName the new server, or {@code null} if the player isn't on one
+   */
+  synchronized void updateServer(final UUID uuid, final @Nullable String serverName) {
+    RemotePlayerInfo info = byUuid.get(uuid);
+    if (info == null) {
+      return;
+    }
+    unindex(byServer, info.getServerName(), info);
+    info.setServerName(serverName);
+    index(byServer, info.getServerName(), info);
+  }
+
+  @Nullable RemotePlayerInfo get(final UUID uuid) {
+    return byUuid.get(uuid);
+  }
+
+  @Nullable RemotePlayerInfo get(final String username) {
+    return byName.get(key(username));
+  }
+
+  Collection<RemotePlayerInfo> all() {
+    return allPlayers;
+  }
+
+  Collection<RemotePlayerInfo> onProxy(final String proxyId) {
+    Set<RemotePlayerInfo> players = byProxy.get(key(proxyId));
+    return players == null ? Collections.emptySet() : Collections.unmodifiableSet(players);
+  }
+
+  Collection<RemotePlayerInfo> onServer(final String serverName) {
+    Set<RemotePlayerInfo> players = byServer.get(key(serverName));
+    return players == null ? Collections.emptySet() : Collections.unmodifiableSet(players);
+  }
+
+  int size() {
+    return byUuid.size();
+  }
+
+  int countOnProxy(final String proxyId) {
+    Set<RemotePlayerInfo> players = byProxy.get(key(proxyId));
+    return players == null ? 0 : players.size();
+  }
+
+  int countOnServer(final String serverName) {
+    Set<RemotePlayerInfo> players = byServer.get(key(serverName));
+    return players == null ? 0 : players.size();
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2018-2023 Velocity Contributors
+ * Copyright (C) 2018-2024 Velocity Contributors
  *
  * This program is free software: you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -20,31 +20,33 @@ package com.velocitypowered.proxy.scheduler;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.velocitypowered.api.plugin.PluginContainer;
 import com.velocitypowered.api.plugin.PluginManager;
+import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.scheduler.ScheduledTask;
 import com.velocitypowered.api.scheduler.Scheduler;
 import com.velocitypowered.api.scheduler.TaskStatus;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.plugin.loader.VelocityPluginContainer;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.EventExecutor;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -54,17 +56,23 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.VisibleForTesting;
 
 /**
- * The Velocity "scheduler", which is actually a thin wrapper around
- * {@link ScheduledExecutorService} and a dynamically-sized {@link ExecutorService}.
- * Many plugins are accustomed to the Bukkit Scheduler model, although it is not relevant
- * in a proxy context.
+ * The Velocity "scheduler", which keeps track of time with a {@link HashedWheelTimer} and runs
+ * tasks on the executor of their plugin. Many plugins are accustomed to the Bukkit Scheduler
+ * model, although it is not relevant in a proxy context.
+ *
+ * <p>Scheduling and cancelling a task take constant time regardless of how many tasks are
+ * pending, so plugins can keep a timer per player around. The timer only fires tasks with a
+ * precision of {@value #TICK_MILLIS} milliseconds.</p>
  */
 public class VelocityScheduler implements Scheduler {
 
+  private static final long TICK_MILLIS = 5;
+  private static final int TICKS_PER_WHEEL = 1024;
+
   private final PluginManager pluginManager;
-  private final ScheduledExecutorService timerExecutionService;
-  private final Multimap<Object, ScheduledTask> tasksByPlugin = Multimaps.synchronizedMultimap(
-      Multimaps.newSetMultimap(new IdentityHashMap<>(), HashSet::new));
+  private final Timer timer;
+  private final ConcurrentMap<PluginContainer, Set<VelocityTask>> tasksByPlugin =
+      new ConcurrentHashMap<>();
 
   /**
    * Initializes the scheduler.
@@ -73,9 +81,9 @@ public class VelocityScheduler implements Scheduler {
    */
   public VelocityScheduler(final PluginManager pluginManager) {
     this.pluginManager = pluginManager;
-    this.timerExecutionService = Executors
-        .newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
-            .setNameFormat("Velocity Task Scheduler Timer").build());
+    this.timer = new HashedWheelTimer(new ThreadFactoryBuilder().setDaemon(true)
+        .setNameFormat("Velocity Task Scheduler Timer").build(),
+        TICK_MILLIS, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
   }
 
   @Override
@@ -99,11 +107,10 @@ public class VelocityScheduler implements Scheduler {
   @Override
   public @NonNull Collection<ScheduledTask> tasksByPlugin(@NonNull final Object plugin) {
     checkNotNull(plugin, "plugin");
-    checkArgument(pluginManager.fromInstance(plugin).isPresent(), "plugin is not registered");
-    final Collection<ScheduledTask> tasks = tasksByPlugin.get(plugin);
-    synchronized (tasksByPlugin) {
-      return Set.copyOf(tasks);
-    }
+    final Optional<PluginContainer> container = pluginManager.fromInstance(plugin);
+    checkArgument(container.isPresent(), "plugin is not registered");
+    final Set<VelocityTask> tasks = tasksByPlugin.get(container.get());
+    return tasks == null ? Set.of() : Set.copyOf(tasks);
   }
 
   /**
@@ -113,14 +120,12 @@ public class VelocityScheduler implements Scheduler {
    * @throws InterruptedException if the current thread was interrupted
    */
   public boolean shutdown() throws InterruptedException {
-    Collection<ScheduledTask> terminating;
-    synchronized (tasksByPlugin) {
-      terminating = ImmutableList.copyOf(tasksByPlugin.values());
-    }
-    for (ScheduledTask task : terminating) {
-      task.cancel();
+    for (Set<VelocityTask> tasks : tasksByPlugin.values()) {
+      for (ScheduledTask task : tasks) {
+        task.cancel();
+      }
     }
-    timerExecutionService.shutdown();
+    timer.stop();
     final List<PluginContainer> plugins = new ArrayList<>(this.pluginManager.getPlugins());
     final Iterator<PluginContainer> pluginIterator = plugins.iterator();
     while (pluginIterator.hasNext()) {
@@ -165,6 +170,7 @@ public class VelocityScheduler implements Scheduler {
     private final Consumer<ScheduledTask> consumer;
     private long delay; // ms
     private long repeat; // ms
+    private @Nullable EventExecutor eventLoop;
 
     private TaskBuilderImpl(final PluginContainer container, final Consumer<ScheduledTask> consumer) {
       this.container = container;
@@ -202,41 +208,58 @@ public class VelocityScheduler implements Scheduler {
       return this;
     }
 
+    @Override
+    public TaskBuilder onEventLoop(@NotNull final Player player) {
+      checkNotNull(player, "player");
+      // Players we don't know the connection of run on the plugin executor, like everywhere else.
+      this.eventLoop = player instanceof ConnectedPlayer connectedPlayer
+          ? connectedPlayer.getConnection().eventLoop() : null;
+      return this;
+    }
+
     @Override
     public ScheduledTask schedule() {
-      VelocityTask task = new VelocityTask(container, runnable, consumer, delay, repeat);
-      container.getInstance().ifPresent(instance -> tasksByPlugin.put(instance, task));
+      VelocityTask task = new VelocityTask(container, runnable, consumer, delay, repeat,
+          eventLoop);
+      tasksByPlugin.computeIfAbsent(container, k -> ConcurrentHashMap.newKeySet()).add(task);
       task.schedule();
       return task;
     }
   }
 
   @VisibleForTesting
-  final class VelocityTask implements Runnable, ScheduledTask {
+  final class VelocityTask implements TimerTask, ScheduledTask {
 
     private final PluginContainer container;
     private final Runnable runnable;
     private final Consumer<ScheduledTask> consumer;
     private final long delay;
     private final long repeat;
-    private @Nullable ScheduledFuture<?> future;
+    private final @Nullable EventExecutor eventLoop;
+    private final AtomicReference<TaskStatus> status = new AtomicReference<>(TaskStatus.SCHEDULED);
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile @Nullable Timeout timeout;
+    private long nextRunNanos;
     private volatile @Nullable Thread currentTaskThread;
 
     private VelocityTask(final PluginContainer container, final Runnable runnable,
-        final Consumer<ScheduledTask> consumer, final long delay, final long repeat) {
+        final Consumer<ScheduledTask> consumer, final long delay, final long repeat,
+        final @Nullable EventExecutor eventLoop) {
       this.container = container;
       this.runnable = runnable;
       this.consumer = consumer;
       this.delay = delay;
       this.repeat = repeat;
+      this.eventLoop = eventLoop;
     }
 
     void schedule() {
-      if (repeat == 0) {
-        this.future = timerExecutionService.schedule(this, delay, TimeUnit.MILLISECONDS);
+      this.nextRunNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+      if (delay == 0) {
+        // Don't wait for the next tick of the timer.
+        run(null);
       } else {
-        this.future = timerExecutionService
-            .scheduleAtFixedRate(this, delay, repeat, TimeUnit.MILLISECONDS);
+        this.timeout = timer.newTimeout(this, delay, TimeUnit.MILLISECONDS);
       }
     }
 
@@ -248,28 +271,20 @@ public class VelocityScheduler implements Scheduler {
 
     @Override
     public TaskStatus status() {
-      if (future == null) {
-        return TaskStatus.SCHEDULED;
-      }
-
-      if (future.isCancelled()) {
-        return TaskStatus.CANCELLED;
-      }
-
-      if (future.isDone()) {
-        return TaskStatus.FINISHED;
-      }
-
-      return TaskStatus.SCHEDULED;
+      return status.get();
     }
 
     @Override
     public void cancel() {
-      if (future != null) {
-        future.cancel(false);
+      if (status.compareAndSet(TaskStatus.SCHEDULED, TaskStatus.CANCELLED)) {
+        Timeout timeout = this.timeout;
+        if (timeout != null) {
+          timeout.cancel();
+        }
 
+        // Never interrupt an event loop, it runs the tasks of many other connections.
         Thread cur = currentTaskThread;
-        if (cur != null) {
+        if (cur != null && eventLoop == null) {
           cur.interrupt();
         }
 
@@ -278,47 +293,72 @@ public class VelocityScheduler implements Scheduler {
     }
 
     @Override
-    public void run() {
-      container.getExecutorService().execute(() -> {
-        currentTaskThread = Thread.currentThread();
-        try {
-          if (runnable != null) {
-            runnable.run();
-          } else {
-            consumer.accept(this);
-          }
-        } catch (Throwable e) {
-          //noinspection ConstantConditions
-          if (e instanceof InterruptedException) {
-            Thread.currentThread().interrupt();
-          } else {
-            String friendlyPluginName = container.getDescription().getName()
-                .orElse(container.getDescription().getId());
-            Object unit = consumer == null ? runnable : consumer;
-            Log.logger.error("Exception in task {} by plugin {}", unit, friendlyPluginName,
-                e);
-          }
-        } finally {
-          if (repeat == 0) {
-            onFinish();
-          }
-          currentTaskThread = null;
+    public void run(final @Nullable Timeout timeout) {
+      if (status.get() != TaskStatus.SCHEDULED) {
+        return;
+      }
+      if (repeat != 0) {
+        // Schedule the next run from when this one was due, so that the task doesn't drift.
+        nextRunNanos += TimeUnit.MILLISECONDS.toNanos(repeat);
+        this.timeout = timer.newTimeout(this, Math.max(0, nextRunNanos - System.nanoTime()),
+            TimeUnit.NANOSECONDS);
+      }
+
+      try {
+        if (eventLoop != null) {
+          eventLoop.execute(this::runTask);
+        } else {
+          container.getExecutorService().execute(this::runTask);
         }
-      });
+      } catch (RejectedExecutionException e) {
+        Log.logger.error("Unable to run task {} by plugin {}, as its executor was shut down",
+            consumer == null ? runnable : consumer, getFriendlyPluginName());
+        cancel();
+      }
+    }
+
+    private void runTask() {
+      currentTaskThread = Thread.currentThread();
+      try {
+        if (runnable != null) {
+          runnable.run();
+        } else {
+          consumer.accept(this);
+        }
+      } catch (Throwable e) {
+        //noinspection ConstantConditions
+        if (e instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+        } else {
+          Object unit = consumer == null ? runnable : consumer;
+          Log.logger.error("Exception in task {} by plugin {}", unit, getFriendlyPluginName(),
+              e);
+        }
+      } finally {
+        currentTaskThread = null;
+        if (repeat == 0 && status.compareAndSet(TaskStatus.SCHEDULED, TaskStatus.FINISHED)) {
+          onFinish();
+        }
+      }
+    }
+
+    private String getFriendlyPluginName() {
+      return container.getDescription().getName().orElse(container.getDescription().getId());
     }
 
     private void onFinish() {
-      tasksByPlugin.remove(plugin(), this);
+      Set<VelocityTask> tasks = tasksByPlugin.get(container);
+      if (tasks != null) {
+        tasks.remove(this);
+      }
+      completion.complete(null);
     }
 
+    /**
+     * Waits until the task finished running or was cancelled.
+     */
     public void awaitCompletion() {
-      try {
-        Objects.requireNonNull(future).get();
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-      } catch (ExecutionException e) {
-        throw new RuntimeException(e);
-      }
+      completion.join();
     }
   }
 
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.annotations.VisibleForTesting;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.server.PingOptions;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import com.velocitypowered.proxy.VelocityServer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Pings backend servers on behalf of the whole proxy and keeps track of their health.
+ *
+ * <p>Concurrent pings of the same server with the same protocol version share a single
+ * connection, and the result is reused for the configured {@code backend-ping-cache-ttl}, failures
+ * included. Every completed ping updates the {@link Health} of the server, which is pushed to the
+ * registered listeners.</p>
+ */
+public final class BackendPingService {
+
+  private static final Logger logger = LogManager.getLogger(BackendPingService.class);
+
+  private final IntSupplier cacheTtlMillis;
+  private final BiFunction<VelocityRegisteredServer, PingOptions, CompletableFuture<ServerPing>> pinger;
+  private final Ticker ticker;
+  private final Map<Key, Entry> pings = new ConcurrentHashMap<>();
+  private final Map<String, Health> health = new ConcurrentHashMap<>();
+  private final List<Consumer<Health>> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Creates a ping service for the given proxy.
+   *
+   * @param server the proxy
+   */
+  public BackendPingService(final VelocityServer server) {
+    this(() -> server.getConfiguration().getBackendPingCacheTtl(),
+        (target, options) -> target.ping(null, options), Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  BackendPingService(final IntSupplier cacheTtlMillis,
+      final BiFunction<VelocityRegisteredServer, PingOptions, CompletableFuture<ServerPing>> pinger,
+      final Ticker ticker) {
+    this.cacheTtlMillis = cacheTtlMillis;
+    this.pinger = pinger;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Pings a backend server, reusing a ping that is in flight or was completed recently.
+   *
+   * @param target the server to ping
+   * @param options the options to ping with. The timeout only applies if a new connection has to
+   *                be made.
+   * @return the server list ping response
+   */
+  public CompletableFuture<ServerPing> ping(final VelocityRegisteredServer target,
+      final PingOptions options) {
+    Key key = new Key(target.getServerInfo().getName(), options.getProtocolVersion());
+    Entry cached = pings.get(key);
+    if (cached != null && isReusable(cached, target)) {
+      return cached.result.copy();
+    }
+
+    Entry fresh = new Entry(target);
+    Entry entry = pings.compute(key, (k, existing) ->
+        existing != null && isReusable(existing, target) ? existing : fresh);
+    if (entry == fresh) {
+      // Ping outside of compute(), as the ping may complete, and call listeners, immediately.
+      start(fresh, options);
+    }
+    // Callers must not be able to complete the shared future.
+    return entry.result.copy();
+  }
+
+  private boolean isReusable(final Entry entry, final VelocityRegisteredServer target) {
+    if (entry.target != target) {
+      // The server was replaced by one with the same name.
+      return false;
+    }
+    long completedNanos = entry.completedNanos;
+    return completedNanos == Entry.IN_FLIGHT
+        || ticker.read() - completedNanos < TimeUnit.MILLISECONDS.toNanos(cacheTtlMillis.getAsInt());
+  }
+
+  private void start(final Entry entry, final PingOptions options) {
+    long startNanos = ticker.read();
+    CompletableFuture<ServerPing> ping;
+    try {
+      ping = pinger.apply(entry.target, options);
+    } catch (RuntimeException e) {
+      ping = CompletableFuture.failedFuture(e);
+    }
+    ping.whenComplete((result, throwable) -> {
+      long now = ticker.read();
+      entry.completedNanos = now == Entry.IN_FLIGHT ? now + 1 : now;
+      update(new Health(entry.target.getServerInfo().getName(), throwable == null,
+          TimeUnit.NANOSECONDS.toMillis(now - startNanos),
+          result == null ? 0 : result.getPlayers().map(ServerPing.Players::getOnline).orElse(0),
+          now));
+      if (throwable != null) {
+        entry.result.completeExceptionally(throwable);
+      } else {
+        entry.result.complete(result);
+      }
+    });
+  }
+
+  private void update(final Health updated) {
+    health.put(updated.server(), updated);
+    for (Consumer<Health> listener : listeners) {
+      try {
+        listener.accept(updated);
+      } catch (RuntimeException e) {
+        logger.error("Exception while handling the health of backend server {}", updated.server(), e);
+      }
+    }
+  }
+
+  /**
+   * Returns the health of a server as of its last ping.
+   *
+   * @param server the name of the server
+   * @return the health of the server, or {@code null} if it has not been pinged yet
+   */
+  public @Nullable Health getHealth(final String server) {
+    return health.get(server);
+  }
+
+  /**
+   * Returns whether a server failed its last ping, and that ping completed recently enough for the
+   * result to still be trusted.
+   *
+   * @param server the name of the server
+   * @param maxAgeNanos how long a failed ping is trusted for, in nanoseconds
+   * @return whether the server is known to be offline
+   */
+  public boolean isKnownOffline(final String server, final long maxAgeNanos) {
+    Health last = health.get(server);
+    return last != null && !last.online() && ticker.read() - last.updatedNanos() < maxAgeNanos;
+  }
+
+  /**
+   * Registers a listener called with the new health of a server every time a ping of it
+   * completes. Listeners are called on the thread that completed the ping, usually an event loop,
+   * so they must not block.
+   *
+   * @param listener the listener
+   */
+  public void addListener(final Consumer<Health> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * The health of a backend server, as of its last ping.
+   *
+   * @param server the name of the server
+   * @param online whether the last ping succeeded
+   * @param latencyMillis how long the last ping took, in milliseconds
+   * @param playerCount the number of players online reported by the server, or {@code 0} if it is
+   *                    offline
+   * @param updatedNanos the {@link Ticker} time the last ping completed at
+   */
+  public record Health(String server, boolean online, long latencyMillis, int playerCount,
+                       long updatedNanos) {
+  }
+
+  private record Key(String server, ProtocolVersion version) {
+  }
+
+  private static final class Entry {
+
+    static final long IN_FLIGHT = Long.MIN_VALUE;
+
+    final VelocityRegisteredServer target;
+    final CompletableFuture<ServerPing> result = new CompletableFuture<>();
+    volatile long completedNanos = IN_FLIGHT;
+
+    Entry(final VelocityRegisteredServer target) {
+      this.target = target;
+    }
+  }
+}
@@ -111,10 +111,9 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
     }
 
     List<PlayerInfo> info = new ArrayList<>();
-    for (MultiProxyHandler.RemotePlayerInfo i : this.server.getMultiProxyHandler().getAllPlayers()) {
-      if (i.getServerName() != null && i.getServerName().equalsIgnoreCase(getServerInfo().getName())) {
-        info.add(new PlayerInfo(i.getName(), i.getUuid()));
-      }
+    for (MultiProxyHandler.RemotePlayerInfo i
+        : this.server.getMultiProxyHandler().getServerPlayers(getServerInfo().getName())) {
+      info.add(new PlayerInfo(i.getName(), i.getUuid()));
     }
 
     return info;
@@ -130,17 +129,21 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
 
   @Override
   public CompletableFuture<ServerPing> ping(final PingOptions pingOptions) {
-    return ping(null, pingOptions);
+    if (server == null) {
+      throw new IllegalStateException("No Velocity proxy instance available");
+    }
+    return server.getBackendPingService().ping(this, pingOptions);
   }
 
   @Override
   public CompletableFuture<ServerPing> ping() {
-    return ping(null, PingOptions.DEFAULT);
+    return ping(PingOptions.DEFAULT);
   }
 
   /**
    * Pings the specified server using the specified event {@code loop}, claiming to be {@code
-   * version}.
+   * version}. This always opens a new connection to the server; {@link #ping(PingOptions)} shares
+   * pings through the {@link BackendPingService} instead.
    *
    * @param loop    the event loop to use
    * @param pingOptions the options to apply to this ping
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server.selection;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import java.util.Arrays;
+
+/**
+ * The servers a selection is made from, along with their load and weight.
+ *
+ * <p>Instances are meant to be reused, see {@link ServerSelector#candidates()}, so adding
+ * candidates does not allocate once the backing arrays have grown large enough.</p>
+ */
+public final class ServerCandidates {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private RegisteredServer[] servers = new RegisteredServer[INITIAL_CAPACITY];
+  private int[] positions = new int[INITIAL_CAPACITY];
+  private int[] loads = new int[INITIAL_CAPACITY];
+  private int[] weights = new int[INITIAL_CAPACITY];
+  private boolean[] offline = new boolean[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Removes every candidate.
+   */
+  public void clear() {
+    Arrays.fill(servers, 0, size, null);
+    size = 0;
+  }
+
+  /**
+   * Adds a candidate.
+   *
+   * @param server the server
+   * @param position the position of the server in the list it was taken from
+   * @param load the number of players on the server
+   * @param weight the relative capacity of the server, which must be positive
+   * @param offline whether the server is known to be offline
+   */
+  public void add(final RegisteredServer server, final int position, final int load,
+      final int weight, final boolean offline) {
+    Preconditions.checkArgument(weight > 0, "weight must be positive");
+    if (size == servers.length) {
+      int capacity = size * 2;
+      servers = Arrays.copyOf(servers, capacity);
+      positions = Arrays.copyOf(positions, capacity);
+      loads = Arrays.copyOf(loads, capacity);
+      weights = Arrays.copyOf(weights, capacity);
+      this.offline = Arrays.copyOf(this.offline, capacity);
+    }
+    servers[size] = server;
+    positions[size] = position;
+    loads[size] = load;
+    weights[size] = weight;
+    this.offline[size] = offline;
+    size++;
+  }
+
+  /**
+   * Removes the candidates known to be offline, unless every candidate is. The order of the
+   * remaining candidates is kept.
+   */
+  void retainOnline() {
+    int online = 0;
+    for (int i = 0; i < size; i++) {
+      if (!offline[i]) {
+        online++;
+      }
+    }
+    if (online == 0 || online == size) {
+      return;
+    }
+
+    int kept = 0;
+    for (int i = 0; i < size; i++) {
+      if (!offline[i]) {
+        servers[kept] = servers[i];
+        positions[kept] = positions[i];
+        loads[kept] = loads[i];
+        weights[kept] = weights[i];
+        offline[kept] = false;
+        kept++;
+      }
+    }
+    Arrays.fill(servers, kept, size, null);
+    size = kept;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public RegisteredServer server(final int index) {
+    return servers[Preconditions.checkElementIndex(index, size)];
+  }
+
+  public int position(final int index) {
+    return positions[Preconditions.checkElementIndex(index, size)];
+  }
+
+  public int load(final int index) {
+    return loads[Preconditions.checkElementIndex(index, size)];
+  }
+
+  public int weight(final int index) {
+    return weights[Preconditions.checkElementIndex(index, size)];
+  }
+
+  /**
+   * Compares the load of two candidates relative to their weight.
+   *
+   * @param first the index of the first candidate
+   * @param second the index of the second candidate
+   * @return a negative number, zero or a positive number if the first candidate is less, equally
+   *         or more loaded than the second
+   */
+  public int compareWeightedLoad(final int first, final int second) {
+    return Long.compare((long) load(first) * weight(second), (long) load(second) * weight(first));
+  }
+}
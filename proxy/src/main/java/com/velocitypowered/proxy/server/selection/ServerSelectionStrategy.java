@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server.selection;
+
+import java.util.UUID;
+
+/**
+ * Chooses the backend server a player is sent to when they join or fall back.
+ *
+ * <p>Strategies are called on Netty event loops for every selection, so they must not block and
+ * should not allocate.</p>
+ *
+ * @see ServerSelectionType
+ */
+@FunctionalInterface
+public interface ServerSelectionStrategy {
+
+  /**
+   * Selects one of the candidates.
+   *
+   * @param candidates the servers the player may be sent to, in the configured order. Never empty.
+   * @param player the unique ID of the player
+   * @return the index of the selected candidate
+   */
+  int select(ServerCandidates candidates, UUID player);
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server.selection;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The built-in server selection strategies, as configured by {@code dynamic-fallbacks-filter}.
+ */
+public enum ServerSelectionType implements ServerSelectionStrategy {
+  /**
+   * Picks the first server in the configured order.
+   */
+  FIRST_AVAILABLE {
+    @Override
+    public int select(final ServerCandidates candidates, final UUID player) {
+      return 0;
+    }
+  },
+  /**
+   * Picks the server with the most players, preferring earlier servers on a tie.
+   */
+  MOST_POPULATED {
+    @Override
+    public int select(final ServerCandidates candidates, final UUID player) {
+      int best = 0;
+      for (int i = 1; i < candidates.size(); i++) {
+        if (candidates.load(i) > candidates.load(best)) {
+          best = i;
+        }
+      }
+      return best;
+    }
+  },
+  /**
+   * Picks the server with the fewest players, preferring earlier servers on a tie.
+   */
+  LEAST_POPULATED {
+    @Override
+    public int select(final ServerCandidates candidates, final UUID player) {
+      int best = 0;
+      for (int i = 1; i < candidates.size(); i++) {
+        if (candidates.load(i) < candidates.load(best)) {
+          best = i;
+        }
+      }
+      return best;
+    }
+  },
+  /**
+   * Picks the server with the fewest players relative to its capacity, preferring earlier servers
+   * on a tie.
+   */
+  WEIGHTED_LEAST_CONNECTIONS {
+    @Override
+    public int select(final ServerCandidates candidates, final UUID player) {
+      int best = 0;
+      for (int i = 1; i < candidates.size(); i++) {
+        if (candidates.compareWeightedLoad(i, best) < 0) {
+          best = i;
+        }
+      }
+      return best;
+    }
+  },
+  /**
+   * Samples two servers at random and picks the one with the fewest players relative to its
+   * capacity. This spreads a burst of joins more evenly than always picking the least loaded
+   * server, whose player count may not have caught up with the players already sent to it.
+   */
+  POWER_OF_TWO_CHOICES {
+    @Override
+    public int select(final ServerCandidates candidates, final UUID player) {
+      int size = candidates.size();
+      if (size == 1) {
+        return 0;
+      }
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int first = random.nextInt(size);
+      int second = random.nextInt(size - 1);
+      if (second >= first) {
+        second++;
+      }
+      return candidates.compareWeightedLoad(second, first) < 0 ? second : first;
+    }
+  },
+  /**
+   * Picks a server by hashing the player's unique ID, so that a player keeps landing on the same
+   * server while the candidates stay the same. Servers are picked in proportion to their capacity,
+   * and removing a server only moves the players that were assigned to it (weighted rendezvous
+   * hashing).
+   */
+  CONSISTENT_HASH {
+    @Override
+    public int select(final ServerCandidates candidates, final UUID player) {
+      long playerHash = mix(player.getMostSignificantBits() ^ mix(player.getLeastSignificantBits()));
+      int best = 0;
+      double bestScore = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < candidates.size(); i++) {
+        long hash = mix(playerHash ^ candidates.server(i).getServerInfo().getName().hashCode());
+        // A uniform number in (0, 1) from the top 53 bits of the hash.
+        double uniform = ((hash >>> 11) + 0.5) * 0x1.0p-53;
+        double score = -candidates.weight(i) / Math.log(uniform);
+        if (score > bestScore) {
+          best = i;
+          bestScore = score;
+        }
+      }
+      return best;
+    }
+  };
+
+  // The finalizer of MurmurHash3's 64-bit variant.
+  private static long mix(final long value) {
+    long hash = value;
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
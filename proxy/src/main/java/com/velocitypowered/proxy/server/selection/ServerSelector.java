@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server.selection;
+
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.redis.multiproxy.MultiProxyHandler;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Picks the server players are sent to when they log in or fall back, using the configured
+ * {@code dynamic-fallbacks-filter} unless a plugin has installed its own strategy.
+ *
+ * <p>The load of a server is the number of players on it across the whole cluster when
+ * multi-proxy support is enabled, and on this proxy otherwise. Its weight is its player cap, or
+ * {@code show-max-players} if it has none. Servers whose last ping failed are only picked when
+ * every candidate is offline.</p>
+ */
+public final class ServerSelector {
+
+  private static final long OFFLINE_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private final VelocityServer server;
+  private final ThreadLocal<ServerCandidates> candidates =
+      ThreadLocal.withInitial(ServerCandidates::new);
+  private volatile @Nullable ServerSelectionStrategy strategy;
+
+  public ServerSelector(final VelocityServer server) {
+    this.server = server;
+  }
+
+  /**
+   * Returns an empty set of candidates for the current thread to fill in. The returned instance is
+   * reused by the next call on the same thread.
+   *
+   * @return the candidates
+   */
+  public ServerCandidates candidates() {
+    ServerCandidates result = candidates.get();
+    result.clear();
+    return result;
+  }
+
+  /**
+   * Adds a server to a set of candidates, along with its current load, weight and health.
+   *
+   * @param candidates the candidates to add to
+   * @param target the server
+   * @param position the position of the server in the list it was taken from
+   */
+  public void add(final ServerCandidates candidates, final VelocityRegisteredServer target,
+      final int position) {
+    String name = target.getServerInfo().getName();
+    candidates.add(target, position, getLoad(target), getWeight(name),
+        server.getBackendPingService().isKnownOffline(name, OFFLINE_MAX_AGE_NANOS));
+  }
+
+  private int getLoad(final VelocityRegisteredServer target) {
+    MultiProxyHandler multiProxyHandler = server.getMultiProxyHandler();
+    if (multiProxyHandler != null && multiProxyHandler.isEnabled()) {
+      return multiProxyHandler.getServerPlayerCount(target.getServerInfo().getName());
+    }
+    return target.getPlayerCount();
+  }
+
+  private int getWeight(final String name) {
+    VelocityConfiguration configuration = server.getConfiguration();
+    Integer cap = configuration.getPlayerCaps().get(name);
+    if (cap != null && cap > 0) {
+      return cap;
+    }
+    return Math.max(configuration.getShowMaxPlayers(), 1);
+  }
+
+  /**
+   * Selects one of the candidates.
+   *
+   * @param candidates the candidates, which may be empty
+   * @param player the unique ID of the player
+   * @return the index of the selected candidate, or {@code -1} if there are no candidates
+   */
+  public int select(final ServerCandidates candidates, final UUID player) {
+    if (candidates.size() == 0) {
+      return -1;
+    }
+    candidates.retainOnline();
+
+    ServerSelectionStrategy selection = this.strategy;
+    if (selection == null) {
+      selection = server.getConfiguration().getDynamicFallbackFilter();
+    }
+    int index = selection.select(candidates, player);
+    if (index < 0 || index >= candidates.size()) {
+      throw new IllegalStateException("Strategy " + selection + " selected candidate " + index
+          + " out of " + candidates.size());
+    }
+    return index;
+  }
+
+  public @Nullable ServerSelectionStrategy getStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Replaces the configured strategy.
+   *
+   * @param strategy the strategy to use, or {@code null} to use the configured one again
+   */
+  public void setStrategy(final @Nullable ServerSelectionStrategy strategy) {
+    this.strategy = strategy;
+  }
+}
@@ -31,10 +31,12 @@ import com.velocitypowered.proxy.protocol.packet.chat.RemoteChatSession;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import net.kyori.adventure.text.Component;
@@ -49,6 +51,10 @@ public class KeyedVelocityTabList implements InternalTabList {
   protected final MinecraftConnection connection;
   protected final ProxyServer proxyServer;
   protected final Map<UUID, KeyedVelocityTabListEntry> entries = new ConcurrentHashMap<>();
+  private final Map<UUID, LegacyPlayerListItemPacket.Item> pendingRemovals = new LinkedHashMap<>();
+  private final Map<UUID, TabListEntry> pendingAdds = new LinkedHashMap<>();
+  private final Map<Integer, Map<UUID, TabListEntry>> pendingUpdates = new TreeMap<>();
+  private int batchDepth;
 
   /**
    * Creates a new VelocityTabList.
@@ -87,10 +93,12 @@ public class KeyedVelocityTabList implements InternalTabList {
     Preconditions.checkArgument(entry instanceof KeyedVelocityTabListEntry,
         "Not a Velocity tab list entry");
 
-    LegacyPlayerListItemPacket.Item packetItem = LegacyPlayerListItemPacket.Item.from(entry);
-    connection.write(
-        new LegacyPlayerListItemPacket(LegacyPlayerListItemPacket.ADD_PLAYER,
-            Collections.singletonList(packetItem)));
+    if (!bufferAdd(entry)) {
+      LegacyPlayerListItemPacket.Item packetItem = LegacyPlayerListItemPacket.Item.from(entry);
+      connection.write(
+          new LegacyPlayerListItemPacket(LegacyPlayerListItemPacket.ADD_PLAYER,
+              Collections.singletonList(packetItem)));
+    }
     entries.put(entry.getProfile().getId(), (KeyedVelocityTabListEntry) entry);
   }
 
@@ -99,7 +107,7 @@ public class KeyedVelocityTabList implements InternalTabList {
     Preconditions.checkNotNull(uuid, "uuid");
 
     TabListEntry entry = entries.remove(uuid);
-    if (entry != null) {
+    if (entry != null && !bufferRemoval(entry)) {
       LegacyPlayerListItemPacket.Item packetItem = LegacyPlayerListItemPacket.Item.from(entry);
       connection.write(
           new LegacyPlayerListItemPacket(LegacyPlayerListItemPacket.REMOVE_PLAYER,
@@ -133,11 +141,134 @@ public class KeyedVelocityTabList implements InternalTabList {
     }
     List<LegacyPlayerListItemPacket.Item> items = new ArrayList<>(listEntries.size());
     for (TabListEntry value : listEntries) {
-      items.add(LegacyPlayerListItemPacket.Item.from(value));
+      if (!bufferRemoval(value)) {
+        items.add(LegacyPlayerListItemPacket.Item.from(value));
+      }
     }
     clearAllSilent();
-    connection.delayedWrite(new LegacyPlayerListItemPacket(
-            LegacyPlayerListItemPacket.REMOVE_PLAYER, items));
+    if (!items.isEmpty()) {
+      connection.delayedWrite(new LegacyPlayerListItemPacket(
+              LegacyPlayerListItemPacket.REMOVE_PLAYER, items));
+    }
+  }
+
+  @Override
+  public synchronized void beginBatch() {
+    batchDepth++;
+  }
+
+  @Override
+  public void commitBatch() {
+    List<LegacyPlayerListItemPacket> packets;
+    synchronized (this) {
+      Preconditions.checkState(batchDepth > 0, "No tab list batch in progress");
+      if (--batchDepth > 0) {
+        return;
+      }
+
+      packets = createBatchPackets(pendingRemovals.values(), pendingAdds.values(),
+          pendingUpdates);
+      pendingRemovals.clear();
+      pendingAdds.clear();
+      pendingUpdates.clear();
+    }
+
+    if (packets.isEmpty()) {
+      return;
+    }
+    for (LegacyPlayerListItemPacket packet : packets) {
+      connection.delayedWrite(packet);
+    }
+    connection.flush();
+  }
+
+  /**
+   * Creates the packets that apply the changes buffered by a batch. Removals are sent first, so
+   * that an entry removed and added again in the same batch ends up present.
+   *
+   * @param removals the items of the entries removed from the tab list
+   * @param adds the entries added to the tab list
+   * @param updates the entries updated by each {@code UPDATE_*} action, excluding added entries
+   * @return the packets to send, in order
+   */
+  protected List<LegacyPlayerListItemPacket> createBatchPackets(
+      final Collection<LegacyPlayerListItemPacket.Item> removals,
+      final Collection<TabListEntry> adds,
+      final Map<Integer, Map<UUID, TabListEntry>> updates) {
+    List<LegacyPlayerListItemPacket> packets = new ArrayList<>();
+    if (!removals.isEmpty()) {
+      packets.add(new LegacyPlayerListItemPacket(LegacyPlayerListItemPacket.REMOVE_PLAYER,
+          new ArrayList<>(removals)));
+    }
+    if (!adds.isEmpty()) {
+      List<LegacyPlayerListItemPacket.Item> items = new ArrayList<>(adds.size());
+      for (TabListEntry entry : adds) {
+        items.add(LegacyPlayerListItemPacket.Item.from(entry));
+      }
+      packets.add(new LegacyPlayerListItemPacket(LegacyPlayerListItemPacket.ADD_PLAYER, items));
+    }
+    for (Map.Entry<Integer, Map<UUID, TabListEntry>> update : updates.entrySet()) {
+      List<LegacyPlayerListItemPacket.Item> items = new ArrayList<>(update.getValue().size());
+      for (TabListEntry entry : update.getValue().values()) {
+        items.add(createUpdateItem(entry));
+      }
+      packets.add(new LegacyPlayerListItemPacket(update.getKey(), items));
+    }
+    return packets;
+  }
+
+  /**
+   * Buffers the addition of an entry if a batch is in progress.
+   *
+   * @param entry the added entry
+   * @return whether the addition was buffered
+   */
+  protected synchronized boolean bufferAdd(final TabListEntry entry) {
+    if (batchDepth == 0) {
+      return false;
+    }
+    pendingAdds.put(entry.getProfile().getId(), entry);
+    return true;
+  }
+
+  /**
+   * Buffers the removal of an entry if a batch is in progress.
+   *
+   * @param entry the removed entry
+   * @return whether the removal was buffered
+   */
+  protected synchronized boolean bufferRemoval(final TabListEntry entry) {
+    if (batchDepth == 0) {
+      return false;
+    }
+    UUID uuid = entry.getProfile().getId();
+    for (Map<UUID, TabListEntry> updated : pendingUpdates.values()) {
+      updated.remove(uuid);
+    }
+    // An entry that was only added during this batch never reached the client.
+    if (pendingAdds.remove(uuid) == null) {
+      pendingRemovals.putIfAbsent(uuid, LegacyPlayerListItemPacket.Item.from(entry));
+    }
+    return true;
+  }
+
+  /**
+   * Buffers an update to an entry if a batch is in progress.
+   *
+   * @param action the {@code UPDATE_*} action
+   * @param entry the updated entry
+   * @return whether the update was buffered
+   */
+  protected synchronized boolean bufferUpdate(final int action, final TabListEntry entry) {
+    if (batchDepth == 0) {
+      return false;
+    }
+    UUID uuid = entry.getProfile().getId();
+    // Added entries are sent with their state at the time of the commit.
+    if (!pendingAdds.containsKey(uuid)) {
+      pendingUpdates.computeIfAbsent(action, k -> new LinkedHashMap<>()).put(uuid, entry);
+    }
+    return true;
   }
 
   @Override
@@ -234,25 +365,28 @@ public class KeyedVelocityTabList implements InternalTabList {
   }
 
   void updateEntry(final int action, final TabListEntry entry) {
-    if (entries.containsKey(entry.getProfile().getId())) {
-      LegacyPlayerListItemPacket.Item packetItem = LegacyPlayerListItemPacket.Item.from(entry);
+    if (entries.containsKey(entry.getProfile().getId()) && !bufferUpdate(action, entry)) {
+      connection.write(new LegacyPlayerListItemPacket(action, List.of(createUpdateItem(entry))));
+    }
+  }
 
-      IdentifiedKey selectedKey = packetItem.getPlayerKey();
-      Optional<Player> existing = proxyServer.getPlayer(entry.getProfile().getId());
-      if (existing.isPresent()) {
-        selectedKey = existing.get().getIdentifiedKey();
-      }
+  private LegacyPlayerListItemPacket.Item createUpdateItem(final TabListEntry entry) {
+    LegacyPlayerListItemPacket.Item packetItem = LegacyPlayerListItemPacket.Item.from(entry);
 
-      if (selectedKey != null
-          && selectedKey.getKeyRevision().getApplicableTo()
-          .contains(connection.getProtocolVersion())
-          && Objects.equals(selectedKey.getSignatureHolder(), entry.getProfile().getId())) {
-        packetItem.setPlayerKey(selectedKey);
-      } else {
-        packetItem.setPlayerKey(null);
-      }
+    IdentifiedKey selectedKey = packetItem.getPlayerKey();
+    Optional<Player> existing = proxyServer.getPlayer(entry.getProfile().getId());
+    if (existing.isPresent()) {
+      selectedKey = existing.get().getIdentifiedKey();
+    }
 
-      connection.write(new LegacyPlayerListItemPacket(action, List.of(packetItem)));
+    if (selectedKey != null
+        && selectedKey.getKeyRevision().getApplicableTo()
+        .contains(connection.getProtocolVersion())
+        && Objects.equals(selectedKey.getSignatureHolder(), entry.getProfile().getId())) {
+      packetItem.setPlayerKey(selectedKey);
+    } else {
+      packetItem.setPlayerKey(null);
     }
+    return packetItem;
   }
 }
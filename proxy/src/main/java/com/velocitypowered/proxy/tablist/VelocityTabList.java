@@ -34,9 +34,13 @@ import com.velocitypowered.proxy.protocol.packet.chat.RemoteChatSession;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 import net.kyori.adventure.text.Component;
@@ -53,6 +57,9 @@ public class VelocityTabList implements InternalTabList {
   private final ConnectedPlayer player;
   private final MinecraftConnection connection;
   private final ConcurrentMap<UUID, VelocityTabListEntry> entries;
+  private final Map<UUID, PendingUpsert> pendingUpserts = new LinkedHashMap<>();
+  private final Set<UUID> pendingRemovals = new LinkedHashSet<>();
+  private int batchDepth;
 
   /**
    * Constructs the instance.
@@ -173,13 +180,15 @@ public class VelocityTabList implements InternalTabList {
     });
 
     if (!actions.isEmpty()) {
-      this.connection.write(new UpsertPlayerInfoPacket(actions, List.of(playerInfoEntry)));
+      writeUpsert(actions, playerInfoEntry);
     }
   }
 
   @Override
   public Optional<TabListEntry> removeEntry(final UUID uuid) {
-    this.connection.write(new RemovePlayerInfoPacket(List.of(uuid)));
+    if (!bufferRemovals(List.of(uuid))) {
+      this.connection.write(new RemovePlayerInfoPacket(List.of(uuid)));
+    }
     return Optional.ofNullable(this.entries.remove(uuid));
   }
 
@@ -200,11 +209,77 @@ public class VelocityTabList implements InternalTabList {
 
   @Override
   public void clearAll() {
-    this.connection.delayedWrite(new RemovePlayerInfoPacket(
-            new ArrayList<>(this.entries.keySet())));
+    List<UUID> uuids = new ArrayList<>(this.entries.keySet());
+    if (!bufferRemovals(uuids)) {
+      this.connection.delayedWrite(new RemovePlayerInfoPacket(uuids));
+    }
     clearAllSilent();
   }
 
+  @Override
+  public synchronized void beginBatch() {
+    batchDepth++;
+  }
+
+  @Override
+  public void commitBatch() {
+    List<Object> packets = new ArrayList<>();
+    synchronized (this) {
+      Preconditions.checkState(batchDepth > 0, "No tab list batch in progress");
+      if (--batchDepth > 0) {
+        return;
+      }
+
+      if (!pendingRemovals.isEmpty()) {
+        packets.add(new RemovePlayerInfoPacket(new ArrayList<>(pendingRemovals)));
+        pendingRemovals.clear();
+      }
+      // Every entry in a packet carries the data of every action of the packet, so only entries
+      // with the same actions can share one. A rebuilt tab list has a single group.
+      Map<EnumSet<UpsertPlayerInfoPacket.Action>, List<UpsertPlayerInfoPacket.Entry>> groups =
+          new LinkedHashMap<>();
+      for (PendingUpsert pending : pendingUpserts.values()) {
+        groups.computeIfAbsent(pending.actions, k -> new ArrayList<>()).add(pending.entry);
+      }
+      pendingUpserts.clear();
+      for (Map.Entry<EnumSet<UpsertPlayerInfoPacket.Action>, List<UpsertPlayerInfoPacket.Entry>>
+          group : groups.entrySet()) {
+        packets.add(new UpsertPlayerInfoPacket(group.getKey(), group.getValue()));
+      }
+    }
+
+    if (packets.isEmpty()) {
+      return;
+    }
+    for (Object packet : packets) {
+      this.connection.delayedWrite(packet);
+    }
+    this.connection.flush();
+  }
+
+  private synchronized boolean bufferRemovals(final Collection<UUID> uuids) {
+    if (batchDepth == 0) {
+      return false;
+    }
+    for (UUID uuid : uuids) {
+      pendingUpserts.remove(uuid);
+      pendingRemovals.add(uuid);
+    }
+    return true;
+  }
+
+  private void writeUpsert(final EnumSet<UpsertPlayerInfoPacket.Action> actions,
+                           final UpsertPlayerInfoPacket.Entry entry) {
+    synchronized (this) {
+      if (batchDepth > 0) {
+        pendingUpserts.computeIfAbsent(entry.getProfileId(), PendingUpsert::new)
+            .merge(actions, entry);
+        return;
+      }
+    }
+    this.connection.write(new UpsertPlayerInfoPacket(actions, List.of(entry)));
+  }
+
   @Override
   public void clearAllSilent() {
     this.entries.clear();
@@ -232,7 +307,7 @@ public class VelocityTabList implements InternalTabList {
 
   protected void emitActionRaw(final UpsertPlayerInfoPacket.Action action,
                                final UpsertPlayerInfoPacket.Entry entry) {
-    this.connection.write(new UpsertPlayerInfoPacket(EnumSet.of(action), List.of(entry)));
+    writeUpsert(EnumSet.of(action), entry);
   }
 
   private void processUpsert(final EnumSet<UpsertPlayerInfoPacket.Action> actions,
@@ -290,4 +365,35 @@ public class VelocityTabList implements InternalTabList {
       this.entries.remove(uuid);
     }
   }
+
+  /**
+   * The changes to a single entry buffered while a batch is in progress.
+   */
+  private static final class PendingUpsert {
+
+    private final EnumSet<UpsertPlayerInfoPacket.Action> actions =
+        EnumSet.noneOf(UpsertPlayerInfoPacket.Action.class);
+    private final UpsertPlayerInfoPacket.Entry entry;
+
+    private PendingUpsert(final UUID profileId) {
+      this.entry = new UpsertPlayerInfoPacket.Entry(profileId);
+    }
+
+    private void merge(final EnumSet<UpsertPlayerInfoPacket.Action> newActions,
+                       final UpsertPlayerInfoPacket.Entry from) {
+      for (UpsertPlayerInfoPacket.Action action : newActions) {
+        switch (action) {
+          case ADD_PLAYER -> entry.setProfile(from.getProfile());
+          case INITIALIZE_CHAT -> entry.setChatSession(from.getChatSession());
+          case UPDATE_GAME_MODE -> entry.setGameMode(from.getGameMode());
+          case UPDATE_LISTED -> entry.setListed(from.isListed());
+          case UPDATE_LATENCY -> entry.setLatency(from.getLatency());
+          case UPDATE_DISPLAY_NAME -> entry.setDisplayName(from.getDisplayName());
+          case UPDATE_LIST_ORDER -> entry.setListOrder(from.getListOrder());
+          default -> throw new AssertionError(action);
+        }
+      }
+      actions.addAll(newActions);
+    }
+  }
 }
\ No newline at end of file
@@ -24,7 +24,11 @@ import com.velocitypowered.api.util.GameProfile;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.protocol.packet.LegacyPlayerListItemPacket;
 import com.velocitypowered.proxy.protocol.packet.LegacyPlayerListItemPacket.Item;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -68,6 +72,9 @@ public class VelocityTabListLegacy extends KeyedVelocityTabList {
   @Override
   public void clearAll() {
     for (TabListEntry value : entries.values()) {
+      if (bufferRemoval(value)) {
+        continue;
+      }
       connection.delayedWrite(new LegacyPlayerListItemPacket(
           LegacyPlayerListItemPacket.REMOVE_PLAYER,
           Collections.singletonList(LegacyPlayerListItemPacket.Item.from(value))));
@@ -114,9 +121,37 @@ public class VelocityTabListLegacy extends KeyedVelocityTabList {
     }
   }
 
+  @Override
+  protected List<LegacyPlayerListItemPacket> createBatchPackets(final Collection<Item> removals,
+      final Collection<TabListEntry> adds, final Map<Integer, Map<UUID, TabListEntry>> updates) {
+    // 1.7 clients read a single item per packet, so the batch only saves the flushes.
+    List<LegacyPlayerListItemPacket> packets = new ArrayList<>();
+    for (Item item : removals) {
+      packets.add(new LegacyPlayerListItemPacket(LegacyPlayerListItemPacket.REMOVE_PLAYER,
+          Collections.singletonList(item)));
+    }
+    Map<UUID, TabListEntry> upserts = new LinkedHashMap<>();
+    for (TabListEntry entry : adds) {
+      upserts.put(entry.getProfile().getId(), entry);
+    }
+    // ADD_PLAYER also updates the latency and display name of an existing entry
+    for (int action : new int[] {LegacyPlayerListItemPacket.UPDATE_LATENCY,
+        LegacyPlayerListItemPacket.UPDATE_DISPLAY_NAME}) {
+      Map<UUID, TabListEntry> updated = updates.get(action);
+      if (updated != null) {
+        updated.forEach(upserts::putIfAbsent);
+      }
+    }
+    for (TabListEntry entry : upserts.values()) {
+      packets.add(new LegacyPlayerListItemPacket(LegacyPlayerListItemPacket.ADD_PLAYER,
+          Collections.singletonList(Item.from(entry))));
+    }
+    return packets;
+  }
+
   @Override
   void updateEntry(final int action, final TabListEntry entry) {
-    if (entries.containsKey(entry.getProfile().getId())) {
+    if (entries.containsKey(entry.getProfile().getId()) && !bufferUpdate(action, entry)) {
       switch (action) {
         case LegacyPlayerListItemPacket.UPDATE_LATENCY:
         // Add here because we removed beforehand
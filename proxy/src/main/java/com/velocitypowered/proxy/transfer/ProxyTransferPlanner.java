@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.transfer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.ProxyAddress;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.redis.multiproxy.MultiProxyHandler;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Picks the proxies players are transferred to, using the configured {@code dynamic-proxy-filter}
+ * unless a plugin has installed its own strategy.
+ *
+ * <p>The load of a proxy is the number of players on it according to the multi-proxy player
+ * directory, which is kept up to date by join, leave and shutdown messages, so no player list is
+ * scanned. Without multi-proxy support every proxy has a load of {@code 0}. The capacity of a
+ * proxy is its {@code max-players}, or {@code show-max-players} if it has none. Proxies that have
+ * stopped sending heartbeats are only picked when no other proxy is online.</p>
+ */
+public final class ProxyTransferPlanner {
+
+  private final VelocityServer server;
+  private volatile @Nullable ProxyTransferStrategy strategy;
+
+  public ProxyTransferPlanner(final VelocityServer server) {
+    this.server = server;
+  }
+
+  /**
+   * Selects the proxy to transfer a single player to.
+   *
+   * @return the target proxy, or {@code null} if the player should be disconnected instead
+   */
+  public @Nullable ProxyAddress select() {
+    return plan(1).get(0);
+  }
+
+  /**
+   * Plans the transfer of a batch of players in one go. Each assignment counts towards the load of
+   * its target, so the players are spread over the target proxies as the strategy dictates instead
+   * of all being sent to the proxy that was the best choice for the first one.
+   *
+   * @param players the number of players to transfer
+   * @return the target proxy of each player, or {@code null} for players that should be
+   *         disconnected instead
+   */
+  public List<@Nullable ProxyAddress> plan(final int players) {
+    ProxyTransferStrategy selection = this.strategy;
+    if (selection == null) {
+      selection = server.getConfiguration().getDynamicProxyFilter();
+    }
+    return plan(targets(), selection, players);
+  }
+
+  @VisibleForTesting
+  static List<@Nullable ProxyAddress> plan(final TransferTargets targets,
+      final ProxyTransferStrategy selection, final int players) {
+    List<@Nullable ProxyAddress> plan = new ArrayList<>(players);
+    for (int i = 0; i < players; i++) {
+      int index = targets.size() == 0 ? -1 : selection.select(targets);
+      if (index < 0) {
+        plan.add(null);
+        continue;
+      }
+      targets.assign(index);
+      plan.add(targets.address(index));
+    }
+    return plan;
+  }
+
+  private TransferTargets targets() {
+    VelocityConfiguration configuration = server.getConfiguration();
+    MultiProxyHandler multiProxyHandler = server.getMultiProxyHandler();
+    boolean clustered = multiProxyHandler != null && multiProxyHandler.isEnabled();
+    String ownProxyId = multiProxyHandler == null ? null : multiProxyHandler.getOwnProxyId();
+
+    List<ProxyAddress> online = new ArrayList<>();
+    List<ProxyAddress> offline = new ArrayList<>();
+    for (ProxyAddress address : configuration.getProxyAddresses()) {
+      if (address.proxyId().equalsIgnoreCase(ownProxyId)) {
+        continue;
+      }
+      if (clustered && multiProxyHandler.getProxyStatus(address.proxyId()) == null) {
+        offline.add(address);
+      } else {
+        online.add(address);
+      }
+    }
+
+    TransferTargets targets = new TransferTargets(configuration.getDynamicProxyHeadroom());
+    for (ProxyAddress address : online.isEmpty() ? offline : online) {
+      int load = clustered ? multiProxyHandler.getPlayerCount(address.proxyId()) : 0;
+      int capacity = address.maxPlayers() > 0
+          ? address.maxPlayers() : Math.max(configuration.getShowMaxPlayers(), 1);
+      targets.add(address, load, capacity);
+    }
+    return targets;
+  }
+
+  public @Nullable ProxyTransferStrategy getStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Replaces the configured strategy.
+   *
+   * @param strategy the strategy to use, or {@code null} to use the configured one again
+   */
+  public void setStrategy(final @Nullable ProxyTransferStrategy strategy) {
+    this.strategy = strategy;
+  }
+}
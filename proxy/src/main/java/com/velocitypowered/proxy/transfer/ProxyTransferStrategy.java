@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.transfer;
+
+/**
+ * Chooses the proxy a player is transferred to when this proxy shuts down.
+ *
+ * @see ProxyTransferType
+ */
+@FunctionalInterface
+public interface ProxyTransferStrategy {
+
+  /**
+   * Selects one of the target proxies.
+   *
+   * @param targets the proxies the player may be transferred to, in the configured order. Never
+   *                empty.
+   * @return the index of the selected target, or {@code -1} if the player should not be
+   *         transferred at all
+   */
+  int select(TransferTargets targets);
+}
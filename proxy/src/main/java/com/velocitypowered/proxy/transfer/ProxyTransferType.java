@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.transfer;
+
+/**
+ * The built-in proxy transfer strategies, as configured by {@code dynamic-proxy-filter}.
+ */
+public enum ProxyTransferType implements ProxyTransferStrategy {
+  /**
+   * Disconnects players instead of transferring them.
+   */
+  NONE {
+    @Override
+    public int select(final TransferTargets targets) {
+      return -1;
+    }
+  },
+  /**
+   * Picks the first proxy in the configured order.
+   */
+  FIRST_FOUND {
+    @Override
+    public int select(final TransferTargets targets) {
+      return 0;
+    }
+  },
+  /**
+   * Picks the proxy with the fewest players, preferring earlier proxies on a tie.
+   */
+  MOST_EMPTY {
+    @Override
+    public int select(final TransferTargets targets) {
+      int best = 0;
+      for (int i = 1; i < targets.size(); i++) {
+        if (targets.load(i) < targets.load(best)) {
+          best = i;
+        }
+      }
+      return best;
+    }
+  },
+  /**
+   * Picks the proxy with the most players, preferring earlier proxies on a tie.
+   */
+  LEAST_EMPTY {
+    @Override
+    public int select(final TransferTargets targets) {
+      int best = 0;
+      for (int i = 1; i < targets.size(); i++) {
+        if (targets.load(i) > targets.load(best)) {
+          best = i;
+        }
+      }
+      return best;
+    }
+  },
+  /**
+   * Picks the proxy with the fewest players relative to its capacity, preferring earlier proxies
+   * on a tie.
+   */
+  WEIGHTED {
+    @Override
+    public int select(final TransferTargets targets) {
+      int best = 0;
+      for (int i = 1; i < targets.size(); i++) {
+        if (targets.compareWeightedLoad(i, best) < 0) {
+          best = i;
+        }
+      }
+      return best;
+    }
+  },
+  /**
+   * Like {@link #WEIGHTED}, but skips proxies that have no room left once their headroom is taken
+   * into account. Players are disconnected if every proxy is full.
+   */
+  CAPACITY_AWARE {
+    @Override
+    public int select(final TransferTargets targets) {
+      int best = -1;
+      for (int i = 0; i < targets.size(); i++) {
+        if (targets.hasRoom(i) && (best == -1 || targets.compareWeightedLoad(i, best) < 0)) {
+          best = i;
+        }
+      }
+      return best;
+    }
+  }
+}
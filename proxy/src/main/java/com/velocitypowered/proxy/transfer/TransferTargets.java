@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.transfer;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.proxy.config.ProxyAddress;
+import java.util.Arrays;
+
+/**
+ * The proxies players may be transferred to, along with their load and capacity.
+ *
+ * <p>When a batch of players is planned, the load of a target grows with every player assigned
+ * to it, so that strategies see the effect of the earlier assignments.</p>
+ */
+public final class TransferTargets {
+
+  private final double headroom;
+  private ProxyAddress[] addresses = new ProxyAddress[4];
+  private int[] loads = new int[4];
+  private int[] capacities = new int[4];
+  private int size;
+
+  /**
+   * Creates an empty set of targets.
+   *
+   * @param headroom the fraction of the capacity of each target to keep free, from {@code 0} to
+   *                 {@code 1}
+   */
+  public TransferTargets(final double headroom) {
+    Preconditions.checkArgument(headroom >= 0 && headroom <= 1, "headroom must be between 0 and 1");
+    this.headroom = headroom;
+  }
+
+  /**
+   * Adds a target.
+   *
+   * @param address the address of the proxy
+   * @param load the number of players on the proxy
+   * @param capacity the maximum number of players of the proxy, which must be positive
+   */
+  public void add(final ProxyAddress address, final int load, final int capacity) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+    if (size == addresses.length) {
+      addresses = Arrays.copyOf(addresses, size * 2);
+      loads = Arrays.copyOf(loads, size * 2);
+      capacities = Arrays.copyOf(capacities, size * 2);
+    }
+    addresses[size] = address;
+    loads[size] = load;
+    capacities[size] = capacity;
+    size++;
+  }
+
+  void assign(final int index) {
+    loads[Preconditions.checkElementIndex(index, size)]++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public ProxyAddress address(final int index) {
+    return addresses[Preconditions.checkElementIndex(index, size)];
+  }
+
+  public int load(final int index) {
+    return loads[Preconditions.checkElementIndex(index, size)];
+  }
+
+  public int capacity(final int index) {
+    return capacities[Preconditions.checkElementIndex(index, size)];
+  }
+
+  /**
+   * Returns whether a target can take another player without eating into its headroom.
+   *
+   * @param index the index of the target
+   * @return whether the target has room for another player
+   */
+  public boolean hasRoom(final int index) {
+    return load(index) < capacity(index) * (1 - headroom);
+  }
+
+  /**
+   * Compares the load of two targets relative to their capacity.
+   *
+   * @param first the index of the first target
+   * @param second the index of the second target
+   * @return a negative number, zero or a positive number if the first target is less, equally or
+   *         more loaded than the second
+   */
+  public int compareWeightedLoad(final int first, final int second) {
+    return Long.compare((long) load(first) * capacity(second),
+        (long) load(second) * capacity(first));
+  }
+}
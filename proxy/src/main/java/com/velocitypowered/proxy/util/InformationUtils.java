@@ -33,7 +33,14 @@ import com.velocitypowered.api.proxy.config.ProxyConfig;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.util.ProxyVersion;
 import com.velocitypowered.natives.util.Natives;
+import com.velocitypowered.proxy.network.SessionServerClient;
 import com.velocitypowered.proxy.network.TransportType;
+import com.velocitypowered.proxy.plugin.executor.PluginExecutorService;
+import com.velocitypowered.proxy.plugin.loader.VelocityPluginContainer;
+import com.velocitypowered.proxy.protocol.netty.PacketSizePredictor;
+import com.velocitypowered.proxy.redis.RedisDispatcher;
+import com.velocitypowered.proxy.redis.RedisManagerImpl;
+import com.velocitypowered.proxy.redis.RedisPublisher;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
@@ -90,6 +97,16 @@ public enum InformationUtils {
         }
         current.add("dependencies", dependencies);
       }
+      if (plugin instanceof VelocityPluginContainer container
+          && container.hasExecutorService()) {
+        PluginExecutorService executor = container.getExecutorService();
+        JsonObject executorInfo = new JsonObject();
+        executorInfo.addProperty("type", executor.getType().toString());
+        executorInfo.addProperty("queuedTasks", executor.getQueuedTasks());
+        executorInfo.addProperty("activeTasks", executor.getActiveTasks());
+        executorInfo.addProperty("completedTasks", executor.getCompletedTasks());
+        current.add("executor", executorInfo);
+      }
       plugins.add(current);
     }
     return plugins;
@@ -119,6 +136,71 @@ public enum InformationUtils {
     return envInfo;
   }
 
+  /**
+   * Creates a {@link JsonObject} containing statistics about how well the packet encoder predicts
+   * the size of the buffers it allocates.
+   *
+   * @return {@link JsonObject} containing encoder statistics
+   */
+  public static JsonObject collectEncoderStats() {
+    PacketSizePredictor predictor = PacketSizePredictor.INSTANCE;
+    JsonObject encoderStats = new JsonObject();
+    encoderStats.addProperty("encodedPackets", predictor.getEncodedPackets());
+    encoderStats.addProperty("reallocations", predictor.getReallocations());
+    encoderStats.addProperty("bytesCopied", predictor.getBytesCopied());
+    return encoderStats;
+  }
+
+  /**
+   * Creates a {@link JsonObject} containing statistics about the {@code hasJoined} requests sent
+   * to the session server.
+   *
+   * @param client the session server client
+   * @return {@link JsonObject} containing session server statistics
+   */
+  public static JsonObject collectSessionServerStats(final SessionServerClient client) {
+    JsonObject sessionServerStats = new JsonObject();
+    sessionServerStats.addProperty("inFlightRequests", client.getInFlight());
+    sessionServerStats.addProperty("queuedRequests", client.getQueued());
+    sessionServerStats.addProperty("completedRequests", client.getCompleted());
+    sessionServerStats.addProperty("failedRequests", client.getFailed());
+    sessionServerStats.addProperty("averageLatencyMillis", client.getAverageLatencyMillis());
+    return sessionServerStats;
+  }
+
+  /**
+   * Creates a {@link JsonObject} containing the state of the Redis subscription, of the
+   * dispatcher that handles packets received from other proxies and of the publisher that sends
+   * packets to them.
+   *
+   * @param redisManager the Redis manager
+   * @return {@link JsonObject} containing Redis statistics
+   */
+  public static JsonObject collectRedisStats(final RedisManagerImpl redisManager) {
+    JsonObject redisStats = new JsonObject();
+    redisStats.addProperty("subscribed", redisManager.isSubscribed());
+    redisStats.addProperty("reconnects", redisManager.getReconnects());
+    RedisDispatcher dispatcher = redisManager.getDispatcher();
+    if (dispatcher != null) {
+      redisStats.addProperty("dispatcherShards", dispatcher.getShards());
+      redisStats.addProperty("queuedPackets", dispatcher.getQueuedPackets());
+      redisStats.addProperty("dispatchedPackets", dispatcher.getDispatchedPackets());
+      redisStats.addProperty("currentLagMillis", dispatcher.getCurrentLagMillis());
+      redisStats.addProperty("averageLagMillis", dispatcher.getAverageLagMillis());
+      redisStats.addProperty("maxLagMillis", dispatcher.getMaxLagMillis());
+    }
+    RedisPublisher publisher = redisManager.getPublisher();
+    if (publisher != null) {
+      redisStats.addProperty("publishQueueCapacity", publisher.getCapacity());
+      redisStats.addProperty("queuedMessages", publisher.getQueuedMessages());
+      redisStats.addProperty("publishedMessages", publisher.getPublishedMessages());
+      redisStats.addProperty("publishedBatches", publisher.getBatches());
+      redisStats.addProperty("droppedMessages", publisher.getDroppedMessages());
+      redisStats.addProperty("failedMessages", publisher.getFailedMessages());
+    }
+    return redisStats;
+  }
+
   /**
    * Creates a {@link JsonObject} containing information about the forced hosts of the
    * {@link ProxyConfig} instance.
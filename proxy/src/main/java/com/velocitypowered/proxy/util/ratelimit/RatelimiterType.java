@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.ratelimit;
+
+/**
+ * The implementations available for the login rate-limiter.
+ */
+public enum RatelimiterType {
+  /**
+   * Remembers the last attempt of each address in a Caffeine cache. Only one attempt is allowed
+   * per interval.
+   *
+   * @see CaffeineCacheRatelimiter
+   */
+  CAFFEINE,
+  /**
+   * Keeps a token bucket per address in a fixed-size table of primitive longs, which avoids
+   * allocating on every attempt during connection floods.
+   *
+   * @see StripedTokenBucketRatelimiter
+   */
+  STRIPED
+}
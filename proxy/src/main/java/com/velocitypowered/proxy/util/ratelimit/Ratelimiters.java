@@ -29,7 +29,27 @@ public final class Ratelimiters {
   }
 
   public static Ratelimiter createWithMilliseconds(final long ms) {
-    return ms <= 0 ? NoopCacheRatelimiter.INSTANCE : new CaffeineCacheRatelimiter(ms,
-        TimeUnit.MILLISECONDS);
+    return createWithMilliseconds(ms, RatelimiterType.CAFFEINE, 1);
+  }
+
+  /**
+   * Creates a rate-limiter of the given type.
+   *
+   * @param ms the time it takes for an address to earn another attempt, in milliseconds, or
+   *           {@code 0} to disable rate-limiting
+   * @param type the implementation to use
+   * @param burst how many attempts an address may make in a row before being limited, ignored by
+   *              {@link RatelimiterType#CAFFEINE} which always allows a single attempt
+   * @return the rate-limiter
+   */
+  public static Ratelimiter createWithMilliseconds(final long ms, final RatelimiterType type,
+      final int burst) {
+    if (ms <= 0) {
+      return NoopCacheRatelimiter.INSTANCE;
+    }
+    return switch (type) {
+      case CAFFEINE -> new CaffeineCacheRatelimiter(ms, TimeUnit.MILLISECONDS);
+      case STRIPED -> new StripedTokenBucketRatelimiter(ms, TimeUnit.MILLISECONDS, burst);
+    };
   }
 }
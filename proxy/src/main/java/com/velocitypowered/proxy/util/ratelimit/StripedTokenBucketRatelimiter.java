@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token-bucket rate-limiter backed by a fixed-size table of primitive longs.
+ *
+ * <p>Addresses are reduced to a seeded 64-bit hash, with IPv6 addresses aggregated to their /64
+ * prefix, so that a single host can't dodge the limit by cycling through its own subnet. The
+ * table is split into buckets of {@value #BUCKET_SIZE} slots, and each bucket is guarded by one
+ * of {@value #STRIPES} locks. Each slot stores the theoretical arrival time of the next token
+ * (GCRA), which is all the state a token bucket needs. Nothing is allocated per attempt for IPv4
+ * addresses.</p>
+ *
+ * <p>A slot whose bucket has refilled completely is indistinguishable from an empty one and is
+ * reused freely. If every slot of a bucket is still refilling, the slot closest to being refilled
+ * is evicted, which errs towards letting a connection through rather than blocking it.</p>
+ */
+public final class StripedTokenBucketRatelimiter implements Ratelimiter {
+
+  static final int DEFAULT_CAPACITY = 1 << 17;
+  private static final int BUCKET_SIZE = 8;
+  private static final int STRIPES = 64;
+  private static final long EMPTY = 0;
+
+  private final long[] keys;
+  private final long[] arrivals;
+  private final Object[] locks;
+  private final int bucketShift;
+  private final long intervalNanos;
+  private final long burstToleranceNanos;
+  private final Ticker ticker;
+  private final long ipv4Seed;
+  private final long ipv6Seed;
+
+  StripedTokenBucketRatelimiter(final long refill, final TimeUnit unit, final int burst) {
+    this(refill, unit, burst, DEFAULT_CAPACITY, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  StripedTokenBucketRatelimiter(final long refill, final TimeUnit unit, final int burst,
+      final int capacity, final Ticker ticker) {
+    Preconditions.checkNotNull(unit, "unit");
+    Preconditions.checkNotNull(ticker, "ticker");
+    Preconditions.checkArgument(refill > 0, "refill must be positive");
+    Preconditions.checkArgument(burst > 0, "burst must be positive");
+    Preconditions.checkArgument(capacity >= BUCKET_SIZE * STRIPES
+        && Integer.bitCount(capacity) == 1, "capacity must be a power of two of at least %s",
+        BUCKET_SIZE * STRIPES);
+    this.keys = new long[capacity];
+    this.arrivals = new long[capacity];
+    this.locks = new Object[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      this.locks[i] = new Object();
+    }
+    this.bucketShift = Long.numberOfLeadingZeros(capacity / BUCKET_SIZE) + 1;
+    this.intervalNanos = unit.toNanos(refill);
+    this.burstToleranceNanos = this.intervalNanos * (burst - 1);
+    this.ticker = ticker;
+    this.ipv4Seed = ThreadLocalRandom.current().nextLong();
+    this.ipv6Seed = ThreadLocalRandom.current().nextLong();
+  }
+
+  /**
+   * Attempts to rate-limit the client.
+   *
+   * @param address the address to rate limit
+   * @return true if we should allow the client, false if we should rate-limit
+   */
+  @Override
+  public boolean attempt(final InetAddress address) {
+    Preconditions.checkNotNull(address, "address");
+    final long key = key(address);
+    final int bucket = (int) (key >>> bucketShift);
+    final int base = bucket * BUCKET_SIZE;
+    final long now = ticker.read();
+
+    synchronized (locks[bucket & (STRIPES - 1)]) {
+      int victim = -1;
+      long victimArrival = Long.MAX_VALUE;
+      for (int slot = base; slot < base + BUCKET_SIZE; slot++) {
+        final long slotKey = keys[slot];
+        if (slotKey == key) {
+          return take(slot, now);
+        }
+        if (victimArrival == Long.MIN_VALUE) {
+          continue;
+        }
+        if (slotKey == EMPTY || arrivals[slot] - now <= 0) {
+          victim = slot;
+          victimArrival = Long.MIN_VALUE;
+        } else if (arrivals[slot] < victimArrival) {
+          victim = slot;
+          victimArrival = arrivals[slot];
+        }
+      }
+
+      keys[victim] = key;
+      arrivals[victim] = now + intervalNanos;
+      return true;
+    }
+  }
+
+  private boolean take(final int slot, final long now) {
+    final long arrival = arrivals[slot];
+    if (arrival - burstToleranceNanos - now > 0) {
+      return false;
+    }
+    arrivals[slot] = (arrival - now > 0 ? arrival : now) + intervalNanos;
+    return true;
+  }
+
+  private long key(final InetAddress address) {
+    final long hash;
+    if (address instanceof Inet4Address) {
+      // Inet4Address#hashCode() is the address itself, which saves copying it out.
+      hash = mix(address.hashCode() ^ ipv4Seed);
+    } else {
+      final byte[] bytes = address.getAddress();
+      long prefix = 0;
+      for (int i = 0; i < 8; i++) {
+        prefix = (prefix << 8) | (bytes[i] & 0xFF);
+      }
+      hash = mix(prefix ^ ipv6Seed);
+    }
+    return hash == EMPTY ? 1 : hash;
+  }
+
+  // The finalizer of MurmurHash3's 64-bit variant.
+  private static long mix(final long value) {
+    long hash = value;
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
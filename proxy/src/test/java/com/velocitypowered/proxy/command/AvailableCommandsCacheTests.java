@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.tree.RootCommandNode;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.PreEncodedPacket;
+import com.velocitypowered.proxy.protocol.packet.AvailableCommandsPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AvailableCommandsCacheTests extends CommandTestSuite {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MAXIMUM_VERSION;
+
+  private AvailableCommandsCache cache;
+
+  @BeforeEach
+  void setUpCache() {
+    cache = new AvailableCommandsCache(manager.getInjector());
+    manager.register(manager.metaBuilder("hello").build(), (SimpleCommand) invocation -> fail());
+  }
+
+  private static AvailableCommandsPacket backendPacket(final String... names) {
+    ByteBuf buf = Unpooled.buffer();
+    try {
+      ProtocolUtils.writeVarInt(buf, names.length + 1);
+      buf.writeByte(0x00); // root
+      ProtocolUtils.writeVarInt(buf, names.length);
+      for (int i = 0; i < names.length; i++) {
+        ProtocolUtils.writeVarInt(buf, i + 1);
+      }
+      for (String name : names) {
+        buf.writeByte(0x01 | 0x04); // executable literal
+        ProtocolUtils.writeVarInt(buf, 0);
+        ProtocolUtils.writeString(buf, name);
+      }
+      ProtocolUtils.writeVarInt(buf, 0);
+
+      AvailableCommandsPacket packet = new AvailableCommandsPacket();
+      packet.decode(buf, ProtocolUtils.Direction.CLIENTBOUND, VERSION);
+      return packet;
+    } finally {
+      buf.release();
+    }
+  }
+
+  private static RootCommandNode<CommandSource> sentGraph(final PreEncodedPacket sent) {
+    ByteBuf buf = sent.content().duplicate();
+    int packetId = ProtocolUtils.readVarInt(buf);
+    assertEquals(StateRegistry.PLAY
+        .getProtocolRegistry(ProtocolUtils.Direction.CLIENTBOUND, sent.getVersion())
+        .getPacketId(sent.getPacket()), packetId);
+
+    AvailableCommandsPacket decoded = new AvailableCommandsPacket(ByteBufUtil.getBytes(buf),
+        sent.getVersion());
+    return decoded.getRootNode();
+  }
+
+  @Test
+  void injectsProxyCommandsIntoBackendGraph() {
+    PreEncodedPacket sent = cache.rewrite("lobby", backendPacket("spawn"), source, VERSION);
+
+    assertEquals(StateRegistry.PLAY, sent.getState());
+    assertEquals(VERSION, sent.getVersion());
+    RootCommandNode<CommandSource> graph = sentGraph(sent);
+    assertNotNull(graph.getChild("spawn"));
+    assertNotNull(graph.getChild("hello"));
+    // The encoded packet must match what the cached packet would encode to.
+    ByteBuf body = Unpooled.buffer();
+    try {
+      sent.getPacket().encode(body, ProtocolUtils.Direction.CLIENTBOUND, VERSION);
+      ByteBuf content = sent.content().duplicate();
+      ProtocolUtils.readVarInt(content);
+      assertEquals(body, content);
+    } finally {
+      body.release();
+    }
+  }
+
+  @Test
+  void reusesEntryForSameKey() {
+    PreEncodedPacket first = cache.rewrite("lobby", backendPacket("spawn"), source, VERSION);
+    // A fresh packet with the same bytes, as the next player joining the server would send.
+    PreEncodedPacket second = cache.rewrite("lobby", backendPacket("spawn"), source, VERSION);
+
+    assertSame(first.getPacket(), second.getPacket());
+    assertEquals(first.content(), second.content());
+  }
+
+  @Test
+  void separatesEntriesByServerVersionAndGraph() {
+    PreEncodedPacket base = cache.rewrite("lobby", backendPacket("spawn"), source, VERSION);
+
+    assertNotSame(base.getPacket(),
+        cache.rewrite("survival", backendPacket("spawn"), source, VERSION).getPacket());
+    assertNotSame(base.getPacket(), cache.rewrite("lobby", backendPacket("spawn"), source,
+        ProtocolVersion.MINECRAFT_1_19_4).getPacket());
+
+    PreEncodedPacket otherGraph = cache.rewrite("lobby", backendPacket("spawn", "warp"), source,
+        VERSION);
+    assertNotSame(base.getPacket(), otherGraph.getPacket());
+    assertNotNull(sentGraph(otherGraph).getChild("warp"));
+  }
+
+  @Test
+  void separatesEntriesByVisibleCommands() {
+    final var allowed = new AtomicBoolean();
+    manager.register(new BrigadierCommand(LiteralArgumentBuilder
+        .<CommandSource>literal("secret")
+        .requires(source -> allowed.get())
+        .build()));
+
+    PreEncodedPacket denied = cache.rewrite("lobby", backendPacket("spawn"), source, VERSION);
+    allowed.set(true);
+    PreEncodedPacket permitted = cache.rewrite("lobby", backendPacket("spawn"), source, VERSION);
+
+    assertNotSame(denied.getPacket(), permitted.getPacket());
+    assertNull(sentGraph(denied).getChild("secret"));
+    assertNotNull(sentGraph(permitted).getChild("secret"));
+
+    allowed.set(false);
+    assertSame(denied.getPacket(),
+        cache.rewrite("lobby", backendPacket("spawn"), source, VERSION).getPacket());
+  }
+
+  @Test
+  void registeringCommandInvalidatesEntries() {
+    PreEncodedPacket before = cache.rewrite("lobby", backendPacket("spawn"), source, VERSION);
+    manager.register(manager.metaBuilder("world").build(), (SimpleCommand) invocation -> fail());
+    PreEncodedPacket after = cache.rewrite("lobby", backendPacket("spawn"), source, VERSION);
+
+    assertNotSame(before.getPacket(), after.getPacket());
+    assertNotNull(sentGraph(after).getChild("world"));
+  }
+}
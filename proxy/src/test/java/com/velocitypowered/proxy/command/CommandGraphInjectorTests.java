@@ -22,6 +22,7 @@ import static com.mojang.brigadier.builder.LiteralArgumentBuilder.literal;
 import static com.mojang.brigadier.builder.RequiredArgumentBuilder.argument;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -32,6 +33,7 @@ import com.velocitypowered.api.command.BrigadierCommand;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.command.RawCommand;
 import com.velocitypowered.api.command.SimpleCommand;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -232,4 +234,37 @@ public class CommandGraphInjectorTests extends CommandTestSuite {
 
     assertEquals(registered, dest.getChild("foo"));
   }
+
+  @Test
+  void testFingerprintReflectsRequirements() {
+    final var allowed = new AtomicBoolean();
+
+    final var registered = LiteralArgumentBuilder
+        .<CommandSource>literal("greet")
+        .then(LiteralArgumentBuilder
+            .<CommandSource>literal("somebody")
+            .requires(source -> allowed.get()))
+        .build();
+    manager.register(new BrigadierCommand(registered));
+
+    final var denied = manager.getInjector().fingerprint(source);
+    allowed.set(true);
+    final var permitted = manager.getInjector().fingerprint(source);
+    allowed.set(false);
+
+    assertNotEquals(denied, permitted);
+    assertEquals(denied, manager.getInjector().fingerprint(source));
+  }
+
+  @Test
+  void testFingerprintChangesWithGraph() {
+    manager.register(manager.metaBuilder("hello").build(), (SimpleCommand) invocation -> fail());
+    final var before = manager.getInjector().fingerprint(source);
+
+    manager.register(manager.metaBuilder("world").build(), (SimpleCommand) invocation -> fail());
+    assertNotEquals(before, manager.getInjector().fingerprint(source));
+
+    manager.unregister("world");
+    assertNotEquals(before, manager.getInjector().fingerprint(source));
+  }
 }
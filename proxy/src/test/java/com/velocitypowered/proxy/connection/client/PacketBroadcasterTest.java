@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.netty.PreEncodedPacket;
+import com.velocitypowered.proxy.protocol.packet.KeepAlivePacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PacketBroadcasterTest {
+
+  private final Map<ConnectedPlayer, List<Object>> written = new IdentityHashMap<>();
+
+  @AfterEach
+  void tearDown() {
+    written.values().forEach(messages -> messages.forEach(ReferenceCountUtil::release));
+  }
+
+  private ConnectedPlayer player(final ProtocolVersion version, final Locale locale) {
+    Channel channel = mock(Channel.class);
+    when(channel.alloc()).thenReturn(UnpooledByteBufAllocator.DEFAULT);
+    MinecraftConnection connection = mock(MinecraftConnection.class);
+    when(connection.getChannel()).thenReturn(channel);
+    ConnectedPlayer player = mock(ConnectedPlayer.class);
+    when(player.getConnection()).thenReturn(connection);
+    when(player.getProtocolVersion()).thenReturn(version);
+    when(player.getTranslationLocale()).thenReturn(locale);
+
+    List<Object> messages = new ArrayList<>();
+    written.put(player, messages);
+    doAnswer(invocation -> {
+      messages.add(invocation.getArgument(0));
+      return null;
+    }).when(connection).write(any());
+    return player;
+  }
+
+  private Object single(final ConnectedPlayer player) {
+    List<Object> messages = written.get(player);
+    assertEquals(1, messages.size());
+    return messages.get(0);
+  }
+
+  @Test
+  void encodesOncePerGroup() {
+    ConnectedPlayer a = player(ProtocolVersion.MAXIMUM_VERSION, Locale.US);
+    ConnectedPlayer b = player(ProtocolVersion.MAXIMUM_VERSION, Locale.US);
+    ConnectedPlayer c = player(ProtocolVersion.MAXIMUM_VERSION, Locale.GERMANY);
+    AtomicInteger created = new AtomicInteger();
+
+    PacketBroadcaster.broadcast(List.of(a, b, c), player -> {
+      created.incrementAndGet();
+      KeepAlivePacket packet = new KeepAlivePacket();
+      packet.setRandomId(42);
+      return packet;
+    });
+
+    assertEquals(2, created.get());
+    PreEncodedPacket first = assertInstanceOf(PreEncodedPacket.class, single(a));
+    PreEncodedPacket second = assertInstanceOf(PreEncodedPacket.class, single(b));
+    assertSame(first.getPacket(), second.getPacket());
+    assertEquals(first.content(), second.content());
+    // A group of one is written as a plain packet, there is nothing to share.
+    assertInstanceOf(KeepAlivePacket.class, single(c));
+  }
+
+  @Test
+  void createsPacketPerPlayerWhenPreEncodingFails() {
+    ConnectedPlayer a = player(ProtocolVersion.MAXIMUM_VERSION, Locale.US);
+    ConnectedPlayer b = player(ProtocolVersion.MAXIMUM_VERSION, Locale.US);
+    ConnectedPlayer c = player(ProtocolVersion.MAXIMUM_VERSION, Locale.US);
+    AtomicInteger created = new AtomicInteger();
+
+    PacketBroadcaster.broadcast(List.of(a, b, c), player -> {
+      created.incrementAndGet();
+      return new UnregisteredPacket();
+    });
+
+    assertEquals(3, created.get());
+    Object first = single(a);
+    Object second = single(b);
+    Object third = single(c);
+    assertInstanceOf(UnregisteredPacket.class, first);
+    assertNotSame(first, second);
+    assertNotSame(first, third);
+    assertNotSame(second, third);
+  }
+
+  @Test
+  void skipsGroupsWithoutPacket() {
+    ConnectedPlayer a = player(ProtocolVersion.MAXIMUM_VERSION, Locale.US);
+    ConnectedPlayer b = player(ProtocolVersion.MINIMUM_VERSION, Locale.US);
+
+    PacketBroadcaster.broadcast(List.of(a, b),
+        player -> player == a ? null : new KeepAlivePacket());
+
+    assertEquals(0, written.get(a).size());
+    assertInstanceOf(KeepAlivePacket.class, single(b));
+  }
+
+  /**
+   * A packet that is not registered in any state, so it can't be pre-encoded.
+   */
+  private static final class UnregisteredPacket implements MinecraftPacket {
+
+    @Override
+    public void decode(final ByteBuf buf, final ProtocolUtils.Direction direction,
+        final ProtocolVersion protocolVersion) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void encode(final ByteBuf buf, final ProtocolUtils.Direction direction,
+        final ProtocolVersion protocolVersion) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean handle(final MinecraftSessionHandler handler) {
+      return false;
+    }
+  }
+}
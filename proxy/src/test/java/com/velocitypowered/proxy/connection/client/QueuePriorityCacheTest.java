@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.velocitypowered.api.permission.PermissionFunction;
+import com.velocitypowered.api.permission.Tristate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class QueuePriorityCacheTest {
+
+  private final Map<String, Tristate> permissions = new HashMap<>();
+  private final AtomicInteger lookups = new AtomicInteger();
+  private long nanos;
+  private final QueuePriorityCache cache = new QueuePriorityCache(() -> new PermissionFunction() {
+    @Override
+    public Tristate getPermissionValue(final String permission) {
+      return permissions.getOrDefault(permission, Tristate.UNDEFINED);
+    }
+
+    @Override
+    public int getHighestNumericPermission(final String prefix, final int max) {
+      lookups.incrementAndGet();
+      return PermissionFunction.super.getHighestNumericPermission(prefix, max);
+    }
+  }, () -> nanos);
+
+  @Test
+  void prefersServerPriorityOverGlobal() {
+    permissions.put("velocity.queue.priority.lobby.5", Tristate.TRUE);
+    permissions.put("velocity.queue.priority.all.2", Tristate.TRUE);
+
+    assertEquals(5, cache.get("lobby"));
+    assertEquals(2, cache.get("survival"));
+  }
+
+  @Test
+  void reusesResolvedPriority() {
+    permissions.put("velocity.queue.priority.lobby.5", Tristate.TRUE);
+    assertEquals(5, cache.get("lobby"));
+    assertEquals(5, cache.get("lobby"));
+    assertEquals(1, lookups.get());
+  }
+
+  @Test
+  void picksUpPermissionChangesAfterTtl() {
+    permissions.put("velocity.queue.priority.lobby.5", Tristate.TRUE);
+    assertEquals(5, cache.get("lobby"));
+
+    permissions.put("velocity.queue.priority.lobby.8", Tristate.TRUE);
+    nanos += QueuePriorityCache.TTL_NANOS - 1;
+    assertEquals(5, cache.get("lobby"));
+    nanos += 1;
+    assertEquals(8, cache.get("lobby"));
+  }
+
+  @Test
+  void invalidateDiscardsResolvedPriorities() {
+    assertEquals(0, cache.get("lobby"));
+
+    permissions.put("velocity.queue.priority.all.3", Tristate.TRUE);
+    assertEquals(0, cache.get("lobby"));
+    cache.invalidate();
+    assertEquals(3, cache.get("lobby"));
+  }
+}
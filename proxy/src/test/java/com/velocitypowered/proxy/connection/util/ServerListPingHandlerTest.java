@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import com.velocitypowered.api.util.ProxyVersion;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.PingPassthroughMode;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.redis.multiproxy.MultiProxyHandler;
+import java.util.Optional;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ServerListPingHandlerTest {
+
+  private VelocityServer server;
+  private VelocityConfiguration configuration;
+  private VelocityInboundConnection connection;
+  private ServerListPingHandler handler;
+
+  @BeforeEach
+  void setUp() {
+    configuration = mock(VelocityConfiguration.class);
+    when(configuration.getMinimumVersion()).thenReturn("1.7.2");
+    when(configuration.getFallbackVersionPing()).thenReturn("{proxy-brand} {protocol}");
+    when(configuration.getProxyBrandCustom()).thenReturn("Velocity");
+    when(configuration.getMotd()).thenReturn(Component.text("A Velocity Server"));
+    when(configuration.getShowMaxPlayers()).thenReturn(500);
+    when(configuration.getPingPassthrough()).thenReturn(PingPassthroughMode.DISABLED);
+
+    server = mock(VelocityServer.class);
+    when(server.getConfiguration()).thenReturn(configuration);
+    when(server.getVersion()).thenReturn(new ProxyVersion("Velocity", "Velocity Contributors", "test"));
+    when(server.getMultiProxyHandler()).thenReturn(mock(MultiProxyHandler.class));
+    when(server.getPlayerCount()).thenReturn(10);
+
+    connection = mock(VelocityInboundConnection.class);
+    when(connection.getVirtualHost()).thenReturn(Optional.empty());
+    when(connection.getProtocolVersion()).thenReturn(ProtocolVersion.MINECRAFT_1_21_4);
+    handler = new ServerListPingHandler(server);
+  }
+
+  private ServerPing ping() {
+    return handler.getInitialPing(connection).join();
+  }
+
+  @Test
+  void reusesPingWhileNothingChanged() {
+    assertSame(ping(), ping());
+  }
+
+  @Test
+  void onlineCountChangeMissesCache() {
+    ServerPing before = ping();
+    when(server.getPlayerCount()).thenReturn(11);
+    ServerPing after = ping();
+
+    assertNotSame(before, after);
+    assertEquals(11, after.getPlayers().orElseThrow().getOnline());
+  }
+
+  @Test
+  void versionChangeMissesCache() {
+    ServerPing before = ping();
+    when(connection.getProtocolVersion()).thenReturn(ProtocolVersion.MINECRAFT_1_20_5);
+    ServerPing after = ping();
+
+    assertNotSame(before, after);
+    assertEquals(ProtocolVersion.MINECRAFT_1_20_5.getProtocol(), after.getVersion().getProtocol());
+  }
+
+  @Test
+  void passthroughModeChangeMissesCache() {
+    ServerPing before = ping();
+    when(configuration.getPingPassthrough()).thenReturn(PingPassthroughMode.ALL);
+
+    assertNotSame(before, ping());
+  }
+
+  @Test
+  void reusesJsonOfSamePing() {
+    ServerPing ping = ping();
+    String json = handler.toJson(ping, ProtocolVersion.MINECRAFT_1_21_4);
+
+    assertSame(json, handler.toJson(ping, ProtocolVersion.MINECRAFT_1_21_4));
+    // An equal ping is a different instance, so it is serialized again.
+    ServerPing copy = ping.asBuilder().build();
+    String copyJson = handler.toJson(copy, ProtocolVersion.MINECRAFT_1_21_4);
+    assertNotSame(json, copyJson);
+    assertEquals(json, copyJson);
+  }
+}
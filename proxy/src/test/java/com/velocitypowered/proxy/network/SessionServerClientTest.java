@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.sun.net.httpserver.HttpServer;
+import com.velocitypowered.api.util.GameProfile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SessionServerClientTest {
+
+  private static final String PROFILE = "{\"id\":\"069a79f444e94726a5befca90e38aaf5\","
+      + "\"name\":\"Notch\",\"properties\":[]}";
+
+  private HttpServer stub;
+  private ExecutorService stubExecutor;
+  private URI base;
+  // Requests to the held context are only answered once this is released.
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicInteger peakActive = new AtomicInteger();
+
+  @BeforeEach
+  void startStub() throws Exception {
+    stub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    stub.createContext("/hasJoined", exchange -> {
+      if (exchange.getRequestURI().getQuery().contains("username=Notch")) {
+        byte[] body = PROFILE.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+      } else {
+        exchange.sendResponseHeaders(204, -1);
+      }
+      exchange.close();
+    });
+    stub.createContext("/held", exchange -> {
+      peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      active.decrementAndGet();
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+    });
+    // Handle requests concurrently, so that only the client limits how many are in flight.
+    stubExecutor = Executors.newCachedThreadPool();
+    stub.setExecutor(stubExecutor);
+    stub.start();
+    base = URI.create("http://127.0.0.1:" + stub.getAddress().getPort() + "/hasJoined");
+  }
+
+  @AfterEach
+  void stopStub() {
+    release.countDown();
+    stub.stop(0);
+    stubExecutor.shutdownNow();
+  }
+
+  private SessionServerClient client(final int maxConcurrentRequests) {
+    return new SessionServerClient(HttpClient.newHttpClient(), maxConcurrentRequests,
+        Duration.ofSeconds(5));
+  }
+
+  @Test
+  void parsesProfile() {
+    HttpResponse<GameProfile> response = client(4)
+        .hasJoined(URI.create(base + "?username=Notch&serverId=abc"), "test").join();
+    assertEquals(200, response.statusCode());
+    assertNotNull(response.body());
+    assertEquals("Notch", response.body().getName());
+  }
+
+  @Test
+  void noContentHasNoProfile() {
+    HttpResponse<GameProfile> response = client(4)
+        .hasJoined(URI.create(base + "?username=Nobody&serverId=abc"), "test").join();
+    assertEquals(204, response.statusCode());
+    assertNull(response.body());
+  }
+
+  @Test
+  void queuesBeyondConcurrencyLimit() throws Exception {
+    SessionServerClient client = client(2);
+    URI held = base.resolve("/held");
+    List<CompletableFuture<HttpResponse<GameProfile>>> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      futures.add(client.hasJoined(URI.create(held + "?username=Notch&serverId=" + i), "test"));
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (active.get() < 2 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    // Give any request sent beyond the limit the chance to reach the server.
+    Thread.sleep(200);
+    assertEquals(2, active.get());
+    assertEquals(2, client.getInFlight());
+    assertEquals(6, client.getQueued());
+
+    release.countDown();
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+    assertEquals(2, peakActive.get());
+    assertEquals(8, client.getCompleted());
+    assertEquals(0, client.getInFlight());
+    assertEquals(0, client.getQueued());
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.plugin.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PluginExecutorServiceTest {
+
+  @Test
+  void boundedExecutorCountsQueuedTasks() throws Exception {
+    PluginExecutors executors = new PluginExecutors();
+    executors.configure(PluginExecutorType.BOUNDED, 2);
+    PluginExecutorService service = executors.create("test");
+
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    for (int i = 0; i < 5; i++) {
+      service.execute(() -> {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    assertEquals(2, service.getActiveTasks());
+    assertEquals(3, service.getQueuedTasks());
+
+    release.countDown();
+    service.shutdown();
+    assertTrue(service.awaitTermination(5, TimeUnit.SECONDS));
+    assertEquals(5, service.getCompletedTasks());
+    assertEquals(0, service.getQueuedTasks());
+  }
+
+  @Test
+  void sharedExecutorOnlyShutsDownOnePlugin() throws Exception {
+    PluginExecutors executors = new PluginExecutors();
+    executors.configure(PluginExecutorType.SHARED, 2);
+    PluginExecutorService first = executors.create("first");
+    PluginExecutorService second = executors.create("second");
+
+    first.shutdown();
+    assertTrue(first.awaitTermination(5, TimeUnit.SECONDS));
+    assertThrows(RejectedExecutionException.class, () -> first.execute(() -> { }));
+
+    CountDownLatch ran = new CountDownLatch(1);
+    second.execute(ran::countDown);
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    assertFalse(second.isShutdown());
+  }
+}
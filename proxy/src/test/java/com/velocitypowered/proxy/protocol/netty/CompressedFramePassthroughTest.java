@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.natives.compression.JavaVelocityCompressor;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Random;
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompressedFramePassthroughTest {
+
+  private static final int THRESHOLD = 256;
+
+  private EmbeddedChannel backend;
+  private EmbeddedChannel client;
+  private MinecraftDecoder packetDecoder;
+
+  @BeforeEach
+  void setup() {
+    packetDecoder = new MinecraftDecoder(ProtocolUtils.Direction.CLIENTBOUND);
+    packetDecoder.setState(StateRegistry.PLAY);
+    packetDecoder.setProtocolVersion(ProtocolVersion.MAXIMUM_VERSION);
+
+    MinecraftCompressDecoder decoder = new MinecraftCompressDecoder(THRESHOLD,
+        JavaVelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION));
+    decoder.setPassthroughDecoder(packetDecoder);
+    backend = new EmbeddedChannel(decoder);
+  }
+
+  @AfterEach
+  void tearDown() {
+    backend.finishAndReleaseAll();
+    if (client != null) {
+      client.finishAndReleaseAll();
+    }
+  }
+
+  private int findPacketId(final boolean registered) {
+    for (int id = 0; id < 0x80; id++) {
+      if (packetDecoder.isRegistered(id) == registered) {
+        return id;
+      }
+    }
+    throw new AssertionError("No " + (registered ? "registered" : "unregistered") + " packet ID");
+  }
+
+  private static byte[] payload(final int packetId, final int length) {
+    byte[] body = new byte[length];
+    new Random(packetId).nextBytes(body);
+    // Keep the payload compressible so the deflated size differs from the inflated one.
+    for (int i = 0; i < body.length; i += 2) {
+      body[i] = 0;
+    }
+    body[0] = (byte) packetId;
+    return body;
+  }
+
+  private EmbeddedChannel encoderChannel(final int threshold) {
+    return new EmbeddedChannel(new MinecraftCompressorAndLengthEncoder(threshold,
+        JavaVelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION)));
+  }
+
+  /**
+   * Encodes {@code payload} the way a backend server with the given threshold would, including
+   * the frame length.
+   */
+  private byte[] encodeAsBackend(final byte[] payload, final int threshold) {
+    EmbeddedChannel encoder = encoderChannel(threshold);
+    try {
+      encoder.writeOutbound(Unpooled.wrappedBuffer(payload));
+      ByteBuf encoded = encoder.readOutbound();
+      try {
+        return ByteBufUtil.getBytes(encoded);
+      } finally {
+        encoded.release();
+      }
+    } finally {
+      encoder.finishAndReleaseAll();
+    }
+  }
+
+  /**
+   * Feeds a full frame into the backend decoder, stripping the frame length like the frame decoder
+   * in front of it would.
+   */
+  private Object decodeFromBackend(final byte[] frame) {
+    ByteBuf in = Unpooled.wrappedBuffer(frame);
+    ProtocolUtils.readVarInt(in);
+    backend.writeInbound(in);
+    return backend.readInbound();
+  }
+
+  /**
+   * Reads back the packet payload from a full frame written with the given threshold.
+   */
+  private static byte[] decodeAsClient(final byte[] frame, final int threshold) {
+    EmbeddedChannel decoder = new EmbeddedChannel(new MinecraftCompressDecoder(threshold,
+        JavaVelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION)));
+    try {
+      ByteBuf in = Unpooled.wrappedBuffer(frame);
+      int length = ProtocolUtils.readVarInt(in);
+      assertEquals(in.readableBytes(), length);
+      decoder.writeInbound(in);
+      ByteBuf decoded = decoder.readInbound();
+      try {
+        return ByteBufUtil.getBytes(decoded);
+      } finally {
+        decoded.release();
+      }
+    } finally {
+      decoder.finishAndReleaseAll();
+    }
+  }
+
+  private byte[] writeToClient(final Object msg, final int threshold) {
+    client = encoderChannel(threshold);
+    client.writeOutbound(msg);
+    ByteBuf written = client.readOutbound();
+    try {
+      return ByteBufUtil.getBytes(written);
+    } finally {
+      written.release();
+      assertFalse(client.outboundMessages().iterator().hasNext());
+    }
+  }
+
+  @Test
+  void frameBelowThresholdIsDecodedNormally() {
+    byte[] payload = payload(findPacketId(false), THRESHOLD / 2);
+    byte[] frame = encodeAsBackend(payload, THRESHOLD);
+
+    Object decoded = decodeFromBackend(frame);
+    ByteBuf buf = assertInstanceOf(ByteBuf.class, decoded);
+    assertArrayEquals(payload, ByteBufUtil.getBytes(buf));
+
+    byte[] written = writeToClient(buf, THRESHOLD);
+    assertArrayEquals(frame, written);
+  }
+
+  @Test
+  void knownPacketAboveThresholdIsInflated() {
+    byte[] payload = payload(findPacketId(true), THRESHOLD * 4);
+    byte[] frame = encodeAsBackend(payload, THRESHOLD);
+
+    ByteBuf buf = assertInstanceOf(ByteBuf.class, decodeFromBackend(frame));
+    try {
+      assertArrayEquals(payload, ByteBufUtil.getBytes(buf));
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Test
+  void unknownPacketAboveThresholdIsPassedThrough() {
+    byte[] payload = payload(findPacketId(false), THRESHOLD * 4);
+    byte[] frame = encodeAsBackend(payload, THRESHOLD);
+
+    CompressedFrame compressed = assertInstanceOf(CompressedFrame.class,
+        decodeFromBackend(frame));
+    assertEquals(payload.length, compressed.getUncompressedSize());
+    assertTrue(compressed.content().readableBytes() < payload.length);
+
+    byte[] written = writeToClient(compressed, THRESHOLD);
+    assertEquals(0, compressed.refCnt());
+    // The deflated payload is forwarded untouched, so the frame is byte-for-byte the same.
+    assertArrayEquals(frame, written);
+    assertArrayEquals(payload, decodeAsClient(written, THRESHOLD));
+  }
+
+  @Test
+  void passedThroughFrameBelowClientThresholdIsInflated() {
+    int clientThreshold = THRESHOLD * 8;
+    byte[] payload = payload(findPacketId(false), THRESHOLD * 4);
+    byte[] frame = encodeAsBackend(payload, THRESHOLD);
+
+    CompressedFrame compressed = assertInstanceOf(CompressedFrame.class,
+        decodeFromBackend(frame));
+    byte[] written = writeToClient(compressed, clientThreshold);
+    assertEquals(0, compressed.refCnt());
+
+    // The client would reject a compressed frame below its threshold, so it has to go out raw.
+    ByteBuf in = Unpooled.wrappedBuffer(written);
+    ProtocolUtils.readVarInt(in);
+    assertEquals(0, ProtocolUtils.readVarInt(in));
+    assertArrayEquals(payload, decodeAsClient(written, clientThreshold));
+  }
+
+  @Test
+  void passedThroughFrameAboveLowerClientThresholdIsForwarded() {
+    int clientThreshold = THRESHOLD / 4;
+    byte[] payload = payload(findPacketId(false), THRESHOLD * 4);
+    byte[] frame = encodeAsBackend(payload, THRESHOLD);
+
+    CompressedFrame compressed = assertInstanceOf(CompressedFrame.class,
+        decodeFromBackend(frame));
+    byte[] written = writeToClient(compressed, clientThreshold);
+
+    assertArrayEquals(frame, written);
+    assertArrayEquals(payload, decodeAsClient(written, clientThreshold));
+  }
+}
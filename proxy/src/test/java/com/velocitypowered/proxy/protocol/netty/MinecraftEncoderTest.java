@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.packet.KeepAlivePacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MinecraftEncoderTest {
+
+  private EmbeddedChannel channel;
+  private KeepAlivePacket packet;
+
+  @BeforeEach
+  void setup() {
+    MinecraftEncoder encoder = new MinecraftEncoder(ProtocolUtils.Direction.CLIENTBOUND);
+    encoder.setState(StateRegistry.PLAY);
+    encoder.setProtocolVersion(ProtocolVersion.MAXIMUM_VERSION);
+    channel = new EmbeddedChannel(encoder);
+    packet = new KeepAlivePacket();
+    packet.setRandomId(42);
+  }
+
+  @AfterEach
+  void tearDown() {
+    channel.finishAndReleaseAll();
+  }
+
+  private byte[] encodeDirectly() {
+    channel.writeOutbound(packet);
+    ByteBuf encoded = channel.readOutbound();
+    try {
+      return ByteBufUtil.getBytes(encoded);
+    } finally {
+      encoded.release();
+    }
+  }
+
+  @Test
+  void preEncodedPacketIsPassedThrough() {
+    byte[] expected = encodeDirectly();
+    ByteBuf shared = Unpooled.wrappedBuffer(expected);
+
+    channel.writeOutbound(new PreEncodedPacket(shared.retainedDuplicate(), packet,
+        StateRegistry.PLAY, ProtocolVersion.MAXIMUM_VERSION));
+    ByteBuf written = channel.readOutbound();
+    assertEquals(Unpooled.wrappedBuffer(expected), written);
+    written.release();
+
+    assertEquals(1, shared.refCnt());
+    shared.release();
+  }
+
+  @Test
+  void preEncodedPacketForAnotherVersionIsEncodedAgain() {
+    byte[] expected = encodeDirectly();
+    ByteBuf stale = Unpooled.wrappedBuffer(new byte[] {0x7F});
+
+    channel.writeOutbound(new PreEncodedPacket(stale.retainedDuplicate(), packet,
+        StateRegistry.PLAY, ProtocolVersion.MINIMUM_VERSION));
+    ByteBuf written = channel.readOutbound();
+    assertEquals(Unpooled.wrappedBuffer(expected), written);
+    written.release();
+
+    assertEquals(1, stale.refCnt());
+    stale.release();
+    assertFalse(channel.outboundMessages().iterator().hasNext());
+  }
+}
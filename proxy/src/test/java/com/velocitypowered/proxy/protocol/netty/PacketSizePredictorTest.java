@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.packet.KeepAlivePacket;
+import com.velocitypowered.proxy.protocol.packet.chat.SystemChatPacket;
+import org.junit.jupiter.api.Test;
+
+class PacketSizePredictorTest {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MAXIMUM_VERSION;
+
+  @Test
+  void unknownPacketsUseDefaultSize() {
+    PacketSizePredictor predictor = new PacketSizePredictor();
+    assertEquals(PacketSizePredictor.DEFAULT_SIZE, predictor.predict(KeepAlivePacket.class,
+        VERSION));
+  }
+
+  @Test
+  void growsImmediatelyAndShrinksSlowly() {
+    PacketSizePredictor predictor = new PacketSizePredictor();
+    predictor.record(SystemChatPacket.class, VERSION, 256, 4000);
+    assertEquals(4000, predictor.predict(SystemChatPacket.class, VERSION));
+
+    predictor.record(SystemChatPacket.class, VERSION, 4000, 1000);
+    int shrunk = predictor.predict(SystemChatPacket.class, VERSION);
+    assertTrue(shrunk < 4000 && shrunk > 1000, "prediction should decay gradually");
+
+    // Predictions are kept apart per packet type and per version.
+    assertEquals(PacketSizePredictor.DEFAULT_SIZE, predictor.predict(KeepAlivePacket.class,
+        VERSION));
+    assertEquals(PacketSizePredictor.DEFAULT_SIZE, predictor.predict(SystemChatPacket.class,
+        ProtocolVersion.MINIMUM_VERSION));
+  }
+
+  @Test
+  void countsGrowthOfUndersizedBuffers() {
+    PacketSizePredictor predictor = new PacketSizePredictor();
+    predictor.record(KeepAlivePacket.class, VERSION, 256, 100);
+    assertEquals(0, predictor.getReallocations());
+
+    // 256 -> 512 -> 1024 copies 256 and then 512 bytes.
+    predictor.record(KeepAlivePacket.class, VERSION, 256, 1000);
+    assertEquals(2, predictor.getEncodedPackets());
+    assertEquals(2, predictor.getReallocations());
+    assertEquals(768, predictor.getBytesCopied());
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.packet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.RootCommandNode;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.CorruptedFrameException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class AvailableCommandsPacketTest {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MAXIMUM_VERSION;
+
+  /**
+   * Serializes a graph made of a root node with an executable literal child for each name.
+   */
+  static byte[] literalGraph(final String... names) {
+    ByteBuf buf = Unpooled.buffer();
+    try {
+      ProtocolUtils.writeVarInt(buf, names.length + 1);
+      buf.writeByte(0x00); // root
+      ProtocolUtils.writeVarInt(buf, names.length);
+      for (int i = 0; i < names.length; i++) {
+        ProtocolUtils.writeVarInt(buf, i + 1);
+      }
+      for (String name : names) {
+        buf.writeByte(0x01 | 0x04); // executable literal
+        ProtocolUtils.writeVarInt(buf, 0);
+        ProtocolUtils.writeString(buf, name);
+      }
+      ProtocolUtils.writeVarInt(buf, 0);
+      return ByteBufUtil.getBytes(buf);
+    } finally {
+      buf.release();
+    }
+  }
+
+  private static AvailableCommandsPacket decode(final byte[] graph) {
+    AvailableCommandsPacket packet = new AvailableCommandsPacket();
+    ByteBuf buf = Unpooled.wrappedBuffer(graph);
+    packet.decode(buf, ProtocolUtils.Direction.CLIENTBOUND, VERSION);
+    assertEquals(0, buf.readableBytes());
+    return packet;
+  }
+
+  private static byte[] encode(final AvailableCommandsPacket packet,
+      final ProtocolVersion version) {
+    ByteBuf buf = Unpooled.buffer();
+    try {
+      packet.encode(buf, ProtocolUtils.Direction.CLIENTBOUND, version);
+      return ByteBufUtil.getBytes(buf);
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Test
+  void untouchedGraphIsCopiedVerbatim() {
+    byte[] graph = literalGraph("spawn", "warp");
+    AvailableCommandsPacket packet = decode(graph);
+
+    assertArrayEquals(graph, packet.getEncodedGraph());
+    assertEquals(graph.length,
+        packet.encodeSizeHint(ProtocolUtils.Direction.CLIENTBOUND, VERSION));
+    assertArrayEquals(graph, encode(packet, VERSION));
+  }
+
+  @Test
+  void deserializedGraphIsEncodedAgain() {
+    AvailableCommandsPacket packet = decode(literalGraph("spawn"));
+
+    RootCommandNode<CommandSource> root = packet.getRootNode();
+    assertNull(packet.getEncodedGraph());
+    assertEquals(-1, packet.encodeSizeHint(ProtocolUtils.Direction.CLIENTBOUND, VERSION));
+    root.addChild(LiteralArgumentBuilder.<CommandSource>literal("warp")
+        .executes(context -> 0)
+        .build());
+
+    RootCommandNode<CommandSource> decoded = decode(encode(packet, VERSION)).getRootNode();
+    CommandNode<CommandSource> spawn = decoded.getChild("spawn");
+    assertNotNull(spawn);
+    assertNotNull(spawn.getCommand());
+    assertNotNull(decoded.getChild("warp"));
+    assertEquals(2, decoded.getChildren().size());
+  }
+
+  @Test
+  void encodesForAnotherVersionFromGraph() {
+    byte[] graph = literalGraph("spawn");
+    AvailableCommandsPacket packet = new AvailableCommandsPacket(graph, VERSION);
+
+    byte[] encoded = encode(packet, ProtocolVersion.MINECRAFT_1_19_4);
+    assertNull(packet.getEncodedGraph());
+    assertNotNull(decode(encoded).getRootNode().getChild("spawn"));
+  }
+
+  @Test
+  void truncatedGraphFailsOnFirstUse() {
+    byte[] graph = literalGraph("spawn");
+    AvailableCommandsPacket packet = decode(Arrays.copyOf(graph, graph.length - 3));
+
+    assertThrows(CorruptedFrameException.class, packet::getRootNode);
+    // The failure must not leave a partially built graph behind.
+    assertThrows(CorruptedFrameException.class, packet::getRootNode);
+  }
+
+  @Test
+  void trailingBytesFailOnFirstUse() {
+    byte[] graph = literalGraph("spawn");
+    AvailableCommandsPacket packet = decode(Arrays.copyOf(graph, graph.length + 2));
+
+    assertThrows(CorruptedFrameException.class, packet::getRootNode);
+  }
+
+  @Test
+  void unknownNodeTypeFailsOnFirstUse() {
+    byte[] graph = literalGraph();
+    graph[1] = 0x03;
+    AvailableCommandsPacket packet = decode(graph);
+
+    assertThrows(CorruptedFrameException.class, packet::getRootNode);
+  }
+}
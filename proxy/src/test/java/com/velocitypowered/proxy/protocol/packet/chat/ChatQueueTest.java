@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.packet.chat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChatQueueTest {
+
+  private final List<MinecraftPacket> written = new ArrayList<>();
+  private MinecraftConnection backend;
+  private ChatQueue queue;
+
+  @BeforeEach
+  void setUp() {
+    backend = mock(MinecraftConnection.class);
+    Channel channel = mock(Channel.class);
+    when(channel.isWritable()).thenReturn(true);
+    when(backend.getChannel()).thenReturn(channel);
+    doAnswer(invocation -> written.add(invocation.getArgument(0))).when(backend).delayedWrite(any());
+
+    VelocityServerConnection server = mock(VelocityServerConnection.class);
+    when(server.ensureConnected()).thenReturn(backend);
+    EventLoop eventLoop = mock(EventLoop.class);
+    when(eventLoop.inEventLoop()).thenReturn(true);
+    MinecraftConnection connection = mock(MinecraftConnection.class);
+    when(connection.eventLoop()).thenReturn(eventLoop);
+
+    ConnectedPlayer player = mock(ConnectedPlayer.class);
+    when(player.ensureAndGetCurrentServer()).thenReturn(server);
+    when(player.getConnection()).thenReturn(connection);
+    queue = new ChatQueue(player);
+  }
+
+  @Test
+  void writesPacketsInQueueOrder() {
+    MinecraftPacket first = mock(MinecraftPacket.class);
+    MinecraftPacket second = mock(MinecraftPacket.class);
+    MinecraftPacket third = mock(MinecraftPacket.class);
+    CompletableFuture<MinecraftPacket> pending = new CompletableFuture<>();
+
+    queue.queuePacket(state -> first);
+    queue.queuePacket(lastSeenMessages -> pending, null, null);
+    queue.queuePacket(state -> third);
+    // The third packet waits for the second one to be produced.
+    assertEquals(List.of(first), written);
+
+    pending.complete(second);
+    assertEquals(List.of(first, second, third), written);
+  }
+
+  @Test
+  void keepsDrainingAfterFailedWrite() {
+    MinecraftPacket broken = mock(MinecraftPacket.class);
+    MinecraftPacket next = mock(MinecraftPacket.class);
+    doThrow(new IllegalStateException("broken")).when(backend).delayedWrite(broken);
+
+    queue.queuePacket(state -> broken);
+    queue.queuePacket(state -> next);
+    assertEquals(List.of(next), written);
+  }
+
+  @Test
+  void keepsDrainingAfterFailedWriteOfPendingPacket() {
+    MinecraftPacket broken = mock(MinecraftPacket.class);
+    MinecraftPacket next = mock(MinecraftPacket.class);
+    doThrow(new IllegalStateException("broken")).when(backend).delayedWrite(broken);
+    CompletableFuture<MinecraftPacket> pending = new CompletableFuture<>();
+
+    queue.queuePacket(lastSeenMessages -> pending, null, null);
+    queue.queuePacket(state -> next);
+    pending.complete(broken);
+    assertEquals(List.of(next), written);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class QueueOrderTest {
+
+  private static ServerQueueEntry entry(final int priority) {
+    return new ServerQueueEntry(UUID.randomUUID(), null, null, priority, false);
+  }
+
+  @Test
+  void ordersByPriorityThenInsertion() {
+    QueueOrder order = new QueueOrder();
+    ServerQueueEntry low = entry(0);
+    ServerQueueEntry high = entry(10);
+    ServerQueueEntry lowSecond = entry(0);
+    ServerQueueEntry highSecond = entry(10);
+    order.add(low);
+    order.add(high);
+    order.add(lowSecond);
+    order.add(highSecond);
+
+    assertEquals(List.of(high, highSecond, low, lowSecond), order.snapshot());
+    assertEquals(1, order.position(high.player));
+    assertEquals(4, order.position(lowSecond.player));
+    assertEquals(high, order.first());
+
+    order.remove(high.player);
+    assertEquals(highSecond, order.first());
+    assertEquals(3, order.size());
+    assertEquals(-1, order.position(high.player));
+    assertNull(order.get(high.player));
+  }
+
+  @Test
+  void positionsMatchSnapshot() {
+    QueueOrder order = new QueueOrder();
+    List<ServerQueueEntry> expected = new ArrayList<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      ServerQueueEntry entry = entry(random.nextInt(5));
+      order.add(entry);
+      expected.add(entry);
+      if (random.nextInt(4) == 0) {
+        ServerQueueEntry removed = expected.remove(random.nextInt(expected.size()));
+        order.remove(removed.player);
+      }
+    }
+    // List.sort is stable, so insertion order is kept within a priority.
+    expected.sort(Comparator.comparingInt((ServerQueueEntry e) -> e.priority).reversed());
+
+    assertEquals(expected, order.snapshot());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(i + 1, order.position(expected.get(i).player));
+    }
+  }
+}
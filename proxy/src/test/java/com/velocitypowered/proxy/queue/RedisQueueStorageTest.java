@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.resps.Tuple;
+
+class RedisQueueStorageTest {
+
+  private static ServerQueueEntry entry(final int priority) {
+    return new ServerQueueEntry(UUID.randomUUID(), null, null, priority, false);
+  }
+
+  private static List<UUID> players(final QueueStorage storage) {
+    return storage.snapshot().stream().map(entry -> entry.player).toList();
+  }
+
+  // Computed the same way as the Lua script does, in double precision.
+  private static long score(final int priority, final long sequence) {
+    return (long) (-(double) priority * 4294967296.0 + sequence);
+  }
+
+  @Test
+  void decodesScores() {
+    int[] priorities = {-(1 << 20), -1, 0, 1, 7, 1 << 20};
+    long[] sequences = {1, 2, 123_456_789, (1L << 32) - 1};
+    for (int priority : priorities) {
+      for (long sequence : sequences) {
+        long score = score(priority, sequence);
+        assertEquals(priority, RedisQueueStorage.priority(score));
+        assertEquals(sequence, RedisQueueStorage.sequence(score, priority));
+      }
+    }
+  }
+
+  @Test
+  void scoresSortLikeQueueOrder() {
+    assertTrue(score(10, 5) < score(0, 1));
+    assertTrue(score(0, 1) < score(0, 2));
+    assertTrue(score(0, (1L << 32) - 1) < score(-1, 1));
+  }
+
+  @Test
+  void mirrorFollowsWrites() {
+    FakeCommands redis = new FakeCommands();
+    RedisQueueStorage storage = new RedisQueueStorage(redis, null, null);
+    ServerQueueEntry low = entry(0);
+    ServerQueueEntry high = entry(10);
+    ServerQueueEntry lowSecond = entry(0);
+    storage.add(low);
+    storage.add(high);
+    storage.add(lowSecond);
+    assertEquals(List.of(high.player, low.player, lowSecond.player), players(storage));
+
+    assertSame(low, storage.remove(low.player));
+    assertEquals(List.of(high.player, lowSecond.player), players(storage));
+    assertEquals(redis.players(), players(storage));
+
+    // Refreshing keeps the local entries, and with them their local state.
+    storage.refresh();
+    assertEquals(List.of(high, lowSecond), storage.snapshot());
+  }
+
+  @Test
+  void refreshLoadsWritesOfOtherProxies() {
+    FakeCommands redis = new FakeCommands();
+    RedisQueueStorage master = new RedisQueueStorage(redis, null, null);
+    RedisQueueStorage other = new RedisQueueStorage(redis, null, null);
+    ServerQueueEntry low = entry(0);
+    ServerQueueEntry high = entry(5);
+    high.fullBypass = true;
+    master.add(low);
+    master.add(high);
+    assertTrue(other.isEmpty());
+
+    other.refresh();
+    assertEquals(players(master), players(other));
+    assertEquals(5, other.get(high.player).priority);
+    assertTrue(other.get(high.player).fullBypass);
+
+    master.remove(high.player);
+    other.refresh();
+    assertEquals(List.of(low.player), players(other));
+  }
+
+  @Test
+  void refreshKeepsWriteMadeWhileLoading() {
+    FakeCommands redis = new FakeCommands();
+    RedisQueueStorage storage = new RedisQueueStorage(redis, null, null);
+    ServerQueueEntry first = entry(0);
+    ServerQueueEntry second = entry(0);
+    storage.add(first);
+
+    // The load misses the second entry, which is written before the refresh finishes.
+    redis.afterLoad = () -> storage.add(second);
+    storage.refresh();
+    assertEquals(List.of(first.player, second.player), players(storage));
+
+    redis.afterLoad = () -> { };
+    storage.refresh();
+    assertEquals(redis.players(), players(storage));
+  }
+
+  /**
+   * Stores a queue the same way the Redis scripts do.
+   */
+  private static final class FakeCommands implements RedisQueueStorage.Commands {
+
+    private final Map<String, Tuple> members = new HashMap<>();
+    private final Map<String, String> fullBypass = new HashMap<>();
+    private long sequence;
+    Runnable afterLoad = () -> { };
+
+    @Override
+    public synchronized long add(final UUID player, final int priority, final boolean bypass) {
+      sequence++;
+      members.put(player.toString(), new Tuple(player.toString(), (double) score(priority, sequence)));
+      fullBypass.put(player.toString(), bypass ? "1" : "0");
+      return sequence;
+    }
+
+    @Override
+    public synchronized void remove(final UUID player) {
+      members.remove(player.toString());
+      fullBypass.remove(player.toString());
+    }
+
+    @Override
+    public RedisQueueStorage.Contents load() {
+      RedisQueueStorage.Contents contents;
+      synchronized (this) {
+        contents = new RedisQueueStorage.Contents(sorted(), new HashMap<>(fullBypass));
+      }
+      afterLoad.run();
+      return contents;
+    }
+
+    synchronized List<UUID> players() {
+      return sorted().stream().map(member -> UUID.fromString(member.getElement())).toList();
+    }
+
+    private List<Tuple> sorted() {
+      List<Tuple> sorted = new ArrayList<>(members.values());
+      sorted.sort(Comparator.comparingDouble(Tuple::getScore));
+      return sorted;
+    }
+  }
+}
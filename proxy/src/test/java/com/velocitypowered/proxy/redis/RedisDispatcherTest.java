@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RedisDispatcherTest {
+
+  @Test
+  void keepsOrderForEqualKeys() throws InterruptedException {
+    RedisDispatcher dispatcher = new RedisDispatcher(4);
+    UUID player = UUID.randomUUID();
+    List<Integer> handled = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      final int index = i;
+      dispatcher.dispatch(player, () -> handled.add(index));
+    }
+
+    assertTrue(dispatcher.shutdown(5, TimeUnit.SECONDS));
+    assertEquals(1000, handled.size());
+    for (int i = 0; i < handled.size(); i++) {
+      assertEquals(i, handled.get(i));
+    }
+    assertEquals(1000, dispatcher.getDispatchedPackets());
+  }
+
+  @Test
+  void slowHandlerOnlyBlocksItsShard() throws InterruptedException {
+    RedisDispatcher dispatcher = new RedisDispatcher(2);
+    Object blockedKey = 0;
+    Object freeKey = 1;
+    assertTrue(dispatcher.shardIndex(blockedKey) != dispatcher.shardIndex(freeKey));
+
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch handled = new CountDownLatch(1);
+    dispatcher.dispatch(blockedKey, () -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    dispatcher.dispatch(blockedKey, () -> { });
+    dispatcher.dispatch(freeKey, handled::countDown);
+
+    assertTrue(handled.await(5, TimeUnit.SECONDS));
+    assertEquals(1, dispatcher.getQueuedPackets());
+
+    release.countDown();
+    assertTrue(dispatcher.shutdown(5, TimeUnit.SECONDS));
+    assertEquals(0, dispatcher.getQueuedPackets());
+    assertEquals(0, dispatcher.getCurrentLagMillis());
+  }
+
+  @Test
+  void barrierWaitsForEveryShard() throws InterruptedException {
+    RedisDispatcher dispatcher = new RedisDispatcher(4);
+    List<String> handled = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch release = new CountDownLatch(1);
+    dispatcher.dispatch(0, () -> {
+      Uninterruptibles.awaitUninterruptibly(release);
+      handled.add("before");
+    });
+    dispatcher.dispatchBarrier(() -> handled.add("barrier"));
+    for (int key = 0; key < 8; key++) {
+      dispatcher.dispatch(key, () -> handled.add("after"));
+    }
+
+    // Give the other shards a chance to run ahead if the barrier did not hold them back.
+    Thread.sleep(100);
+    assertTrue(handled.isEmpty());
+    release.countDown();
+
+    assertTrue(dispatcher.shutdown(5, TimeUnit.SECONDS));
+    assertEquals(10, handled.size());
+    assertEquals("before", handled.get(0));
+    assertEquals("barrier", handled.get(1));
+    assertEquals(8, Collections.frequency(handled, "after"));
+  }
+}
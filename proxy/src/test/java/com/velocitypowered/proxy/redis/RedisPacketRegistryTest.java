@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.queue.QueueDisplayState;
+import com.velocitypowered.proxy.redis.multiproxy.RedisPlayerServerChange;
+import com.velocitypowered.proxy.redis.multiproxy.RedisProxyHeartbeat;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueAddRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisQueueStatusBatch;
+import com.velocitypowered.proxy.redis.multiproxy.RedisSendActionBarRequest;
+import com.velocitypowered.proxy.redis.multiproxy.RedisTransferCommandRequest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.List;
+import java.util.UUID;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Test;
+
+class RedisPacketRegistryTest {
+
+  private static RedisPacket roundtrip(final RedisPacket packet) {
+    ByteBuf buf = Unpooled.wrappedBuffer(RedisPacketRegistry.encode(packet));
+    RedisPacketRegistry.Entry<?> entry = RedisPacketRegistry.readHeader(buf);
+    assertNotNull(entry);
+    assertEquals(packet.getId(), entry.id());
+    RedisPacket decoded = entry.codec().decode(buf);
+    assertEquals(0, buf.readableBytes(), "Codec left unread bytes");
+    return decoded;
+  }
+
+  @Test
+  void roundtripsPackets() {
+    RedisQueueAddRequest add = new RedisQueueAddRequest(UUID.randomUUID(), "lobby", 300, true,
+        false);
+    assertEquals(add, roundtrip(add));
+
+    RedisPlayerServerChange change = new RedisPlayerServerChange("proxy-1", UUID.randomUUID(),
+        null);
+    assertEquals(change, roundtrip(change));
+
+    RedisTransferCommandRequest transfer = new RedisTransferCommandRequest(null, "Notch",
+        "proxy-2", "127.0.0.1", 25577);
+    assertEquals(transfer, roundtrip(transfer));
+
+    RedisProxyHeartbeat heartbeat = new RedisProxyHeartbeat("proxy-3", 1200, 0.25, 4);
+    assertEquals(heartbeat, roundtrip(heartbeat));
+  }
+
+  @Test
+  void ignoresUnknownWireVersion() {
+    byte[] message = RedisPacketRegistry.encode(new RedisPlayerServerChange("proxy-1",
+        UUID.randomUUID(), "lobby"));
+    message[0] = (byte) (RedisPacketRegistry.WIRE_VERSION + 1);
+    assertNull(RedisPacketRegistry.readHeader(Unpooled.wrappedBuffer(message)));
+  }
+
+  @Test
+  void roundtripsActionBarRequest() {
+    Component component = Component.translatable("velocity.queue.player-status.offline",
+        NamedTextColor.YELLOW, Component.text("lobby"));
+    RedisSendActionBarRequest request = new RedisSendActionBarRequest(UUID.randomUUID(),
+        component);
+    RedisSendActionBarRequest decoded = (RedisSendActionBarRequest) roundtrip(request);
+    assertEquals(request, decoded);
+    assertEquals(component, decoded.component());
+  }
+
+  @Test
+  void roundtripsQueueStatusBatch() {
+    RedisQueueStatusBatch batch = new RedisQueueStatusBatch("proxy-1", List.of(
+        new RedisQueueStatusBatch.Section("lobby", 3, 2, List.of(
+            new RedisQueueStatusBatch.Status(UUID.randomUUID(), 1, QueueDisplayState.ONLINE),
+            new RedisQueueStatusBatch.Status(UUID.randomUUID(), 2, QueueDisplayState.FULL),
+            new RedisQueueStatusBatch.Status(UUID.randomUUID(), 300, QueueDisplayState.PAUSED))),
+        new RedisQueueStatusBatch.Section("survival", 1, 0, List.of(
+            new RedisQueueStatusBatch.Status(UUID.randomUUID(), 1,
+                QueueDisplayState.OFFLINE)))));
+    assertEquals(batch, roundtrip(batch));
+
+    RedisQueueStatusBatch empty = new RedisQueueStatusBatch("proxy-2", List.of());
+    assertEquals(empty, roundtrip(empty));
+  }
+
+  @Test
+  void ignoresUnknownPacketId() {
+    ByteBuf buf = Unpooled.buffer();
+    buf.writeByte(RedisPacketRegistry.WIRE_VERSION);
+    ProtocolUtils.writeVarInt(buf, 0x7FFF);
+    assertNull(RedisPacketRegistry.readHeader(buf));
+  }
+
+  @Test
+  void looksUpPacketsByStringId() {
+    RedisPacketRegistry.Entry<?> entry = RedisPacketRegistry.byId(RedisQueueStatusBatch.ID);
+    assertNotNull(entry);
+    assertSame(RedisQueueStatusBatch.class, entry.clazz());
+    assertNull(RedisPacketRegistry.byId("redis-packet-from-the-future"));
+  }
+}
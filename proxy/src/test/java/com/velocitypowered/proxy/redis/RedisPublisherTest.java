@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+
+class RedisPublisherTest {
+
+  @Test
+  void flushesPartialBatchOnShutdown() throws InterruptedException {
+    List<byte[]> received = new CopyOnWriteArrayList<>();
+    // A long latency keeps the publisher waiting for the batch to fill up when it is shut down.
+    RedisPublisher publisher = new RedisPublisher(() -> new RecordingJedis(received), 16, 16,
+        1, TimeUnit.MINUTES);
+    publisher.start();
+
+    byte[] payload = "shutting down".getBytes(StandardCharsets.UTF_8);
+    assertTrue(publisher.publish("channel".getBytes(StandardCharsets.UTF_8), payload));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (publisher.getQueuedMessages() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(0, publisher.getQueuedMessages());
+
+    assertTrue(publisher.shutdown(5, TimeUnit.SECONDS));
+    assertEquals(1, received.size());
+    assertArrayEquals(payload, received.get(0));
+    assertEquals(1, publisher.getPublishedMessages());
+    assertEquals(0, publisher.getFailedMessages());
+  }
+
+  private static final class RecordingJedis extends Jedis {
+
+    private final List<byte[]> received;
+
+    private RecordingJedis(final List<byte[]> received) {
+      this.received = received;
+    }
+
+    @Override
+    public String ping() {
+      return "PONG";
+    }
+
+    @Override
+    public long publish(final byte[] channel, final byte[] message) {
+      received.add(message);
+      return 1;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
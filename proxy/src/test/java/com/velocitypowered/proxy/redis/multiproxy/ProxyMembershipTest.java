@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis.multiproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class ProxyMembershipTest {
+
+  @Test
+  void tracksHeartbeats() {
+    AtomicLong time = new AtomicLong();
+    ProxyMembership membership = new ProxyMembership(time::get);
+
+    assertTrue(membership.heartbeat(new RedisProxyHeartbeat("b", 10, 0.5, 1)));
+    assertTrue(membership.touch("a"));
+    assertFalse(membership.touch("b"));
+    assertFalse(membership.heartbeat(new RedisProxyHeartbeat("a", 20, 0.1, 2)));
+    assertEquals(List.of("a", "b"), membership.ids());
+    assertEquals(20, membership.get("a").playerCount());
+
+    time.set(100);
+    membership.heartbeat(new RedisProxyHeartbeat("a", 21, 0.1, 2));
+    assertEquals(List.of("b"), membership.expired(50));
+
+    assertTrue(membership.remove("b"));
+    assertFalse(membership.remove("b"));
+    assertEquals(List.of("a"), membership.ids());
+    assertNull(membership.get("b"));
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.redis.multiproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.proxy.redis.multiproxy.MultiProxyHandler.RemotePlayerInfo;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RemotePlayerDirectoryTest {
+
+  private RemotePlayerDirectory directory;
+
+  @BeforeEach
+  void setup() {
+    directory = new RemotePlayerDirectory();
+  }
+
+  private static RemotePlayerInfo player(final String proxyId, final String name,
+      final String serverName) {
+    RemotePlayerInfo info = new RemotePlayerInfo(proxyId, UUID.randomUUID(), name, Map.of(),
+        false);
+    info.setServerName(serverName);
+    return info;
+  }
+
+  @Test
+  void indexesJoiningPlayers() {
+    RemotePlayerInfo alice = player("proxy-1", "Alice", "lobby");
+    RemotePlayerInfo bob = player("proxy-2", "Bob", null);
+
+    assertNull(directory.add(alice));
+    assertNull(directory.add(bob));
+
+    assertEquals(2, directory.size());
+    assertSame(alice, directory.get(alice.getUuid()));
+    assertSame(alice, directory.get("alice"));
+    assertEquals(Set.of(alice), Set.copyOf(directory.onProxy("PROXY-1")));
+    assertEquals(Set.of(bob), Set.copyOf(directory.onProxy("proxy-2")));
+    assertEquals(Set.of(alice), Set.copyOf(directory.onServer("Lobby")));
+    assertEquals(1, directory.countOnServer("lobby"));
+    assertEquals(0, directory.countOnServer(""));
+  }
+
+  @Test
+  void rejoinReplacesPreviousEntry() {
+    RemotePlayerInfo first = player("proxy-1", "Alice", "lobby");
+    directory.add(first);
+    RemotePlayerInfo second = new RemotePlayerInfo("proxy-2", first.getUuid(), "Alice",
+        Map.of(), false);
+
+    assertSame(first, directory.add(second));
+    assertEquals(1, directory.size());
+    assertSame(second, directory.get("Alice"));
+    assertEquals(0, directory.countOnProxy("proxy-1"));
+    assertEquals(1, directory.countOnProxy("proxy-2"));
+    assertEquals(0, directory.countOnServer("lobby"));
+  }
+
+  @Test
+  void removesLeavingPlayers() {
+    RemotePlayerInfo alice = player("proxy-1", "Alice", "lobby");
+    RemotePlayerInfo bob = player("proxy-1", "Bob", "lobby");
+    directory.add(alice);
+    directory.add(bob);
+
+    assertSame(alice, directory.remove(alice.getUuid()));
+    assertNull(directory.remove(alice.getUuid()));
+
+    assertEquals(1, directory.size());
+    assertNull(directory.get(alice.getUuid()));
+    assertNull(directory.get("Alice"));
+    assertEquals(Set.of(bob), Set.copyOf(directory.onProxy("proxy-1")));
+    assertEquals(Set.of(bob), Set.copyOf(directory.onServer("lobby")));
+
+    directory.remove(bob.getUuid());
+    assertEquals(0, directory.countOnProxy("proxy-1"));
+    assertTrue(directory.onServer("lobby").isEmpty());
+  }
+
+  @Test
+  void movesSwitchingPlayersBetweenServers() {
+    RemotePlayerInfo alice = player("proxy-1", "Alice", "lobby");
+    directory.add(alice);
+
+    directory.updateServer(alice.getUuid(), "survival");
+    assertEquals("survival", alice.getServerName());
+    assertEquals(0, directory.countOnServer("lobby"));
+    assertEquals(Set.of(alice), Set.copyOf(directory.onServer("survival")));
+
+    directory.updateServer(alice.getUuid(), null);
+    assertEquals("", alice.getServerName());
+    assertEquals(0, directory.countOnServer("survival"));
+    assertEquals(1, directory.countOnProxy("proxy-1"));
+
+    // Leaving must unindex the server the player is on now, not the one they joined on.
+    directory.updateServer(alice.getUuid(), "creative");
+    directory.remove(alice.getUuid());
+    assertEquals(0, directory.countOnServer("creative"));
+    assertEquals(0, directory.countOnServer("lobby"));
+  }
+
+  @Test
+  void ignoresSwitchForUnknownPlayer() {
+    directory.updateServer(UUID.randomUUID(), "lobby");
+    assertEquals(0, directory.size());
+    assertEquals(0, directory.countOnServer("lobby"));
+  }
+
+  @Test
+  void removesAllPlayersOfShutDownProxy() {
+    RemotePlayerInfo alice = player("proxy-1", "Alice", "lobby");
+    RemotePlayerInfo bob = player("proxy-1", "Bob", "survival");
+    RemotePlayerInfo carol = player("proxy-2", "Carol", "lobby");
+    directory.add(alice);
+    directory.add(bob);
+    directory.add(carol);
+
+    directory.removeProxy("Proxy-1");
+
+    assertEquals(1, directory.size());
+    assertEquals(0, directory.countOnProxy("proxy-1"));
+    assertNull(directory.get("Alice"));
+    assertNull(directory.get(bob.getUuid()));
+    assertEquals(Set.of(carol), Set.copyOf(directory.onServer("lobby")));
+    assertEquals(0, directory.countOnServer("survival"));
+    assertSame(carol, directory.get("carol"));
+
+    directory.removeProxy("proxy-3");
+    assertEquals(1, directory.size());
+  }
+}
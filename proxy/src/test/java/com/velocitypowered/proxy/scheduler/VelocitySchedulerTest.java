@@ -18,15 +18,26 @@
 package com.velocitypowered.proxy.scheduler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.scheduler.ScheduledTask;
 import com.velocitypowered.api.scheduler.TaskStatus;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.scheduler.VelocityScheduler.VelocityTask;
 import com.velocitypowered.proxy.testutil.FakePluginManager;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
 import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 
@@ -133,4 +144,112 @@ class VelocitySchedulerTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  void repeatTaskDoesNotDrift() throws Exception {
+    VelocityScheduler scheduler = new VelocityScheduler(new FakePluginManager());
+    int runs = 100;
+    long period = 10;
+    CountDownLatch latch = new CountDownLatch(runs);
+    AtomicLong lastRun = new AtomicLong();
+    long start = System.nanoTime();
+    ScheduledTask task = scheduler.buildTask(FakePluginManager.PLUGIN_A, () -> {
+      if (latch.getCount() == 1) {
+        lastRun.set(System.nanoTime());
+      }
+      latch.countDown();
+    })
+        .delay(period, TimeUnit.MILLISECONDS)
+        .repeat(period, TimeUnit.MILLISECONDS)
+        .schedule();
+    latch.await();
+    task.cancel();
+
+    // Rescheduling from when each run actually fired would add up to a tick of lateness per
+    // run, several hundred milliseconds over this many runs.
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(lastRun.get() - start);
+    long expected = runs * period;
+    assertTrue(elapsed >= expected - period, "Task ran early: " + elapsed + "ms");
+    assertTrue(elapsed < expected + 100, "Task drifted: " + elapsed + "ms");
+  }
+
+  private static ConnectedPlayer playerOn(final EventLoop eventLoop) {
+    MinecraftConnection connection = mock(MinecraftConnection.class);
+    when(connection.eventLoop()).thenReturn(eventLoop);
+    ConnectedPlayer player = mock(ConnectedPlayer.class);
+    when(player.getConnection()).thenReturn(connection);
+    return player;
+  }
+
+  @Test
+  void onEventLoopRunsOnPlayerEventLoop() throws Exception {
+    VelocityScheduler scheduler = new VelocityScheduler(new FakePluginManager());
+    EventLoop eventLoop = new DefaultEventLoop();
+    try {
+      CountDownLatch latch = new CountDownLatch(2);
+      AtomicBoolean onEventLoop = new AtomicBoolean(true);
+      Runnable check = () -> {
+        onEventLoop.compareAndSet(true, eventLoop.inEventLoop());
+        latch.countDown();
+      };
+
+      ScheduledTask immediate = scheduler.buildTask(FakePluginManager.PLUGIN_A, check)
+          .onEventLoop(playerOn(eventLoop))
+          .schedule();
+      ScheduledTask delayed = scheduler.buildTask(FakePluginManager.PLUGIN_A, check)
+          .delay(20, TimeUnit.MILLISECONDS)
+          .onEventLoop(playerOn(eventLoop))
+          .schedule();
+      latch.await();
+      ((VelocityTask) immediate).awaitCompletion();
+      ((VelocityTask) delayed).awaitCompletion();
+
+      assertTrue(onEventLoop.get());
+      assertEquals(TaskStatus.FINISHED, immediate.status());
+      assertEquals(TaskStatus.FINISHED, delayed.status());
+    } finally {
+      eventLoop.shutdownGracefully();
+    }
+  }
+
+  @Test
+  void onEventLoopCancelDoesNotInterruptEventLoop() throws Exception {
+    VelocityScheduler scheduler = new VelocityScheduler(new FakePluginManager());
+    EventLoop eventLoop = new DefaultEventLoop();
+    try {
+      CountDownLatch running = new CountDownLatch(1);
+      CountDownLatch cancelled = new CountDownLatch(1);
+      AtomicBoolean interrupted = new AtomicBoolean();
+      ScheduledTask task = scheduler.buildTask(FakePluginManager.PLUGIN_A, () -> {
+        running.countDown();
+        try {
+          cancelled.await();
+        } catch (InterruptedException e) {
+          interrupted.set(true);
+        }
+      }).onEventLoop(playerOn(eventLoop)).schedule();
+
+      running.await();
+      task.cancel();
+      cancelled.countDown();
+      ((VelocityTask) task).awaitCompletion();
+      eventLoop.submit(() -> { }).sync();
+
+      assertFalse(interrupted.get());
+      assertEquals(TaskStatus.CANCELLED, task.status());
+    } finally {
+      eventLoop.shutdownGracefully();
+    }
+  }
+
+  @Test
+  void onEventLoopFallsBackForUnknownPlayer() throws Exception {
+    VelocityScheduler scheduler = new VelocityScheduler(new FakePluginManager());
+    CountDownLatch latch = new CountDownLatch(1);
+    ScheduledTask task = scheduler.buildTask(FakePluginManager.PLUGIN_A, latch::countDown)
+        .onEventLoop(mock(Player.class))
+        .schedule();
+    latch.await();
+    ((VelocityTask) task).awaitCompletion();
+    assertEquals(TaskStatus.FINISHED, task.status());
+  }
+}
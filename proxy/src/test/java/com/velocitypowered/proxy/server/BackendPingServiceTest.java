@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.api.proxy.server.PingOptions;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.Test;
+
+class BackendPingServiceTest {
+
+  private static final ServerPing PING = new ServerPing(new ServerPing.Version(1, "test"),
+      new ServerPing.Players(5, 10, List.of()), Component.empty(), null, null);
+
+  @Test
+  void sharesPingsWithinTtl() {
+    AtomicLong time = new AtomicLong();
+    List<CompletableFuture<ServerPing>> started = new ArrayList<>();
+    BackendPingService service = new BackendPingService(() -> 1000, (target, options) -> {
+      CompletableFuture<ServerPing> future = new CompletableFuture<>();
+      started.add(future);
+      return future;
+    }, time::get);
+    List<BackendPingService.Health> updates = new ArrayList<>();
+    service.addListener(updates::add);
+    VelocityRegisteredServer lobby = new VelocityRegisteredServer(null,
+        new ServerInfo("lobby", InetSocketAddress.createUnresolved("localhost", 25565)));
+
+    CompletableFuture<ServerPing> first = service.ping(lobby, PingOptions.DEFAULT);
+    CompletableFuture<ServerPing> second = service.ping(lobby, PingOptions.DEFAULT);
+    assertEquals(1, started.size());
+
+    time.set(TimeUnit.MILLISECONDS.toNanos(20));
+    started.get(0).complete(PING);
+    assertEquals(PING, first.join());
+    assertEquals(PING, second.join());
+    assertEquals(1, updates.size());
+    BackendPingService.Health health = service.getHealth("lobby");
+    assertNotNull(health);
+    assertTrue(health.online());
+    assertEquals(20, health.latencyMillis());
+    assertEquals(5, health.playerCount());
+
+    time.set(TimeUnit.MILLISECONDS.toNanos(500));
+    assertEquals(PING, service.ping(lobby, PingOptions.DEFAULT).join());
+    assertEquals(1, started.size());
+
+    time.set(TimeUnit.MILLISECONDS.toNanos(1500));
+    CompletableFuture<ServerPing> expired = service.ping(lobby, PingOptions.DEFAULT);
+    assertEquals(2, started.size());
+    started.get(1).completeExceptionally(new RuntimeException("offline"));
+    assertTrue(expired.isCompletedExceptionally());
+    assertFalse(service.getHealth("lobby").online());
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server.selection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import java.net.InetSocketAddress;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ServerSelectionTypeTest {
+
+  private static final UUID PLAYER = UUID.fromString("6a2ef3a4-6e37-4d4f-8a3c-2f4e1c9b7d10");
+
+  private static VelocityRegisteredServer server(final String name) {
+    return new VelocityRegisteredServer(null,
+        new ServerInfo(name, InetSocketAddress.createUnresolved("localhost", 25565)));
+  }
+
+  private static ServerCandidates candidates(final int[] loads, final int[] weights) {
+    ServerCandidates candidates = new ServerCandidates();
+    for (int i = 0; i < loads.length; i++) {
+      candidates.add(server("server-" + i), i, loads[i], weights[i], false);
+    }
+    return candidates;
+  }
+
+  @Test
+  void picksByPopulation() {
+    ServerCandidates candidates = candidates(new int[] {5, 2, 9, 2}, new int[] {10, 10, 10, 10});
+    assertEquals(0, ServerSelectionType.FIRST_AVAILABLE.select(candidates, PLAYER));
+    assertEquals(1, ServerSelectionType.LEAST_POPULATED.select(candidates, PLAYER));
+    assertEquals(2, ServerSelectionType.MOST_POPULATED.select(candidates, PLAYER));
+  }
+
+  @Test
+  void weightsLoadByCapacity() {
+    // 40/100 is less loaded than 10/20, even though it has more players.
+    ServerCandidates candidates = candidates(new int[] {10, 40}, new int[] {20, 100});
+    assertEquals(0, ServerSelectionType.LEAST_POPULATED.select(candidates, PLAYER));
+    assertEquals(1, ServerSelectionType.WEIGHTED_LEAST_CONNECTIONS.select(candidates, PLAYER));
+    for (int i = 0; i < 100; i++) {
+      assertEquals(1, ServerSelectionType.POWER_OF_TWO_CHOICES.select(candidates, PLAYER));
+    }
+  }
+
+  @Test
+  void consistentHashOnlyMovesPlayersOfRemovedServers() {
+    int[] loads = new int[8];
+    int[] weights = {10, 10, 10, 10, 10, 10, 10, 10};
+    ServerCandidates all = candidates(loads, weights);
+    for (int i = 0; i < 200; i++) {
+      UUID player = new UUID(i * 31L, i);
+      int selected = ServerSelectionType.CONSISTENT_HASH.select(all, player);
+      assertEquals(selected, ServerSelectionType.CONSISTENT_HASH.select(all, player));
+
+      ServerCandidates remaining = new ServerCandidates();
+      for (int j = 0; j < all.size(); j++) {
+        if (j != (selected + 1) % all.size()) {
+          remaining.add(all.server(j), j, 0, 10, false);
+        }
+      }
+      int kept = ServerSelectionType.CONSISTENT_HASH.select(remaining, player);
+      assertEquals(selected, remaining.position(kept));
+    }
+  }
+
+  @Test
+  void skipsOfflineServersUnlessAllAre() {
+    ServerCandidates candidates = new ServerCandidates();
+    candidates.add(server("a"), 0, 0, 10, true);
+    candidates.add(server("b"), 1, 5, 10, false);
+    candidates.retainOnline();
+    assertEquals(1, candidates.size());
+    assertEquals(1, candidates.position(0));
+
+    candidates.clear();
+    candidates.add(server("a"), 0, 0, 10, true);
+    candidates.retainOnline();
+    assertEquals(1, candidates.size());
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.tablist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.player.TabListEntry;
+import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.protocol.packet.RemovePlayerInfoPacket;
+import com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket;
+import com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket.Action;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VelocityTabListTest {
+
+  private static final String FLUSH = "flush";
+
+  // Every packet sent to the player, with FLUSH marking each flush.
+  private final List<Object> sent = new ArrayList<>();
+  private VelocityTabList tabList;
+
+  @BeforeEach
+  void setUp() {
+    MinecraftConnection connection = mock(MinecraftConnection.class);
+    doAnswer(invocation -> {
+      sent.add(invocation.getArgument(0));
+      return null;
+    }).when(connection).write(any());
+    doAnswer(invocation -> sent.add(invocation.getArgument(0))).when(connection).delayedWrite(any());
+    doAnswer(invocation -> sent.add(FLUSH)).when(connection).flush();
+
+    ConnectedPlayer player = mock(ConnectedPlayer.class);
+    when(player.getConnection()).thenReturn(connection);
+    when(player.getProtocolVersion()).thenReturn(ProtocolVersion.MINECRAFT_1_21_4);
+    tabList = new VelocityTabList(player);
+  }
+
+  private TabListEntry entry(final String name) {
+    return tabList.buildEntry(new GameProfile(UUID.randomUUID(), name, List.of()), null, 0, 0,
+        null, true, 0);
+  }
+
+  private static UpsertPlayerInfoPacket upsert(final Object packet) {
+    return assertInstanceOf(UpsertPlayerInfoPacket.class, packet);
+  }
+
+  @Test
+  void addThenRemoveInOneBatchOnlyRemoves() {
+    TabListEntry entry = entry("first");
+    tabList.batch(() -> {
+      tabList.addEntry(entry);
+      tabList.removeEntry(entry.getProfile().getId());
+    });
+
+    assertEquals(2, sent.size());
+    RemovePlayerInfoPacket remove = assertInstanceOf(RemovePlayerInfoPacket.class, sent.get(0));
+    assertEquals(List.of(entry.getProfile().getId()), List.copyOf(remove.getProfilesToRemove()));
+    assertEquals(FLUSH, sent.get(1));
+    assertFalse(tabList.containsEntry(entry.getProfile().getId()));
+  }
+
+  @Test
+  void updateAfterAddIsFoldedIntoTheAdd() {
+    TabListEntry entry = entry("first");
+    tabList.batch(() -> {
+      tabList.addEntry(entry);
+      entry.setLatency(50);
+      entry.setGameMode(3);
+    });
+
+    assertEquals(2, sent.size());
+    UpsertPlayerInfoPacket packet = upsert(sent.get(0));
+    assertEquals(EnumSet.of(Action.ADD_PLAYER, Action.UPDATE_LATENCY, Action.UPDATE_LISTED,
+        Action.UPDATE_GAME_MODE), packet.getActions());
+    assertEquals(1, packet.getEntries().size());
+    UpsertPlayerInfoPacket.Entry sentEntry = packet.getEntries().get(0);
+    assertEquals(entry.getProfile(), sentEntry.getProfile());
+    assertEquals(50, sentEntry.getLatency());
+    assertEquals(3, sentEntry.getGameMode());
+    assertEquals(FLUSH, sent.get(1));
+  }
+
+  @Test
+  void batchesAreSentInCommitOrder() {
+    TabListEntry first = entry("first");
+    TabListEntry second = entry("second");
+    tabList.batch(() -> tabList.addEntry(first));
+    tabList.batch(() -> {
+      tabList.removeEntry(first.getProfile().getId());
+      tabList.addEntry(second);
+    });
+
+    assertEquals(5, sent.size());
+    assertEquals(first.getProfile().getId(), upsert(sent.get(0)).getEntries().get(0).getProfileId());
+    assertEquals(FLUSH, sent.get(1));
+    RemovePlayerInfoPacket remove = assertInstanceOf(RemovePlayerInfoPacket.class, sent.get(2));
+    assertEquals(List.of(first.getProfile().getId()), List.copyOf(remove.getProfilesToRemove()));
+    assertEquals(second.getProfile().getId(), upsert(sent.get(3)).getEntries().get(0).getProfileId());
+    assertEquals(FLUSH, sent.get(4));
+  }
+
+  @Test
+  void nestedBatchIsSentByOutermostCommit() {
+    TabListEntry entry = entry("first");
+    tabList.beginBatch();
+    tabList.batch(() -> tabList.addEntry(entry));
+    assertEquals(List.of(), sent);
+
+    tabList.commitBatch();
+    assertEquals(2, sent.size());
+    upsert(sent.get(0));
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.transfer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.velocitypowered.proxy.config.ProxyAddress;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProxyTransferPlannerTest {
+
+  private static final ProxyAddress FIRST = new ProxyAddress("first", "127.0.0.1", 25565);
+  private static final ProxyAddress SECOND = new ProxyAddress("second", "127.0.0.1", 25566);
+
+  private static TransferTargets targets(final int firstLoad, final int firstCapacity,
+      final int secondLoad, final int secondCapacity) {
+    TransferTargets targets = new TransferTargets(0.1);
+    targets.add(FIRST, firstLoad, firstCapacity);
+    targets.add(SECOND, secondLoad, secondCapacity);
+    return targets;
+  }
+
+  @Test
+  void spreadsBatchOverTargets() {
+    List<ProxyAddress> plan = ProxyTransferPlanner.plan(targets(10, 100, 0, 100),
+        ProxyTransferType.MOST_EMPTY, 30);
+    assertEquals(10, Collections.frequency(plan, FIRST));
+    assertEquals(20, Collections.frequency(plan, SECOND));
+  }
+
+  @Test
+  void weightsByCapacity() {
+    List<ProxyAddress> plan = ProxyTransferPlanner.plan(targets(0, 100, 0, 300),
+        ProxyTransferType.WEIGHTED, 40);
+    assertEquals(10, Collections.frequency(plan, FIRST));
+    assertEquals(30, Collections.frequency(plan, SECOND));
+  }
+
+  @Test
+  void keepsHeadroom() {
+    // Each proxy has room for 9 more players before reaching 90% of its capacity.
+    List<ProxyAddress> plan = ProxyTransferPlanner.plan(targets(0, 10, 0, 10),
+        ProxyTransferType.CAPACITY_AWARE, 20);
+    assertEquals(9, Collections.frequency(plan, FIRST));
+    assertEquals(9, Collections.frequency(plan, SECOND));
+    assertEquals(2, Collections.frequency(plan, null));
+  }
+
+  @Test
+  void noneDisconnectsEveryone() {
+    List<ProxyAddress> plan = ProxyTransferPlanner.plan(targets(0, 10, 0, 10),
+        ProxyTransferType.NONE, 3);
+    assertEquals(3, Collections.frequency(plan, null));
+    assertNull(ProxyTransferPlanner.plan(new TransferTargets(0), ProxyTransferType.FIRST_FOUND, 1)
+        .get(0));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class StripedTokenBucketRatelimiterTest {
+
+  private final long base = System.nanoTime();
+  private final AtomicLong extra = new AtomicLong();
+  private final Ticker testTicker = () -> base + extra.get();
+
+  private Ratelimiter create(final int burst, final int capacity) {
+    return new StripedTokenBucketRatelimiter(1000, TimeUnit.MILLISECONDS, burst, capacity,
+        testTicker);
+  }
+
+  @Test
+  void attemptOne() {
+    Ratelimiter ratelimiter = create(1, StripedTokenBucketRatelimiter.DEFAULT_CAPACITY);
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    assertFalse(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    extra.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+    assertFalse(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    extra.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+  }
+
+  @Test
+  void burstRefillsOneTokenPerInterval() {
+    Ratelimiter ratelimiter = create(3, StripedTokenBucketRatelimiter.DEFAULT_CAPACITY);
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    assertFalse(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+
+    extra.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    assertFalse(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+
+    extra.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    assertFalse(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+  }
+
+  @Test
+  void ipv6AddressesShareTheirPrefix() throws UnknownHostException {
+    Ratelimiter ratelimiter = create(1, StripedTokenBucketRatelimiter.DEFAULT_CAPACITY);
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("2001:db8:1:2::1")));
+    assertFalse(ratelimiter.attempt(InetAddress.getByName("2001:db8:1:2:ffff::7")));
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("2001:db8:1:3::1")));
+  }
+
+  @Test
+  void fullTableLetsNewAddressesThrough() throws UnknownHostException {
+    Ratelimiter ratelimiter = create(1, 512);
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(ratelimiter.attempt(InetAddress.getByAddress(
+          new byte[] {10, (byte) (i >> 16), (byte) (i >> 8), (byte) i})));
+    }
+  }
+
+}